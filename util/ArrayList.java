@@ -52,6 +52,22 @@ public class ArrayList extends AbstractList implements Collection
    */
   protected int capacityIncrement;
 
+  /**
+   * The counter of the growths of the internal array of this ArrayList, or
+   * <tt>null</tt> if its statistics are disabled (the default).
+   */
+  private ContainerStats.Counter _counter;
+
+  /**
+   * The number of elements of an array or ArrayList given to
+   * <tt>containsAll</tt>, <tt>removeAll</tt>, <tt>removeAllFirst</tt>, or
+   * <tt>retainAll</tt>, above which the elements to look up are put in a
+   * hash table rather than searched for linearly. Above it, these methods
+   * therefore rely on the elements' <tt>hashCode</tt> being consistent
+   * with their <tt>equals</tt>, as required by <tt>Object</tt>.
+   */
+  public final static int HASH_THRESHOLD = 16;
+
   // CONSTRUCTORS:
 
   /**
@@ -176,12 +192,17 @@ public class ArrayList extends AbstractList implements Collection
       if (_elementData.length >= minCapacity)
 	return;
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       Object[] newArray = new Object[Math.max(minCapacity,_increasedCapacity())];
 
       for (int i=0; i<_elementData.length; i++)
 	newArray[i] = _elementData[i];
 
       _elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -211,6 +232,32 @@ public class ArrayList extends AbstractList implements Collection
       return _elementData.length;
     }
 
+  /**
+   * Enables or disables the counting of the growths of the internal array
+   * of this ArrayList, and of the time they take, as reported by
+   * <tt>stats()</tt>. Enabling them again keeps the counts so far;
+   * disabling them drops the counts.
+   *
+   * @param     enabled whether growths are to be counted
+   */
+  public final void setStatsEnabled (boolean enabled)
+    {
+      if (!enabled)
+        _counter = null;
+      else if (_counter == null)
+        _counter = new ContainerStats.Counter();
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this ArrayList: its size, its
+   * capacity and how much of it is unused, and, if statistics are enabled,
+   * how many times its internal array grew and how long that took.
+   */
+  public final ContainerStats stats ()
+    {
+      return new ContainerStats(_size,_elementData.length,_elementData.length-_size,_counter,null);
+    }
+
   /**
    * Returns the number of components in this ArrayList. Note that if
    * <tt>null</tt> exists (by adding <tt>null</tt>s or setting higher
@@ -723,32 +770,28 @@ public class ArrayList extends AbstractList implements Collection
 
   /**
    * Returns true if this ArrayList contains all of the elements in the
-   * specified array.
+   * specified array. If the array has more than <tt>HASH_THRESHOLD</tt>
+   * elements, the elements of this ArrayList are put in a hash table first.
    *
    * @param     a array containing the elements to be tested for membership.
    * @return    true if all of the elements of the specified array belong in this.
    */
   public final boolean containsAll (Object[] a)
     {
-      for (int i=a.length; i-->0;)
-        if (!contains(a[i])) return false;
-
-      return true;
+      return _containsAll(a,a.length);
     }
 
   /**
    * Returns true if this ArrayList contains all of the elements in the
-   * specified ArrayList.
+   * specified ArrayList. If it has more than <tt>HASH_THRESHOLD</tt>
+   * elements, the elements of this ArrayList are put in a hash table first.
    *
    * @param     v ArrayList of elements to be tested for membership.
    * @return    true if all the elements of the specified collection belong to this.
    */
   public final boolean containsAll (ArrayList v)
     {
-      for (int i=v.size(); i-->0;)
-        if (!contains(v.get(i))) return false;
-
-      return true;
+      return _containsAll(v._elementData,v._size);
     }
 
   /**
@@ -791,116 +834,95 @@ public class ArrayList extends AbstractList implements Collection
   /**
    * Removes from this ArrayList all of its elements that are contained
    * in the specified array. Note that all occurrences of such elemeents
-   * are removed - not just the first.
+   * are removed - not just the first. The remaining elements are kept in
+   * order and compacted in place in one pass. If the array has more than
+   * <tt>HASH_THRESHOLD</tt> elements, they are looked up in a hash table.
    *
    * @param     a array of elements to be removed.
    * @return    true if this ArrayList changed as a result of the call.
    */
   public final boolean removeAll (Object[] a)
     {
-      IntArrayList indices = new IntArrayList();
-
-      for (int i=0; i<a.length; i++)
-        for (int j=0; j<_size; j++)
-          if (a[i].equals(_elementData[j]))
-	    indices.add(j);
-
-      removeAllIndices(indices);
-
-      return !indices.isEmpty();
+      return _removeAll(a,a.length,true);
     }
 
   /**
    * Removes from this ArrayList all of its elements that are contained
    * in the specified ArrayList. Note that all occurrences of such elemeents
-   * are removed - not just the first.
+   * are removed - not just the first. The remaining elements are kept in
+   * order and compacted in place in one pass. If the specified ArrayList
+   * has more than <tt>HASH_THRESHOLD</tt> elements, they are looked up in
+   * a hash table.
    *
    * @param     v the ArrayList of elements to be removed.
    * @return    true if this ArrayList changed as a result of the call.
    */
   public final boolean removeAll (ArrayList v)
     {
-      IntArrayList indices = new IntArrayList();
-
-      for (int i=v.size(); i-->0;)
-        for (int j=_size; j-->0;)
-          if (v.get(i).equals(_elementData[j]))
-	    indices.add(j);
-
-      removeAllIndices(indices);
-
-      return !indices.isEmpty();
+      return _removeAll(_elementsOf(v),v._size,true);
     }
 
   /**
    * Removes from this ArrayList the first occurrence of the elements
-   * that are contained in the specified array
+   * that are contained in the specified array (the first <i>n</i>
+   * occurrences of an element that occurs <i>n</i> times in the array).
+   * The remaining elements are kept in order and compacted in place in
+   * one pass. If the array has more than <tt>HASH_THRESHOLD</tt> elements,
+   * they are counted in a hash table.
    *
    * @param     a array of elements to be removed.
    * @return    true if this ArrayList changed as a result of the call.
    */
   public final boolean removeAllFirst (Object[] a)
     {
-      IntArrayList indices = new IntArrayList();
-
-      for (int i=0; i<a.length; i++)
-        for (int j=0; j<_size; j++)
-          if (a[i].equals(_elementData[j]))
-            {
-              indices.add(j);
-              break;
-            }
-
-      removeAllIndices(indices);
-      return !indices.isEmpty();
+      return _removeAll(a,a.length,false);
     }
 
   /**
    * Removes from this ArrayList the first occurrence of the elements
-   * that are contained in the specified ArrayList.
+   * that are contained in the specified ArrayList (the first <i>n</i>
+   * occurrences of an element that occurs <i>n</i> times in it). The
+   * remaining elements are kept in order and compacted in place in one
+   * pass. If the specified ArrayList has more than <tt>HASH_THRESHOLD</tt>
+   * elements, they are counted in a hash table.
    *
    * @param     v the ArrayList of elements to be removed.
    * @return    true if this ArrayList changed as a result of the call.
    */
   public final boolean removeAllFirst (ArrayList v)
     {
-      IntArrayList indices = new IntArrayList();
-
-      int size = v.size();
-
-      for (int i=0; i<size; i++)
-        for (int j=0; j<_size; j++)
-          if (v.get(i).equals(_elementData[j]))
-            {
-              indices.add(j);
-              break;
-            }
-
-      removeAllIndices(indices);
-
-      return !indices.isEmpty();
+      return _removeAll(_elementsOf(v),v._size,false);
     }
 
   /**
    * Retains only the elements in this ArrayList whose elements are
    * contained in the specified ArrayList. In other words, removes from
    * this ArrayList all of its elements that are not contained in the
-   * specified ArrayList.
+   * specified ArrayList. The retained elements are kept in order and
+   * compacted in place in one pass. If the specified ArrayList has more
+   * than <tt>HASH_THRESHOLD</tt> elements, they are looked up in a hash
+   * table.
    *
    * @param     v the ArrayList of elements to be retained.
    * @return    true if this ArrayList changed as a result of the call.
    */
   public final boolean retainAll (ArrayList v)
     {
-      IntArrayList indices = new IntArrayList();
+      Object[] a = v._elementData;
+      int length = v._size;
+      ObjectToIntMap table = length > HASH_THRESHOLD ? _counts(a,length) : null;
+      int size = 0;
 
       for (int i=0; i<_size; i++)
-        if (!v.contains(_elementData[i]))
-          indices.add(i);
+        {
+          Object element = _elementData[i];
 
-      removeAllIndices(indices);
+          if (table == null ? _indexOf(element,a,length,null) >= 0
+                            : element != null && table.containsKey(element))
+            _elementData[size++] = element;
+        }
 
-      return !indices.isEmpty();
+      return _shrink(size);
     }
 
   /**
@@ -928,6 +950,8 @@ public class ArrayList extends AbstractList implements Collection
           return;
         }
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       Object[] newArray = new Object[_increasedCapacity(_size+a.length)];
 
       for (int i=0; i<index; i++)
@@ -941,6 +965,9 @@ public class ArrayList extends AbstractList implements Collection
 
       _elementData = newArray;
       _size += a.length;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -970,6 +997,8 @@ public class ArrayList extends AbstractList implements Collection
           return;
         }
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       Object[] newArray = new Object[_increasedCapacity(_size+size)];
 
       for (int i=0; i<index; i++)
@@ -983,6 +1012,9 @@ public class ArrayList extends AbstractList implements Collection
 
       _elementData = newArray;
       _size += size;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -1130,12 +1162,17 @@ public class ArrayList extends AbstractList implements Collection
    */
   private final void _grow ()
     {
+      long start = _counter == null ? 0 : System.nanoTime();
+
       Object[] newArray = new Object[_increasedCapacity()];
 
       for (int i=0; i<_size; i++)
         newArray[i] = _elementData[i];
 
       _elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -1174,24 +1211,120 @@ public class ArrayList extends AbstractList implements Collection
     }
 
   /**
-   * Removes from this ArrayList all of its elements that are located at
-   * the indices in the specified IntArrayList. This assumes that the indices
-   * appear sorted in increasing order.
-   *
-   * @param     indices indices of elements to be removed.
+   * Returns true if this ArrayList contains all of the first
+   * <tt>length</tt> elements of the specified array.
    */
-  private final void removeAllIndices (IntArrayList indices)
+  private final boolean _containsAll (Object[] a, int length)
     {
-      int size = indices.size();
+      if (length <= HASH_THRESHOLD)
+        {
+          for (int i=length; i-->0;)
+            if (!contains(a[i])) return false;
+
+          return true;
+        }
+
+      ObjectToIntMap table = _counts(_elementData,_size);
+
+      for (int i=length; i-->0;)
+        if (a[i] == null || !table.containsKey(a[i])) return false;
 
-      for (int i=1; i<=size; i++)
+      return true;
+    }
+
+  /**
+   * Removes from this ArrayList all the occurrences (if <tt>all</tt> is
+   * true), or the first occurrences, of the first <tt>length</tt> elements
+   * of the specified array, compacting the remaining elements in place.
+   */
+  private final boolean _removeAll (Object[] a, int length, boolean all)
+    {
+      ObjectToIntMap counts = length > HASH_THRESHOLD ? _counts(a,length) : null;
+      boolean[] removed = counts == null && !all ? new boolean[length] : null;
+      int size = 0;
+
+      for (int i=0; i<_size; i++)
         {
-          int lo = indices.get(i-1);
-          int hi = (i < size) ? indices.get(i) : _size;
-          for (int j=lo+1; j<hi; j++) _elementData[j-i] = _elementData[j];
+          Object element = _elementData[i];
+
+          if (counts == null)
+            {
+              int index = _indexOf(element,a,length,removed);
+
+              if (index < 0)
+                _elementData[size++] = element;
+              else if (!all)
+                removed[index] = true;
+
+              continue;
+            }
+
+          int count = element == null ? 0 : counts.get(element);
+
+          if (count <= 0)
+            _elementData[size++] = element;
+          else if (!all)
+            counts.put(element,count-1);
         }
 
-      _size -= size;
+      return _shrink(size);
+    }
+
+  /**
+   * Returns the index of the first element equal to the specified one
+   * among the first <tt>length</tt> elements of the specified array,
+   * skipping those whose index is flagged in <tt>removed</tt> if it is
+   * not <tt>null</tt>; returns -1 if there is none.
+   */
+  private final static int _indexOf (Object element, Object[] a, int length, boolean[] removed)
+    {
+      if (element != null)
+        for (int i=0; i<length; i++)
+          if ((removed == null || !removed[i]) && a[i] != null && a[i].equals(element))
+            return i;
+
+      return -1;
+    }
+
+  /**
+   * Returns a hash table mapping each non-<tt>null</tt> element among the
+   * first <tt>length</tt> elements of the specified array to its number
+   * of occurrences.
+   */
+  private final static ObjectToIntMap _counts (Object[] a, int length)
+    {
+      ObjectToIntMap counts = new ObjectToIntMap(Math.max(11,2*length));
+
+      for (int i=0; i<length; i++)
+        if (a[i] != null)
+          counts.increment(a[i]);
+
+      return counts;
+    }
+
+  /**
+   * Returns the elements of the specified ArrayList, copied if it is this
+   * one so that they may be read while this one is compacted.
+   */
+  private final Object[] _elementsOf (ArrayList v)
+    {
+      return v == this ? toArray() : v._elementData;
+    }
+
+  /**
+   * Sets the size of this ArrayList to the specified one, which is not
+   * greater, clearing the elements past it; returns true iff it changed.
+   */
+  private final boolean _shrink (int size)
+    {
+      if (size == _size)
+        return false;
+
+      for (int i=size; i<_size; i++)
+        _elementData[i] = null;
+
+      _size = size;
+      return true;
     }
 
   public Iterator iterator ()
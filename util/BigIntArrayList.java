@@ -0,0 +1,542 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 21:32:08 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * This class implements a vector of primitive <tt>int</tt> elements like
+ * <a href="IntArrayList.html"><tt>IntArrayList</tt></a>, but indexed by
+ * <tt>long</tt>s, so that it may hold more than <tt>2^31</tt> elements.
+ * <p>
+ * Its elements are kept in segments of <tt>SEGMENT_SIZE</tt> ints. As
+ * long as the list fits in one segment, this segment grows by doubling
+ * like the array of an <tt>IntArrayList</tt>; beyond that, the list grows
+ * by adding whole segments, and never copies the elements it already has,
+ * so that growing a list of several gigabytes neither doubles its memory
+ * for a while nor takes time proportional to its size. Only the (small)
+ * array of references to the segments is copied when it is full.
+ * <p>
+ * Besides access by index, it offers <tt>copyFrom</tt> and
+ * <tt>copyTo</tt> to move ranges of elements from and to <tt>int</tt>
+ * arrays with one <tt>System.arraycopy</tt> per segment. Like
+ * <tt>IntArrayList</tt>, it is <i>not</i> synchronized.
+ */
+
+public class BigIntArrayList
+{
+  /**
+   * The base-2 logarithm of the number of elements of a segment.
+   */
+  private final static int SEGMENT_SHIFT = 20;
+
+  /**
+   * The number of elements of a segment (<tt>2^20</tt>, or 4 MB).
+   */
+  public final static int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+  /**
+   * The mask giving an element's index within its segment.
+   */
+  private final static int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  /**
+   * The segments holding the elements; only the first
+   * <tt>_segmentCount</tt> are allocated. When there is only one, it may
+   * be shorter than <tt>SEGMENT_SIZE</tt>.
+   */
+  private int[][] _segments;
+
+  /**
+   * The number of allocated segments.
+   */
+  private int _segmentCount;
+
+  /**
+   * The number of elements the allocated segments can hold.
+   */
+  private long _capacity;
+
+  /**
+   * The number of elements of this list.
+   */
+  private long _size;
+
+  /**
+   * Constructs an empty list with the specified initial capacity.
+   *
+   * @param     initialCapacity the initial capacity of the list.
+   * @exception IllegalArgumentException if the initial capacity is negative.
+   */
+  public BigIntArrayList (long initialCapacity)
+    {
+      if (initialCapacity < 0)
+        throw new IllegalArgumentException("negative capacity: "+initialCapacity);
+
+      _segments = new int[4][];
+      _segments[0] = new int[(int)Math.min(initialCapacity,SEGMENT_SIZE)];
+      _segmentCount = 1;
+      _capacity = _segments[0].length;
+      ensureCapacity(initialCapacity);
+    }
+
+  /**
+   * Constructs an empty list with an initial capacity of <tt>10</tt>.
+   */
+  public BigIntArrayList ()
+    {
+      this(10);
+    }
+
+  /**
+   * Constructs a list containing the elements of the specified array, in
+   * the same order.
+   *
+   * @param     a an array of ints.
+   */
+  public BigIntArrayList (int[] a)
+    {
+      this(a.length);
+      copyFrom(0,a,0,a.length);
+    }
+
+  /**
+   * Returns the number of elements of this list.
+   */
+  public final long size ()
+    {
+      return _size;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this list has no elements.
+   */
+  public final boolean isEmpty ()
+    {
+      return _size == 0;
+    }
+
+  /**
+   * Returns the number of elements this list can hold without allocating
+   * memory.
+   */
+  public final long capacity ()
+    {
+      return _capacity;
+    }
+
+  /**
+   * Increases the capacity of this list, if necessary, to ensure that it
+   * can hold at least the specified number of elements. While the list
+   * fits in one segment, this segment is replaced by one twice as large
+   * (but at most <tt>SEGMENT_SIZE</tt>); beyond, segments are added.
+   *
+   * @param     minCapacity the desired minimum capacity.
+   * @exception IllegalArgumentException if the capacity exceeds <tt>2^51</tt>.
+   */
+  public final void ensureCapacity (long minCapacity)
+    {
+      if (minCapacity <= _capacity)
+        return;
+
+      if (minCapacity <= SEGMENT_SIZE)
+        {
+          int length = (int)Math.min(SEGMENT_SIZE,Math.max(minCapacity,2L*_segments[0].length));
+          _segments[0] = Arrays.copyOf(_segments[0],length);
+          _capacity = length;
+          return;
+        }
+
+      long needed = (minCapacity + SEGMENT_MASK) >>> SEGMENT_SHIFT;
+
+      if (needed > Integer.MAX_VALUE - 8)
+        throw new IllegalArgumentException("capacity too large: "+minCapacity);
+
+      if (_segmentCount == 1 && _segments[0].length < SEGMENT_SIZE)
+        _segments[0] = Arrays.copyOf(_segments[0],SEGMENT_SIZE);
+
+      if (needed > _segments.length)
+        _segments = Arrays.copyOf(_segments,(int)Math.min(Integer.MAX_VALUE - 8,
+                                                          Math.max(needed,2L*_segments.length)));
+
+      while (_segmentCount < needed)
+        _segments[_segmentCount++] = new int[SEGMENT_SIZE];
+
+      _capacity = (long)_segmentCount << SEGMENT_SHIFT;
+    }
+
+  /**
+   * Releases the segments that this list does not need to hold its
+   * elements, and trims its first segment to its size if it is the only one.
+   */
+  public final void trimToSize ()
+    {
+      int needed = (int)Math.max(1,(_size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+
+      Arrays.fill(_segments,needed,_segmentCount,null);
+      _segmentCount = needed;
+      _segments = Arrays.copyOf(_segments,Math.max(4,needed));
+
+      if (needed == 1)
+        {
+          _segments[0] = Arrays.copyOf(_segments[0],(int)_size);
+          _capacity = _size;
+        }
+      else
+        _capacity = (long)needed << SEGMENT_SHIFT;
+    }
+
+  /**
+   * Sets the size of this list. If the new size is greater than the
+   * current size, zeroes are added to the end of the list.
+   *
+   * @param     newSize the new size of this list.
+   * @exception IllegalArgumentException if the new size is negative.
+   */
+  public final void setSize (long newSize)
+    {
+      if (newSize < 0)
+        throw new IllegalArgumentException("negative size: "+newSize);
+
+      if (newSize > _size)
+        {
+          ensureCapacity(newSize);
+
+          for (long index=_size; index<newSize;)
+            {
+              int offset = (int)index & SEGMENT_MASK;
+              int length = (int)Math.min(newSize-index,SEGMENT_SIZE-offset);
+              Arrays.fill(_segments[(int)(index >>> SEGMENT_SHIFT)],offset,offset+length,0);
+              index += length;
+            }
+        }
+
+      _size = newSize;
+    }
+
+  /**
+   * Removes all the elements of this list, keeping its capacity.
+   */
+  public final void clear ()
+    {
+      _size = 0;
+    }
+
+  /**
+   * Returns the element at the specified index.
+   *
+   * @param     index an index into this list.
+   * @exception IndexOutOfBoundsException if the index is out of range.
+   */
+  public final int get (long index)
+    {
+      if (index < 0 || index >= _size)
+        throw new IndexOutOfBoundsException(index+" >= "+_size);
+
+      return _segments[(int)(index >>> SEGMENT_SHIFT)][(int)index & SEGMENT_MASK];
+    }
+
+  /**
+   * Replaces the element at the specified index with the specified one,
+   * and returns the element previously there.
+   *
+   * @param     index the index of the element to replace.
+   * @param     element the element to store at this index.
+   * @exception IndexOutOfBoundsException if the index is out of range.
+   */
+  public final int set (long index, int element)
+    {
+      if (index < 0 || index >= _size)
+        throw new IndexOutOfBoundsException(index+" >= "+_size);
+
+      int[] segment = _segments[(int)(index >>> SEGMENT_SHIFT)];
+      int old = segment[(int)index & SEGMENT_MASK];
+      segment[(int)index & SEGMENT_MASK] = element;
+      return old;
+    }
+
+  /**
+   * Appends the specified element to the end of this list.
+   *
+   * @param     element the element to append.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean add (int element)
+    {
+      if (_size == _capacity)
+        ensureCapacity(_size+1);
+
+      _segments[(int)(_size >>> SEGMENT_SHIFT)][(int)_size & SEGMENT_MASK] = element;
+      _size++;
+      return true;
+    }
+
+  /**
+   * Removes the last element of this list and returns it.
+   *
+   * @exception NoSuchElementException if this list is empty.
+   */
+  public final int removeLast ()
+    {
+      if (_size == 0)
+        throw new NoSuchElementException("empty BigIntArrayList");
+
+      _size--;
+      return _segments[(int)(_size >>> SEGMENT_SHIFT)][(int)_size & SEGMENT_MASK];
+    }
+
+  /**
+   * Appends all the elements of the specified array to the end of this list.
+   *
+   * @param     a an array of ints.
+   */
+  public final void addAll (int[] a)
+    {
+      copyFrom(_size,a,0,a.length);
+    }
+
+  /**
+   * Appends all the elements of the specified <tt>IntArrayList</tt> to the
+   * end of this list.
+   *
+   * @param     list a list of ints.
+   */
+  public final void addAll (IntArrayList list)
+    {
+      copyFrom(_size,list.elementData,0,list.elementCount);
+    }
+
+  /**
+   * Copies <tt>length</tt> elements of the specified array, from
+   * <tt>offset</tt> on, into this list from the specified index on,
+   * overwriting the elements there, and extending this list if it
+   * gets past its end.
+   *
+   * @param     index the index in this list of the first element to write;
+   *            it may not be greater than <tt>size()</tt>.
+   * @param     source the array to copy from.
+   * @param     offset the index in <tt>source</tt> of the first element to copy.
+   * @param     length the number of elements to copy.
+   * @exception IndexOutOfBoundsException if a range is out of bounds.
+   */
+  public final void copyFrom (long index, int[] source, int offset, int length)
+    {
+      if (index < 0 || index > _size)
+        throw new IndexOutOfBoundsException(index+" > "+_size);
+
+      if (offset < 0 || length < 0 || offset > source.length - length)
+        throw new IndexOutOfBoundsException("range ["+offset+","+offset+"+"+length+") of an array of length "+source.length);
+
+      ensureCapacity(index+length);
+
+      long end = index + length;
+
+      while (index < end)
+        {
+          int start = (int)index & SEGMENT_MASK;
+          int count = (int)Math.min(end-index,SEGMENT_SIZE-start);
+          System.arraycopy(source,offset,_segments[(int)(index >>> SEGMENT_SHIFT)],start,count);
+          index += count;
+          offset += count;
+        }
+
+      _size = Math.max(_size,end);
+    }
+
+  /**
+   * Copies <tt>length</tt> elements of this list, from the specified
+   * index on, into the specified array from <tt>offset</tt> on.
+   *
+   * @param     index the index in this list of the first element to copy.
+   * @param     target the array to copy to.
+   * @param     offset the index in <tt>target</tt> of the first element to write.
+   * @param     length the number of elements to copy.
+   * @exception IndexOutOfBoundsException if a range is out of bounds.
+   */
+  public final void copyTo (long index, int[] target, int offset, int length)
+    {
+      if (index < 0 || length < 0 || index > _size - length)
+        throw new IndexOutOfBoundsException("range ["+index+","+index+"+"+length+") of a list of size "+_size);
+
+      if (offset < 0 || offset > target.length - length)
+        throw new IndexOutOfBoundsException("range ["+offset+","+offset+"+"+length+") of an array of length "+target.length);
+
+      long end = index + length;
+
+      while (index < end)
+        {
+          int start = (int)index & SEGMENT_MASK;
+          int count = (int)Math.min(end-index,SEGMENT_SIZE-start);
+          System.arraycopy(_segments[(int)(index >>> SEGMENT_SHIFT)],start,target,offset,count);
+          index += count;
+          offset += count;
+        }
+    }
+
+  /**
+   * Returns a new array of the elements of this list.
+   *
+   * @exception IllegalStateException if this list has more elements than an array can hold.
+   */
+  public final int[] toArray ()
+    {
+      if (_size > Integer.MAX_VALUE - 8)
+        throw new IllegalStateException("too many elements for an array: "+_size);
+
+      int[] a = new int[(int)_size];
+      copyTo(0,a,0,a.length);
+      return a;
+    }
+
+  /**
+   * Applies the specified action to each element of this list, in order.
+   *
+   * @param     action the action to apply to each element.
+   */
+  public final void forEach (IntConsumer action)
+    {
+      for (int s=0; s<_segmentCount; s++)
+        {
+          long start = (long)s << SEGMENT_SHIFT;
+
+          if (start >= _size)
+            return;
+
+          int[] segment = _segments[s];
+          int end = (int)Math.min(_size-start,segment.length);
+
+          for (int i=0; i<end; i++)
+            action.accept(segment[i]);
+        }
+    }
+
+  /**
+   * Returns the sum of the elements of this list, as a <tt>long</tt>
+   * (which may overflow only past <tt>2^32</tt> elements).
+   */
+  public final long sum ()
+    {
+      long sum = 0;
+
+      for (int s=0; s<_segmentCount; s++)
+        {
+          long start = (long)s << SEGMENT_SHIFT;
+
+          if (start >= _size)
+            break;
+
+          int[] segment = _segments[s];
+          int end = (int)Math.min(_size-start,segment.length);
+
+          for (int i=0; i<end; i++)
+            sum += segment[i];
+        }
+
+      return sum;
+    }
+
+  /**
+   * Returns an iterator through the elements of this list, in order.
+   */
+  public final IntIterator iterator ()
+    {
+      return new IntIterator()
+        {
+          private long _index;
+
+          public final boolean hasNext ()
+            {
+              return _index < _size;
+            }
+
+          public final int next ()
+            {
+              if (_index >= _size)
+                throw new NoSuchElementException();
+
+              return get(_index++);
+            }
+        };
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified object is a
+   * <tt>BigIntArrayList</tt> with the same elements in the same order.
+   *
+   * @param     o the object to be compared for equality with this list.
+   */
+  public final boolean equals (Object o)
+    {
+      if (o == this)
+        return true;
+
+      if (!(o instanceof BigIntArrayList))
+        return false;
+
+      BigIntArrayList other = (BigIntArrayList)o;
+
+      if (other._size != _size)
+        return false;
+
+      for (int s=0; s<_segmentCount; s++)
+        {
+          long start = (long)s << SEGMENT_SHIFT;
+
+          if (start >= _size)
+            break;
+
+          int end = (int)Math.min(_size-start,SEGMENT_SIZE);
+
+          if (!Arrays.equals(_segments[s],0,end,other._segments[s],0,end))
+            return false;
+        }
+
+      return true;
+    }
+
+  /**
+   * Returns the hash code value for this list, computed from its size
+   * and a few of its elements like that of an <tt>IntArrayList</tt>.
+   */
+  public int hashCode ()
+    {
+      int code = (int)(_size ^ (_size >>> 32));
+      int shift = 1;
+
+      for (long i=0; i<_size; i += Math.max(1,_size/4))
+        {
+          if (shift > 0)
+            code <<= 1;
+          else
+            code >>= 1;
+
+          code ^= get(i);
+          shift = -shift;
+        }
+
+      return code;
+    }
+
+  /**
+   * Returns a string representation of this list.
+   */
+  public String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (long i=0; i<_size; i++)
+        buf.append(get(i)+(i==_size-1?"":","));
+
+      return (buf.append("]")).toString();
+    }
+}
@@ -0,0 +1,1419 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * This class implements a vector of primitive <tt>char</tt> elements
+ * to alleviate the need to use an ArrayList of <tt>Character</tt> wrappers.
+ * It implements all public members items of the <tt>java.util.ArrayList</tt>
+ * API that make sense when dealing with primitive <tt>char</tt> elements
+ * rather than <tt>Object</tt>s, with the same API as <tt>IntArrayList</tt>.
+ * <p>
+ * Like <tt>java.util.ArrayList</tt>, its underlying representation can grow
+ * dynamically. As well, it is <i>not</i> synchronized.
+ * <p>
+ * This class is generated from <tt>templates/ArrayList.jt</tt> by
+ * <tt>templates/Specialize.java</tt>, and should be changed there.
+ *
+ * @version     Last modified on Sun Oct 18 08:00:26 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+public class CharArrayList
+{
+  // FIELDS:
+
+  /**
+   * The array buffer into which the components of the
+   * <tt>CharArrayList</tt> are stored. The capacity of the
+   * <tt>CharArrayList</tt> is the length of this array buffer, and is at
+   * least large enough to contain all the <tt>CharArrayList</tt>'s
+   * elements.
+   */
+  protected char[] elementData;
+
+  /**
+   * The number of valid components in this <tt>CharArrayList</tt>
+   * object. Components <tt>elementData[0]</tt> through
+   * <tt>elementData[elementCount-1]</tt> are the actual items.
+   */
+  protected int elementCount;
+
+  /**
+   * The amount by which the capacity of the <tt>CharArrayList</tt> is
+   * automatically incremented when its size becomes greater than its
+   * capacity. If the capacity increment is less than or equal to zero,
+   * the capacity of the <tt>CharArrayList</tt> is multiplied by
+   * <tt>incrementFactor</tt> each time it needs to grow. The default
+   * value of <tt>incrementFactor</tt> is <tt>2.0</tt> (so growing
+   * doubles the capacity). It may be reset with
+   * <tt>setIncrementFactor(float)</tt> to any decimal value between
+   * <tt>1.1</tt> and <tt>5.0</tt>.
+   */
+  protected int capacityIncrement;
+
+  /**
+   * The counter of the growths of the internal array of this CharArrayList, or
+   * <tt>null</tt> if its statistics are disabled (the default).
+   */
+  private ContainerStats.Counter _counter;
+
+  /**
+   * Whether this <tt>CharArrayList</tt> is kept sorted in increasing order (see
+   * <tt>setSorted(boolean)</tt>).
+   */
+  private boolean _sorted;
+
+  // CONSTRUCTORS:
+
+  /**
+   * Constructs an empty <tt>CharArrayList</tt> with the specified
+   * initial capacity <tt>initialCapacity</tt> and capacity increment
+   * <tt>capacityIncrement</tt>.
+   *
+   * @param     initialCapacity the initial capacity of the CharArrayList.
+   * @param     capacityIncrement amount by which the capacity is increased on overflow.
+   * @exception NegativeArraySizeException if the specified initial capacity is negative.
+   */
+  public CharArrayList (int initialCapacity, int capacityIncrement)
+    {
+      this(initialCapacity);
+      this.capacityIncrement = capacityIncrement;
+    }
+
+  /**
+   * Constructs an empty <tt>CharArrayList</tt> with the specified
+   * initial capacity <tt>initialCapacity</tt> and with its capacity
+   * increment equal to <tt>0</tt>.
+   *
+   * @param     initialCapacity the initial capacity of the CharArrayList.
+   * @exception NegativeArraySizeException if the specified initial capacity is negative.
+   */
+  public CharArrayList (int initialCapacity)
+    {
+      elementData = new char[initialCapacity];
+    }
+
+  /**
+   * Constructs an empty <tt>CharArrayList</tt> so that its internal data
+   * array has size <tt>10</tt> and its standard capacity increment is
+   * <tt>0</tt>.
+   */
+  public CharArrayList ()
+    {
+      this(10);
+    }
+
+  /**
+   * Constructs an <tt>CharArrayList</tt> containing the values contained
+   * in the specified array, in the same order.
+   *
+   * @param     a an array of chars.
+   */
+  public CharArrayList (char[] a)
+    {
+      elementData = new char[a.length];
+
+      for (int i=0; i<a.length; i++)
+        elementData[elementCount++] = a[i];
+    }
+
+  /**
+   * Constructs a <tt>CharArrayList</tt> containing the
+   * <tt>charValue()</tt> values of the <tt>java.lang.Character</tt> objects
+   * in the specified collection, in the order they are returned by the
+   * collection's iterator. If any object in the collection is not an
+   * instance of <tt>java.lang.Character</tt>, a
+   * <tt>ClassCastException</tt> exception is thrown.
+   *
+   * @param     c the collection whose elements are to be placed into this CharArrayList.
+   * @exception ClassCastException if the collection contains a non-character.
+   */
+  public CharArrayList (Collection c)
+    {
+      elementData = new char[c.size()];
+      for (Iterator i=c.iterator(); i.hasNext();)
+        elementData[elementCount++] = ((Character)i.next()).charValue();
+    }
+
+  // METHODS:
+
+  /**
+   * Copies the components of this <tt>CharArrayList</tt> into the
+   * specified array <tt>a</tt>. The item at index <tt>k</tt> in this
+   * <tt>CharArrayList</tt> is copied into component <tt>k</tt> of
+   * <tt>a</tt>. The array <tt>a</tt> must be big enough to hold all the
+   * elements of this <tt>CharArrayList</tt>, else an
+   * <tt>IndexOutOfBoundsException</tt> is thrown.
+   *
+   * @param a the array into which the components get copied.
+   * @exception IndexOutOfBoundsException if the array <tt>a</tt> is too small.
+   */
+  public final void copyInto (char[] a)
+    {
+      for (int i=elementCount; i-->0;)
+        a[i] = elementData[i];
+    }
+
+  /**
+   * Trims the capacity of this <tt>CharArrayList</tt> to its current
+   * size. If the capacity of this <tt>CharArrayList</tt> is larger than
+   * its current size, this replaces its internal data array with a
+   * smaller one of size equal to its number of elements. An application
+   * can use this operation to minimize the storage of a
+   * <tt>CharArrayList</tt>.
+   */
+  public final void trimToSize ()
+    {
+      if (elementCount == elementData.length) return;
+
+      char[] newArray = newArray = new char[elementCount];
+
+      for (int i=0; i<elementCount; i++)
+        newArray[i] = elementData[i];
+
+      elementData = newArray;
+    }
+
+  /**
+   * Increases the capacity of this <tt>CharArrayList</tt>, if necessary,
+   * to ensure that it can hold at least the number of components
+   * specified by the minimum capacity argument.  <p> If the current
+   * capacity of this <tt>CharArrayList</tt> is less than
+   * <tt>minCapacity</tt>, then its capacity is increased by replacing
+   * its internal data array with a larger one. The size of the new data
+   * array will be the old size plus <tt>capacityIncrement</tt>, unless
+   * the value of <tt>capacityIncrement</tt> is less than or equal to
+   * <tt>0</tt>, in which case the new capacity will be the old capacity
+   * multiplied by <tt>incrementFactor</tt>; and if this new size is
+   * still smaller than <tt>minCapacity</tt>, then the new capacity will
+   * be <tt>minCapacity</tt>.
+   *
+   * @param minCapacity the desired minimum capacity.
+   */
+  public final void ensureCapacity (int minCapacity)
+    {
+      if (elementData.length >= minCapacity)
+	return;
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      int newCapacity = Math.max(minCapacity,_increasedCapacity());
+      char[] newArray = new char[newCapacity];
+      
+      for (int i=0; i<elementCount; i++)
+	newArray[i] = elementData[i];
+      
+      elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Sets the size of this CharArrayList. If the new size is greater than the
+   * current size, new zeroes are added to the end of the CharArrayList.
+   *
+   * @param     newSize the new size of this CharArrayList.
+   */
+  public final void setSize (int newSize)
+    {
+      if (newSize > elementCount)
+        _unsorted("setSize");
+
+      ensureCapacity(elementCount = newSize);
+    }
+
+  /**
+   * Returns the current capacity of this CharArrayList.
+   *
+   * @return    the current capacity the length of its internal data array.
+   */
+  public final int capacity ()
+    {
+      return elementData.length;
+    }
+
+  /**
+   * Enables or disables the counting of the growths of the internal array
+   * of this CharArrayList, and of the time they take, as reported by
+   * <tt>stats()</tt>. Enabling them again keeps the counts so far;
+   * disabling them drops the counts.
+   *
+   * @param     enabled whether growths are to be counted
+   */
+  public final void setStatsEnabled (boolean enabled)
+    {
+      if (!enabled)
+        _counter = null;
+      else if (_counter == null)
+        _counter = new ContainerStats.Counter();
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this CharArrayList: its size, its
+   * capacity and how much of it is unused, and, if statistics are enabled,
+   * how many times its internal array grew and how long that took.
+   */
+  public final ContainerStats stats ()
+    {
+      return new ContainerStats(elementCount,elementData.length,elementData.length-elementCount,_counter,null);
+    }
+
+  /**
+   * Returns the number of components in this <tt>CharArrayList</tt>.
+   *
+   * @return the number of components in this <tt>CharArrayList</tt>.
+   */
+  public final int size ()
+    {
+      return elementCount;
+    }
+
+  /**
+   * Tests if this <tt>CharArrayList</tt> has no components.
+   *
+   * @return    <tt>true</tt> if this <tt>CharArrayList</tt>'s size is zero; <tt>false</tt> otherwise.
+   */
+  public final boolean isEmpty ()
+    {
+      return elementCount == 0;
+    }
+
+  /**
+   * Tests if the specified <tt>element</tt> is a component in this
+   * <tt>CharArrayList</tt>.
+   *
+   * @param  element a char.
+   * @return true if the specified <tt>char</tt> is in this <tt>CharArrayList</tt>; <tt>false</tt> otherwise.
+   */
+  public final boolean contains (char element)
+    {
+      if (_sorted)
+        return binarySearch(element) >= 0;
+
+      for (int i=0; i<elementCount; i++)
+        if (elementData[i] == element) return true;
+
+      return false;
+    }
+
+  /**
+   * Searches for the first occurrence of the given char; returns -1 if it
+   * is not found.
+   *
+   * @param     element a char.
+   * @return    the index of the first occurrence of the argument or -1.
+   */
+  public final int indexOf (char element)
+    {
+      if (_sorted)
+        return _sortedIndexOf(element,0);
+
+      for (int i=0; i<elementCount; i++)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Searches for the first occurence of the given char, beginning
+   * the search at index; returns -1 if it is not found.
+   *
+   * @param     element a char.
+   * @param     index the non-negative index to start searching from.
+   * @exception IndexOutOfBoundsException if index is negative.
+   */
+  public final int indexOf (char element, int index)
+    {
+      if (_sorted)
+        return _sortedIndexOf(element,index);
+
+      for (int i=index; i<elementCount; i++)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Returns the index of the last occurrence of the specified char in
+   * this CharArrayList; returns -1 if it is not found.
+   *
+   * @param     element the desired component.
+   * @return    the index of the last occurrence of the specified char, or -1.
+   */
+  public final int lastIndexOf (char element)
+    {
+      if (_sorted)
+        return _sortedLastIndexOf(element,elementCount);
+
+      for (int i=elementCount; i-->0;)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Searches backwards for the specified char, starting from the
+   * specified index, and returns its index, or -1 if not found.
+   *
+   * @param     element a char.
+   * @param     index the non-negative index to start searching from.
+   * @exception IndexOutOfBoundsException if index is invalid.
+   */
+  public final int lastIndexOf (char element, int index)
+    {
+      if (_sorted)
+        return _sortedLastIndexOf(element,index);
+
+      for (int i=index; i-->0;)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Returns the component at the specified index. This method is
+   * identical in functionality to the get method.
+   *
+   * @param     index an index into this CharArrayList.
+   * @exception ArrayIndexOutOfBoundsException if the index is invalid.
+   */
+  public final char elementAt (int index)
+    {
+      return get(index);
+    }
+
+  /**
+   * Returns the first component (the item at index 0) of this CharArrayList.
+   *
+   * @return    the first component of this CharArrayList.
+   * @exception ArrayIndexOutOfBoundsException if this CharArrayList is empty.
+   */
+  public final char firstElement ()
+    {
+      return elementData[0];
+    }
+
+  /**
+   * Returns the last component of the CharArrayList.
+   *
+   * @return    the last component of the CharArrayList, i.e., the component at size() - 1.
+   * @exception ArrayIndexOutOfBoundsException if this CharArrayList is empty.
+   */
+  public final char lastElement ()
+    {
+      return elementData[elementCount-1];
+    }
+
+  /**
+   * Sets the component at the specified index of this CharArrayList to be the
+   * specified char. The previous component at that position is lost.
+   * <p>
+   * The index must be a value greater than or equal to 0 and less than
+   * the current size of the CharArrayList.
+   * <p>
+   * This method is identical in functionality to the set method except
+   * that the latter returns the old value that was stored at the specified
+   * position and it has its argument in a different order.
+   *
+   * @param     element what the component is to be set to.
+   * @param     index the specified index.
+   * @exception ArrayIndexOutOfBoundsException if the index was invalid.
+   */
+  public final void setElementAt (char element, int index)
+    {
+      set(index,element);
+    }
+
+  /**
+   * Deletes the component at the specified index. Each component in
+   * this CharArrayList with an index greater or equal to the specified index
+   * is shifted downward to have an index one smaller than the value it
+   * had previously. The size of this CharArrayList is decreased by 1.
+   * <p>
+   * The index must be a value greater than or equal to 0 and less than
+   * the current size of the CharArrayList.
+   * <p>
+   * This method is identical in functionality to the removeIndex method
+   * except that the removeIndex method returns the old value that was
+   * stored at the specified position.
+   * <p>
+   * <b>N.B.</b>As for <tt>IntArrayList</tt>, there is no <tt>remove</tt>
+   * method; its functionality is provided by <tt>removeIndex(int)</tt>
+   * and <tt>removeElement(char)</tt>.
+   *
+   * @param     index the index of the element to remove.
+   * @exception ArrayIndexOutOfBoundsException if the index was invalid.
+   */
+  public final void removeElementAt (int index)
+    {
+      removeIndex(index);
+    }
+
+  /**
+   * Inserts the specified char as a component in this CharArrayList at the
+   * specified index. Each component in this CharArrayList with an index
+   * greater or equal to the specified index is shifted upward to have
+   * an index one greater than the value it had previously.
+   * <p>
+   * The index must be a value greater than or equal to 0 and less than
+   * or equal to the current size of the CharArrayList. (If the index is equal
+   * to the current size of the CharArrayList, the new element is appended to
+   * the CharArrayList.)
+   * <p>
+   * This method is identical in functionality to the add(int, char)
+   * method except that the latter method reverses the order of the
+   * arguments, to match array usage  more closely.
+   *
+   * @param     element the element to insert.
+   * @param     index where to insert the new component.
+   * @exception ArrayIndexOutOfBoundsException if the index was invalid.
+   */
+  public final void insertElementAt (char element, int index)
+    {
+      add(index,element);
+    }
+
+  /**
+   * Adds the specified component to the end of this CharArrayList, increasing
+   * its size by one. The capacity of this CharArrayList is increased if its
+   * size becomes greater than its capacity.
+   * <p>
+   * This method is identical in functionality to the add(char) method
+   * except that the latter returns a boolean.
+   *
+   * @param     element the component to be added.
+   */
+  public final void addElement (char element)
+    {
+      add(element);
+    }
+
+  /**
+   * Removes all components from this CharArrayList.
+   * This method is identical in functionality to the clear method.
+   *
+   */
+  public final void removeAllElements ()
+    {
+      elementCount = 0;
+    }
+
+  /**
+   * Returns a clone of this CharArrayList. The copy will contain a reference
+   * to a clone of the internal data array, not a reference to the
+   * original internal data array of this CharArrayList object.
+   *
+   * @return    a clone of this CharArrayList.
+   */
+  public final Object clone ()
+    {
+      char[] newArray = new char[elementData.length];
+
+      for (int i=0; i<elementData.length; i++)
+        newArray[i] = elementData[i];
+
+      CharArrayList clone = new CharArrayList(newArray,elementCount,capacityIncrement,incrementFactor);
+      clone._sorted = _sorted;
+      return clone;
+    }
+
+  /**
+   * Returns an array containing all of the elements in this CharArrayList in
+   * the correct order.
+   */
+  public final char[] toArray ()
+    {
+      char[] a = new char[elementCount];
+
+      for (int i=0; i<elementCount; i++)
+        a[i] = elementData[i];
+
+      return a;
+    }
+
+
+  /**
+   * Returns the sum of the elements of this CharArrayList, as a long.
+   */
+  public final long sum ()
+    {
+      long sum = 0;
+
+      for (int i=0; i<elementCount; i++)
+        sum += elementData[i];
+
+      return sum;
+    }
+
+  /**
+   * Returns the least element of this CharArrayList.
+   *
+   * @exception NoSuchElementException if this CharArrayList is empty.
+   */
+  public final char min ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty CharArrayList");
+
+      char min = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        if (elementData[i] < min)
+          min = elementData[i];
+
+      return min;
+    }
+
+  /**
+   * Returns the greatest element of this CharArrayList.
+   *
+   * @exception NoSuchElementException if this CharArrayList is empty.
+   */
+  public final char max ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty CharArrayList");
+
+      char max = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        if (elementData[i] > max)
+          max = elementData[i];
+
+      return max;
+    }
+
+  /**
+   * Returns the number of elements of this CharArrayList that pass the
+   * specified test.
+   *
+   * @param test the test to apply to each element.
+   */
+  public final int count (IntPredicate test)
+    {
+      int count = 0;
+
+      for (int i=0; i<elementCount; i++)
+        if (test.test(elementData[i]))
+          count++;
+
+      return count;
+    }
+
+  /**
+   * Adds to each element of this CharArrayList the element at the same
+   * index in the specified CharArrayList, with the usual char arithmetic.
+   *
+   * @param     v an CharArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void addElementwise (CharArrayList v)
+    {
+      _unsorted("addElementwise");
+
+      char[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] += other[i];
+    }
+
+  /**
+   * Multiplies each element of this CharArrayList by the element at the
+   * same index in the specified CharArrayList, with the usual char arithmetic.
+   *
+   * @param     v an CharArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void multiplyElementwise (CharArrayList v)
+    {
+      _unsorted("multiplyElementwise");
+
+      char[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] *= other[i];
+    }
+
+  /**
+   * Returns the internal array of the specified CharArrayList, which must
+   * have the size of this one.
+   */
+  private final char[] _sameSize (CharArrayList v)
+    {
+      if (v.elementCount != elementCount)
+        throw new IllegalArgumentException("size mismatch: "+v.elementCount+" instead of "+elementCount);
+
+      return v.elementData;
+    }
+
+  /**
+   * Sorts this CharArrayList in increasing order.
+   */
+  public final void sort ()
+    {
+      Arrays.sort(elementData,0,elementCount);
+    }
+
+  /**
+   * Sorts this CharArrayList in increasing order like <tt>sort()</tt>, splitting
+   * the work over the fork-join pool when the list is large enough for
+   * this to pay off (as decided by <tt>Arrays.parallelSort</tt>).
+   */
+  public final void parallelSort ()
+    {
+      Arrays.parallelSort(elementData,0,elementCount);
+    }
+
+  /**
+   * Searches this CharArrayList, which must be sorted, for the specified element
+   * with <tt>Arrays.binarySearch</tt>. Returns the index of the element if
+   * it is there, and <tt>-(insertion point)-1</tt> otherwise. If the
+   * element is there several times, any of its indices may be returned.
+   *
+   * @param     element the element to search for.
+   */
+  public final int binarySearch (char element)
+    {
+      return Arrays.binarySearch(elementData,0,elementCount,element);
+    }
+
+  /**
+   * Sets whether this CharArrayList is kept sorted in increasing order; turning
+   * this on sorts it. While it is on, <tt>contains</tt>, <tt>indexOf</tt>,
+   * and <tt>lastIndexOf</tt> search in <tt>O(log n)</tt>, <tt>add</tt>
+   * inserts its element after those equal to it, and <tt>addAll</tt>
+   * appends its elements then sorts the list. Removals keep the order,
+   * but updates at given positions (<tt>set</tt>, <tt>add(int,char)</tt>,
+   * <tt>addAll(int,...)</tt>, ...) throw an <tt>UnsupportedOperationException</tt>.
+   *
+   * @param     sorted whether to keep this CharArrayList sorted.
+   */
+  public final void setSorted (boolean sorted)
+    {
+      if (sorted && !_sorted)
+        sort();
+
+      _sorted = sorted;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this CharArrayList is kept sorted.
+   */
+  public final boolean isSorted ()
+    {
+      return _sorted;
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt> if this CharArrayList is
+   * kept sorted, since the specified operation could break its order.
+   */
+  private final void _unsorted (String operation)
+    {
+      if (_sorted)
+        throw new UnsupportedOperationException(operation+" on a sorted CharArrayList");
+    }
+
+  /**
+   * Returns the index of the first element of this sorted CharArrayList that is
+   * not less than the specified one, or greater than it if <tt>after</tt>
+   * is <tt>true</tt>.
+   */
+  private final int _bound (char element, boolean after)
+    {
+      int lo = 0;
+      int hi = elementCount;
+
+      while (lo < hi)
+        {
+          int mid = (lo + hi) >>> 1;
+
+          if (elementData[mid] < element || after && elementData[mid] == element)
+            lo = mid+1;
+          else
+            hi = mid;
+        }
+
+      return lo;
+    }
+
+  /**
+   * Returns the index of the first occurrence of the specified element
+   * at or after the specified index in this sorted CharArrayList, or -1.
+   */
+  private final int _sortedIndexOf (char element, int index)
+    {
+      int i = Math.max(index,_bound(element,false));
+      return i < elementCount && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Returns the index of the last occurrence of the specified element
+   * before the specified index in this sorted CharArrayList, or -1.
+   */
+  private final int _sortedLastIndexOf (char element, int index)
+    {
+      int i = Math.min(index,_bound(element,true)) - 1;
+      return i >= 0 && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Inserts the specified element at the specified index, and returns
+   * <tt>true</tt>.
+   */
+  private final boolean _insert (int index, char element)
+    {
+      if (elementCount == elementData.length) _grow();
+      System.arraycopy(elementData,index,elementData,index+1,elementCount-index);
+      elementData[index] = element;
+      elementCount++;
+      return true;
+    }
+
+  /**
+   * Returns the element at the specified position in this CharArrayList.
+   *
+   * @exception ArrayIndexOutOfBoundsException if the index is invalid.
+   */
+  public final char get (int index)
+    {
+      return elementData[index];
+    }
+
+  /**
+   * Replaces the element at the specified position in this CharArrayList with
+   * the specified element.
+   *
+   * @param     index index of element to replace.
+   * @param     element element to be stored at the specified position.
+   * @return    the element previously at the specified position.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final char set (int index, char element)
+    {
+      _unsorted("set");
+
+      char old = elementData[index];
+      elementData[index] = element;
+      return old;
+    }
+
+  /**
+   * Replaces the element at the last position in this CharArrayList with
+   * the specified element.
+   *
+   * @param     element element to be stored at the last position.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final void setLast (char element)
+    {
+      _unsorted("setLast");
+
+      elementData[elementCount-1] = element;
+    }
+
+  /**
+   * Appends the specified element to the end of this CharArrayList.
+   *
+   * @param     element element to be appended to this CharArrayList.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean add (char element)
+    {
+      if (_sorted)
+        return _insert(_bound(element,true),element);
+
+      if (elementCount == elementData.length) _grow();
+      elementData[elementCount++] = element;
+      return true;
+    }
+
+  /**
+   * Removes the first occurrence of the specified element. If this CharArrayList 
+   * does not contain the element, it is left unchanged. 
+   * <p>
+   * <b>N.B.</b>As for <tt>IntArrayList</tt>, there is no <tt>remove</tt>
+   * method; its functionality is provided by <tt>removeIndex(int)</tt>
+   * and <tt>removeElement(char)</tt>.
+   *
+   * @param     element element to be removed from this CharArrayList, if present.
+   * @return    true if this CharArrayList contained the specified element.
+   */
+  public final boolean removeElement (char element)
+    {
+      int i = indexOf(element);
+
+      if (i < 0) return false;
+
+      for (;i<elementCount-1;i++)
+        elementData[i] = elementData[i+1];
+
+      elementCount--;
+
+      return true;
+    }
+
+  /**
+   * Inserts the specified <tt>element</tt> at the specified
+   * <tt>index</tt> position in this <tt>CharArrayList</tt>. Shifts the
+   * element currently at that position (if any) and any subsequent
+   * elements to the right (adds one to their indices).
+   *
+   * @param     index index at which the specified element is to be inserted.
+   * @param     element element to be inserted.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final void add (int index, char element)
+    {
+      _unsorted("add");
+
+      // System.out.println("*** Need to insert element "+element+" at index "+index+" into "+this);
+      // System.out.println("*** Ensuring capacity of "+(elementCount+1));
+      ensureCapacity(elementCount+1);
+      elementCount++;
+      // System.out.println("*** Current capacity is "+elementData.length);
+
+      for (int i=elementCount-1; i>index; i--)
+	// {
+	//   System.out.println("*** Shifting element at position "+(i-1)+" ("+elementData[i-1]+") to position "+i);
+	  elementData[i] = elementData[i-1];
+        // }
+
+      elementData[index] = element;
+      // System.out.println("*** New set of indices is now "+this);
+    }
+
+  /**
+   * Removes the element at the specified position and shifts any subsequent
+   * elements to the left (subtracts one from their indices). Returns the
+   * element that was removed.
+   *
+   * @param     index the index of the element to removed.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final char removeIndex (int index)
+    {
+      char old = elementData[index];
+      
+      for (int i=index; i<elementCount-1; i++)
+        elementData[i] = elementData[i+1];
+
+      elementCount--;
+
+      return old;
+    }
+
+  /**
+   * Removes all of the elements from this CharArrayList.
+   */
+  public final void clear ()
+    {
+      elementCount = 0;
+    }
+
+  /**
+   * Returns true if this CharArrayList contains all of the elements in the
+   * specified array.
+   *
+   * @param     a array containing the elements to be tested for membership.
+   * @return    true if all of the elements of the specified array belong in this.
+   */
+  public final boolean containsAll (char[] a)
+    {
+      for (int i=0; i<a.length; i++)
+        if (!contains(a[i])) return false;
+
+      return true;
+    }
+
+  /**
+   * Returns true if this CharArrayList contains all of the elements in the
+   * specified CharArrayList.
+   *
+   * @param     v CharArrayList of elements to be tested for membership.
+   * @return    true if all of the elements of the specified collection belong in this.
+   */
+  public final boolean containsAll (CharArrayList v)
+    {
+      for (int i=v.size(); i-->0;)
+        if (!contains(v.get(i))) return false;
+
+      return true;
+    }
+
+  /**
+   * Appends all of the elements in the specified array to the end
+   * of this CharArrayList, in the order of the array.
+   *
+   * @param     a array containing the elements to be inserted.
+   * @exception ClassCastException if the collection contains a non-number.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean addAll (char[] a)
+    {
+      ensureCapacity(elementCount+a.length);
+
+      if (_sorted)
+        {
+          System.arraycopy(a,0,elementData,elementCount,a.length);
+          elementCount += a.length;
+          sort();
+          return true;
+        }
+
+      for (int i=0; i<a.length; i++) add(a[i]);
+      return true;
+    }
+
+  /**
+   * Appends all of the elements in the specified CharArrayList to the end
+   * of this CharArrayList.
+   *
+   * @param     v the CharArrayList of elements to be added.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean addAll (CharArrayList v)
+    {
+      int size = v.size();
+      ensureCapacity(elementCount+size);
+
+      if (_sorted)
+        {
+          System.arraycopy(v.elementData,0,elementData,elementCount,size);
+          elementCount += size;
+          sort();
+          return true;
+        }
+
+      for (int i=0; i<size; i++) add(v.get(i));
+      return true;
+    }
+
+  /**
+   * Removes from this CharArrayList all of its elements that are contained
+   * in the specified array. Note that all occurrences of such elemeents
+   * are removed - not just the first.
+   *
+   * @param     a array of elements to be removed.
+   * @return    true if this CharArrayList changed as a result of the call.
+   */
+  public final boolean removeAll (char[] a)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int j=0; j<elementCount; j++)
+        for (int i=0; i<a.length; i++)
+          if (a[i] == elementData[j])
+            {
+              indices.add(j);
+              break;
+            }
+
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Removes from this CharArrayList all of its elements that are contained
+   * in the specified CharArrayList. Note that all occurrences of such elemeents
+   * are removed - not just the first.
+   *
+   * @param     v the CharArrayList of elements to be removed.
+   * @return    true if this CharArrayList changed as a result of the call.
+   */
+  public final boolean removeAll (CharArrayList v)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int j=0; j<elementCount; j++)
+        if (v.contains(elementData[j]))
+          indices.add(j);
+
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Removes from this CharArrayList the first occurrence of the elements
+   * that are contained in the specified array
+   *
+   * @param     a array of elements to be removed.
+   * @return    true if this CharArrayList changed as a result of the call.
+   */
+  public final boolean removeAllFirst (char[] a)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int i=0; i<a.length; i++)
+        for (int j=0; j<elementCount; j++)
+          if (a[i] == elementData[j] && !indices.contains(j))
+            {
+              indices.add(j);
+              break;
+            }
+
+      indices.sort();
+      removeAllIndices(indices);
+      return !indices.isEmpty();          
+    }
+
+  /**
+   * Removes from this CharArrayList the first occurrence of the elements
+   * that are contained in the specified CharArrayList.
+   *
+   * @param     v the CharArrayList of elements to be removed.
+   * @return    true if this CharArrayList changed as a result of the call.
+   */
+  public final boolean removeAllFirst (CharArrayList v)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      int size = v.size();
+
+      for (int i=0; i<size; i++)
+        for (int j=0; j<elementCount; j++)
+          if (v.get(i) == elementData[j] && !indices.contains(j))
+            {
+              indices.add(j);
+              break;
+            }
+
+      indices.sort();
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Retains only the elements in this CharArrayList whose elements are
+   * contained in the specified CharArrayList. In other words, removes from
+   * this CharArrayList all of its elements that are not contained in the
+   * specified CharArrayList.
+   *
+   * @param     v CharArrayList of elements to be retained.
+   * @return    true if this CharArrayList changed as a result of the call.
+   */
+  public final boolean retainAll (CharArrayList v)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int i=0; i<elementCount; i++)
+        if (!v.contains(elementData[i]))
+          indices.add(i);
+
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Inserts all the elements in the specified array at the specified
+   * index in this CharArrayList. Shifts the element currently at that
+   * position (if any) and any subsequent elements to the right (adds
+   * the length of the array to their indices).
+   *
+   * @param     index index at which the specified element is to be inserted.
+   * @param     a array of elements to be inserted.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final void addAll (int index, char[] a)
+    {
+      _unsorted("addAll");
+
+      if (elementCount+a.length < elementData.length)
+        {
+          for (int i=elementCount; i-->index;)
+            elementData[i+a.length] = elementData[i];
+
+          for (int i=0; i<a.length; i++)
+            elementData[index+i] = a[i];
+          
+          elementCount += a.length;
+          return;
+        }
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      char[] newArray = new char[_increasedCapacity(elementCount+a.length)];
+
+      for (int i=0; i<index; i++)
+        newArray[i] = elementData[i];
+
+      for (int i=0; i<a.length; i++)
+        newArray[index+i] = a[i];
+
+      for (int i=index+a.length; i<elementCount+a.length; i++)
+        newArray[i] = elementData[i-a.length];
+
+      elementData = newArray;
+      elementCount += a.length;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Inserts all of the elements in the specified CharArrayList into this
+   * CharArrayList at the specified position. Shifts the element currently
+   * at that position (if any) and any subsequent elements to the right
+   * (increases their indices). The new elements will appear in this
+   * CharArrayList in their order in the specified CharArrayList.
+   *
+   * @param     index index where to insert the first element
+   * @param     v CharArrayList to be inserted into this CharArrayList.
+   * @exception ArrayIndexOutOfBoundsException if index is invalid.
+   */
+  public final void addAll (int index, CharArrayList v)
+    {
+      _unsorted("addAll");
+
+      int size = v.size();
+      
+      if (elementCount+size < elementData.length)
+        {
+          for (int i=elementCount; i-->index;)
+            elementData[i+size] = elementData[i];
+
+          for (int i=0; i<size; i++)
+            elementData[index+i] = v.get(i);
+          
+          elementCount += size;
+          return;
+        }
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      char[] newArray = new char[_increasedCapacity(elementCount+size)];
+
+      for (int i=0; i<index; i++)
+        newArray[i] = elementData[i];
+
+      for (int i=0; i<size; i++)
+        newArray[index+i] = v.get(i);
+
+      for (int i=index+size; i<elementCount+size; i++)
+        newArray[i] = elementData[i-size];
+
+      elementData = newArray;
+      elementCount += size;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Compares the specified object with this CharArrayList for equality.
+   * Returns true if and only if the specified object is also an
+   * CharArrayList, both have the same size, and all corresponding pairs of
+   * elements are equal. In other words, two CharArrayLists are defined to
+   * be equal if they contain the same elements in the same order.
+   *
+   * @param     o the object to be compared for equality with this CharArrayList.
+   * @return    true if the specified object is equal to this CharArrayList
+   */
+  public final boolean equals (Object o)
+    {
+      if (o == this)
+	return true;
+      
+      if (!(o instanceof CharArrayList))
+	return false;
+
+      CharArrayList other = (CharArrayList)o;
+
+      if (other.size() != elementCount)
+	return false;
+
+      return Arrays.equals(elementData,0,elementCount,other.elementData,0,elementCount);
+    }
+
+  /**
+   * Returns the hash code value for this CharArrayList.
+   */
+  public int hashCode ()
+    {
+      int code = elementCount;
+      int shift = 1;
+
+      for (int i=0; i<elementCount; i += Math.max(1,elementCount/4))
+        {
+          if (shift > 0)
+            code <<= 1;
+          else
+            code >>= 1;
+
+          code ^= elementData[i];
+          shift = -shift;
+        }
+
+      return code;
+    }
+
+  /**
+   * Returns a string representation of this CharArrayList
+   *
+   * @return    a string representation of this collection.
+   */
+  public String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (int i=0; i<elementCount; i++)
+        buf.append(elementData[i]+(i==elementCount-1?"":","));
+
+      return (buf.append("]")).toString();
+    }
+
+  /**
+   * Removes from this CharArrayList all of the elements whose index is
+   * between fromIndex, inclusive and toIndex, exclusive. Shifts any
+   * succeeding elements to the left (reduces their index). This call
+   * shortens the ArrayList by (toIndex - fromIndex) elements. (If
+   * toIndex &le; fromIndex, this operation has no effect.)
+   * <p>
+   * <b>N.B.</b> Note that this method is public, whereas - strangely
+   * enough, it is protected in the <tt>java.util.ArrayList</tt> API!
+   *
+   * @param     fromIndex index of first element to be removed.
+   * @param     toIndex index after last element to be removed.
+   */
+  public void removeRange (int fromIndex, int toIndex)
+    {
+      if (toIndex <= fromIndex) return;
+
+      toIndex = Math.min(toIndex, elementCount);
+
+      int gap = toIndex - fromIndex;
+
+      for (int i=fromIndex; i<toIndex; i++)
+        elementData[i] = elementData[i+gap];
+
+      elementCount -= gap;
+    }
+
+  // NEW API:
+
+  protected float incrementFactor = 2.0f;
+
+  /**
+   * <p>
+   * @param     incrementFactor a float that is between 1.1 and 5.0
+   * @exception IllegalArgumentException if not between 1.1 and 5.0
+   */
+  public final void setIncrementFactor (float incrementFactor)
+    {
+      if (incrementFactor < 1.1 || incrementFactor > 5.0)
+        throw new IllegalArgumentException("Increment factor "+incrementFactor
+                                           +" must be in [1.1,5.0] range");
+      this.incrementFactor = incrementFactor;
+    }
+
+  /**
+   * Clears all elements of this CharArrayList at index equal to or
+   * greater than the specified index. If this index value is out range,
+   * this clears all the CharArrayList.
+   *
+   * @param	index the index above which clearing takes effect
+   */
+    public final void clear (int index)
+    {
+      elementCount = (index < 0 || index >= elementCount) ? 0 : index;
+    }
+
+  // PRIVATES:
+
+  /**
+   * A constructor used privately for cloning only...
+   */
+  private CharArrayList (char[] elementData, int elementCount,
+                     int capacityIncrement, float incrementFactor)
+    {
+      this.elementData = elementData;
+      this.elementCount = elementCount;
+      this.capacityIncrement = capacityIncrement;
+      this.incrementFactor = incrementFactor;
+    }
+
+  /**
+   * Grows the size of the internal array.
+   */
+  private final void _grow ()
+    {
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      char[] newArray = new char[_increasedCapacity()];
+
+      for (int i=0; i<elementCount; i++)
+        newArray[i] = elementData[i];
+
+      elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Computes a greater capacity for this CharArrayList.
+   *
+   * @return    the increased capacity
+   */
+  private final int _increasedCapacity ()
+    {
+      if (capacityIncrement <= 0)
+        {
+          int capacity = elementData.length == 0 ? 1 : elementData.length;
+          return (int)Math.floor(capacity*incrementFactor+1);
+        }
+
+      return elementData.length+capacityIncrement;
+    }
+
+  /**
+   * Computes a greater capacity for this CharArrayList that is at least
+   * the specified capacity.
+   *
+   * @param     minCapacity the minimum necessary capacity.
+   * @return    the increased capacity
+   */
+  private final int _increasedCapacity (int minCapacity)
+    {
+      if (capacityIncrement <= 0)
+        {
+          int capacity = elementData.length == 0 ? 1 : elementData.length;
+          return Math.max(minCapacity,
+                          (int)Math.floor(capacity*incrementFactor));
+        }
+
+      return Math.max(minCapacity,elementData.length+capacityIncrement);
+    }
+
+  /**
+   * Removes from this CharArrayList all of its elements that are located at
+   * the indices in the specified IntArrayList. This assumes that the indices
+   * appear sorted in increasing order.
+   *
+   * @param     indices indices of elements to be removed.
+   */
+  private final void removeAllIndices (IntArrayList indices)
+    {
+      int size = indices.size();
+
+      for (int i=1; i<=size; i++)
+        {
+          int lo = indices.get(i-1);
+          int hi = (i < size) ? indices.get(i) : elementCount;
+          for (int j=lo+1; j<hi; j++) elementData[j-i] = elementData[j];
+        }
+
+      elementCount -= size;
+    }
+}
@@ -0,0 +1,132 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 16:53:02 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+/**
+ * This class implements a persistent stack of doubles using a Lisp-style
+ * list of chunks (see <a href="ChunkedStack.html"><tt>ChunkedStack</tt></a>).
+ * It has the same API as <a href="LinkedDoubleStack.html"><tt>LinkedDoubleStack</tt></a>,
+ * with <tt>mark()</tt> and <tt>reset(Mark)</tt> in lieu of <tt>top()</tt>
+ * and <tt>set(Cell)</tt>.
+ */
+
+public class ChunkedDoubleStack extends ChunkedStack
+{
+  public final void push (double x)
+    {
+      if (!_isWritable())
+        _grow();
+
+      ((Chunk)_chunk).contents[_size] = x;
+      _pushed();
+    }
+
+  public final double pop ()
+    {
+      if (_chunk == null)
+        throw new EmptyStackException();
+
+      double x = ((Chunk)_chunk).contents[_size-1];
+      _popped();
+
+      return x;
+    }
+
+  public final double peek ()
+    {
+      if (_chunk == null)
+        throw new EmptyStackException();
+
+      return ((Chunk)_chunk).contents[_size-1];
+    }
+
+  public final double peek (int n)
+    {
+      if (n < 0)
+        throw new StackPeekException("`negative index: "+n);
+
+      ChunkedStack.Chunk chunk = _chunk;
+      int size = _size;
+
+      for (;;n -= size,size = chunk.below,chunk = chunk.next)
+        {
+          if (chunk == null)
+            throw new EmptyStackException();
+
+          if (n < size)
+            return ((Chunk)chunk).contents[size-n-1];
+        }
+    }
+
+  public final DoubleIterator iterator ()
+    {
+      return new ChunkedDoubleStackIterator(_chunk,_size);
+    }
+
+  public final String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (DoubleIterator i=iterator(); i.hasNext();)
+        {
+          buf.append(i.next());
+          if (i.hasNext()) buf.append(",");
+        }
+
+      return buf.append("]").toString();
+    }
+
+  protected final ChunkedStack.Chunk _newChunk (int capacity)
+    {
+      return new Chunk(capacity);
+    }
+
+  protected static class Chunk extends ChunkedStack.Chunk
+    {
+      final double[] contents;
+
+      Chunk (int capacity)
+        {
+          super(capacity);
+          contents = new double[capacity];
+        }
+    }
+
+  private static class ChunkedDoubleStackIterator implements DoubleIterator
+    {
+      private ChunkedStack.Chunk _chunk;
+      private int _size;
+
+      public ChunkedDoubleStackIterator (ChunkedStack.Chunk chunk, int size)
+        {
+          _chunk = chunk;
+          _size = size;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _chunk != null;
+        }
+
+      public final double next ()
+        {
+          double x = ((Chunk)_chunk).contents[--_size];
+
+          if (_size == 0)
+            {
+              _size = _chunk.below;
+              _chunk = _chunk.next;
+            }
+
+          return x;
+        }
+    }
+}
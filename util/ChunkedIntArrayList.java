@@ -0,0 +1,440 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 22:05:19 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * This class implements an append-only vector of primitive <tt>int</tt>
+ * elements (such as a log of tokens or events) with the
+ * <tt>get</tt>/<tt>set</tt>/<tt>add</tt>/<tt>size</tt> API of
+ * <a href="IntArrayList.html"><tt>IntArrayList</tt></a>, which grows
+ * without copying its elements.
+ * <p>
+ * Its elements are kept in chunks of <tt>CHUNK_SIZE</tt> ints. While the
+ * list fits in one chunk, this chunk grows by doubling; beyond that, a
+ * new chunk is added each time the last one is full, so that appending
+ * takes constant time and never needs twice the memory of the list.
+ * Only the array of references to the chunks (one per
+ * <tt>CHUNK_SIZE</tt> elements) is copied when it is full. Elements are
+ * copied only on request: by <tt>trimToSize()</tt>, which trims the last
+ * chunk, and by <tt>toArray()</tt>.
+ * <p>
+ * For lists of more than <tt>2^31</tt> elements, see
+ * <a href="BigIntArrayList.html"><tt>BigIntArrayList</tt></a>. Like
+ * <tt>IntArrayList</tt>, this class is <i>not</i> synchronized.
+ */
+
+public class ChunkedIntArrayList
+{
+  /**
+   * The base-2 logarithm of the number of elements of a chunk.
+   */
+  private final static int CHUNK_SHIFT = 14;
+
+  /**
+   * The number of elements of a chunk (<tt>2^14</tt>, or 64 KB).
+   */
+  public final static int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+  /**
+   * The mask giving an element's index within its chunk.
+   */
+  private final static int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  /**
+   * The chunks holding the elements; only the first <tt>_chunkCount</tt>
+   * are allocated. The last one may be shorter than <tt>CHUNK_SIZE</tt>
+   * if it is the only one or if the list was trimmed.
+   */
+  private int[][] _chunks;
+
+  /**
+   * The number of allocated chunks.
+   */
+  private int _chunkCount;
+
+  /**
+   * The number of elements the allocated chunks can hold.
+   */
+  private long _capacity;
+
+  /**
+   * The number of elements of this list.
+   */
+  private int _size;
+
+  /**
+   * Constructs an empty list with the specified initial capacity.
+   *
+   * @param     initialCapacity the initial capacity of the list.
+   * @exception IllegalArgumentException if the initial capacity is negative.
+   */
+  public ChunkedIntArrayList (int initialCapacity)
+    {
+      if (initialCapacity < 0)
+        throw new IllegalArgumentException("negative capacity: "+initialCapacity);
+
+      _chunks = new int[4][];
+      _chunks[0] = new int[Math.min(initialCapacity,CHUNK_SIZE)];
+      _chunkCount = 1;
+      _capacity = _chunks[0].length;
+      ensureCapacity(initialCapacity);
+    }
+
+  /**
+   * Constructs an empty list with an initial capacity of <tt>10</tt>.
+   */
+  public ChunkedIntArrayList ()
+    {
+      this(10);
+    }
+
+  /**
+   * Returns the number of elements of this list.
+   */
+  public final int size ()
+    {
+      return _size;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this list has no elements.
+   */
+  public final boolean isEmpty ()
+    {
+      return _size == 0;
+    }
+
+  /**
+   * Returns the number of elements this list can hold without allocating
+   * memory.
+   */
+  public final long capacity ()
+    {
+      return _capacity;
+    }
+
+  /**
+   * Increases the capacity of this list, if necessary, to ensure that it
+   * can hold at least the specified number of elements. The elements
+   * already in the list are copied only if they all fit in a chunk that
+   * is not full yet.
+   *
+   * @param     minCapacity the desired minimum capacity.
+   */
+  public final void ensureCapacity (int minCapacity)
+    {
+      if (minCapacity <= _capacity)
+        return;
+
+      int last = _chunkCount-1;
+
+      if (_chunks[last].length < CHUNK_SIZE)
+        {
+          // the last chunk is the only one, or was trimmed:
+          int needed = minCapacity - (last << CHUNK_SHIFT);
+          int length = last == 0 ? Math.max(needed,2*_chunks[0].length) : needed;
+          _chunks[last] = Arrays.copyOf(_chunks[last],Math.min(CHUNK_SIZE,length));
+          _capacity = ((long)last << CHUNK_SHIFT) + _chunks[last].length;
+
+          if (minCapacity <= _capacity)
+            return;
+        }
+
+      int needed = (int)(((long)minCapacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+
+      if (needed > _chunks.length)
+        _chunks = Arrays.copyOf(_chunks,Math.max(needed,2*_chunks.length));
+
+      while (_chunkCount < needed)
+        _chunks[_chunkCount++] = new int[CHUNK_SIZE];
+
+      _capacity = (long)_chunkCount << CHUNK_SHIFT;
+    }
+
+  /**
+   * Trims the capacity of this list to its size, by releasing the chunks
+   * it does not need and trimming its last chunk. This copies at most
+   * <tt>CHUNK_SIZE</tt> elements.
+   */
+  public final void trimToSize ()
+    {
+      int needed = Math.max(1,(_size + CHUNK_MASK) >>> CHUNK_SHIFT);
+
+      Arrays.fill(_chunks,needed,_chunkCount,null);
+      _chunkCount = needed;
+      _chunks = Arrays.copyOf(_chunks,Math.max(4,needed));
+
+      int length = _size - ((needed-1) << CHUNK_SHIFT);
+      if (_chunks[needed-1].length != length)
+        _chunks[needed-1] = Arrays.copyOf(_chunks[needed-1],length);
+
+      _capacity = _size;
+    }
+
+  /**
+   * Returns the element at the specified index.
+   *
+   * @param     index an index into this list.
+   * @exception IndexOutOfBoundsException if the index is out of range.
+   */
+  public final int get (int index)
+    {
+      if (index < 0 || index >= _size)
+        throw new IndexOutOfBoundsException(index+" >= "+_size);
+
+      return _chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+  /**
+   * Replaces the element at the specified index with the specified one,
+   * and returns the element previously there.
+   *
+   * @param     index the index of the element to replace.
+   * @param     element the element to store at this index.
+   * @exception IndexOutOfBoundsException if the index is out of range.
+   */
+  public final int set (int index, int element)
+    {
+      if (index < 0 || index >= _size)
+        throw new IndexOutOfBoundsException(index+" >= "+_size);
+
+      int[] chunk = _chunks[index >>> CHUNK_SHIFT];
+      int old = chunk[index & CHUNK_MASK];
+      chunk[index & CHUNK_MASK] = element;
+      return old;
+    }
+
+  /**
+   * Returns the last element of this list.
+   *
+   * @exception NoSuchElementException if this list is empty.
+   */
+  public final int lastElement ()
+    {
+      if (_size == 0)
+        throw new NoSuchElementException("empty ChunkedIntArrayList");
+
+      return get(_size-1);
+    }
+
+  /**
+   * Appends the specified element to the end of this list.
+   *
+   * @param     element the element to append.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean add (int element)
+    {
+      if (_size == _capacity)
+        ensureCapacity(_size+1);
+
+      _chunks[_size >>> CHUNK_SHIFT][_size & CHUNK_MASK] = element;
+      _size++;
+      return true;
+    }
+
+  /**
+   * Appends all the elements of the specified array to the end of this list.
+   *
+   * @param     a an array of ints.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean addAll (int[] a)
+    {
+      _append(a,a.length);
+      return true;
+    }
+
+  /**
+   * Appends all the elements of the specified <tt>IntArrayList</tt> to the
+   * end of this list.
+   *
+   * @param     v a list of ints.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean addAll (IntArrayList v)
+    {
+      _append(v.elementData,v.elementCount);
+      return true;
+    }
+
+  /**
+   * Appends the first <tt>length</tt> elements of the specified array,
+   * with one <tt>System.arraycopy</tt> per chunk.
+   */
+  private final void _append (int[] a, int length)
+    {
+      ensureCapacity(_size+length);
+
+      for (int offset=0; offset<length;)
+        {
+          int start = _size & CHUNK_MASK;
+          int count = Math.min(length-offset,CHUNK_SIZE-start);
+          System.arraycopy(a,offset,_chunks[_size >>> CHUNK_SHIFT],start,count);
+          _size += count;
+          offset += count;
+        }
+    }
+
+  /**
+   * Removes the last element of this list and returns it.
+   *
+   * @exception NoSuchElementException if this list is empty.
+   */
+  public final int removeLast ()
+    {
+      int element = lastElement();
+      _size--;
+      return element;
+    }
+
+  /**
+   * Removes all the elements of this list, keeping its capacity.
+   */
+  public final void clear ()
+    {
+      _size = 0;
+    }
+
+  /**
+   * Copies the elements of this list into the specified array, which must
+   * be big enough to hold them all.
+   *
+   * @param     a the array into which the elements get copied.
+   * @exception IndexOutOfBoundsException if the array is too small.
+   */
+  public final void copyInto (int[] a)
+    {
+      for (int offset=0; offset<_size; offset+=CHUNK_SIZE)
+        System.arraycopy(_chunks[offset >>> CHUNK_SHIFT],0,a,offset,Math.min(CHUNK_SIZE,_size-offset));
+    }
+
+  /**
+   * Returns a new array of the elements of this list.
+   */
+  public final int[] toArray ()
+    {
+      int[] a = new int[_size];
+      copyInto(a);
+      return a;
+    }
+
+  /**
+   * Applies the specified action to each element of this list, in order.
+   *
+   * @param     action the action to apply to each element.
+   */
+  public final void forEach (IntConsumer action)
+    {
+      for (int offset=0; offset<_size; offset+=CHUNK_SIZE)
+        {
+          int[] chunk = _chunks[offset >>> CHUNK_SHIFT];
+          int end = Math.min(CHUNK_SIZE,_size-offset);
+
+          for (int i=0; i<end; i++)
+            action.accept(chunk[i]);
+        }
+    }
+
+  /**
+   * Returns an iterator through the elements of this list, in order.
+   */
+  public final IntIterator iterator ()
+    {
+      return new IntIterator()
+        {
+          private int _index;
+
+          public final boolean hasNext ()
+            {
+              return _index < _size;
+            }
+
+          public final int next ()
+            {
+              if (_index >= _size)
+                throw new NoSuchElementException();
+
+              int index = _index++;
+              return _chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+            }
+        };
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified object is a
+   * <tt>ChunkedIntArrayList</tt> with the same elements in the same order.
+   *
+   * @param     o the object to be compared for equality with this list.
+   */
+  public final boolean equals (Object o)
+    {
+      if (o == this)
+        return true;
+
+      if (!(o instanceof ChunkedIntArrayList))
+        return false;
+
+      ChunkedIntArrayList other = (ChunkedIntArrayList)o;
+
+      if (other._size != _size)
+        return false;
+
+      for (int offset=0; offset<_size; offset+=CHUNK_SIZE)
+        {
+          int end = Math.min(CHUNK_SIZE,_size-offset);
+          if (!Arrays.equals(_chunks[offset >>> CHUNK_SHIFT],0,end,other._chunks[offset >>> CHUNK_SHIFT],0,end))
+            return false;
+        }
+
+      return true;
+    }
+
+  /**
+   * Returns the hash code value for this list, computed from its size
+   * and a few of its elements like that of an <tt>IntArrayList</tt>.
+   */
+  public int hashCode ()
+    {
+      int code = _size;
+      int shift = 1;
+
+      for (int i=0; i<_size; i += Math.max(1,_size/4))
+        {
+          if (shift > 0)
+            code <<= 1;
+          else
+            code >>= 1;
+
+          code ^= get(i);
+          shift = -shift;
+        }
+
+      return code;
+    }
+
+  /**
+   * Returns a string representation of this list.
+   */
+  public String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (int i=0; i<_size; i++)
+        buf.append(get(i)+(i==_size-1?"":","));
+
+      return (buf.append("]")).toString();
+    }
+}
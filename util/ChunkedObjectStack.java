@@ -0,0 +1,144 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 16:53:41 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+
+/**
+ * This class implements a persistent stack of objects using a Lisp-style
+ * list of chunks (see <a href="ChunkedStack.html"><tt>ChunkedStack</tt></a>).
+ * It has the same API as <a href="LinkedObjectStack.html"><tt>LinkedObjectStack</tt></a>,
+ * with <tt>mark()</tt> and <tt>reset(Mark)</tt> in lieu of <tt>top()</tt>
+ * and <tt>set(Cell)</tt>. The slots of popped objects are cleared unless
+ * a mark may still see them.
+ */
+
+public class ChunkedObjectStack extends ChunkedStack
+{
+  public final void push (Object object)
+    {
+      if (!_isWritable())
+        _grow();
+
+      ((Chunk)_chunk).contents[_size] = object;
+      _pushed();
+    }
+
+  public final Object pop ()
+    {
+      if (_chunk == null)
+        throw new EmptyStackException();
+
+      Object[] contents = ((Chunk)_chunk).contents;
+      int index = _size-1;
+      Object object = contents[index];
+
+      if (_popped())
+        contents[index] = null;
+
+      return object;
+    }
+
+  public final Object peek ()
+    {
+      if (_chunk == null)
+        throw new EmptyStackException();
+
+      return ((Chunk)_chunk).contents[_size-1];
+    }
+
+  public final Object peek (int n)
+    {
+      if (n < 0)
+        throw new StackPeekException("`negative index: "+n);
+
+      ChunkedStack.Chunk chunk = _chunk;
+      int size = _size;
+
+      for (;;n -= size,size = chunk.below,chunk = chunk.next)
+        {
+          if (chunk == null)
+            throw new EmptyStackException();
+
+          if (n < size)
+            return ((Chunk)chunk).contents[size-n-1];
+        }
+    }
+
+  public final Iterator iterator ()
+    {
+      return new ChunkedObjectStackIterator(_chunk,_size);
+    }
+
+  public final String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (Iterator i=iterator(); i.hasNext();)
+        {
+          buf.append(i.next());
+          if (i.hasNext()) buf.append(",");
+        }
+
+      return buf.append("]").toString();
+    }
+
+  protected final ChunkedStack.Chunk _newChunk (int capacity)
+    {
+      return new Chunk(capacity);
+    }
+
+  protected static class Chunk extends ChunkedStack.Chunk
+    {
+      final Object[] contents;
+
+      Chunk (int capacity)
+        {
+          super(capacity);
+          contents = new Object[capacity];
+        }
+    }
+
+  private static class ChunkedObjectStackIterator implements Iterator
+    {
+      private ChunkedStack.Chunk _chunk;
+      private int _size;
+
+      public ChunkedObjectStackIterator (ChunkedStack.Chunk chunk, int size)
+        {
+          _chunk = chunk;
+          _size = size;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _chunk != null;
+        }
+
+      public final Object next ()
+        {
+          Object object = ((Chunk)_chunk).contents[--_size];
+
+          if (_size == 0)
+            {
+              _size = _chunk.below;
+              _chunk = _chunk.next;
+            }
+
+          return object;
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+}
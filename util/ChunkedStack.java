@@ -0,0 +1,264 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 16:40:12 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+/**
+ * This class specifies an abstract persistent stack represented as a
+ * Lisp-style list of <i>chunks</i>, each holding several elements in an
+ * array. Like a <a href="LinkedStack.html"><tt>LinkedStack</tt></a>, the
+ * state of such a stack may be saved with <tt>mark()</tt> and restored
+ * later with <tt>reset(Mark)</tt>, on this stack or on another one, in
+ * constant time and without copying: all the stacks and marks share
+ * their common bottom. But instead of one cell per element, a push
+ * allocates a new chunk only when the top chunk is full, or when a saved
+ * state still sees the slot above the top.
+ * <p>
+ * This works because the elements of a chunk, once written, are never
+ * changed while any other stack or mark may see them. A stack writes
+ * in place only at the first free slot of its top chunk. A pop frees the
+ * slot of the element it removes unless a mark may see it. A mark
+ * freezes the chunks it sees up to its depth, and stops at the first
+ * one already frozen that far (so that marking takes amortized constant
+ * time).
+ * <p>
+ * Chunks hold from <tt>MIN_CHUNK_SIZE</tt> to <tt>MAX_CHUNK_SIZE</tt>
+ * elements: a chunk linked above a full one is twice as large, and one
+ * linked above a shared one (as happens after backtracking) starts small
+ * again.
+ * It is the mother of:
+ * <ul>
+ * <li> <a href="ChunkedIntStack.html"><tt>ChunkedIntStack</tt></a>
+ * <li> <a href="ChunkedDoubleStack.html"><tt>ChunkedDoubleStack</tt></a>
+ * <li> <a href="ChunkedObjectStack.html"><tt>ChunkedObjectStack</tt></a>
+ * </ul>
+ */
+
+abstract public class ChunkedStack
+{
+  /**
+   * The capacity of the bottom chunk of a stack.
+   */
+  public final static int MIN_CHUNK_SIZE = 4;
+
+  /**
+   * The largest capacity of a chunk.
+   */
+  public final static int MAX_CHUNK_SIZE = 64;
+
+  /**
+   * The top chunk of this stack, or <tt>null</tt> if it is empty.
+   */
+  protected Chunk _chunk;
+
+  /**
+   * The number of elements of the top chunk that are in this stack; it
+   * is positive unless this stack is empty.
+   */
+  protected int _size;
+
+  /**
+   * The last mark returned by <tt>mark()</tt>, which is returned again
+   * as long as this stack is not modified.
+   */
+  private Mark _mark;
+
+  /**
+   * A chunk that was popped off entirely without having been seen by
+   * any mark, and which is reused by the next push that needs a new
+   * chunk.
+   */
+  private Chunk _spare;
+
+  /**
+   * Returns a mark of the current state of this stack, which
+   * <tt>reset(Mark)</tt> restores.
+   */
+  public final Mark mark ()
+    {
+      if (_mark == null || _mark.chunk != _chunk || _mark.size != _size)
+        {
+          _mark = new Mark(_chunk,_size);
+
+          Chunk chunk = _chunk;
+          int size = _size;
+
+          while (chunk != null && chunk.frozen < size)
+            {
+              chunk.frozen = size;
+              size = chunk.below;
+              chunk = chunk.next;
+            }
+        }
+
+      return _mark;
+    }
+
+  /**
+   * Restores the state of a stack of the same kind as this one that
+   * is marked by the specified mark.
+   */
+  public final void reset (Mark mark)
+    {
+      _chunk = mark.chunk;
+      _size = mark.size;
+      _spare = null;
+    }
+
+  /**
+   * Returns the number of elements of this stack.
+   */
+  public final int size ()
+    {
+      return _chunk == null ? 0 : _chunk.base + _size;
+    }
+
+  public final boolean isEmpty ()
+    {
+      return _chunk == null;
+    }
+
+  public final void clear ()
+    {
+      _chunk = null;
+      _size = 0;
+      _spare = null;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff a pushed element may be written into the
+   * top chunk of this stack at index <tt>_size</tt>.
+   */
+  protected final boolean _isWritable ()
+    {
+      return _chunk != null && _size < _chunk.capacity && _chunk.used == _size;
+    }
+
+  /**
+   * Returns a new chunk of the specified capacity.
+   */
+  protected abstract Chunk _newChunk (int capacity);
+
+  /**
+   * Links a free chunk on top of this stack, whose top chunk cannot
+   * take the next element: the spare chunk if there is one, or else a
+   * new chunk, twice as large as the top one (up to <tt>MAX_CHUNK_SIZE</tt>)
+   * if it is full, or of <tt>MIN_CHUNK_SIZE</tt> if it is shared.
+   */
+  protected final void _grow ()
+    {
+      Chunk chunk = _spare;
+      _spare = null;
+
+      if (chunk == null)
+        chunk = _newChunk(_chunk == null || _size < _chunk.capacity
+                          ? MIN_CHUNK_SIZE : Math.min(MAX_CHUNK_SIZE,2*_chunk.capacity));
+
+      chunk.next = _chunk;
+      chunk.below = _size;
+      chunk.base = _chunk == null ? 0 : _chunk.base + _size;
+
+      _chunk = chunk;
+      _size = 0;
+    }
+
+  /**
+   * Records the element just written into the top chunk at index
+   * <tt>_size</tt> as being the new top of this stack.
+   */
+  protected final void _pushed ()
+    {
+      _chunk.used = ++_size;
+    }
+
+  /**
+   * Removes the top element of this stack, which must not be empty, and
+   * returns <tt>true</tt> iff its slot, which was at index <tt>_size-1</tt>
+   * in the top chunk, was freed and should be cleared if necessary.
+   */
+  protected final boolean _popped ()
+    {
+      Chunk chunk = _chunk;
+      boolean freed = false;
+
+      if (chunk.used == _size && chunk.frozen < _size)
+        {
+          chunk.used--;
+          freed = true;
+        }
+
+      if (--_size == 0)
+        {
+          _spare = chunk.used == 0 && chunk.frozen == 0 ? chunk : null;
+          _size = chunk.below;
+          _chunk = chunk.next;
+        }
+
+      return freed;
+    }
+
+  /**
+   * The class of marks of the states of a stack.
+   */
+  public static final class Mark
+    {
+      private final Chunk chunk;
+      private final int size;
+
+      private Mark (Chunk chunk, int size)
+        {
+          this.chunk = chunk;
+          this.size = size;
+        }
+    }
+
+  /**
+   * The class of the chunks of a stack, whose elements are held by an
+   * array in subclasses.
+   */
+  protected abstract static class Chunk
+    {
+      /**
+       * The chunk below this one, or <tt>null</tt> if this is a bottom chunk.
+       */
+      Chunk next;
+
+      /**
+       * The number of elements of <tt>next</tt> that are below this chunk.
+       */
+      int below;
+
+      /**
+       * The number of elements of all the chunks below this one.
+       */
+      int base;
+
+      /**
+       * The capacity of this chunk.
+       */
+      final int capacity;
+
+      /**
+       * The number of elements written in this chunk and not freed since.
+       */
+      int used;
+
+      /**
+       * The number of elements of this chunk that may be seen by a mark,
+       * and must therefore not be changed.
+       */
+      int frozen;
+
+      Chunk (int capacity)
+        {
+          this.capacity = capacity;
+        }
+    }
+}
@@ -0,0 +1,652 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 20:54:12 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a class of immutable sequences of ints sorted in increasing
+ * order (such as lists of ids), stored in much less space than an
+ * <a href="IntArrayList.html"><tt>IntArrayList</tt></a> when neighbouring
+ * elements are close to each other.
+ * <p>
+ * The elements are stored in blocks of <tt>BLOCK_SIZE</tt> consecutive
+ * elements. The first element of each block is kept as is in an
+ * <tt>int</tt> array, and each other element as its difference with the
+ * one before it, packed into the fewest bits holding the largest
+ * difference in its block. A sequence whose differences are less than
+ * <tt>2^b</tt> thus takes about <tt>b</tt> bits per element rather than
+ * 32: 4 to 8 times less for differences under 256 or 16. A scan decodes
+ * one block at a time into a small buffer, and a <tt>Cursor</tt> can skip
+ * ahead to the first element not less than a given int by searching the
+ * first elements of the blocks, which <tt>intersect</tt> and
+ * <tt>union</tt> use to skip the blocks that cannot contribute.
+ * <p>
+ * A sequence may contain duplicate elements, which are differences of
+ * <tt>0</tt>. The elements are compared as signed ints, and differences
+ * are taken modulo <tt>2^32</tt>, so that any sorted ints may be stored.
+ */
+
+public class CompressedIntSequence
+{
+  /**
+   * The number of elements of a block.
+   */
+  public final static int BLOCK_SIZE = 128;
+
+  /**
+   * The number of elements of this sequence.
+   */
+  private final int _size;
+
+  /**
+   * The first element of each block.
+   */
+  private final int[] _firsts;
+
+  /**
+   * The index in <tt>_data</tt> of the packed differences of each block.
+   */
+  private final int[] _offsets;
+
+  /**
+   * The number of bits of each packed difference of each block.
+   */
+  private final byte[] _widths;
+
+  /**
+   * The packed differences of all the blocks, followed by one more
+   * <tt>int</tt> so that a difference may always be read from two
+   * consecutive <tt>int</tt>s.
+   */
+  private final int[] _data;
+
+  /**
+   * Constructs a sequence of the elements of the specified list, which
+   * must be sorted in increasing order.
+   *
+   * @param     list a sorted list of ints.
+   * @exception IllegalArgumentException if the list is not sorted.
+   */
+  public CompressedIntSequence (IntArrayList list)
+    {
+      this(list.elementData,list.elementCount);
+    }
+
+  /**
+   * Constructs a sequence of the first <tt>size</tt> elements of the
+   * specified array, which must be sorted in increasing order.
+   *
+   * @param     a an array of ints.
+   * @param     size the number of elements to take from <tt>a</tt>.
+   * @exception IllegalArgumentException if the elements are not sorted.
+   */
+  public CompressedIntSequence (int[] a, int size)
+    {
+      this(_encode(a,size));
+    }
+
+  /**
+   * Constructs a sequence of the elements of the specified array, which
+   * must be sorted in increasing order.
+   *
+   * @param     a a sorted array of ints.
+   * @exception IllegalArgumentException if the array is not sorted.
+   */
+  public CompressedIntSequence (int[] a)
+    {
+      this(a,a.length);
+    }
+
+  /**
+   * Constructs the sequence encoded by the specified encoder.
+   */
+  private CompressedIntSequence (Encoder encoder)
+    {
+      encoder._flush();
+      _size = encoder._size;
+      _firsts = Arrays.copyOf(encoder._firsts,encoder._blocks);
+      _offsets = Arrays.copyOf(encoder._offsets,encoder._blocks);
+      _widths = Arrays.copyOf(encoder._widths,encoder._blocks);
+      _data = Arrays.copyOf(encoder._data,encoder._dataSize+1);
+    }
+
+  private static Encoder _encode (int[] a, int size)
+    {
+      Encoder encoder = new Encoder();
+
+      for (int i=0; i<size; i++)
+        encoder._add(a[i]);
+
+      return encoder;
+    }
+
+  /**
+   * Returns the number of elements of this sequence.
+   */
+  public final int size ()
+    {
+      return _size;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this sequence has no elements.
+   */
+  public final boolean isEmpty ()
+    {
+      return _size == 0;
+    }
+
+  /**
+   * Returns the approximate number of bytes taken by the arrays of this
+   * sequence, to compare with the <tt>4*size()</tt> bytes of the elements
+   * of an <tt>IntArrayList</tt>.
+   */
+  public final long sizeInBytes ()
+    {
+      return 4L*_data.length + 8L*_firsts.length + _widths.length;
+    }
+
+  /**
+   * Returns the element at the specified index, in <tt>O(BLOCK_SIZE)</tt>.
+   *
+   * @param     index an index into this sequence.
+   * @exception IndexOutOfBoundsException if the index is out of range.
+   */
+  public final int get (int index)
+    {
+      if (index < 0 || index >= _size)
+        throw new IndexOutOfBoundsException(index+" >= "+_size);
+
+      int block = index / BLOCK_SIZE;
+      int width = _widths[block];
+      int mask = width == 32 ? -1 : (1 << width) - 1;
+      int offset = _offsets[block];
+      int element = _firsts[block];
+
+      if (width > 0)
+        for (int i=0, bit=0; i<index%BLOCK_SIZE; i++, bit+=width)
+          element += _delta(offset,bit,mask);
+
+      return element;
+    }
+
+  /**
+   * Returns the first element of this sequence.
+   *
+   * @exception NoSuchElementException if this sequence is empty.
+   */
+  public final int first ()
+    {
+      if (_size == 0)
+        throw new NoSuchElementException("empty CompressedIntSequence");
+
+      return _firsts[0];
+    }
+
+  /**
+   * Returns the last element of this sequence.
+   *
+   * @exception NoSuchElementException if this sequence is empty.
+   */
+  public final int last ()
+    {
+      if (_size == 0)
+        throw new NoSuchElementException("empty CompressedIntSequence");
+
+      return get(_size-1);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this sequence contains the specified
+   * element, in <tt>O(log(size()/BLOCK_SIZE) + BLOCK_SIZE)</tt>.
+   *
+   * @param     element the element to look for.
+   */
+  public final boolean contains (int element)
+    {
+      Cursor cursor = cursor();
+      return cursor.advanceTo(element) && cursor.peek() == element;
+    }
+
+  /**
+   * Returns the difference packed at the specified bit of the block
+   * whose differences start at the specified offset.
+   */
+  private final int _delta (int offset, int bit, int mask)
+    {
+      int word = offset + (bit >>> 5);
+      long bits = (_data[word] & 0xFFFFFFFFL) | ((long)_data[word+1] << 32);
+      return (int)(bits >>> (bit & 31)) & mask;
+    }
+
+  /**
+   * Decodes the elements of the specified block into the specified
+   * buffer, and returns their number.
+   */
+  private final int _decode (int block, int[] buffer)
+    {
+      int count = Math.min(BLOCK_SIZE,_size-block*BLOCK_SIZE);
+      int width = _widths[block];
+      int element = _firsts[block];
+
+      buffer[0] = element;
+
+      if (width == 0)
+        {
+          Arrays.fill(buffer,1,count,element);
+          return count;
+        }
+
+      long mask = (1L << width) - 1;
+      int word = _offsets[block];
+      long bits = 0;
+      int available = 0;
+
+      // read the differences through a buffer of up to 63 bits:
+      for (int i=1; i<count; i++)
+        {
+          if (available < width)
+            {
+              bits |= (_data[word++] & 0xFFFFFFFFL) << available;
+              available += 32;
+            }
+
+          buffer[i] = element += (int)(bits & mask);
+          bits >>>= width;
+          available -= width;
+        }
+
+      return count;
+    }
+
+  /**
+   * Returns a new cursor through the elements of this sequence, in order.
+   */
+  public final Cursor cursor ()
+    {
+      return new Cursor();
+    }
+
+  /**
+   * Returns an iterator through the elements of this sequence, in order.
+   */
+  public final IntIterator iterator ()
+    {
+      return new Cursor();
+    }
+
+  /**
+   * Returns a new <tt>IntArrayList</tt> of the elements of this sequence.
+   */
+  public final IntArrayList toIntArrayList ()
+    {
+      IntArrayList list = new IntArrayList(_size);
+      int[] buffer = new int[BLOCK_SIZE];
+
+      for (int block=0; block<_firsts.length; block++)
+        {
+          int count = _decode(block,buffer);
+          System.arraycopy(buffer,0,list.elementData,list.elementCount,count);
+          list.elementCount += count;
+        }
+
+      return list;
+    }
+
+  /**
+   * Returns a new array of the elements of this sequence.
+   */
+  public final int[] toArray ()
+    {
+      return toIntArrayList().elementData;
+    }
+
+  /**
+   * Returns the sequence of the distinct elements that are in both this
+   * sequence and the specified one. The shorter sequence is scanned, and
+   * the longer one is skipped ahead to each of its elements, so that
+   * intersecting a short sequence with a long one decodes only the blocks
+   * of the long one that may hold common elements.
+   *
+   * @param     other a sequence to intersect with this one.
+   */
+  public final CompressedIntSequence intersect (CompressedIntSequence other)
+    {
+      Cursor shorter = (_size <= other._size ? this : other).cursor();
+      Cursor longer = (_size <= other._size ? other : this).cursor();
+      Encoder encoder = new Encoder();
+
+      while (shorter.hasNext())
+        {
+          int element = shorter.next();
+
+          if (!longer.advanceTo(element))
+            break;
+
+          if (longer.peek() == element)
+            encoder._addDistinct(element);
+        }
+
+      return new CompressedIntSequence(encoder);
+    }
+
+  /**
+   * Returns the sequence of the distinct elements that are in this
+   * sequence or in the specified one.
+   *
+   * @param     other a sequence to merge with this one.
+   */
+  public final CompressedIntSequence union (CompressedIntSequence other)
+    {
+      Cursor left = cursor();
+      Cursor right = other.cursor();
+      Encoder encoder = new Encoder();
+
+      while (left.hasNext() && right.hasNext())
+        {
+          int l = left.peek();
+          int r = right.peek();
+
+          if (l <= r)
+            {
+              encoder._addDistinct(l);
+              left.next();
+            }
+          else
+            {
+              encoder._addDistinct(r);
+              right.next();
+            }
+        }
+
+      Cursor rest = left.hasNext() ? left : right;
+      while (rest.hasNext())
+        encoder._addDistinct(rest.next());
+
+      return new CompressedIntSequence(encoder);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified object is a
+   * <tt>CompressedIntSequence</tt> with the same elements in the same
+   * order. Since the encoding of a sequence depends only on its elements,
+   * this compares the encodings.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof CompressedIntSequence))
+        return false;
+
+      CompressedIntSequence other = (CompressedIntSequence)object;
+
+      return _size == other._size
+          && Arrays.equals(_firsts,other._firsts)
+          && Arrays.equals(_widths,other._widths)
+          && Arrays.equals(_data,other._data);
+    }
+
+  public final int hashCode ()
+    {
+      return 31*Arrays.hashCode(_firsts) + Arrays.hashCode(_data);
+    }
+
+  public String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (Cursor cursor = cursor(); cursor.hasNext();)
+        {
+          buf.append(cursor.next());
+          if (cursor.hasNext()) buf.append(",");
+        }
+
+      return (buf.append("]")).toString();
+    }
+
+  /**
+   * The class of cursors through the elements of a sequence, in order,
+   * which decode one block at a time. Besides the <tt>IntIterator</tt>
+   * methods, a cursor may look at its next element with <tt>peek()</tt>,
+   * and skip ahead with <tt>advanceTo(int)</tt>.
+   */
+  public final class Cursor implements IntIterator
+    {
+      /**
+       * The elements of the decoded block.
+       */
+      private final int[] _buffer = new int[BLOCK_SIZE];
+
+      /**
+       * The index of the decoded block, or -1 before the first one.
+       */
+      private int _block = -1;
+
+      /**
+       * The index in <tt>_buffer</tt> of the next element, and the number
+       * of elements in <tt>_buffer</tt>.
+       */
+      private int _position;
+      private int _end;
+
+      private Cursor ()
+        {
+        }
+
+      /**
+       * Decodes the next block if all the elements of the decoded one were
+       * returned, and returns <tt>true</tt> iff there are elements left.
+       */
+      private final boolean _settle ()
+        {
+          if (_position < _end)
+            return true;
+
+          if (_block+1 == _firsts.length)
+            return false;
+
+          _end = _decode(++_block,_buffer);
+          _position = 0;
+          return true;
+        }
+
+      /**
+       * Returns <tt>true</tt> iff there are elements left.
+       */
+      public final boolean hasNext ()
+        {
+          return _position < _end || _block+1 < _firsts.length;
+        }
+
+      /**
+       * Returns the next element without moving past it.
+       *
+       * @exception NoSuchElementException if there are no elements left.
+       */
+      public final int peek ()
+        {
+          if (!_settle())
+            throw new NoSuchElementException();
+
+          return _buffer[_position];
+        }
+
+      /**
+       * Returns the next element and moves past it.
+       *
+       * @exception NoSuchElementException if there are no elements left.
+       */
+      public final int next ()
+        {
+          if (!_settle())
+            throw new NoSuchElementException();
+
+          return _buffer[_position++];
+        }
+
+      /**
+       * Moves past the elements less than the specified one, so that the
+       * next element is the first one not less than <tt>target</tt>, if
+       * any, and returns <tt>hasNext()</tt>. The cursor never moves back.
+       * Blocks are skipped by galloping then binary search over their first
+       * elements, so that only the block holding the next element is decoded.
+       *
+       * @param     target the int to skip to.
+       */
+      public final boolean advanceTo (int target)
+        {
+          if (!_settle())
+            return false;
+
+          if (_buffer[_position] >= target)
+            return true;
+
+          int blocks = _firsts.length;
+
+          // find the last block starting before target, after this one:
+          if (_block+1 < blocks && _firsts[_block+1] < target)
+            {
+              int lo = _block+1;
+              int step = 1;
+
+              while (lo+step < blocks && _firsts[lo+step] < target)
+                {
+                  lo += step;
+                  step <<= 1;
+                }
+
+              int hi = Math.min(lo+step,blocks);
+
+              while (hi-lo > 1)
+                {
+                  int mid = (lo + hi) >>> 1;
+                  if (_firsts[mid] < target)
+                    lo = mid;
+                  else
+                    hi = mid;
+                }
+
+              _end = _decode(_block = lo,_buffer);
+              _position = 0;
+            }
+
+          while (_position < _end && _buffer[_position] < target)
+            _position++;
+
+          return _settle();
+        }
+    }
+
+  /**
+   * The class of builders of the arrays of a sequence, to which elements
+   * are added in order.
+   */
+  private static final class Encoder
+    {
+      int _size;
+      int _blocks;
+      int[] _firsts = new int[16];
+      int[] _offsets = new int[16];
+      byte[] _widths = new byte[16];
+      int[] _data = new int[64];
+      int _dataSize;
+
+      /**
+       * The elements of the block being filled.
+       */
+      final int[] _pending = new int[BLOCK_SIZE];
+      int _count;
+
+      /**
+       * The last element of the last block.
+       */
+      int _lastFlushed;
+
+      /**
+       * Adds the specified element, which must not be less than the last one.
+       */
+      final void _add (int element)
+        {
+          if (_size > 0 && element < _last())
+            throw new IllegalArgumentException("unsorted element at index "+_size+": "+element);
+
+          _pending[_count++] = element;
+          _size++;
+
+          if (_count == BLOCK_SIZE)
+            _flush();
+        }
+
+      /**
+       * Adds the specified element unless it equals the last one.
+       */
+      final void _addDistinct (int element)
+        {
+          if (_size == 0 || element != _last())
+            _add(element);
+        }
+
+      private final int _last ()
+        {
+          return _count > 0 ? _pending[_count-1] : _lastFlushed;
+        }
+
+      /**
+       * Packs the pending elements into a new block.
+       */
+      final void _flush ()
+        {
+          if (_count == 0)
+            return;
+
+          int bits = 0;
+          for (int i=1; i<_count; i++)
+            bits |= _pending[i] - _pending[i-1];
+
+          int width = 32 - Integer.numberOfLeadingZeros(bits);
+          int words = ((_count-1)*width + 31) >>> 5;
+
+          if (_blocks == _firsts.length)
+            {
+              _firsts = Arrays.copyOf(_firsts,2*_blocks);
+              _offsets = Arrays.copyOf(_offsets,2*_blocks);
+              _widths = Arrays.copyOf(_widths,2*_blocks);
+            }
+
+          if (_dataSize+words+1 > _data.length)
+            _data = Arrays.copyOf(_data,Math.max(2*_data.length,_dataSize+words+1));
+
+          _firsts[_blocks] = _pending[0];
+          _offsets[_blocks] = _dataSize;
+          _widths[_blocks++] = (byte)width;
+
+          if (width > 0)
+            for (int i=1, bit=0; i<_count; i++, bit+=width)
+              {
+                int delta = _pending[i] - _pending[i-1];
+                int word = _dataSize + (bit >>> 5);
+                int shift = bit & 31;
+
+                _data[word] |= delta << shift;
+                if (shift+width > 32)
+                  _data[word+1] |= delta >>> (32-shift);
+              }
+
+          _dataSize += words;
+          _lastFlushed = _pending[_count-1];
+          _count = 0;
+        }
+    }
+}
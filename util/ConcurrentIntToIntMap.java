@@ -0,0 +1,716 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 11:26:08 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * This is a class of hash tables mapping ints to ints that may be shared
+ * by several threads without external synchronization. It follows the
+ * conventions of <a href="IntToIntMap.html"><tt>IntToIntMap</tt></a>; in
+ * particular, a missing key is denoted by the value
+ * <tt>NOT_FOUND_VALUE</tt> (<i>i.e.</i>, <tt>ToIntMap.NOT_FOUND_VALUE</tt>).
+ * <p>
+ * The map is split into a power-of-two number of <i>stripes</i>, each of
+ * which is an open-addressing table guarded by its own lock. The stripe
+ * of a key is chosen by the high bits of its mixed hash, and its slot
+ * within the stripe by the low bits. A mapping is packed into a single
+ * <tt>long</tt> (the key in the high half, the value in the low half) and
+ * stored in an <tt>AtomicLongArray</tt>, so that a reader always sees a
+ * key together with its value. Therefore:
+ * <ul>
+ * <li> reads (<tt>get</tt>, <tt>containsKey</tt>, and the fast path of
+ *      <tt>putIfAbsent</tt> and <tt>computeIfAbsent</tt>) take no lock;
+ * <li> writes lock only the stripe of the key they update, so that threads
+ *      updating different stripes do not wait for one another;
+ * <li> <tt>putIfAbsent</tt>, <tt>computeIfAbsent</tt> and <tt>addTo</tt>
+ *      are atomic.
+ * </ul>
+ * Iterators and <tt>size()</tt> are weakly consistent: they reflect some
+ * state of each stripe at or after the time they reach it.
+ * <p>
+ * Since the key <tt>0</tt> is used to mark free (and removed) slots, the
+ * mapping for the key <tt>0</tt> is kept apart in a volatile field.
+ */
+
+public class ConcurrentIntToIntMap
+{
+  /**
+   * The value returned when a key has no mapping.
+   */
+  public final static int NOT_FOUND_VALUE = ToIntMap.NOT_FOUND_VALUE;
+
+  /**
+   * The packed content of a free slot.
+   */
+  private final static long FREE = 0L;
+
+  /**
+   * The packed content of a slot whose entry has been removed. Its key
+   * part is <tt>0</tt>, which is never stored in a slot, so that it
+   * matches no key, but it does not end a probe sequence.
+   */
+  private final static long REMOVED = 1L;
+
+  /**
+   * The stripes of this map.
+   */
+  private final Stripe[] _stripes;
+
+  /**
+   * The shift bringing a mixed hash down to a stripe index.
+   */
+  private final int _stripeShift;
+
+  /**
+   * The mapping for the key <tt>0</tt>: <tt>0</tt> if there is none,
+   * or else its value's bits tagged by bit <tt>32</tt>.
+   */
+  private volatile long _zero;
+
+  /**
+   * The lock guarding updates of the mapping for the key <tt>0</tt>.
+   */
+  private final ReentrantLock _zeroLock = new ReentrantLock();
+
+  /**
+   * Constructs a new empty map with a default capacity of <tt>256</tt>
+   * spread over <tt>16</tt> stripes.
+   */
+  public ConcurrentIntToIntMap ()
+    {
+      this(256,16);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity
+   * spread over <tt>16</tt> stripes.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public ConcurrentIntToIntMap (int initialCapacity)
+    {
+      this(initialCapacity,16);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity,
+   * spread over as many stripes as the smallest power of two no less
+   * than the specified concurrency level. The concurrency level should
+   * be about the number of threads expected to update the map at the
+   * same time.
+   *
+   * @param   initialCapacity    the initial capacity of the map
+   * @param   concurrencyLevel   the expected number of concurrent writers
+   * @throws  IllegalArgumentException if either argument is negative, or
+   *          if the concurrency level exceeds <tt>2^16</tt>.
+   */
+  public ConcurrentIntToIntMap (int initialCapacity, int concurrencyLevel)
+    {
+      if (initialCapacity < 0)
+        throw new IllegalArgumentException("illegal initial capacity: "+
+                                           initialCapacity);
+
+      if (concurrencyLevel < 0 || concurrencyLevel > 1<<16)
+        throw new IllegalArgumentException("illegal concurrency level: "+
+                                           concurrencyLevel);
+
+      int count = ToIntMap._powerOfTwo(Math.max(1,concurrencyLevel));
+      _stripes = new Stripe[count];
+      _stripeShift = 32 - Integer.numberOfTrailingZeros(count);
+
+      int capacity = ToIntMap._powerOfTwo(Math.max(1,initialCapacity/count));
+      for (int i=0; i<count; i++)
+        _stripes[i] = new Stripe(capacity);
+    }
+
+  /**
+   * Packs the specified key and value into a slot's content.
+   */
+  private final static long _pack (int key, int value)
+    {
+      return ((long)key << 32) | (value & 0xFFFFFFFFL);
+    }
+
+  /**
+   * Returns the key part of the specified slot's content.
+   */
+  private final static int _key (long slot)
+    {
+      return (int)(slot >>> 32);
+    }
+
+  /**
+   * Returns the value part of the specified slot's content.
+   */
+  private final static int _value (long slot)
+    {
+      return (int)slot;
+    }
+
+  /**
+   * Returns the stripe in charge of the key with the specified mixed hash.
+   */
+  private final Stripe _stripe (int hash)
+    {
+      return _stripes[hash >>> _stripeShift];
+    }
+
+  /**
+   * Returns the number of key-value entries in this map.
+   */
+  public final int size ()
+    {
+      int size = _zero == 0 ? 0 : 1;
+
+      for (int i=0; i<_stripes.length; i++)
+        size += _stripes[i]._count;
+
+      return size;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map is empty.
+   */
+  public final boolean isEmpty ()
+    {
+      return size() == 0;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (int key)
+    {
+      return _entry(key) != 0;
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this key.
+   * As for <tt>IntToIntMap</tt>, <tt>containsKey</tt> may be used to tell
+   * a missing key from one explicitly mapped to <tt>NOT_FOUND_VALUE</tt>.
+   * This method takes no lock.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (int key)
+    {
+      long entry = _entry(key);
+      return entry == 0 ? NOT_FOUND_VALUE : _value(entry);
+    }
+
+  /**
+   * Associates the specified value with the specified key in this map.
+   * If the map previously contained an entry for this key, the old
+   * value is replaced and returned; otherwise the new value is returned.
+   *
+   * @param key key with which the specified value is to be associated.
+   * @param value value to be associated with the specified key.
+   */
+  public final int put (int key, int value)
+    {
+      return _update(key,value,PUT,null);
+    }
+
+  /**
+   * Associates the specified value with the specified key iff this map
+   * contains no entry for the key, atomically. Returns the value already
+   * associated with the key, or <tt>NOT_FOUND_VALUE</tt> if there was
+   * none (and the specified value was put).
+   *
+   * @param key key with which the specified value is to be associated.
+   * @param value value to be associated with the specified key.
+   */
+  public final int putIfAbsent (int key, int value)
+    {
+      long entry = _entry(key);
+
+      if (entry != 0)
+        return _value(entry);
+
+      return _update(key,value,PUT_IF_ABSENT,null);
+    }
+
+  /**
+   * Returns the value associated with the specified key if there is one;
+   * otherwise, associates with the key the value computed by applying
+   * the specified function to it, and returns this value. This is done
+   * atomically: the function is applied at most once per absent key, while
+   * holding the lock of the key's stripe. It should therefore be short,
+   * and it must not update this map.
+   *
+   * @param key key with which the computed value is to be associated.
+   * @param function the function computing the value of an absent key.
+   */
+  public final int computeIfAbsent (int key, IntUnaryOperator function)
+    {
+      long entry = _entry(key);
+
+      if (entry != 0)
+        return _value(entry);
+
+      return _update(key,0,COMPUTE_IF_ABSENT,function);
+    }
+
+  /**
+   * Adds the specified delta to the value associated with the specified
+   * key, atomically, and returns the new value. A key with no entry is
+   * taken to be associated with <tt>0</tt>.
+   *
+   * @param key the key whose value is to be incremented.
+   * @param delta the amount to add to the key's value.
+   */
+  public final int addTo (int key, int delta)
+    {
+      return _update(key,delta,ADD_TO,null);
+    }
+
+  /**
+   * Removes the entry for the given key from this map if present.
+   * Returns the previous value associated with the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if there was no entry for the key.
+   *
+   * @param key key whose entry is to be removed from the map.
+   */
+  public final int remove (int key)
+    {
+      if (key == 0)
+        {
+          _zeroLock.lock();
+          try
+            {
+              long zero = _zero;
+              _zero = 0;
+              return zero == 0 ? NOT_FOUND_VALUE : _value(zero);
+            }
+          finally
+            {
+              _zeroLock.unlock();
+            }
+        }
+
+      int hash = ToIntMap._mix(key);
+      return _stripe(hash).remove(key,hash);
+    }
+
+  /**
+   * Removes all entries from this map. Entries put concurrently with this
+   * call may or may not be kept.
+   */
+  public final void clear ()
+    {
+      remove(0);
+
+      for (int i=0; i<_stripes.length; i++)
+        _stripes[i].clear();
+    }
+
+  /**
+   * Returns a weakly consistent iterator through the keys of this map.
+   * The value returned by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator keys ()
+    {
+      return new IntValueIterator(true);
+    }
+
+  /**
+   * Returns a weakly consistent iterator through the values of this map.
+   * The value returned by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator values ()
+    {
+      return new IntValueIterator(false);
+    }
+
+  /**
+   * Returns a string form for this map.
+   */
+  public final String toString ()
+    {
+      StringBuilder buf = new StringBuilder("{");
+
+      for (IntValueIterator i = new IntValueIterator(true); i.hasNext();)
+        {
+          int key = i.next();
+          buf.append(key+"="+i.lastValue()+(i.hasNext() ? ", " : ""));
+        }
+
+      return buf.append("}").toString();
+    }
+
+  /**
+   * The kinds of updates performed by <tt>_update</tt>.
+   */
+  private final static int PUT = 0, PUT_IF_ABSENT = 1, COMPUTE_IF_ABSENT = 2, ADD_TO = 3;
+
+  /**
+   * Returns the packed mapping of the specified key, which is <tt>0</tt>
+   * iff there is none, and whose low half is the key's value otherwise.
+   * This takes no lock.
+   */
+  private final long _entry (int key)
+    {
+      if (key == 0)
+        return _zero;
+
+      int hash = ToIntMap._mix(key);
+      return _stripe(hash).find(key,hash);
+    }
+
+  /**
+   * Performs the specified kind of update for the specified key.
+   */
+  private final int _update (int key, int value, int kind, IntUnaryOperator function)
+    {
+      if (key != 0)
+        {
+          int hash = ToIntMap._mix(key);
+          return _stripe(hash).update(key,hash,value,kind,function);
+        }
+
+      _zeroLock.lock();
+      try
+        {
+          long zero = _zero;
+          int old = _value(zero);
+
+          switch (kind)
+            {
+            case PUT:
+              _zero = _tagZero(value);
+              return zero == 0 ? value : old;
+
+            case ADD_TO:
+              if (zero != 0) value += old;
+              _zero = _tagZero(value);
+              return value;
+
+            default:
+              if (zero != 0)
+                return old;
+
+              if (kind == COMPUTE_IF_ABSENT)
+                value = function.applyAsInt(key);
+
+              _zero = _tagZero(value);
+              return kind == PUT_IF_ABSENT ? NOT_FOUND_VALUE : value;
+            }
+        }
+      finally
+        {
+          _zeroLock.unlock();
+        }
+    }
+
+  /**
+   * Returns the tagged form of the specified value for the key <tt>0</tt>.
+   */
+  private final static long _tagZero (int value)
+    {
+      return (1L << 32) | (value & 0xFFFFFFFFL);
+    }
+
+  /**
+   * The class defining a stripe of the map: an open-addressing table of
+   * packed mappings, guarded by a lock for updates.
+   */
+  private static class Stripe
+    {
+      /**
+       * The lock guarding the updates of this stripe.
+       */
+      private final ReentrantLock _lock = new ReentrantLock();
+
+      /**
+       * The slots of this stripe; replaced (never updated) on resize.
+       */
+      volatile AtomicLongArray _slots;
+
+      /**
+       * The number of entries in this stripe.
+       */
+      volatile int _count;
+
+      /**
+       * The number of removed slots in this stripe.
+       */
+      int _removed;
+
+      /**
+       * The number of live plus removed slots beyond which this stripe is resized.
+       */
+      int _threshold;
+
+      Stripe (int capacity)
+        {
+          _allocate(capacity);
+        }
+
+      private final void _allocate (int capacity)
+        {
+          _slots = new AtomicLongArray(capacity);
+          _threshold = Math.min(capacity-1,(int)(capacity*0.75f));
+          _removed = 0;
+        }
+
+      /**
+       * Returns the content of the slot holding the specified non-zero
+       * key, or <tt>FREE</tt> if there is none. This takes no lock.
+       */
+      final long find (int key, int hash)
+        {
+          AtomicLongArray slots = _slots;
+          int mask = slots.length()-1;
+
+          for (int i = hash & mask;; i = (i+1) & mask)
+            {
+              long slot = slots.get(i);
+
+              if (slot == FREE)
+                return FREE;
+
+              if (_key(slot) == key)
+                return slot;
+            }
+        }
+
+      /**
+       * Performs the specified kind of update for the specified non-zero
+       * key, whose mixed hash is given.
+       */
+      final int update (int key, int hash, int value, int kind, IntUnaryOperator function)
+        {
+          _lock.lock();
+          try
+            {
+              AtomicLongArray slots = _slots;
+              int mask = slots.length()-1;
+              int removed = -1;
+              int i = hash & mask;
+
+              for (long slot; (slot = slots.get(i)) != FREE; i = (i+1) & mask)
+                {
+                  if (_key(slot) == key)
+                    {
+                      int old = _value(slot);
+
+                      switch (kind)
+                        {
+                        case PUT:
+                          slots.set(i,_pack(key,value));
+                          return old;
+                        case ADD_TO:
+                          slots.set(i,_pack(key,old+value));
+                          return old+value;
+                        default:
+                          return old;
+                        }
+                    }
+
+                  if (slot == REMOVED && removed < 0)
+                    removed = i;
+                }
+
+              if (kind == COMPUTE_IF_ABSENT)
+                value = function.applyAsInt(key);
+
+              if (removed >= 0)
+                {
+                  slots.set(removed,_pack(key,value));
+                  _removed--;
+                }
+              else
+                {
+                  if (_count + _removed + 1 > _threshold)
+                    {
+                      _resize();
+                      slots = _slots;
+                      mask = slots.length()-1;
+                      for (i = hash & mask; slots.get(i) != FREE; i = (i+1) & mask);
+                    }
+                  slots.set(i,_pack(key,value));
+                }
+
+              _count++;
+              return kind == PUT_IF_ABSENT ? NOT_FOUND_VALUE : value;
+            }
+          finally
+            {
+              _lock.unlock();
+            }
+        }
+
+      /**
+       * Removes the entry for the specified non-zero key, whose mixed hash
+       * is given, and returns its value or <tt>NOT_FOUND_VALUE</tt>.
+       */
+      final int remove (int key, int hash)
+        {
+          _lock.lock();
+          try
+            {
+              AtomicLongArray slots = _slots;
+              int mask = slots.length()-1;
+
+              for (int i = hash & mask;; i = (i+1) & mask)
+                {
+                  long slot = slots.get(i);
+
+                  if (slot == FREE)
+                    return NOT_FOUND_VALUE;
+
+                  if (_key(slot) == key)
+                    {
+                      slots.set(i,REMOVED);
+                      _count--;
+                      _removed++;
+                      return _value(slot);
+                    }
+                }
+            }
+          finally
+            {
+              _lock.unlock();
+            }
+        }
+
+      /**
+       * Removes all entries from this stripe.
+       */
+      final void clear ()
+        {
+          _lock.lock();
+          try
+            {
+              _allocate(_slots.length());
+              _count = 0;
+            }
+          finally
+            {
+              _lock.unlock();
+            }
+        }
+
+      /**
+       * Moves the live entries of this stripe into a new array, twice as
+       * large unless most of the used slots are removed ones, and publishes
+       * it. The old array is left untouched for the readers still using it.
+       * This must be called while holding the lock.
+       */
+      private final void _resize ()
+        {
+          AtomicLongArray oldSlots = _slots;
+          int capacity = oldSlots.length();
+
+          if (2*_count >= _threshold)
+            capacity *= 2;
+
+          AtomicLongArray slots = new AtomicLongArray(capacity);
+          int mask = capacity-1;
+
+          for (int j=0; j<oldSlots.length(); j++)
+            {
+              long slot = oldSlots.get(j);
+
+              if (slot == FREE || slot == REMOVED)
+                continue;
+
+              int i = ToIntMap._mix(_key(slot)) & mask;
+              while (slots.get(i) != FREE) i = (i+1) & mask;
+              slots.lazySet(i,slot);
+            }
+
+          _threshold = Math.min(capacity-1,(int)(capacity*0.75f));
+          _removed = 0;
+          _slots = slots;
+        }
+    }
+
+  /**
+   * The class defining a weakly consistent iterator through the map's keys
+   * or values. The mapping for the key <tt>0</tt>, if any, comes first.
+   */
+  private class IntValueIterator implements IntIterator
+    {
+      private boolean _isKeyIterator;
+      private int _stripe = -1;
+      private AtomicLongArray _slots;
+      private int _index;
+      private long _next;
+      private long _last;
+
+      IntValueIterator (boolean isKeyIterator)
+        {
+          _isKeyIterator = isKeyIterator;
+
+          long zero = _zero;
+          if (zero != 0)
+            _next = _pack(0,_value(zero));
+          else
+            _advance();
+        }
+
+      private final void _advance ()
+        {
+          for (;;)
+            {
+              if (_slots != null)
+                while (_index < _slots.length())
+                  {
+                    long slot = _slots.get(_index++);
+                    if (slot != FREE && slot != REMOVED)
+                      {
+                        _next = slot;
+                        return;
+                      }
+                  }
+
+              if (++_stripe == _stripes.length)
+                {
+                  _next = FREE;
+                  _slots = null;
+                  return;
+                }
+
+              _slots = _stripes[_stripe]._slots;
+              _index = 0;
+            }
+        }
+
+      public final boolean hasNext ()
+        {
+          return _slots != null || _stripe < 0;
+        }
+
+      public final int next ()
+        {
+          if (!hasNext())
+            throw new NoSuchElementException();
+
+          _last = _next;
+          _advance();
+          return _isKeyIterator ? _key(_last) : _value(_last);
+        }
+
+      final int lastValue ()
+        {
+          return _value(_last);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 16:41:27 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Arrays;
+
+/**
+ * This is a class of immutable snapshots of the occupancy of a container:
+ * a map to ints (see <tt>ToIntMap.stats()</tt>) or an array list (see
+ * <tt>ArrayList.stats()</tt>, <tt>IntArrayList.stats()</tt>, and
+ * <tt>DoubleArrayList.stats()</tt>).
+ * <p>
+ * The size, capacity, and probe histogram of a snapshot are computed from
+ * the container when the snapshot is taken, and so are always available.
+ * The number of resizes (rehashes of a map, or growths of a list's array)
+ * and the time they took are only counted while statistics are enabled on
+ * the container (by <tt>setStatsEnabled(true)</tt>); otherwise, they are
+ * reported as <tt>-1</tt>. Statistics are disabled by default, and then
+ * cost nothing but a <tt>null</tt> test each time the container resizes.
+ */
+
+public class ContainerStats
+{
+  /**
+   * The number of elements (or entries) of the container.
+   */
+  public final int size;
+
+  /**
+   * The number of elements the container has room for: the length of a
+   * list's array, the number of buckets of a chained map, or the number
+   * of slots of an open-addressing map.
+   */
+  public final int capacity;
+
+  /**
+   * The number of buckets, slots, or array cells that hold nothing.
+   */
+  public final int unused;
+
+  /**
+   * The number of resizes since statistics were enabled, or <tt>-1</tt>
+   * if they are not.
+   */
+  public final int resizes;
+
+  /**
+   * The time (in nanoseconds) spent resizing since statistics were enabled,
+   * or <tt>-1</tt> if they are not.
+   */
+  public final long resizeNanos;
+
+  /**
+   * For a map, <tt>probes[k]</tt> is the number of keys that are found after
+   * probing <tt>k</tt> entries or slots (<tt>probes[0]</tt> is always
+   * <tt>0</tt>); for a chained map, this is the position of a key in its
+   * bucket's chain plus one. For a list, this is <tt>null</tt>.
+   */
+  private final int[] _probes;
+
+  /**
+   * Constructs a snapshot with the specified figures.
+   */
+  ContainerStats (int size, int capacity, int unused, Counter counter, int[] probes)
+    {
+      this.size = size;
+      this.capacity = capacity;
+      this.unused = unused;
+      this.resizes = counter == null ? -1 : counter._count;
+      this.resizeNanos = counter == null ? -1 : counter._nanos;
+      _probes = probes == null ? null : _trim(probes);
+    }
+
+  /**
+   * Returns the specified histogram without its trailing zeros.
+   */
+  private static int[] _trim (int[] histogram)
+    {
+      int length = histogram.length;
+      while (length > 1 && histogram[length-1] == 0) length--;
+      return Arrays.copyOf(histogram,length);
+    }
+
+  /**
+   * Returns the ratio of the size to the capacity.
+   */
+  public final double loadFactor ()
+    {
+      return capacity == 0 ? 0.0 : (double)size / capacity;
+    }
+
+  /**
+   * Returns a copy of the probe histogram, or <tt>null</tt> for a list.
+   */
+  public final int[] probeHistogram ()
+    {
+      return _probes == null ? null : _probes.clone();
+    }
+
+  /**
+   * Returns the largest number of probes needed to find a key, or <tt>0</tt>
+   * for an empty map or a list.
+   */
+  public final int maxProbes ()
+    {
+      if (_probes != null)
+        for (int k=_probes.length; k-->0;)
+          if (_probes[k] != 0)
+            return k;
+
+      return 0;
+    }
+
+  /**
+   * Returns the mean number of probes needed to find a key, or <tt>0</tt>
+   * for an empty map or a list.
+   */
+  public final double meanProbes ()
+    {
+      if (_probes == null)
+        return 0.0;
+
+      long total = 0, keys = 0;
+      for (int k=1; k<_probes.length; k++)
+        {
+          total += (long)k * _probes[k];
+          keys += _probes[k];
+        }
+
+      return keys == 0 ? 0.0 : (double)total / keys;
+    }
+
+  /**
+   * Counts one more key found after the specified number of probes in the
+   * specified histogram, and returns it, or a larger copy of it if needed.
+   */
+  static int[] count (int[] histogram, int probes)
+    {
+      if (probes >= histogram.length)
+        histogram = Arrays.copyOf(histogram,Math.max(probes+1,2*histogram.length));
+
+      histogram[probes]++;
+      return histogram;
+    }
+
+  public String toString ()
+    {
+      StringBuilder buf = new StringBuilder();
+
+      buf.append("size = ").append(size)
+         .append(", capacity = ").append(capacity)
+         .append(", unused = ").append(unused)
+         .append(", load = ").append(String.format("%.3f",loadFactor()));
+
+      if (resizes >= 0)
+        buf.append(", resizes = ").append(resizes)
+           .append(" (").append(String.format("%.3f",resizeNanos/1e6)).append(" ms)");
+
+      if (_probes != null)
+        {
+          buf.append(", probes: mean = ").append(String.format("%.3f",meanProbes()))
+             .append(", max = ").append(maxProbes()).append(", histogram = [");
+
+          for (int k=1; k<_probes.length; k++)
+            buf.append(k == 1 ? "" : ", ").append(k).append(':').append(_probes[k]);
+
+          buf.append("]");
+        }
+
+      return buf.toString();
+    }
+
+  /**
+   * The class of the counters of resizes kept by a container whose
+   * statistics are enabled.
+   */
+  public final static class Counter
+    {
+      int _count;
+      long _nanos;
+
+      /**
+       * Records a resize that started at the specified time, as given by
+       * <tt>System.nanoTime()</tt>.
+       */
+      final void record (long start)
+        {
+          _count++;
+          _nanos += System.nanoTime() - start;
+        }
+
+      /**
+       * Records work that is part of a resize (such as a step of an
+       * incremental rehash) started at the specified time.
+       */
+      final void time (long start)
+        {
+          _nanos += System.nanoTime() - start;
+        }
+    }
+}
@@ -5,7 +5,14 @@
 package hlt.language.util;
 
 import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoublePredicate;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class implements a vector of primitive <tt>double</tt> elements
@@ -54,6 +61,19 @@ public class DoubleArrayList
    */
   protected int capacityIncrement;
 
+  /**
+   * The counter of the growths of the internal array of this
+   * <tt>DoubleArrayList</tt>, or <tt>null</tt> if its statistics are
+   * disabled (the default).
+   */
+  private ContainerStats.Counter _counter;
+
+  /**
+   * Whether this <tt>DoubleArrayList</tt> is kept sorted in increasing order (see
+   * <tt>setSorted(boolean)</tt>).
+   */
+  private boolean _sorted;
+
   // CONSTRUCTORS:
 
   /**
@@ -189,6 +209,8 @@ public class DoubleArrayList
 
       // System.out.println("+++ no it is not");
       // System.out.println("+++ reallocating capaciting of "+(Math.max(minCapacity,_increasedCapacity())));
+      long start = _counter == null ? 0 : System.nanoTime();
+
       double[] newArray = new double[Math.max(minCapacity,_increasedCapacity())];
       for (int i=0; i<elementCount; i++)
 	//{
@@ -196,6 +218,9 @@ public class DoubleArrayList
 	  newArray[i] = elementData[i];
         //}
       elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -206,6 +231,9 @@ public class DoubleArrayList
    */
   public final void setSize (int newSize)
     {
+      if (newSize > elementCount)
+        _unsorted("setSize");
+
       ensureCapacity(elementCount = newSize);
     }
 
@@ -219,6 +247,33 @@ public class DoubleArrayList
       return elementData.length;
     }
 
+  /**
+   * Enables or disables the counting of the growths of the internal array
+   * of this <tt>DoubleArrayList</tt>, and of the time they take, as
+   * reported by <tt>stats()</tt>. Enabling them again keeps the counts so
+   * far; disabling them drops the counts.
+   *
+   * @param     enabled whether growths are to be counted
+   */
+  public final void setStatsEnabled (boolean enabled)
+    {
+      if (!enabled)
+        _counter = null;
+      else if (_counter == null)
+        _counter = new ContainerStats.Counter();
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this <tt>DoubleArrayList</tt>:
+   * its size, its capacity and how much of it is unused, and, if statistics
+   * are enabled, how many times its internal array grew and how long that
+   * took.
+   */
+  public final ContainerStats stats ()
+    {
+      return new ContainerStats(elementCount,elementData.length,elementData.length-elementCount,_counter,null);
+    }
+
   /**
    * Returns the number of components in this <tt>DoubleArrayList</tt>.
    *
@@ -247,6 +302,9 @@ public class DoubleArrayList
    */
   public final boolean contains (double element)
     {
+      if (_sorted)
+        return _sortedIndexOf(element,0) >= 0;
+
       for (int i=0; i<elementCount; i++)
         if (elementData[i] == element) return true;
 
@@ -262,6 +320,9 @@ public class DoubleArrayList
    */
   public final int indexOf (double element)
     {
+      if (_sorted)
+        return _sortedIndexOf(element,0);
+
       for (int i=0; i<elementCount; i++)
         if (elementData[i] == element) return i;
 
@@ -279,6 +340,9 @@ public class DoubleArrayList
    */
   public final int indexOf (double element, int index)
     {
+      if (_sorted)
+        return _sortedIndexOf(element,index);
+
       for (int i=index; i<elementCount; i++)
         if (elementData[i] == element) return i;
 
@@ -294,6 +358,9 @@ public class DoubleArrayList
    */
   public final int lastIndexOf (double element)
     {
+      if (_sorted)
+        return _sortedLastIndexOf(element,elementCount);
+
       for (int i=elementCount; i-->0;)
         if (elementData[i] == element) return i;
 
@@ -311,6 +378,9 @@ public class DoubleArrayList
    */
   public final int lastIndexOf (double element, int index)
     {
+      if (_sorted)
+        return _sortedLastIndexOf(element,index+1);
+
       for (int i=index; i>=0; i--)
         if (elementData[i] == element) return i;
 
@@ -456,7 +526,9 @@ public class DoubleArrayList
       for (int i=0; i<elementData.length; i++)
         newArray[i] = elementData[i];
 
-      return new DoubleArrayList(newArray,elementCount,capacityIncrement,incrementFactor);
+      DoubleArrayList clone = new DoubleArrayList(newArray,elementCount,capacityIncrement,incrementFactor);
+      clone._sorted = _sorted;
+      return clone;
     }
 
   /**
@@ -472,6 +544,285 @@ public class DoubleArrayList
       return a;
     }
 
+  /**
+   * Returns a spliterator through the elements of this DoubleArrayList, in
+   * order, which is sized and splits in halves of equal sizes. It reads
+   * the current internal array of this DoubleArrayList, which must not be
+   * modified while the spliterator is in use.
+   */
+  public final Spliterator.OfDouble spliterator ()
+    {
+      return Spliterators.spliterator(elementData,0,elementCount,Spliterator.ORDERED);
+    }
+
+  /**
+   * Returns a sequential stream of the elements of this DoubleArrayList; its
+   * <tt>parallel()</tt> version spreads them evenly over the fork-join
+   * pool without boxing them.
+   */
+  public final DoubleStream doubleStream ()
+    {
+      return StreamSupport.doubleStream(spliterator(),false);
+    }
+
+  /**
+   * Returns the sum of the elements of this DoubleArrayList. It is
+   * computed in four interleaved partial sums, which keeps the floating
+   * point adder busy, so that the result may differ in its last bits
+   * from that of a sum taken in order.
+   */
+  public final double sum ()
+    {
+      double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+      int i = 0;
+
+      for (; i<=elementCount-4; i+=4)
+        {
+          sum0 += elementData[i];
+          sum1 += elementData[i+1];
+          sum2 += elementData[i+2];
+          sum3 += elementData[i+3];
+        }
+
+      for (; i<elementCount; i++)
+        sum0 += elementData[i];
+
+      return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+  /**
+   * Returns the least element of this DoubleArrayList, as given by
+   * <tt>Math.min</tt>: <tt>NaN</tt> if any element is <tt>NaN</tt>.
+   *
+   * @exception NoSuchElementException if this DoubleArrayList is empty.
+   */
+  public final double min ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty DoubleArrayList");
+
+      double min = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        min = Math.min(min,elementData[i]);
+
+      return min;
+    }
+
+  /**
+   * Returns the greatest element of this DoubleArrayList, as given by
+   * <tt>Math.max</tt>: <tt>NaN</tt> if any element is <tt>NaN</tt>.
+   *
+   * @exception NoSuchElementException if this DoubleArrayList is empty.
+   */
+  public final double max ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty DoubleArrayList");
+
+      double max = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        max = Math.max(max,elementData[i]);
+
+      return max;
+    }
+
+  /**
+   * Returns the number of elements of this DoubleArrayList that pass the
+   * specified test.
+   *
+   * @param test the test to apply to each element.
+   */
+  public final int count (DoublePredicate test)
+    {
+      int count = 0;
+
+      for (int i=0; i<elementCount; i++)
+        if (test.test(elementData[i]))
+          count++;
+
+      return count;
+    }
+
+  /**
+   * Adds to each element of this DoubleArrayList the element at the same
+   * index in the specified DoubleArrayList.
+   *
+   * @param     v a DoubleArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void addElementwise (DoubleArrayList v)
+    {
+      _unsorted("addElementwise");
+
+      double[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] += other[i];
+    }
+
+  /**
+   * Multiplies each element of this DoubleArrayList by the element at the
+   * same index in the specified DoubleArrayList.
+   *
+   * @param     v a DoubleArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void multiplyElementwise (DoubleArrayList v)
+    {
+      _unsorted("multiplyElementwise");
+
+      double[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] *= other[i];
+    }
+
+  /**
+   * Returns the internal array of the specified DoubleArrayList, which
+   * must have the size of this one.
+   */
+  private final double[] _sameSize (DoubleArrayList v)
+    {
+      if (v.elementCount != elementCount)
+        throw new IllegalArgumentException("size mismatch: "+v.elementCount+" instead of "+elementCount);
+
+      return v.elementData;
+    }
+
+  /**
+   * Sorts this DoubleArrayList in increasing order. Elements are
+   * compared as by <tt>Double.compare</tt>: <tt>-0.0</tt> comes before
+   * <tt>0.0</tt>, and <tt>NaN</tt> after all other values.
+   */
+  public final void sort ()
+    {
+      Arrays.sort(elementData,0,elementCount);
+    }
+
+  /**
+   * Sorts this DoubleArrayList in increasing order like <tt>sort()</tt>, splitting
+   * the work over the fork-join pool when the list is large enough for
+   * this to pay off (as decided by <tt>Arrays.parallelSort</tt>).
+   */
+  public final void parallelSort ()
+    {
+      Arrays.parallelSort(elementData,0,elementCount);
+    }
+
+  /**
+   * Searches this DoubleArrayList, which must be sorted, for the specified element
+   * with <tt>Arrays.binarySearch</tt>. Returns the index of the element if
+   * it is there, and <tt>-(insertion point)-1</tt> otherwise. If the
+   * element is there several times, any of its indices may be returned.
+   *
+   * @param     element the element to search for.
+   */
+  public final int binarySearch (double element)
+    {
+      return Arrays.binarySearch(elementData,0,elementCount,element);
+    }
+
+  /**
+   * Sets whether this DoubleArrayList is kept sorted in increasing order; turning
+   * this on sorts it. While it is on, <tt>contains</tt>, <tt>indexOf</tt>,
+   * and <tt>lastIndexOf</tt> search in <tt>O(log n)</tt>, <tt>add</tt>
+   * inserts its element after those equal to it, and <tt>addAll</tt>
+   * appends its elements then sorts the list. Removals keep the order,
+   * but updates at given positions (<tt>set</tt>, <tt>add(int,double)</tt>,
+   * <tt>addAll(int,...)</tt>, ...) throw an <tt>UnsupportedOperationException</tt>.
+   * Searches compare elements with <tt>==</tt> in both modes, so that
+   * <tt>NaN</tt> is never found and <tt>-0.0</tt> and <tt>0.0</tt> find
+   * each other.
+   *
+   * @param     sorted whether to keep this DoubleArrayList sorted.
+   */
+  public final void setSorted (boolean sorted)
+    {
+      if (sorted && !_sorted)
+        sort();
+
+      _sorted = sorted;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this DoubleArrayList is kept sorted.
+   */
+  public final boolean isSorted ()
+    {
+      return _sorted;
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt> if this DoubleArrayList is
+   * kept sorted, since the specified operation could break its order.
+   */
+  private final void _unsorted (String operation)
+    {
+      if (_sorted)
+        throw new UnsupportedOperationException(operation+" on a sorted DoubleArrayList");
+    }
+
+  /**
+   * Returns the index of the first element of this sorted DoubleArrayList that is
+   * not less than the specified one, or greater than it if <tt>after</tt>
+   * is <tt>true</tt>.
+   */
+  private final int _bound (double element, boolean after)
+    {
+      int lo = 0;
+      int hi = elementCount;
+
+      while (lo < hi)
+        {
+          int mid = (lo + hi) >>> 1;
+
+          if (Double.compare(elementData[mid],element) < 0 || after && Double.compare(elementData[mid],element) == 0)
+            lo = mid+1;
+          else
+            hi = mid;
+        }
+
+      return lo;
+    }
+
+  /**
+   * Returns the index of the first element <tt>==</tt> to the specified
+   * one at or after the specified index in this sorted DoubleArrayList, or -1.
+   * Since <tt>-0.0</tt> sorts just before <tt>0.0</tt>, a zero is searched
+   * from the first <tt>-0.0</tt>.
+   */
+  private final int _sortedIndexOf (double element, int index)
+    {
+      int i = Math.max(index,_bound(element == 0.0 ? -0.0 : element,false));
+      return i < elementCount && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Returns the index of the last element <tt>==</tt> to the specified
+   * one before the specified index in this sorted DoubleArrayList, or -1.
+   * A zero is searched from the last <tt>0.0</tt>.
+   */
+  private final int _sortedLastIndexOf (double element, int index)
+    {
+      int i = Math.min(index,_bound(element == 0.0 ? 0.0 : element,true)) - 1;
+      return i >= 0 && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Inserts the specified element at the specified index, and returns
+   * <tt>true</tt>.
+   */
+  private final boolean _insert (int index, double element)
+    {
+      if (elementCount == elementData.length) _grow();
+      System.arraycopy(elementData,index,elementData,index+1,elementCount-index);
+      elementData[index] = element;
+      elementCount++;
+      return true;
+    }
+
   /**
    * @param  index a position
    * @return the double at the specified index in this <tt>DoubleArrayList</tt>.
@@ -493,6 +844,8 @@ public class DoubleArrayList
    */
   public final double set (int index, double element)
     {
+      _unsorted("set");
+
       double old = elementData[index];
       elementData[index] = element;
       return old;
@@ -507,6 +860,8 @@ public class DoubleArrayList
    */
   public final void setLast (double element)
     {
+      _unsorted("setLast");
+
       elementData[elementCount-1] = element;
     }
 
@@ -518,6 +873,9 @@ public class DoubleArrayList
    */
   public final boolean add (double element)
     {
+      if (_sorted)
+        return _insert(_bound(element,true),element);
+
       if (elementCount == elementData.length) _grow();
       elementData[elementCount++] = element;
       return true;
@@ -536,12 +894,9 @@ public class DoubleArrayList
    */
   public final boolean remove (double element)
     {
-      int i = 0;
-
-      for (i=0; i<elementCount; i++)
-        if (elementData[i] == element) break;
+      int i = indexOf(element);
 
-      if (i == elementCount) return false;
+      if (i < 0) return false;
 
       for (;i<elementCount-1;i++)
         elementData[i] = elementData[i+1];
@@ -576,7 +931,10 @@ public class DoubleArrayList
    */
   public final void add (int index, double element)
     {
-      ensureCapacity(elementCount++);
+      _unsorted("add");
+
+      ensureCapacity(elementCount+1);
+      elementCount++;
 
       //      System.out.println("+++ adding element "+element+" at index "+index);
 
@@ -656,6 +1014,15 @@ public class DoubleArrayList
   public final boolean addAll (double[] a)
     {
       ensureCapacity(elementCount+a.length);
+
+      if (_sorted)
+        {
+          System.arraycopy(a,0,elementData,elementCount,a.length);
+          elementCount += a.length;
+          sort();
+          return true;
+        }
+
       for (int i=0; i<a.length; i++) add(a[i]);
       return true;
     }
@@ -671,6 +1038,15 @@ public class DoubleArrayList
     {
       int size = v.size();
       ensureCapacity(elementCount+size);
+
+      if (_sorted)
+        {
+          System.arraycopy(v.elementData,0,elementData,elementCount,size);
+          elementCount += size;
+          sort();
+          return true;
+        }
+
       for (int i=0; i<size; i++) add(v.get(i));
       return true;
     }
@@ -687,9 +1063,13 @@ public class DoubleArrayList
     {
       IntArrayList indices = new IntArrayList();
 
-      for (int i=0; i<a.length; i++)
-        for (int j=0; j<elementCount; j++)
-          if (a[i] == elementData[j]) indices.add(j);
+      for (int j=0; j<elementCount; j++)
+        for (int i=0; i<a.length; i++)
+          if (a[i] == elementData[j])
+            {
+              indices.add(j);
+              break;
+            }
 
       removeAllIndices(indices);
       return !indices.isEmpty();
@@ -707,9 +1087,9 @@ public class DoubleArrayList
     {
       IntArrayList indices = new IntArrayList();
 
-      for (int i=v.size(); i-->0;)
-        for (int j=elementCount; j-->0;)
-          if (v.get(i) == elementData[j]) indices.add(j);
+      for (int j=0; j<elementCount; j++)
+        if (v.contains(elementData[j]))
+          indices.add(j);
 
       removeAllIndices(indices);
       return !indices.isEmpty();
@@ -728,12 +1108,13 @@ public class DoubleArrayList
 
       for (int i=0; i<a.length; i++)
         for (int j=0; j<elementCount; j++)
-          if (a[i] == elementData[j])
+          if (a[i] == elementData[j] && !indices.contains(j))
             {
               indices.add(j);
               break;
             }
 
+      indices.sort();
       removeAllIndices(indices);
       return !indices.isEmpty();          
     }
@@ -753,12 +1134,13 @@ public class DoubleArrayList
 
       for (int i=0; i<size; i++)
         for (int j=0; j<elementCount; j++)
-          if (v.get(i) == elementData[j])
+          if (v.get(i) == elementData[j] && !indices.contains(j))
             {
               indices.add(j);
               break;
             }
 
+      indices.sort();
       removeAllIndices(indices);
       return !indices.isEmpty();
     }
@@ -796,9 +1178,11 @@ public class DoubleArrayList
    */
   public final void addAll (int index, double[] a)
     {
+      _unsorted("addAll");
+
       if (elementCount+a.length < elementData.length)
         {
-          for (int i=index; i<elementCount; i++)
+          for (int i=elementCount; i-->index;)
             elementData[i+a.length] = elementData[i];
 
           for (int i=0; i<a.length; i++)
@@ -808,6 +1192,8 @@ public class DoubleArrayList
           return;
         }
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       double[] newArray = new double[_increasedCapacity(elementCount+a.length)];
 
       for (int i=0; i<index; i++)
@@ -821,6 +1207,9 @@ public class DoubleArrayList
 
       elementData = newArray;
       elementCount += a.length;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -836,11 +1225,13 @@ public class DoubleArrayList
    */
   public final void addAll (int index, DoubleArrayList v)
     {
+      _unsorted("addAll");
+
       int size = v.size();
 
       if (elementCount+size < elementData.length)
         {
-          for (int i=index; i<elementCount; i++)
+          for (int i=elementCount; i-->index;)
             elementData[i+size] = elementData[i];
 
           for (int i=0; i<size; i++)
@@ -850,6 +1241,8 @@ public class DoubleArrayList
           return;
         }
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       double[] newArray = new double[_increasedCapacity(elementCount+size)];
 
       for (int i=0; i<index; i++)
@@ -863,6 +1256,9 @@ public class DoubleArrayList
 
       elementData = newArray;
       elementCount += size;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -889,7 +1285,7 @@ public class DoubleArrayList
 	return false;
 
       for (int i=0; i<elementCount; i++)
-        if (other.get(i) != elementData[i])
+        if (other.elementData[i] != elementData[i])
 	  return false;
 
       return true;
@@ -1006,12 +1402,17 @@ public class DoubleArrayList
    */
   private final void _grow ()
     {
+      long start = _counter == null ? 0 : System.nanoTime();
+
       double[] newArray = new double[_increasedCapacity()];
 
       for (int i=0; i<elementCount; i++)
         newArray[i] = elementData[i];
 
       elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
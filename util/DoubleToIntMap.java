@@ -10,7 +10,15 @@ package hlt.language.util;
  * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
  */
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
 
 /**
  * This is a class of hash tables mapping ints to ints.
@@ -18,6 +26,11 @@ import java.util.Iterator;
 
 public class DoubleToIntMap extends ToIntMap
 {
+  /**
+   * The strategy mixing the hash codes of the keys of this map.
+   */
+  private final HashStrategy _strategy;
+
   /**
    * Constructs a new empty map with a default capacity of <tt>11</tt>.
    */
@@ -49,24 +62,70 @@ public class DoubleToIntMap extends ToIntMap
    * @throws   IllegalArgumentException if either argument is negative.
    */
   public DoubleToIntMap (int initialCapacity, float loadFactor)
+    {
+      this(initialCapacity,loadFactor,HashStrategy.DEFAULT);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * a default load factor equal to <tt>0.75</tt>, which mixes the hash
+   * codes of its keys with the specified strategy.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @param   strategy          the hash strategy of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public DoubleToIntMap (int initialCapacity, HashStrategy strategy)
+    {
+      this(initialCapacity,0.75f,strategy);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor, which mixes the hash codes of its keys with the specified
+   * strategy.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @param    strategy          the hash strategy of the map
+   * @throws   IllegalArgumentException if either number is negative.
+   */
+  public DoubleToIntMap (int initialCapacity, float loadFactor, HashStrategy strategy)
     {
       _table = new Entry[_setThreshold(initialCapacity,loadFactor)];
+      _strategy = strategy;
     }
     
   /**
    * Constructs a new map with the same entries as the given map.  The
    * map is created with a capacity of twice the number of entries in
    * the given map or 11 (whichever is greater), and a default load factor,
-   * which is <tt>0.75</tt>.
+   * which is <tt>0.75</tt>. It has the same hash strategy as the given map.
    *
    * @param map the <tt>DoubleToIntMap</tt> whose entries are to be placed in this map.
   */
   public DoubleToIntMap (DoubleToIntMap map)
     {
-      this(Math.max(2*map.size(),11));
+      this(Math.max(2*map.size(),11),map.hashStrategy());
       include(map);
     }
 
+  /**
+   * Returns the hash strategy of this map.
+   */
+  public final HashStrategy hashStrategy ()
+    {
+      return _strategy;
+    }
+
+  /**
+   * Returns the hash code used to rehash the specified entry.
+   */
+  protected final int _entryHash (ToIntMap.Entry entry)
+    {
+      return _strategy.hash(((Entry)entry).key);
+    }
+
   /**
    * Returns the entry at the specified index in the table.
    */
@@ -83,6 +142,54 @@ public class DoubleToIntMap extends ToIntMap
       return (Entry)entry.next;
     }
 
+  /**
+   * Returns the entry for the specified key, or <tt>null</tt> if there is
+   * none. While an incremental rehash is in progress, the bucket of the
+   * old table where the key may still be is looked up as well.
+   */
+  private final Entry _find (double key)
+    {
+      int hash = _strategy.hash(key) & 0x7FFFFFFF;
+
+      for (Entry entry = _entry(hash % _table.length); entry != null; entry = _next(entry))
+        if (entry.key == key)
+          return entry;
+
+      if (_oldTable != null)
+        for (Entry entry = (Entry)_oldTable[hash % _oldTable.length]; entry != null; entry = _next(entry))
+          if (entry.key == key)
+            return entry;
+
+      return null;
+    }
+
+  /**
+   * Unlinks from the specified table and returns the entry for the
+   * specified key, or returns <tt>null</tt> if there is none.
+   */
+  private final Entry _unlink (ToIntMap.Entry[] table, double key)
+    {
+      int index = (_strategy.hash(key) & 0x7FFFFFFF) % table.length;
+
+      Entry predecessor = null;
+
+      for (Entry entry = (Entry)table[index]; entry != null; entry = _next(entry))
+        {
+          if (entry.key == key)
+            {
+              if (predecessor != null)
+                predecessor.next = entry.next;
+              else
+                table[index] = entry.next;
+
+              return entry;
+            }
+          predecessor = entry;
+        }
+
+      return null;
+    }
+
   /**
    * Returns <tt>true</tt> if this map contains an entry for the specified key.
    *
@@ -91,13 +198,9 @@ public class DoubleToIntMap extends ToIntMap
    */
   public final boolean containsKey (double key)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        if (entry.key == key)
-          return true;
-
-      return false;
+      return _find(key) != null;
     }
 
   /**
@@ -108,7 +211,11 @@ public class DoubleToIntMap extends ToIntMap
    */
   public final boolean containsEntry (double key, int value)
     {
-      return containsEntry(new Entry(key,value));
+      _rehashStep();
+
+      Entry entry = _find(key);
+
+      return entry != null && entry.value == value;
     }
 
   /**
@@ -118,14 +225,12 @@ public class DoubleToIntMap extends ToIntMap
    */
   public final boolean containsEntry (ToIntMap.Entry candidate)
     {
-      Entry mapping = (Entry)candidate;
-      int index = (Misc.hashCode(mapping.key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        if (entry.key == mapping.key)
-          return (entry.value == mapping.value);
+      Entry mapping = (Entry)candidate;
+      Entry entry = _find(mapping.key);
 
-      return false;
+      return entry != null && entry.value == mapping.value;
     }
 
   /**
@@ -144,13 +249,11 @@ public class DoubleToIntMap extends ToIntMap
    */
   public final int get (double key)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        if (entry.key == key)
-          return entry.value;
+      Entry entry = _find(key);
 
-      return NOT_FOUND_VALUE;
+      return entry == null ? NOT_FOUND_VALUE : entry.value;
     }
 
   /**
@@ -176,22 +279,22 @@ public class DoubleToIntMap extends ToIntMap
    */
   public final int put (double key, int value)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      for (Entry entry = _entry(index) ; entry != null ; entry = _next(entry))
-        if (entry.key == key)
-          {
-            int old = entry.value;
-            entry.value = value;
-            return old;
-          }
+      Entry entry = _find(key);
 
-      if (_size >= _threshold)
+      if (entry != null)
         {
-          _rehash();
-          index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+          int old = entry.value;
+          entry.value = value;
+          return old;
         }
 
+      if (_size >= _threshold)
+        _rehash();
+
+      int index = (_strategy.hash(key) & 0x7FFFFFFF) % _table.length;
+
       _table[index] = new Entry(key,value,_entry(index));
       _size++;
 
@@ -210,26 +313,18 @@ public class DoubleToIntMap extends ToIntMap
    */
   public final int remove (double key)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      Entry predecessor = null;
-      
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        {
-          if (entry.key == key)
-            {
-              if (predecessor != null)
-                predecessor.next = entry.next;
-              else
-                _table[index] = entry.next;
+      Entry entry = _unlink(_table,key);
 
-              _size--;
-              return entry.value;
-            }
-          predecessor = entry;
-        }
+      if (entry == null && _oldTable != null)
+        entry = _unlink(_oldTable,key);
+
+      if (entry == null)
+        return NOT_FOUND_VALUE;
 
-      return NOT_FOUND_VALUE;
+      _size--;
+      return entry.value;
     }
 
   /**
@@ -264,6 +359,131 @@ public class DoubleToIntMap extends ToIntMap
       return new ValueIterator(iterator());
     }
 
+  /**
+   * Returns a spliterator through the keys of this map, which splits the
+   * table of the map in halves. It is sized until it is first split.
+   */
+  public final Spliterator.OfDouble keySpliterator ()
+    {
+      return new KeySpliterator(this);
+    }
+
+  /**
+   * Returns a sequential stream of the keys of this map; its
+   * <tt>parallel()</tt> version spreads the buckets of the map evenly
+   * over the fork-join pool. The map must not be modified while the
+   * stream is in use.
+   */
+  public final DoubleStream keyStream ()
+    {
+      return StreamSupport.doubleStream(keySpliterator(),false);
+    }
+
+  /**
+   * Memory-maps the image of a map saved by <tt>save(Path)</tt> into the
+   * specified file, and returns it as a read-only map.
+   *
+   * @param    path   the path of an image file
+   * @throws   IOException if the file cannot be mapped or is not a valid image.
+   */
+  public final static MappedDoubleToIntMap load (Path path) throws IOException
+    {
+      return MappedDoubleToIntMap.load(path);
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in no
+   * particular order. Unlike going through <tt>iterator()</tt>, this
+   * allocates no iterator and no entry.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (DoubleIntConsumer action)
+    {
+      forEachEntryWhile((key,value) -> { action.accept(key,value); return true; });
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (DoubleIntPredicate action)
+    {
+      return _forEachEntryWhile(entry -> action.test(((Entry)entry).key,((Entry)entry).value));
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in no
+   * particular order. Unlike going through <tt>keys()</tt>, this
+   * allocates no iterator.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (DoubleConsumer action)
+    {
+      forEachKeyWhile(key -> { action.accept(key); return true; });
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (DoublePredicate action)
+    {
+      return _forEachEntryWhile(entry -> action.test(((Entry)entry).key));
+    }
+
+  /**
+   * Includes all of the entries from the specified map to this one.
+   * These entries replace any entries that this map had for any of the
+   * keys currently in the specified map. When the specified map is a map
+   * of doubles, its entries are traversed without allocating any entry.
+   *
+   * @param map map whose entries will be stored in this map.
+   */
+  public final void include (ToIntMap map)
+    {
+      if (map == this)
+        return;
+
+      if (map instanceof DoubleToIntMap)
+        ((DoubleToIntMap)map).forEachEntry(this::put);
+      else if (map instanceof DoubleToIntOpenMap)
+        ((DoubleToIntOpenMap)map).forEachEntry(this::put);
+      else
+        super.include(map);
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of doubles, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof DoubleToIntMap)
+        return forEachEntryWhile(((DoubleToIntMap)map)::containsEntry);
+
+      if (map instanceof DoubleToIntOpenMap)
+        return forEachEntryWhile(((DoubleToIntOpenMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
   /**
    * Compares the specified object with this map for equality. Returns
    * <tt>true</tt> if the given object is also a map and the two maps
@@ -356,4 +576,42 @@ public class DoubleToIntMap extends ToIntMap
         }
   }
 
+  /**
+   * The class defining the spliterator through the map's keys.
+   */
+  private static class KeySpliterator extends TableSpliterator implements Spliterator.OfDouble
+    {
+      KeySpliterator (ToIntMap map)
+        {
+          super(map);
+        }
+
+      KeySpliterator (KeySpliterator other, int index)
+        {
+          super(other,index);
+        }
+
+      public final boolean tryAdvance (DoubleConsumer action)
+        {
+          Entry entry = (Entry)_nextEntry();
+
+          if (entry == null)
+            return false;
+
+          action.accept(entry.key);
+          return true;
+        }
+
+      public final void forEachRemaining (DoubleConsumer action)
+        {
+          for (Entry entry; (entry = (Entry)_nextEntry()) != null;)
+            action.accept(entry.key);
+        }
+
+      public final Spliterator.OfDouble trySplit ()
+        {
+          int index = _split();
+          return index < 0 ? null : new KeySpliterator(this,index);
+        }
+    }
 }
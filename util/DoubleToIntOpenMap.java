@@ -0,0 +1,895 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 10:41:52 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This is a class of hash tables mapping doubles to ints that uses open
+ * addressing rather than chains of entries. It offers the same API as
+ * <a href="DoubleToIntMap.html"><tt>DoubleToIntMap</tt></a>, but keeps
+ * its keys as raw IEEE&nbsp;754 bit patterns in a <tt>long</tt> array,
+ * parallel to an <tt>int</tt> array of values, whose length is a power
+ * of two. Collisions are resolved by linear probing. No object is
+ * allocated per mapping, and iterating through the keys neither boxes
+ * them nor allocates anything per step.
+ * <p>
+ * Two doubles denote the same key iff they have the same bit pattern as
+ * given by <tt>Double.doubleToLongBits</tt>, which is also the equality
+ * of <tt>java.lang.Double.equals</tt>. Hence:
+ * <ul>
+ * <li> all NaN values are canonicalized into the single key
+ *      <tt>Double.NaN</tt>, which can be put and found like any other key
+ *      (whereas <tt>NaN == NaN</tt> is false);
+ * <li> <tt>0.0</tt> and <tt>-0.0</tt> are two distinct keys (whereas
+ *      <tt>0.0 == -0.0</tt> is true).
+ * </ul>
+ * The bit pattern of <tt>0.0</tt> is used to mark free slots; a mapping for
+ * the key <tt>0.0</tt> is therefore kept apart in two dedicated fields.
+ */
+
+public class DoubleToIntOpenMap extends ToIntMap
+{
+  /**
+   * The bit pattern denoting a free slot (that of <tt>0.0</tt>).
+   */
+  private final static long FREE_KEY = 0L;
+
+  /**
+   * The bit patterns of the keys of this map; a slot holding <tt>FREE_KEY</tt> is free.
+   */
+  private long[] _keys;
+
+  /**
+   * The values of this map; <tt>_values[i]</tt> is the value of <tt>_keys[i]</tt>.
+   */
+  private int[] _values;
+
+  /**
+   * The mask used to bring a hash code within the table's bounds.
+   */
+  private int _mask;
+
+  /**
+   * Whether this map contains an entry for the key <tt>0.0</tt>.
+   */
+  private boolean _hasFreeKey;
+
+  /**
+   * The value associated with the key <tt>0.0</tt>, if any.
+   */
+  private int _freeValue;
+
+  /**
+   * The strategy mixing the hash codes of the keys of this map.
+   */
+  private final HashStrategy _strategy;
+
+  /**
+   * Constructs a new empty map with a default capacity of <tt>16</tt>.
+   */
+  public DoubleToIntOpenMap ()
+    {
+      this(16);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity
+   * and a default load factor equal to <tt>0.75</tt>.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public DoubleToIntOpenMap (int initialCapacity)
+    {
+      this(initialCapacity,0.75f);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor. The capacity is rounded up to a power of two. If the
+   * load factor is greater than <tt>1</tt>, it is reset to 1; however,
+   * at least one slot is always kept free.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @throws   IllegalArgumentException if either argument is negative.
+   */
+  public DoubleToIntOpenMap (int initialCapacity, float loadFactor)
+    {
+      this(initialCapacity,loadFactor,HashStrategy.MURMUR);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * a default load factor equal to <tt>0.75</tt>, which mixes the hash
+   * codes of its keys with the specified strategy.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @param   strategy          the hash strategy of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public DoubleToIntOpenMap (int initialCapacity, HashStrategy strategy)
+    {
+      this(initialCapacity,0.75f,strategy);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor, which mixes the hash codes of its keys with the specified
+   * strategy. Since the capacity is a power of two, a strategy that does
+   * not mix (such as <tt>HashStrategy.PLAIN</tt>) only suits keys whose
+   * low bits are well distributed.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @param    strategy          the hash strategy of the map
+   * @throws   IllegalArgumentException if either number is negative.
+   */
+  public DoubleToIntOpenMap (int initialCapacity, float loadFactor, HashStrategy strategy)
+    {
+      _strategy = strategy;
+      _allocate(_powerOfTwo(_setThreshold(initialCapacity,loadFactor)));
+    }
+
+  /**
+   * Constructs a new map with the same entries as the given map, with
+   * a capacity large enough to hold them without rehashing and a default
+   * load factor, which is <tt>0.75</tt>. It has the same hash strategy
+   * as the given map.
+   *
+   * @param map the <tt>DoubleToIntOpenMap</tt> whose entries are to be placed in this map.
+   */
+  public DoubleToIntOpenMap (DoubleToIntOpenMap map)
+    {
+      this(Math.max(2*map.size(),16),map.hashStrategy());
+      include(map);
+    }
+
+  /**
+   * Constructs a new map with the same entries as the given chained map,
+   * with a capacity large enough to hold them without rehashing and a
+   * default load factor, which is <tt>0.75</tt>. It has the same hash
+   * strategy as the given map.
+   *
+   * @param map the <tt>DoubleToIntMap</tt> whose entries are to be placed in this map.
+   */
+  public DoubleToIntOpenMap (DoubleToIntMap map)
+    {
+      this(Math.max(2*map.size(),16),map.hashStrategy());
+      include(map);
+    }
+
+  /**
+   * Returns the hash strategy of this map.
+   */
+  public final HashStrategy hashStrategy ()
+    {
+      return _strategy;
+    }
+
+  /**
+   * Allocates new arrays of the specified power-of-two capacity.
+   */
+  private final void _allocate (int capacity)
+    {
+      _keys = new long[capacity];
+      _values = new int[capacity];
+      _mask = capacity-1;
+      _openThreshold(capacity);
+    }
+
+  /**
+   * Returns the canonical bit pattern of the specified double.
+   */
+  private final static long _bits (double key)
+    {
+      return Double.doubleToLongBits(key);
+    }
+
+  /**
+   * Returns the slot where the search for the specified bit pattern starts.
+   */
+  private final int _slot (long bits)
+    {
+      return _strategy.hash(bits) & _mask;
+    }
+
+  /**
+   * Returns the slot holding the specified non-free bit pattern, or
+   * <tt>-1</tt> if there is none.
+   */
+  private final int _find (long bits)
+    {
+      for (int i = _slot(bits);; i = (i+1) & _mask)
+        {
+          long k = _keys[i];
+
+          if (k == bits)
+            return i;
+
+          if (k == FREE_KEY)
+            return -1;
+        }
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   * @return <tt>true</tt> iff the specified key is one for this map
+   */
+  public final boolean containsKey (double key)
+    {
+      long bits = _bits(key);
+
+      if (bits == FREE_KEY)
+        return _hasFreeKey;
+
+      return _find(bits) >= 0;
+    }
+
+  /**
+   * @return <tt>true</tt> if this map contains an entry with the specified key and value.
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (double key, int value)
+    {
+      long bits = _bits(key);
+
+      if (bits == FREE_KEY)
+        return _hasFreeKey && _freeValue == value;
+
+      int i = _find(bits);
+      return i >= 0 && _values[i] == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be a <tt>DoubleToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      DoubleToIntMap.Entry mapping = (DoubleToIntMap.Entry)candidate;
+      return containsEntry(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this
+   * key. As for <tt>DoubleToIntMap</tt>, <tt>containsKey</tt> may be
+   * used to tell a missing key from one explicitly mapped to
+   * <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @return the value to which this map maps the specified key
+   * @param key the key whose associated value is to be returned
+   */
+  public final int get (double key)
+    {
+      long bits = _bits(key);
+
+      if (bits == FREE_KEY)
+        return _hasFreeKey ? _freeValue : NOT_FOUND_VALUE;
+
+      for (int i = _slot(bits);; i = (i+1) & _mask)
+        {
+          long k = _keys[i];
+
+          if (k == bits)
+            return _values[i];
+
+          if (k == FREE_KEY)
+            return NOT_FOUND_VALUE;
+        }
+    }
+
+  /**
+   * Associates the current size of the map to the given double, and returns this value.
+   * @param x the double to add to this map
+   * @return the index of x in this map
+   */
+  public final int add (double x)
+    {
+      put(x,_size);
+      return _size-1;
+    }
+
+  /**
+   * Associates the specified value with the specified key in this map.
+   * If the map previously contained an entry for this key, the old
+   * value is replaced and returned; otherwise the new value is returned.
+   * The map is automatically enlarged if its size exceeds its threshold.
+   *
+   * @param key key with which the specified value is to be associated
+   * @param value value to be associated with the specified key
+   * @return the old value if there was one, or the new one if not
+   */
+  public final int put (double key, int value)
+    {
+      long bits = _bits(key);
+
+      if (bits == FREE_KEY)
+        {
+          if (_hasFreeKey)
+            {
+              int old = _freeValue;
+              _freeValue = value;
+              return old;
+            }
+
+          _hasFreeKey = true;
+          _freeValue = value;
+          _size++;
+          return value;
+        }
+
+      int i = _slot(bits);
+
+      for (long k; (k = _keys[i]) != FREE_KEY; i = (i+1) & _mask)
+        if (k == bits)
+          {
+            int old = _values[i];
+            _values[i] = value;
+            return old;
+          }
+
+      _checkCapacity(_keys.length);
+
+      _keys[i] = bits;
+      _values[i] = value;
+
+      if (++_size > _threshold)
+        _resize(2*_keys.length);
+
+      return value;
+    }
+
+  /**
+   * Removes the entry for the given key from this map if present.
+   * Returns the previous value associated with the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if there was no entry for the key.  A
+   * returned <tt>NOT_FOUND_VALUE</tt> may also indicate that the map
+   * previously associated <tt>NOT_FOUND_VALUE</tt> with the specified key.
+   *
+   * @param key key whose entry is to be removed from the map.
+   * @return the old value if there was one, or <tt>NOT_FOUND_VALUE</tt>
+   */
+  public final int remove (double key)
+    {
+      long bits = _bits(key);
+
+      if (bits == FREE_KEY)
+        {
+          if (!_hasFreeKey)
+            return NOT_FOUND_VALUE;
+
+          _hasFreeKey = false;
+          _size--;
+          return _freeValue;
+        }
+
+      int i = _find(bits);
+
+      if (i < 0)
+        return NOT_FOUND_VALUE;
+
+      int old = _values[i];
+      _shiftBack(i);
+      _size--;
+
+      return old;
+    }
+
+  /**
+   * Frees the specified slot and moves back into it, and so on along the
+   * probe sequence, any entry that could no longer be reached otherwise.
+   */
+  private final void _shiftBack (int free)
+    {
+      for (int i = (free+1) & _mask;; i = (i+1) & _mask)
+        {
+          long k = _keys[i];
+
+          if (k == FREE_KEY)
+            break;
+
+          int home = _slot(k);
+
+          // the entry at i may move to free iff its home slot is not
+          // cyclically within (free,i]
+          if (free <= i ? (home <= free || home > i) : (home <= free && home > i))
+            {
+              _keys[free] = k;
+              _values[free] = _values[i];
+              free = i;
+            }
+        }
+
+      _keys[free] = FREE_KEY;
+    }
+
+  /**
+   * Rehashes the contents of this map into new arrays of the specified
+   * power-of-two capacity.
+   */
+  private final void _resize (int capacity)
+    {
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      long[] oldKeys = _keys;
+      int[] oldValues = _values;
+
+      _allocate(capacity);
+
+      for (int j=0; j<oldKeys.length; j++)
+        {
+          long k = oldKeys[j];
+
+          if (k == FREE_KEY)
+            continue;
+
+          int i = _slot(k);
+          while (_keys[i] != FREE_KEY) i = (i+1) & _mask;
+
+          _keys[i] = k;
+          _values[i] = oldValues[j];
+        }
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Puts the mapping defined by the specified entry, which must be a
+   * <tt>DoubleToIntMap.Entry</tt>, into this map. Returns the old value
+   * if one was there, or the new value.
+   *
+   * @param entry the entry whose mapping is to be put into this map.
+   */
+  public final int put (ToIntMap.Entry entry)
+    {
+      DoubleToIntMap.Entry mapping = (DoubleToIntMap.Entry)entry;
+      return put(mapping.key,mapping.value);
+    }
+
+  /**
+   * Removes all entries from this map.
+   */
+  public final void clear ()
+    {
+      for (int i=0; i<_keys.length; i++)
+        _keys[i] = FREE_KEY;
+      _hasFreeKey = false;
+      _size = 0;
+    }
+
+
+  /**
+   * Returns a snapshot of the occupancy of this map (see
+   * <tt>ToIntMap.stats()</tt>). The number of probes of a key is its
+   * distance from its home slot plus one; <tt>FREE_KEY</tt>, which is kept
+   * apart from the slots, counts as one probe.
+   */
+  public final ContainerStats stats ()
+    {
+      int[] probes = new int[8];
+      int empty = 0;
+
+      if (_hasFreeKey)
+        probes = ContainerStats.count(probes,1);
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != FREE_KEY)
+          probes = ContainerStats.count(probes,((i - _slot(_keys[i])) & _mask) + 1);
+        else
+          empty++;
+
+      return new ContainerStats(_size,_keys.length,empty,_counter,probes);
+    }
+
+  /**
+   * Returns an iterator through the entries of this map. The object returned
+   * by its <tt>next()</tt> method is a new <tt>DoubleToIntMap.Entry</tt>.
+   */
+  public final Iterator iterator ()
+    {
+      return new EntryIterator();
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is a double; a NaN key is returned as
+   * <tt>Double.NaN</tt>.
+   * @return an iterator for this map's double keys
+   */
+  public final DoubleIterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Returns an iterator through the values of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   * @return an iterator for this map's int values
+   */
+  public final IntIterator values ()
+    {
+      return new ValueIterator();
+    }
+
+  /**
+   * Returns a spliterator through the keys of this map, which splits the
+   * slots of the map in halves. It is sized until it is first split.
+   */
+  public final Spliterator.OfDouble keySpliterator ()
+    {
+      return new KeySpliterator();
+    }
+
+  /**
+   * Returns a sequential stream of the keys of this map; its
+   * <tt>parallel()</tt> version spreads the slots of the map evenly over
+   * the fork-join pool. The map must not be modified while the stream is
+   * in use.
+   */
+  public final DoubleStream keyStream ()
+    {
+      return StreamSupport.doubleStream(keySpliterator(),false);
+    }
+
+  /**
+   * Memory-maps the image of a map saved by <tt>save(Path)</tt> into the
+   * specified file, and returns it as a read-only map.
+   *
+   * @param    path   the path of an image file
+   * @throws   IOException if the file cannot be mapped or is not a valid image.
+   */
+  public final static MappedDoubleToIntMap load (Path path) throws IOException
+    {
+      return MappedDoubleToIntMap.load(path);
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in no
+   * particular order. Unlike going through <tt>iterator()</tt>, this
+   * allocates no iterator and no entry.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (DoubleIntConsumer action)
+    {
+      forEachEntryWhile((key,value) -> { action.accept(key,value); return true; });
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (DoubleIntPredicate action)
+    {
+      if (_hasFreeKey && !action.test(0.0,_freeValue))
+        return false;
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != FREE_KEY && !action.test(Double.longBitsToDouble(_keys[i]),_values[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in no
+   * particular order. Unlike going through <tt>keys()</tt>, this
+   * allocates no iterator.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (DoubleConsumer action)
+    {
+      forEachKeyWhile(key -> { action.accept(key); return true; });
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (DoublePredicate action)
+    {
+      if (_hasFreeKey && !action.test(0.0))
+        return false;
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != FREE_KEY && !action.test(Double.longBitsToDouble(_keys[i])))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified test to the values of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the values were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each value.
+   */
+  public final boolean forEachValueWhile (IntPredicate action)
+    {
+      if (_hasFreeKey && !action.test(_freeValue))
+        return false;
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != FREE_KEY && !action.test(_values[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Includes all of the entries from the specified map to this one.
+   * These entries replace any entries that this map had for any of the
+   * keys currently in the specified map. When the specified map is a map
+   * of doubles, its entries are traversed without allocating any entry.
+   *
+   * @param map map whose entries will be stored in this map.
+   */
+  public final void include (ToIntMap map)
+    {
+      if (map == this)
+        return;
+
+      if (map instanceof DoubleToIntMap)
+        ((DoubleToIntMap)map).forEachEntry(this::put);
+      else if (map instanceof DoubleToIntOpenMap)
+        ((DoubleToIntOpenMap)map).forEachEntry(this::put);
+      else
+        super.include(map);
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of doubles, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof DoubleToIntMap)
+        return forEachEntryWhile(((DoubleToIntMap)map)::containsEntry);
+
+      if (map instanceof DoubleToIntOpenMap)
+        return forEachEntryWhile(((DoubleToIntOpenMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also a <tt>DoubleToIntOpenMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof DoubleToIntOpenMap))
+        return false;
+
+      return isEqualTo((DoubleToIntOpenMap)object);
+    }
+
+  /**
+   * The class defining a cursor through the occupied slots of this map. The
+   * entry for the key <tt>0.0</tt>, if any, comes first and is denoted by
+   * the index <tt>-1</tt>.
+   */
+  private class Cursor
+    {
+      int _next = _advance(_hasFreeKey ? -2 : -1);
+
+      final int _advance (int index)
+        {
+          if (index == -2)
+            return -1;
+
+          for (index++; index<_keys.length; index++)
+            if (_keys[index] != FREE_KEY)
+              return index;
+
+          return _keys.length;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _next < _keys.length;
+        }
+
+      final int _step ()
+        {
+          if (_next >= _keys.length)
+            throw new NoSuchElementException();
+
+          int index = _next;
+          _next = _advance(index);
+          return index;
+        }
+
+      final double _key (int index)
+        {
+          return Double.longBitsToDouble(index < 0 ? FREE_KEY : _keys[index]);
+        }
+
+      final int _value (int index)
+        {
+          return index < 0 ? _freeValue : _values[index];
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's entries.
+   */
+  private class EntryIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          int i = _step();
+          return new DoubleToIntMap.Entry(_key(i),_value(i));
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements DoubleIterator
+    {
+      public final double next ()
+        {
+          return _key(_step());
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's values.
+   */
+  private class ValueIterator extends Cursor implements IntIterator
+    {
+      public final int next ()
+        {
+          return _value(_step());
+        }
+    }
+
+  /**
+   * The class defining the spliterator through the map's keys, which
+   * walks a range of slots. The free key, if in the map, comes first, and
+   * is never given up by a split.
+   */
+  private class KeySpliterator implements Spliterator.OfDouble
+    {
+      private final long[] _slots = _keys;
+      private int _index;
+      private int _fence;
+      private boolean _free;
+      private long _estimate;
+      private boolean _exact;
+
+      KeySpliterator ()
+        {
+          _fence = _slots.length;
+          _free = _hasFreeKey;
+          _estimate = _size;
+          _exact = true;
+        }
+
+      KeySpliterator (KeySpliterator other, int index)
+        {
+          _index = index;
+          _fence = other._index;
+          _estimate = other._estimate;
+        }
+
+      public final boolean tryAdvance (DoubleConsumer action)
+        {
+          if (_free)
+            {
+              _free = false;
+              action.accept(Double.longBitsToDouble(FREE_KEY));
+              return true;
+            }
+
+          while (_index < _fence)
+            {
+              long k = _slots[_index++];
+
+              if (k != FREE_KEY)
+                {
+                  action.accept(Double.longBitsToDouble(k));
+                  return true;
+                }
+            }
+
+          return false;
+        }
+
+      public final void forEachRemaining (DoubleConsumer action)
+        {
+          if (_free)
+            {
+              _free = false;
+              action.accept(Double.longBitsToDouble(FREE_KEY));
+            }
+
+          for (; _index < _fence; _index++)
+            {
+              long k = _slots[_index];
+
+              if (k != FREE_KEY)
+                action.accept(Double.longBitsToDouble(k));
+            }
+        }
+
+      public final Spliterator.OfDouble trySplit ()
+        {
+          int index = _index;
+          int middle = (index + _fence) >>> 1;
+
+          if (index >= middle)
+            return null;
+
+          _index = middle;
+          _estimate >>>= 1;
+          _exact = false;
+          return new KeySpliterator(this,index);
+        }
+
+      public final long estimateSize ()
+        {
+          return _estimate;
+        }
+
+      public final int characteristics ()
+        {
+          return Spliterator.DISTINCT | (_exact ? Spliterator.SIZED : 0);
+        }
+    }
+}
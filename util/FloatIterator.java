@@ -0,0 +1,24 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 08:00:26 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+/**
+ * This is an interface denoting an iterator over a collection of floats.
+ * <p>
+ * This interface is generated from <tt>templates/Iterator.jt</tt> by
+ * <tt>templates/Specialize.java</tt>, and should be changed there.
+ */
+public interface FloatIterator
+{
+  public boolean hasNext ();
+  public float next ();
+}
+
@@ -0,0 +1,261 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 15:21:36 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * This is a class of immutable maps from ints to ints indexed by a minimal
+ * perfect hash function, such that a lookup probes a single slot. It is
+ * obtained by <tt>IntToIntMap.freeze()</tt> or <tt>IntToIntOpenMap.freeze()</tt>,
+ * and offers the read API of these maps. A frozen map uses about 9.3 bytes
+ * per entry (a key, a value, and a third of a displacement), whatever the
+ * load factor of the map it comes from. See <a href="FrozenToIntMap.html">
+ * <tt>FrozenToIntMap</tt></a> for how it is built.
+ */
+
+public class FrozenIntToIntMap extends FrozenToIntMap
+{
+  /**
+   * The keys of this map, by slot.
+   */
+  private int[] _keys;
+
+  /**
+   * Constructs a frozen map with the same entries as the specified map.
+   */
+  public FrozenIntToIntMap (IntToIntMap map)
+    {
+      _keys = new int[map.size()];
+      int[] n = { 0 };
+      map.forEachEntry((key,value) -> _keys[n[0]++] = key);
+      _freeze();
+      map.forEachEntry((key,value) -> _values[_find(key)] = value);
+    }
+
+  /**
+   * Constructs a frozen map with the same entries as the specified map.
+   */
+  public FrozenIntToIntMap (IntToIntOpenMap map)
+    {
+      _keys = new int[map.size()];
+      int[] n = { 0 };
+      map.forEachEntry((key,value) -> _keys[n[0]++] = key);
+      _freeze();
+      map.forEachEntry((key,value) -> _values[_find(key)] = value);
+    }
+
+  /**
+   * Builds the perfect hash function of the keys and puts each key in
+   * its slot.
+   */
+  private final void _freeze ()
+    {
+      int[] hashes = new int[_keys.length];
+      for (int i=0; i<_keys.length; i++)
+        hashes[i] = _mix(_keys[i]);
+
+      int[] slots = _build(hashes);
+      int[] keys = new int[_keys.length];
+      for (int i=0; i<_keys.length; i++)
+        keys[slots[i]] = _keys[i];
+
+      _keys = keys;
+    }
+
+  /**
+   * Returns the slot of the specified key, or <tt>-1</tt> if it is not in
+   * this map.
+   */
+  private final int _find (int key)
+    {
+      int slot = _slot(_mix(key));
+      return slot >= 0 && _keys[slot] == key ? slot : -1;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (int key)
+    {
+      return _find(key) >= 0;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry with the specified key and value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (int key, int value)
+    {
+      int slot = _find(key);
+      return slot >= 0 && _values[slot] == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be an <tt>IntToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      IntToIntMap.Entry mapping = (IntToIntMap.Entry)candidate;
+      return containsEntry(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this
+   * key. As for <tt>IntToIntMap</tt>, <tt>containsKey</tt> may be
+   * used to tell a missing key from one mapped to <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (int key)
+    {
+      int slot = _find(key);
+      return slot < 0 ? NOT_FOUND_VALUE : _values[slot];
+    }
+
+  /**
+   * Returns the number of bytes used by the arrays of this map.
+   */
+  public final long memorySize ()
+    {
+      return _indexSize() + 4L * _keys.length;
+    }
+
+  /**
+   * Returns an iterator through the entries of this map. The object returned
+   * by its <tt>next()</tt> method is an <tt>IntToIntMap.Entry</tt>, created
+   * on the fly.
+   */
+  public final Iterator iterator ()
+    {
+      return new EntryIterator();
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in slot order.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (IntIntConsumer action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        action.accept(_keys[i],_values[i]);
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in slot order,
+   * until it returns <tt>false</tt>. Returns <tt>true</tt> iff all the
+   * entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (IntIntPredicate action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        if (!action.test(_keys[i],_values[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in slot order.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (IntConsumer action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        action.accept(_keys[i]);
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in slot order,
+   * until it returns <tt>false</tt>. Returns <tt>true</tt> iff all the
+   * keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (IntPredicate action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        if (!action.test(_keys[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also a <tt>FrozenIntToIntMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof FrozenIntToIntMap))
+        return false;
+
+      FrozenIntToIntMap map = (FrozenIntToIntMap)object;
+      return map.size() == _size && forEachEntryWhile(map::containsEntry);
+    }
+
+  /**
+   * The class defining the iterator through the map's entries.
+   */
+  private class EntryIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          int i = _step();
+          return new IntToIntMap.Entry(_keys[i],_values[i]);
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements IntIterator
+    {
+      public final int next ()
+        {
+          return _keys[_step()];
+        }
+    }
+}
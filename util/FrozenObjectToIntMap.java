@@ -0,0 +1,324 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 15:34:02 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * This is a class of immutable maps from objects to ints indexed by a
+ * minimal perfect hash function, such that a lookup probes a single slot
+ * and calls <tt>equals</tt> at most once. It is obtained by
+ * <tt>ObjectToIntMap.freeze()</tt> or <tt>ObjectToIntOpenMap.freeze()</tt>,
+ * and offers the read API of these maps, with the same notion of key
+ * equality (that of their <tt>HashStrategy</tt>).
+ * Apart from the keys themselves, a frozen map uses about 5.3 bytes per
+ * entry plus a reference. See <a href="FrozenToIntMap.html">
+ * <tt>FrozenToIntMap</tt></a> for how it is built.
+ */
+
+public class FrozenObjectToIntMap extends FrozenToIntMap
+{
+  /**
+   * The keys of this map, by slot.
+   */
+  private Object[] _keys;
+
+  /**
+   * The slots of the keys whose hash codes are shared by other keys, or
+   * <tt>null</tt> if there are none.
+   */
+  private ObjectToIntOpenMap _overflow;
+
+  /**
+   * The strategy hashing and comparing the keys of this map.
+   */
+  private final HashStrategy _strategy;
+
+  /**
+   * Constructs a frozen map with the same entries as the specified map.
+   */
+  public FrozenObjectToIntMap (ObjectToIntMap map)
+    {
+      _strategy = map.hashStrategy();
+      _keys = new Object[map.size()];
+      int[] n = { 0 };
+      map.forEachEntry((key,value) -> _keys[n[0]++] = key);
+      _freeze();
+      map.forEachEntry((key,value) -> _values[_find(key)] = value);
+    }
+
+  /**
+   * Constructs a frozen map with the same entries as the specified map.
+   */
+  public FrozenObjectToIntMap (ObjectToIntOpenMap map)
+    {
+      _strategy = map.hashStrategy();
+      _keys = new Object[map.size()];
+      int[] n = { 0 };
+      map.forEachEntry((key,value) -> _keys[n[0]++] = key);
+      _freeze();
+      map.forEachEntry((key,value) -> _values[_find(key)] = value);
+    }
+
+  /**
+   * Returns the mixed hash code of the specified key.
+   */
+  private final int _hash (Object key)
+    {
+      return _strategy.hash(key);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map compares its keys by identity.
+   */
+  public final boolean isIdentity ()
+    {
+      return _strategy == HashStrategy.IDENTITY;
+    }
+
+  /**
+   * Returns the hash strategy of this map, which is that of the map it was
+   * obtained from.
+   */
+  public final HashStrategy hashStrategy ()
+    {
+      return _strategy;
+    }
+
+  /**
+   * Returns the hash code of the specified entry of this map, following
+   * its strategy.
+   */
+  protected final int _entryHashCode (ToIntMap.Entry entry)
+    {
+      return ((ObjectToIntMap.Entry)entry).hashCode(_strategy);
+    }
+
+  /**
+   * Builds the perfect hash function of the keys, puts each key in its
+   * slot, and records the slots of the overflowing keys.
+   */
+  private final void _freeze ()
+    {
+      int[] hashes = new int[_keys.length];
+      for (int i=0; i<_keys.length; i++)
+        hashes[i] = _hash(_keys[i]);
+
+      int[] slots = _build(hashes);
+      Object[] keys = new Object[_keys.length];
+
+      for (int i=0; i<_keys.length; i++)
+        {
+          keys[slots[i]] = _keys[i];
+
+          if (_slot(hashes[i]) == -2)
+            {
+              if (_overflow == null)
+                _overflow = new ObjectToIntOpenMap(16,_strategy);
+              _overflow.put(_keys[i],slots[i]);
+            }
+        }
+
+      _keys = keys;
+    }
+
+  /**
+   * Returns the slot of the specified key, or <tt>-1</tt> if it is not in
+   * this map.
+   */
+  private final int _find (Object key)
+    {
+      int slot = _slot(_hash(key));
+
+      if (slot == -2)
+        return _overflow.containsKey(key) ? _overflow.get(key) : -1;
+
+      if (slot < 0)
+        return -1;
+
+      Object k = _keys[slot];
+      return k == key || _strategy.equals(k,key) ? slot : -1;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (Object key)
+    {
+      return _find(key) >= 0;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry with the specified key and value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (Object key, int value)
+    {
+      int slot = _find(key);
+      return slot >= 0 && _values[slot] == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be an <tt>ObjectToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      ObjectToIntMap.Entry mapping = (ObjectToIntMap.Entry)candidate;
+      return containsEntry(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this
+   * key. As for <tt>ObjectToIntMap</tt>, <tt>containsKey</tt> may be
+   * used to tell a missing key from one mapped to <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (Object key)
+    {
+      int slot = _find(key);
+      return slot < 0 ? NOT_FOUND_VALUE : _values[slot];
+    }
+
+  /**
+   * Returns an iterator through the entries of this map. The object returned
+   * by its <tt>next()</tt> method is an <tt>ObjectToIntMap.Entry</tt>, created
+   * on the fly.
+   */
+  public final Iterator iterator ()
+    {
+      return new EntryIterator();
+    }
+
+  /**
+   * Returns an iterator through the keys of this map.
+   */
+  public final Iterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in slot order.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (ObjectIntConsumer action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        action.accept(_keys[i],_values[i]);
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in slot order,
+   * until it returns <tt>false</tt>. Returns <tt>true</tt> iff all the
+   * entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (ObjectIntPredicate action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        if (!action.test(_keys[i],_values[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in slot order.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (Consumer action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        action.accept(_keys[i]);
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in slot order,
+   * until it returns <tt>false</tt>. Returns <tt>true</tt> iff all the
+   * keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (Predicate action)
+    {
+      for (int i=0; i<_keys.length; i++)
+        if (!action.test(_keys[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also a <tt>FrozenObjectToIntMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof FrozenObjectToIntMap))
+        return false;
+
+      FrozenObjectToIntMap map = (FrozenObjectToIntMap)object;
+      return map.size() == _size && forEachEntryWhile(map::containsEntry);
+    }
+
+  /**
+   * The class defining the iterator through the map's entries.
+   */
+  private class EntryIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          int i = _step();
+          return new ObjectToIntMap.Entry(_keys[i],_values[i]);
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          return _keys[_step()];
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+}
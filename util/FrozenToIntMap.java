@@ -0,0 +1,348 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 15:07:53 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * This is the mother of the classes of immutable maps to ints obtained by
+ * <tt>freeze()</tt>-ing a map. It is the mother of:
+ * <ul>
+ * <li> <a href="FrozenIntToIntMap.html"><tt>FrozenIntToIntMap</tt></a>
+ * <li> <a href="FrozenObjectToIntMap.html"><tt>FrozenObjectToIntMap</tt></a>
+ * </ul>
+ * A frozen map of <tt>n</tt> entries keeps its keys and values in two
+ * arrays of exactly <tt>n</tt> slots, indexed by a minimal perfect hash
+ * function built with the "hash and displace" method: keys are spread over
+ * about <tt>n/3</tt> buckets by their hash code; then, the largest buckets
+ * first, each bucket is given the smallest displacement <tt>d</tt> such
+ * that hashing its keys again with <tt>d</tt> sends them to distinct free
+ * slots. Buckets of a single key are given a free slot directly. Looking
+ * up a key therefore reads one displacement, then one slot, where the key
+ * is compared to the one sought, since it may not be in the map.
+ * <p>
+ * Keys whose hash codes are equal cannot be told apart by any displacement:
+ * their bucket is marked as overflowing, and they are found through a small
+ * ordinary map from keys to slots. This never happens for maps of ints,
+ * whose keys are mixed by a bijection.
+ * <p>
+ * All the update methods of <tt>ToIntMap</tt> throw an
+ * <tt>UnsupportedOperationException</tt>.
+ */
+
+abstract public class FrozenToIntMap extends ToIntMap
+{
+  /**
+   * The average number of keys per bucket.
+   */
+  private final static int KEYS_PER_BUCKET = 3;
+
+  /**
+   * The number of displacements tried for a bucket before giving up and
+   * making it overflow.
+   */
+  private final static int MAX_DISPLACEMENTS = 1<<16;
+
+  /**
+   * The marker of a bucket of keys found through the overflow map.
+   */
+  private final static int OVERFLOW = Integer.MIN_VALUE;
+
+  /**
+   * The constant used to derive the hash codes of successive displacements.
+   */
+  private final static int GOLDEN = 0x9E3779B9;
+
+  /**
+   * The displacements of the buckets: <tt>0</tt> for an empty bucket,
+   * <tt>d+1</tt> for a bucket displaced by <tt>d</tt>, <tt>-(s+1)</tt> for
+   * a bucket whose only key is at slot <tt>s</tt>, or <tt>OVERFLOW</tt>.
+   */
+  protected int[] _buckets;
+
+  /**
+   * The values of this map, by slot.
+   */
+  protected int[] _values;
+
+  /**
+   * Returns <tt>hash</tt> brought within <tt>[0,range)</tt>, using its high
+   * bits rather than a remainder.
+   */
+  private final static int _reduce (int hash, int range)
+    {
+      return (int)(((hash & 0xFFFFFFFFL) * range) >>> 32);
+    }
+
+  /**
+   * Returns the bucket of the specified mixed hash code.
+   */
+  private final int _bucket (int hash)
+    {
+      return _reduce(hash,_buckets.length);
+    }
+
+  /**
+   * Returns the slot of the specified mixed hash code for the specified
+   * displacement.
+   */
+  private final int _displace (int hash, int d)
+    {
+      return _reduce(_mix(hash ^ d*GOLDEN),_size);
+    }
+
+  /**
+   * Returns the only slot where a key of the specified mixed hash code may
+   * be, <tt>-1</tt> if there is none, or <tt>-2</tt> if the key may only be
+   * found through the overflow map.
+   */
+  protected final int _slot (int hash)
+    {
+      int g = _buckets[_bucket(hash)];
+
+      if (g > 0)
+        return _displace(hash,g-1);
+
+      if (g == 0)
+        return -1;
+
+      if (g == OVERFLOW)
+        return -2;
+
+      return -g-1;
+    }
+
+  /**
+   * Builds the perfect hash function of the keys of the specified mixed
+   * hash codes, and allocates the values. Returns the slot assigned to each
+   * key: every slot is assigned to exactly one key, including the keys that
+   * overflow, which are given the slots left after all others are placed.
+   * The caller must record those (for which <tt>_slot</tt> returns
+   * <tt>-2</tt>) in its overflow map.
+   *
+   * @param    hashes   the mixed hash codes of the keys
+   */
+  protected final int[] _build (int[] hashes)
+    {
+      int n = _size = hashes.length;
+      _values = new int[n];
+      _buckets = new int[Math.max(1,(n+KEYS_PER_BUCKET-1)/KEYS_PER_BUCKET)];
+
+      int r = _buckets.length;
+
+      // sort the keys by bucket:
+      int[] start = new int[r+1];
+      for (int i=0; i<n; i++) start[_bucket(hashes[i])+1]++;
+      for (int b=0; b<r; b++) start[b+1] += start[b];
+
+      int[] members = new int[n];
+      int[] fill = start.clone();
+      for (int i=0; i<n; i++) members[fill[_bucket(hashes[i])]++] = i;
+
+      // sort the buckets by decreasing size:
+      int maxSize = 0;
+      for (int b=0; b<r; b++) maxSize = Math.max(maxSize,start[b+1]-start[b]);
+
+      int[] bySize = new int[maxSize+2];
+      for (int b=0; b<r; b++) bySize[maxSize-(start[b+1]-start[b])+1]++;
+      for (int k=0; k<=maxSize; k++) bySize[k+1] += bySize[k];
+
+      int[] order = new int[r];
+      for (int b=0; b<r; b++) order[bySize[maxSize-(start[b+1]-start[b])]++] = b;
+
+      int[] slots = new int[n];
+      boolean[] taken = new boolean[n];
+      int[] trial = new int[maxSize];
+      int k = 0;
+
+      // displace the buckets of several keys:
+      for (; k<r; k++)
+        {
+          int b = order[k];
+          int size = start[b+1]-start[b];
+
+          if (size < 2)
+            break;
+
+          int d = _displacement(hashes,members,start[b],size,taken,trial);
+
+          if (d < 0)
+            {
+              _buckets[b] = OVERFLOW;
+              continue;
+            }
+
+          _buckets[b] = d+1;
+          for (int j=0; j<size; j++)
+            taken[slots[members[start[b]+j]] = trial[j]] = true;
+        }
+
+      // give the single keys the free slots, then the overflowing keys:
+      int free = 0;
+
+      for (; k<r; k++)
+        {
+          int b = order[k];
+
+          if (start[b+1] == start[b])
+            break;
+
+          while (taken[free]) free++;
+          taken[free] = true;
+          slots[members[start[b]]] = free;
+          _buckets[b] = -free-1;
+        }
+
+      for (int b=0; b<r; b++)
+        if (_buckets[b] == OVERFLOW)
+          for (int j=start[b]; j<start[b+1]; j++)
+            {
+              while (taken[free]) free++;
+              taken[free] = true;
+              slots[members[j]] = free;
+            }
+
+      return slots;
+    }
+
+  /**
+   * Returns the smallest displacement sending the specified keys to
+   * distinct free slots, which are left in <tt>trial</tt>, or <tt>-1</tt>
+   * if there is none (within <tt>MAX_DISPLACEMENTS</tt>), which is the case
+   * when two of the keys have the same hash code.
+   */
+  private final int _displacement (int[] hashes, int[] members, int first, int size,
+                                   boolean[] taken, int[] trial)
+    {
+      for (int i=0; i<size; i++)
+        for (int j=i+1; j<size; j++)
+          if (hashes[members[first+i]] == hashes[members[first+j]])
+            return -1;
+
+      next:
+      for (int d=0; d<MAX_DISPLACEMENTS; d++)
+        {
+          for (int i=0; i<size; i++)
+            {
+              int slot = _displace(hashes[members[first+i]],d);
+
+              if (taken[slot])
+                continue next;
+
+              for (int j=0; j<i; j++)
+                if (trial[j] == slot)
+                  continue next;
+
+              trial[i] = slot;
+            }
+
+          return d;
+        }
+
+      return -1;
+    }
+
+  /**
+   * Returns the number of bytes used by the perfect hash function and the
+   * values of this map, not counting the keys.
+   */
+  protected final long _indexSize ()
+    {
+      return 4L * (_buckets.length + _values.length);
+    }
+
+  /**
+   * Applies the specified test to the values of this map, in slot order,
+   * until it returns <tt>false</tt>. Returns <tt>true</tt> iff all the
+   * values were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each value.
+   */
+  public final boolean forEachValueWhile (IntPredicate action)
+    {
+      for (int i=0; i<_values.length; i++)
+        if (!action.test(_values[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Returns an iterator through the values of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator values ()
+    {
+      return new ValueIterator();
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt>, since a frozen map
+   * may not be modified.
+   */
+  public final int put (Entry entry)
+    {
+      throw new UnsupportedOperationException("frozen map");
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this map (see
+   * <tt>ToIntMap.stats()</tt>): a frozen map has no unused slot, and finds
+   * each key in a single probe.
+   */
+  public final ContainerStats stats ()
+    {
+      return new ContainerStats(_size,_size,0,_counter,new int[] { 0, _size });
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt>, since a frozen map
+   * may not be modified.
+   */
+  public final void clear ()
+    {
+      throw new UnsupportedOperationException("frozen map");
+    }
+
+  /**
+   * The class defining a cursor through the slots of this map, which are
+   * all occupied.
+   */
+  class Cursor
+    {
+      int _next = 0;
+
+      public final boolean hasNext ()
+        {
+          return _next < _size;
+        }
+
+      final int _step ()
+        {
+          if (_next >= _size)
+            throw new NoSuchElementException();
+
+          return _next++;
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's values.
+   */
+  private class ValueIterator extends Cursor implements IntIterator
+    {
+      public final int next ()
+        {
+          return _values[_step()];
+        }
+    }
+}
@@ -0,0 +1,202 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 17:12:45 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+/**
+ * This is the class of the strategies used by the maps of the
+ * <tt>ToIntMap</tt> family to hash and compare their keys. A strategy
+ * defines:
+ * <ul>
+ * <li> <tt>mix(int)</tt>, a finalizer scrambling the bits of a raw hash
+ *      code so that keys differing in few bits (such as dense ids, or
+ *      strings sharing a prefix) fall into unrelated buckets or slots;
+ * <li> <tt>hashCode(Object)</tt> and <tt>equals(Object,Object)</tt>, the
+ *      notion of equality of the keys of object maps, which are, by
+ *      default, those of <tt>Misc.hashCode</tt> and <tt>Misc.equals</tt>.
+ * </ul>
+ * The keys of an int or double map are always compared with <tt>==</tt>
+ * (on the bits of a double for an open map), and only their mixing
+ * depends on the strategy. A custom notion of equality of objects (for
+ * example, on strings regardless of case, or on arrays by contents) is
+ * obtained by subclassing one of <tt>Plain</tt>, <tt>Murmur</tt>, or
+ * <tt>XXHash</tt>, and overriding both <tt>hashCode(Object)</tt> and
+ * <tt>equals(Object,Object)</tt> consistently.
+ * <p>
+ * The chained maps use <tt>DEFAULT</tt> unless given another strategy.
+ * This is <tt>PLAIN</tt>, so that their buckets and iteration order stay
+ * those of the unmixed bucket selection (<i>i.e.</i>, <tt>(hash &amp;
+ * 0x7FFFFFFF) % capacity</tt>), which is good for dense ids in a chained
+ * table, but not for keys that are multiples of a common stride; such
+ * keys are better spread by giving the map <tt>MURMUR</tt> or
+ * <tt>XXHASH</tt>. The open-addressing maps, whose tables have a power of
+ * two size, always need mixed hash codes, and use <tt>MURMUR</tt> unless
+ * given another strategy. The program
+ * <tt>bench/HashQualityBench</tt> compares these strategies and the string
+ * hash functions on typical keys.
+ */
+
+public abstract class HashStrategy
+{
+  /**
+   * Returns the specified raw hash code with its bits mixed.
+   */
+  public abstract int mix (int hash);
+
+  /**
+   * Returns the raw hash code of the specified, possibly <tt>null</tt>,
+   * object key. This must be consistent with <tt>equals(Object,Object)</tt>.
+   */
+  public int hashCode (Object key)
+    {
+      return Misc.hashCode(key);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the two specified, possibly <tt>null</tt>,
+   * object keys are to be considered the same key.
+   */
+  public boolean equals (Object key1, Object key2)
+    {
+      return Misc.equals(key1,key2);
+    }
+
+  /**
+   * Returns the mixed hash code of the specified int key.
+   */
+  public final int hash (int key)
+    {
+      return mix(key);
+    }
+
+  /**
+   * Returns the mixed hash code of the double key of the specified bits.
+   */
+  public final int hash (long bits)
+    {
+      return mix((int)(bits ^ (bits >>> 32)));
+    }
+
+  /**
+   * Returns the mixed hash code of the specified double key.
+   */
+  public final int hash (double key)
+    {
+      return mix(Misc.hashCode(key));
+    }
+
+  /**
+   * Returns the mixed hash code of the specified object key.
+   */
+  public final int hash (Object key)
+    {
+      return mix(hashCode(key));
+    }
+
+  /**
+   * The strategy leaving hash codes unmixed.
+   */
+  public final static HashStrategy PLAIN = new Plain();
+
+  /**
+   * The strategy mixing hash codes with the 32-bit finalizer of MurmurHash3.
+   */
+  public final static HashStrategy MURMUR = new Murmur();
+
+  /**
+   * The strategy mixing hash codes with the 32-bit avalanche of xxHash.
+   */
+  public final static HashStrategy XXHASH = new XXHash();
+
+  /**
+   * The strategy comparing object keys by identity (<tt>==</tt>), and
+   * hashing them with <tt>System.identityHashCode</tt> mixed as by
+   * <tt>MURMUR</tt>. This is the strategy of a map in identity mode.
+   */
+  public final static HashStrategy IDENTITY = new Murmur()
+    {
+      public final int hashCode (Object key)
+        {
+          return System.identityHashCode(key);
+        }
+
+      public final boolean equals (Object key1, Object key2)
+        {
+          return key1 == key2;
+        }
+
+      public final String toString ()
+        {
+          return "IDENTITY";
+        }
+    };
+
+  /**
+   * The strategy used by chained maps created without one.
+   */
+  public final static HashStrategy DEFAULT = PLAIN;
+
+  /**
+   * The class of strategies leaving hash codes unmixed.
+   */
+  public static class Plain extends HashStrategy
+    {
+      public final int mix (int hash)
+        {
+          return hash;
+        }
+
+      public String toString ()
+        {
+          return "PLAIN";
+        }
+    }
+
+  /**
+   * The class of strategies mixing hash codes with the 32-bit finalizer
+   * of MurmurHash3 (<tt>fmix32</tt>), in which each input bit affects each
+   * output bit with a probability close to 1/2.
+   */
+  public static class Murmur extends HashStrategy
+    {
+      public final int mix (int hash)
+        {
+          return ToIntMap._mix(hash);
+        }
+
+      public String toString ()
+        {
+          return "MURMUR";
+        }
+    }
+
+  /**
+   * The class of strategies mixing hash codes with the final avalanche of
+   * the 32-bit xxHash, which has the shape of that of MurmurHash3 with
+   * other shifts and multipliers.
+   */
+  public static class XXHash extends HashStrategy
+    {
+      public final int mix (int hash)
+        {
+          hash ^= hash >>> 15;
+          hash *= 0x85EBCA77;
+          hash ^= hash >>> 13;
+          hash *= 0xC2B2AE3D;
+          hash ^= hash >>> 16;
+          return hash;
+        }
+
+      public String toString ()
+        {
+          return "XXHASH";
+        }
+    }
+}
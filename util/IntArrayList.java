@@ -5,7 +5,14 @@
 package hlt.language.util;
 
 import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class implements a vector of primitive <tt>int</tt> elements
@@ -55,6 +62,18 @@ public class IntArrayList
    */
   protected int capacityIncrement;
 
+  /**
+   * The counter of the growths of the internal array of this IntArrayList, or
+   * <tt>null</tt> if its statistics are disabled (the default).
+   */
+  private ContainerStats.Counter _counter;
+
+  /**
+   * Whether this <tt>IntArrayList</tt> is kept sorted in increasing order (see
+   * <tt>setSorted(boolean)</tt>).
+   */
+  private boolean _sorted;
+
   // CONSTRUCTORS:
 
   /**
@@ -187,6 +206,8 @@ public class IntArrayList
       if (elementData.length >= minCapacity)
 	return;
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       int newCapacity = Math.max(minCapacity,_increasedCapacity());
       // System.out.println("*** Allocating a new int array with capacity of "+newCapacity);
       int[] newArray = new int[newCapacity];
@@ -195,6 +216,9 @@ public class IntArrayList
 	newArray[i] = elementData[i];
       
       elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -205,6 +229,9 @@ public class IntArrayList
    */
   public final void setSize (int newSize)
     {
+      if (newSize > elementCount)
+        _unsorted("setSize");
+
       ensureCapacity(elementCount = newSize);
     }
 
@@ -218,6 +245,32 @@ public class IntArrayList
       return elementData.length;
     }
 
+  /**
+   * Enables or disables the counting of the growths of the internal array
+   * of this IntArrayList, and of the time they take, as reported by
+   * <tt>stats()</tt>. Enabling them again keeps the counts so far;
+   * disabling them drops the counts.
+   *
+   * @param     enabled whether growths are to be counted
+   */
+  public final void setStatsEnabled (boolean enabled)
+    {
+      if (!enabled)
+        _counter = null;
+      else if (_counter == null)
+        _counter = new ContainerStats.Counter();
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this IntArrayList: its size, its
+   * capacity and how much of it is unused, and, if statistics are enabled,
+   * how many times its internal array grew and how long that took.
+   */
+  public final ContainerStats stats ()
+    {
+      return new ContainerStats(elementCount,elementData.length,elementData.length-elementCount,_counter,null);
+    }
+
   /**
    * Returns the number of components in this <tt>IntArrayList</tt>.
    *
@@ -247,6 +300,9 @@ public class IntArrayList
    */
   public final boolean contains (int element)
     {
+      if (_sorted)
+        return binarySearch(element) >= 0;
+
       for (int i=0; i<elementCount; i++)
         if (elementData[i] == element) return true;
 
@@ -262,6 +318,9 @@ public class IntArrayList
    */
   public final int indexOf (int element)
     {
+      if (_sorted)
+        return _sortedIndexOf(element,0);
+
       for (int i=0; i<elementCount; i++)
         if (elementData[i] == element) return i;
 
@@ -278,6 +337,9 @@ public class IntArrayList
    */
   public final int indexOf (int element, int index)
     {
+      if (_sorted)
+        return _sortedIndexOf(element,index);
+
       for (int i=index; i<elementCount; i++)
         if (elementData[i] == element) return i;
 
@@ -293,6 +355,9 @@ public class IntArrayList
    */
   public final int lastIndexOf (int element)
     {
+      if (_sorted)
+        return _sortedLastIndexOf(element,elementCount);
+
       for (int i=elementCount; i-->0;)
         if (elementData[i] == element) return i;
 
@@ -309,6 +374,9 @@ public class IntArrayList
    */
   public final int lastIndexOf (int element, int index)
     {
+      if (_sorted)
+        return _sortedLastIndexOf(element,index);
+
       for (int i=index; i-->0;)
         if (elementData[i] == element) return i;
 
@@ -457,7 +525,9 @@ public class IntArrayList
       for (int i=0; i<elementData.length; i++)
         newArray[i] = elementData[i];
 
-      return new IntArrayList(newArray,elementCount,capacityIncrement,incrementFactor);
+      IntArrayList clone = new IntArrayList(newArray,elementCount,capacityIncrement,incrementFactor);
+      clone._sorted = _sorted;
+      return clone;
     }
 
   /**
@@ -474,6 +544,266 @@ public class IntArrayList
       return a;
     }
 
+  /**
+   * Returns a spliterator through the elements of this IntArrayList, in
+   * order, which is sized and splits in halves of equal sizes. It reads
+   * the current internal array of this IntArrayList, which must not be
+   * modified while the spliterator is in use.
+   */
+  public final Spliterator.OfInt spliterator ()
+    {
+      return Spliterators.spliterator(elementData,0,elementCount,Spliterator.ORDERED);
+    }
+
+  /**
+   * Returns a sequential stream of the elements of this IntArrayList; its
+   * <tt>parallel()</tt> version spreads them evenly over the fork-join
+   * pool without boxing them.
+   */
+  public final IntStream intStream ()
+    {
+      return StreamSupport.intStream(spliterator(),false);
+    }
+
+  /**
+   * Returns the sum of the elements of this IntArrayList, as a long so
+   * that it does not overflow.
+   */
+  public final long sum ()
+    {
+      long sum = 0;
+
+      for (int i=0; i<elementCount; i++)
+        sum += elementData[i];
+
+      return sum;
+    }
+
+  /**
+   * Returns the least element of this IntArrayList.
+   *
+   * @exception NoSuchElementException if this IntArrayList is empty.
+   */
+  public final int min ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty IntArrayList");
+
+      int min = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        if (elementData[i] < min)
+          min = elementData[i];
+
+      return min;
+    }
+
+  /**
+   * Returns the greatest element of this IntArrayList.
+   *
+   * @exception NoSuchElementException if this IntArrayList is empty.
+   */
+  public final int max ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty IntArrayList");
+
+      int max = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        if (elementData[i] > max)
+          max = elementData[i];
+
+      return max;
+    }
+
+  /**
+   * Returns the number of elements of this IntArrayList that pass the
+   * specified test.
+   *
+   * @param test the test to apply to each element.
+   */
+  public final int count (IntPredicate test)
+    {
+      int count = 0;
+
+      for (int i=0; i<elementCount; i++)
+        if (test.test(elementData[i]))
+          count++;
+
+      return count;
+    }
+
+  /**
+   * Adds to each element of this IntArrayList the element at the same
+   * index in the specified IntArrayList, with the usual int overflow.
+   *
+   * @param     v an IntArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void addElementwise (IntArrayList v)
+    {
+      _unsorted("addElementwise");
+
+      int[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] += other[i];
+    }
+
+  /**
+   * Multiplies each element of this IntArrayList by the element at the
+   * same index in the specified IntArrayList, with the usual int overflow.
+   *
+   * @param     v an IntArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void multiplyElementwise (IntArrayList v)
+    {
+      _unsorted("multiplyElementwise");
+
+      int[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] *= other[i];
+    }
+
+  /**
+   * Returns the internal array of the specified IntArrayList, which must
+   * have the size of this one.
+   */
+  private final int[] _sameSize (IntArrayList v)
+    {
+      if (v.elementCount != elementCount)
+        throw new IllegalArgumentException("size mismatch: "+v.elementCount+" instead of "+elementCount);
+
+      return v.elementData;
+    }
+
+  /**
+   * Sorts this IntArrayList in increasing order.
+   */
+  public final void sort ()
+    {
+      Arrays.sort(elementData,0,elementCount);
+    }
+
+  /**
+   * Sorts this IntArrayList in increasing order like <tt>sort()</tt>, splitting
+   * the work over the fork-join pool when the list is large enough for
+   * this to pay off (as decided by <tt>Arrays.parallelSort</tt>).
+   */
+  public final void parallelSort ()
+    {
+      Arrays.parallelSort(elementData,0,elementCount);
+    }
+
+  /**
+   * Searches this IntArrayList, which must be sorted, for the specified element
+   * with <tt>Arrays.binarySearch</tt>. Returns the index of the element if
+   * it is there, and <tt>-(insertion point)-1</tt> otherwise. If the
+   * element is there several times, any of its indices may be returned.
+   *
+   * @param     element the element to search for.
+   */
+  public final int binarySearch (int element)
+    {
+      return Arrays.binarySearch(elementData,0,elementCount,element);
+    }
+
+  /**
+   * Sets whether this IntArrayList is kept sorted in increasing order; turning
+   * this on sorts it. While it is on, <tt>contains</tt>, <tt>indexOf</tt>,
+   * and <tt>lastIndexOf</tt> search in <tt>O(log n)</tt>, <tt>add</tt>
+   * inserts its element after those equal to it, and <tt>addAll</tt>
+   * appends its elements then sorts the list. Removals keep the order,
+   * but updates at given positions (<tt>set</tt>, <tt>add(int,int)</tt>,
+   * <tt>addAll(int,...)</tt>, ...) throw an <tt>UnsupportedOperationException</tt>.
+   *
+   * @param     sorted whether to keep this IntArrayList sorted.
+   */
+  public final void setSorted (boolean sorted)
+    {
+      if (sorted && !_sorted)
+        sort();
+
+      _sorted = sorted;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this IntArrayList is kept sorted.
+   */
+  public final boolean isSorted ()
+    {
+      return _sorted;
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt> if this IntArrayList is
+   * kept sorted, since the specified operation could break its order.
+   */
+  private final void _unsorted (String operation)
+    {
+      if (_sorted)
+        throw new UnsupportedOperationException(operation+" on a sorted IntArrayList");
+    }
+
+  /**
+   * Returns the index of the first element of this sorted IntArrayList that is
+   * not less than the specified one, or greater than it if <tt>after</tt>
+   * is <tt>true</tt>.
+   */
+  private final int _bound (int element, boolean after)
+    {
+      int lo = 0;
+      int hi = elementCount;
+
+      while (lo < hi)
+        {
+          int mid = (lo + hi) >>> 1;
+
+          if (elementData[mid] < element || after && elementData[mid] == element)
+            lo = mid+1;
+          else
+            hi = mid;
+        }
+
+      return lo;
+    }
+
+  /**
+   * Returns the index of the first occurrence of the specified element
+   * at or after the specified index in this sorted IntArrayList, or -1.
+   */
+  private final int _sortedIndexOf (int element, int index)
+    {
+      int i = Math.max(index,_bound(element,false));
+      return i < elementCount && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Returns the index of the last occurrence of the specified element
+   * before the specified index in this sorted IntArrayList, or -1.
+   */
+  private final int _sortedLastIndexOf (int element, int index)
+    {
+      int i = Math.min(index,_bound(element,true)) - 1;
+      return i >= 0 && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Inserts the specified element at the specified index, and returns
+   * <tt>true</tt>.
+   */
+  private final boolean _insert (int index, int element)
+    {
+      if (elementCount == elementData.length) _grow();
+      System.arraycopy(elementData,index,elementData,index+1,elementCount-index);
+      elementData[index] = element;
+      elementCount++;
+      return true;
+    }
+
   /**
    * Returns the element at the specified position in this IntArrayList.
    *
@@ -495,6 +825,8 @@ public class IntArrayList
    */
   public final int set (int index, int element)
     {
+      _unsorted("set");
+
       int old = elementData[index];
       elementData[index] = element;
       return old;
@@ -509,6 +841,8 @@ public class IntArrayList
    */
   public final void setLast (int element)
     {
+      _unsorted("setLast");
+
       elementData[elementCount-1] = element;
     }
 
@@ -520,6 +854,9 @@ public class IntArrayList
    */
   public final boolean add (int element)
     {
+      if (_sorted)
+        return _insert(_bound(element,true),element);
+
       if (elementCount == elementData.length) _grow();
       elementData[elementCount++] = element;
       return true;
@@ -538,12 +875,9 @@ public class IntArrayList
    */
   public final boolean removeElement (int element)
     {
-      int i = 0;
-
-      for (i=0; i<elementCount; i++)
-        if (elementData[i] == element) break;
+      int i = indexOf(element);
 
-      if (i == elementCount) return false;
+      if (i < 0) return false;
 
       for (;i<elementCount-1;i++)
         elementData[i] = elementData[i+1];
@@ -565,10 +899,12 @@ public class IntArrayList
    */
   public final void add (int index, int element)
     {
+      _unsorted("add");
+
       // System.out.println("*** Need to insert element "+element+" at index "+index+" into "+this);
+      // System.out.println("*** Ensuring capacity of "+(elementCount+1));
+      ensureCapacity(elementCount+1);
       elementCount++;
-      // System.out.println("*** Ensuring capacity of "+elementCount);
-      ensureCapacity(elementCount);
       // System.out.println("*** Current capacity is "+elementData.length);
 
       for (int i=elementCount-1; i>index; i--)
@@ -650,6 +986,15 @@ public class IntArrayList
   public final boolean addAll (int[] a)
     {
       ensureCapacity(elementCount+a.length);
+
+      if (_sorted)
+        {
+          System.arraycopy(a,0,elementData,elementCount,a.length);
+          elementCount += a.length;
+          sort();
+          return true;
+        }
+
       for (int i=0; i<a.length; i++) add(a[i]);
       return true;
     }
@@ -665,6 +1010,15 @@ public class IntArrayList
     {
       int size = v.size();
       ensureCapacity(elementCount+size);
+
+      if (_sorted)
+        {
+          System.arraycopy(v.elementData,0,elementData,elementCount,size);
+          elementCount += size;
+          sort();
+          return true;
+        }
+
       for (int i=0; i<size; i++) add(v.get(i));
       return true;
     }
@@ -681,9 +1035,13 @@ public class IntArrayList
     {
       IntArrayList indices = new IntArrayList();
 
-      for (int i=0; i<a.length; i++)
-        for (int j=0; j<elementCount; j++)
-          if (a[i] == elementData[j]) indices.add(j);
+      for (int j=0; j<elementCount; j++)
+        for (int i=0; i<a.length; i++)
+          if (a[i] == elementData[j])
+            {
+              indices.add(j);
+              break;
+            }
 
       removeAllIndices(indices);
       return !indices.isEmpty();
@@ -701,9 +1059,9 @@ public class IntArrayList
     {
       IntArrayList indices = new IntArrayList();
 
-      for (int i=v.size(); i-->0;)
-        for (int j=elementCount; j-->0;)
-          if (v.get(i) == elementData[j]) indices.add(j);
+      for (int j=0; j<elementCount; j++)
+        if (v.contains(elementData[j]))
+          indices.add(j);
 
       removeAllIndices(indices);
       return !indices.isEmpty();
@@ -722,12 +1080,13 @@ public class IntArrayList
 
       for (int i=0; i<a.length; i++)
         for (int j=0; j<elementCount; j++)
-          if (a[i] == elementData[j])
+          if (a[i] == elementData[j] && !indices.contains(j))
             {
               indices.add(j);
               break;
             }
 
+      indices.sort();
       removeAllIndices(indices);
       return !indices.isEmpty();          
     }
@@ -747,12 +1106,13 @@ public class IntArrayList
 
       for (int i=0; i<size; i++)
         for (int j=0; j<elementCount; j++)
-          if (v.get(i) == elementData[j])
+          if (v.get(i) == elementData[j] && !indices.contains(j))
             {
               indices.add(j);
               break;
             }
 
+      indices.sort();
       removeAllIndices(indices);
       return !indices.isEmpty();
     }
@@ -790,9 +1150,11 @@ public class IntArrayList
    */
   public final void addAll (int index, int[] a)
     {
+      _unsorted("addAll");
+
       if (elementCount+a.length < elementData.length)
         {
-          for (int i=index; i<elementCount; i++)
+          for (int i=elementCount; i-->index;)
             elementData[i+a.length] = elementData[i];
 
           for (int i=0; i<a.length; i++)
@@ -802,6 +1164,8 @@ public class IntArrayList
           return;
         }
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       int[] newArray = new int[_increasedCapacity(elementCount+a.length)];
 
       for (int i=0; i<index; i++)
@@ -815,6 +1179,9 @@ public class IntArrayList
 
       elementData = newArray;
       elementCount += a.length;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -830,11 +1197,13 @@ public class IntArrayList
    */
   public final void addAll (int index, IntArrayList v)
     {
+      _unsorted("addAll");
+
       int size = v.size();
       
       if (elementCount+size < elementData.length)
         {
-          for (int i=index; i<elementCount; i++)
+          for (int i=elementCount; i-->index;)
             elementData[i+size] = elementData[i];
 
           for (int i=0; i<size; i++)
@@ -844,6 +1213,8 @@ public class IntArrayList
           return;
         }
 
+      long start = _counter == null ? 0 : System.nanoTime();
+
       int[] newArray = new int[_increasedCapacity(elementCount+size)];
 
       for (int i=0; i<index; i++)
@@ -857,6 +1228,9 @@ public class IntArrayList
 
       elementData = newArray;
       elementCount += size;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -882,11 +1256,7 @@ public class IntArrayList
       if (other.size() != elementCount)
 	return false;
 
-      for (int i=0; i<elementCount; i++)
-        if (other.get(i) != elementData[i])
-	  return false;
-
-      return true;
+      return Arrays.equals(elementData,0,elementCount,other.elementData,0,elementCount);
     }
 
   /**
@@ -1001,12 +1371,17 @@ public class IntArrayList
    */
   private final void _grow ()
     {
+      long start = _counter == null ? 0 : System.nanoTime();
+
       int[] newArray = new int[_increasedCapacity()];
 
       for (int i=0; i<elementCount; i++)
         newArray[i] = elementData[i];
 
       elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
     }
 
   /**
@@ -0,0 +1,1166 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 18:27:51 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * This is a class of sorted maps from ints to ints. It offers the API of
+ * <a href="IntToIntMap.html"><tt>IntToIntMap</tt></a> (including
+ * <tt>NOT_FOUND_VALUE</tt> for missing keys), and iterates through its
+ * keys in increasing order. It adds ordered queries: <tt>firstKey</tt>,
+ * <tt>lastKey</tt>, <tt>floorKey</tt>, <tt>ceilingKey</tt>, and
+ * <tt>subMap(lo,hi)</tt>, a view of the entries whose keys are within a
+ * range.
+ * <p>
+ * It is implemented as a B+tree. The keys and values of a leaf are kept
+ * in two parallel <tt>int</tt> arrays of up to <tt>LEAF_SIZE</tt>
+ * elements, and the leaves are linked in key order, so that a scan reads
+ * contiguous memory and follows one reference per leaf. An inner node keeps
+ * an <tt>int</tt> array of up to <tt>INNER_SIZE</tt> separating keys,
+ * where the keys of its <tt>i</tt>-th child are greater than or equal to
+ * its <tt>(i-1)</tt>-th key and less than its <tt>i</tt>-th key. Every
+ * node but the root is at least half full; a removal that leaves a node
+ * less than half full borrows an entry from a sibling, or merges with it.
+ * The only exception is the last leaf, which is split unevenly when a key
+ * is put past its end, so that keys put in increasing order (such as new
+ * ids) fill the leaves rather than leave them half empty.
+ * A lookup, insertion, or removal therefore takes <tt>O(log n)</tt> time,
+ * with at most 7 levels for any number of ints.
+ */
+
+public class IntToIntTreeMap extends ToIntMap
+{
+  /**
+   * The maximum number of entries of a leaf.
+   */
+  final static int LEAF_SIZE = 64;
+
+  /**
+   * The maximum number of keys of an inner node.
+   */
+  final static int INNER_SIZE = 64;
+
+  /**
+   * The maximum depth of a tree: 2^31 keys in leaves at least half full,
+   * under inner nodes of at least 33 children, fit within this depth.
+   */
+  private final static int MAX_DEPTH = 8;
+
+  /**
+   * The root of this tree.
+   */
+  private Node _root = new Leaf();
+
+  /**
+   * The first leaf of this tree.
+   */
+  private Leaf _first = (Leaf)_root;
+
+  /**
+   * The inner nodes on the path to the last leaf reached by <tt>_descend</tt>,
+   * from the root down.
+   */
+  private final Inner[] _path = new Inner[MAX_DEPTH];
+
+  /**
+   * The index of the child taken in each node of <tt>_path</tt>.
+   */
+  private final int[] _indices = new int[MAX_DEPTH];
+
+  /**
+   * The number of nodes in <tt>_path</tt>.
+   */
+  private int _depth;
+
+  /**
+   * Constructs a new empty map.
+   */
+  public IntToIntTreeMap ()
+    {
+    }
+
+  /**
+   * Constructs a new map with the same entries as the given map.
+   *
+   * @param map the map of ints whose entries are to be placed in this map.
+   */
+  public IntToIntTreeMap (ToIntMap map)
+    {
+      include(map);
+    }
+
+  /**
+   * The class of the nodes of a tree.
+   */
+  private abstract static class Node
+    {
+      /**
+       * The keys of this node, in increasing order.
+       */
+      final int[] keys;
+
+      /**
+       * The number of keys of this node.
+       */
+      int count;
+
+      Node (int capacity)
+        {
+          keys = new int[capacity];
+        }
+    }
+
+  /**
+   * The class of the leaves of a tree, which keep its entries. There is
+   * room for one more entry than <tt>LEAF_SIZE</tt>, so that a leaf may
+   * overflow before it is split.
+   */
+  private final static class Leaf extends Node
+    {
+      final int[] values = new int[LEAF_SIZE+1];
+      Leaf next;
+
+      Leaf ()
+        {
+          super(LEAF_SIZE+1);
+        }
+    }
+
+  /**
+   * The class of the inner nodes of a tree. There is room for one more key
+   * and child than <tt>INNER_SIZE</tt>, so that a node may overflow before
+   * it is split.
+   */
+  private final static class Inner extends Node
+    {
+      final Node[] children = new Node[INNER_SIZE+2];
+
+      Inner ()
+        {
+          super(INNER_SIZE+1);
+        }
+    }
+
+  /**
+   * Returns the index of the specified key among the first <tt>count</tt>
+   * keys of the specified array if it is there, or else <tt>-(i+1)</tt>
+   * where <tt>i</tt> is the index where it would be inserted.
+   */
+  private final static int _search (int[] keys, int count, int key)
+    {
+      int low = 0, high = count-1;
+
+      while (low <= high)
+        {
+          int mid = (low + high) >>> 1;
+          int k = keys[mid];
+
+          if (k < key)
+            low = mid+1;
+          else if (k > key)
+            high = mid-1;
+          else
+            return mid;
+        }
+
+      return -(low+1);
+    }
+
+  /**
+   * Returns the index of the child of the specified inner node where the
+   * specified key belongs.
+   */
+  private final static int _child (Inner node, int key)
+    {
+      int i = _search(node.keys,node.count,key);
+      return i >= 0 ? i+1 : -(i+1);
+    }
+
+  /**
+   * Returns the leaf where the specified key belongs, recording the path
+   * to it in <tt>_path</tt> and <tt>_indices</tt>.
+   */
+  private final Leaf _descend (int key)
+    {
+      Node node = _root;
+      _depth = 0;
+
+      while (node instanceof Inner)
+        {
+          Inner inner = (Inner)node;
+          int i = _child(inner,key);
+          _path[_depth] = inner;
+          _indices[_depth++] = i;
+          node = inner.children[i];
+        }
+
+      return (Leaf)node;
+    }
+
+  /**
+   * Returns the leaf where the specified key belongs.
+   */
+  private final Leaf _leaf (int key)
+    {
+      Node node = _root;
+
+      while (node instanceof Inner)
+        {
+          Inner inner = (Inner)node;
+          node = inner.children[_child(inner,key)];
+        }
+
+      return (Leaf)node;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (int key)
+    {
+      Leaf leaf = _leaf(key);
+      return _search(leaf.keys,leaf.count,key) >= 0;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry with the specified key and value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (int key, int value)
+    {
+      Leaf leaf = _leaf(key);
+      int i = _search(leaf.keys,leaf.count,key);
+      return i >= 0 && leaf.values[i] == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be an <tt>IntToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      IntToIntMap.Entry mapping = (IntToIntMap.Entry)candidate;
+      return containsEntry(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this
+   * key. As for <tt>IntToIntMap</tt>, <tt>containsKey</tt> may be used
+   * to tell a missing key from one mapped to <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (int key)
+    {
+      return getOrDefault(key,NOT_FOUND_VALUE);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or the
+   * specified default value if the map contains no entry for this key.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @param defaultValue the value to return if there is no entry for the key.
+   */
+  public final int getOrDefault (int key, int defaultValue)
+    {
+      Leaf leaf = _leaf(key);
+      int i = _search(leaf.keys,leaf.count,key);
+      return i < 0 ? defaultValue : leaf.values[i];
+    }
+
+  /**
+   * Associates the current size of the map to the given int, and returns this value.
+   */
+  public final int add (int n)
+    {
+      put(n,_size);
+      return _size-1;
+    }
+
+  /**
+   * Associates the specified value with the specified key in this map.
+   * If the map previously contained an entry for this key, the old
+   * value is replaced and returned; otherwise the new value is returned.
+   *
+   * @param key key with which the specified value is to be associated.
+   * @param value value to be associated with the specified key.
+   */
+  public final int put (int key, int value)
+    {
+      Leaf leaf = _descend(key);
+      int i = _search(leaf.keys,leaf.count,key);
+
+      if (i >= 0)
+        {
+          int old = leaf.values[i];
+          leaf.values[i] = value;
+          return old;
+        }
+
+      _insert(leaf,-(i+1),key,value);
+      return value;
+    }
+
+  /**
+   * Adds the specified delta to the value of the specified key, which is
+   * taken to be <tt>0</tt> if the map contains no entry for the key, and
+   * returns the new value. This looks up the key only once.
+   *
+   * @param key the key whose value is to be incremented.
+   * @param delta the amount to add to its value.
+   */
+  public final int addTo (int key, int delta)
+    {
+      Leaf leaf = _descend(key);
+      int i = _search(leaf.keys,leaf.count,key);
+
+      if (i >= 0)
+        return leaf.values[i] += delta;
+
+      _insert(leaf,-(i+1),key,delta);
+      return delta;
+    }
+
+  /**
+   * Adds <tt>1</tt> to the value of the specified key, which is taken to be
+   * <tt>0</tt> if the map contains no entry for the key, and returns the
+   * new value.
+   *
+   * @param key the key whose value is to be incremented.
+   */
+  public final int increment (int key)
+    {
+      return addTo(key,1);
+    }
+
+  /**
+   * Inserts the specified entry at the specified index of the specified
+   * leaf, which was reached by <tt>_descend</tt>, and splits the nodes that
+   * overflow on the path back to the root.
+   */
+  private final void _insert (Leaf leaf, int i, int key, int value)
+    {
+      int count = leaf.count;
+
+      System.arraycopy(leaf.keys,i,leaf.keys,i+1,count-i);
+      System.arraycopy(leaf.values,i,leaf.values,i+1,count-i);
+      leaf.keys[i] = key;
+      leaf.values[i] = value;
+      leaf.count++;
+      _size++;
+
+      if (leaf.count <= LEAF_SIZE)
+        return;
+
+      Leaf right = new Leaf();
+      int half = leaf.next == null && i == LEAF_SIZE ? LEAF_SIZE : leaf.count >>> 1;
+      right.count = leaf.count - half;
+      System.arraycopy(leaf.keys,half,right.keys,0,right.count);
+      System.arraycopy(leaf.values,half,right.values,0,right.count);
+      leaf.count = half;
+      right.next = leaf.next;
+      leaf.next = right;
+
+      Node node = leaf;
+      Node sibling = right;
+      int separator = right.keys[0];
+
+      for (int d = _depth; d-- > 0;)
+        {
+          Inner parent = _path[d];
+          int j = _indices[d];
+          count = parent.count;
+
+          System.arraycopy(parent.keys,j,parent.keys,j+1,count-j);
+          System.arraycopy(parent.children,j+1,parent.children,j+2,count-j);
+          parent.keys[j] = separator;
+          parent.children[j+1] = sibling;
+          parent.count++;
+
+          if (parent.count <= INNER_SIZE)
+            return;
+
+          Inner split = new Inner();
+          half = parent.count >>> 1;
+          separator = parent.keys[half];
+          split.count = parent.count - half - 1;
+          System.arraycopy(parent.keys,half+1,split.keys,0,split.count);
+          System.arraycopy(parent.children,half+1,split.children,0,split.count+1);
+          for (int k = half+1; k <= parent.count; k++)
+            parent.children[k] = null;
+          parent.count = half;
+
+          node = parent;
+          sibling = split;
+        }
+
+      Inner root = new Inner();
+      root.keys[0] = separator;
+      root.children[0] = node;
+      root.children[1] = sibling;
+      root.count = 1;
+      _root = root;
+    }
+
+  /**
+   * Removes the entry for the given key from this map if present.
+   * Returns the previous value associated with the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if there was no entry for the key.  A
+   * returned <tt>NOT_FOUND_VALUE</tt> may also indicate that the map
+   * previously associated <tt>NOT_FOUND_VALUE</tt> with the specified key.
+   *
+   * @param key key whose entry is to be removed from the map.
+   */
+  public final int remove (int key)
+    {
+      Leaf leaf = _descend(key);
+      int i = _search(leaf.keys,leaf.count,key);
+
+      if (i < 0)
+        return NOT_FOUND_VALUE;
+
+      int old = leaf.values[i];
+      int count = --leaf.count;
+
+      System.arraycopy(leaf.keys,i+1,leaf.keys,i,count-i);
+      System.arraycopy(leaf.values,i+1,leaf.values,i,count-i);
+      _size--;
+
+      for (int d = _depth; d-- > 0;)
+        {
+          Inner parent = _path[d];
+          Node child = parent.children[_indices[d]];
+
+          if (child.count >= (child instanceof Leaf ? LEAF_SIZE : INNER_SIZE) >>> 1)
+            break;
+
+          _rebalance(parent,_indices[d]);
+        }
+
+      if (_root instanceof Inner && _root.count == 0)
+        _root = ((Inner)_root).children[0];
+
+      return old;
+    }
+
+  /**
+   * Restores the specified child of the specified node, which is less than
+   * half full, by borrowing an entry from a sibling or merging with it.
+   */
+  private final void _rebalance (Inner parent, int i)
+    {
+      Node child = parent.children[i];
+      Node left = i > 0 ? parent.children[i-1] : null;
+      Node right = i < parent.count ? parent.children[i+1] : null;
+      int half = (child instanceof Leaf ? LEAF_SIZE : INNER_SIZE) >>> 1;
+
+      if (left != null && left.count > half)
+        _borrowLeft(parent,i,left,child);
+      else if (right != null && right.count > half)
+        _borrowRight(parent,i,child,right);
+      else if (left != null)
+        _merge(parent,i,left,child);
+      else
+        _merge(parent,i+1,child,right);
+    }
+
+  /**
+   * Moves the last entry of the specified left node into the first
+   * entry of the specified node, which is the specified child of the
+   * specified parent.
+   */
+  private final static void _borrowLeft (Inner parent, int i, Node left, Node node)
+    {
+      System.arraycopy(node.keys,0,node.keys,1,node.count);
+
+      if (node instanceof Leaf)
+        {
+          Leaf leaf = (Leaf)node;
+          System.arraycopy(leaf.values,0,leaf.values,1,leaf.count);
+          leaf.keys[0] = left.keys[left.count-1];
+          leaf.values[0] = ((Leaf)left).values[left.count-1];
+          parent.keys[i-1] = leaf.keys[0];
+        }
+      else
+        {
+          Inner inner = (Inner)node;
+          System.arraycopy(inner.children,0,inner.children,1,inner.count+1);
+          inner.keys[0] = parent.keys[i-1];
+          inner.children[0] = ((Inner)left).children[left.count];
+          ((Inner)left).children[left.count] = null;
+          parent.keys[i-1] = left.keys[left.count-1];
+        }
+
+      node.count++;
+      left.count--;
+    }
+
+  /**
+   * Moves the first entry of the specified right node into the last entry
+   * of the specified node, which is the specified child of the specified
+   * parent.
+   */
+  private final static void _borrowRight (Inner parent, int i, Node node, Node right)
+    {
+      if (node instanceof Leaf)
+        {
+          Leaf leaf = (Leaf)node;
+          Leaf next = (Leaf)right;
+          leaf.keys[leaf.count] = next.keys[0];
+          leaf.values[leaf.count] = next.values[0];
+          System.arraycopy(next.keys,1,next.keys,0,next.count-1);
+          System.arraycopy(next.values,1,next.values,0,next.count-1);
+          parent.keys[i] = next.keys[0];
+        }
+      else
+        {
+          Inner inner = (Inner)node;
+          Inner next = (Inner)right;
+          inner.keys[inner.count] = parent.keys[i];
+          inner.children[inner.count+1] = next.children[0];
+          parent.keys[i] = next.keys[0];
+          System.arraycopy(next.keys,1,next.keys,0,next.count-1);
+          System.arraycopy(next.children,1,next.children,0,next.count);
+          next.children[next.count] = null;
+        }
+
+      node.count++;
+      right.count--;
+    }
+
+  /**
+   * Merges the specified right node, which is the specified child of the
+   * specified parent, into the specified left node, its left sibling.
+   */
+  private final static void _merge (Inner parent, int i, Node left, Node right)
+    {
+      if (left instanceof Leaf)
+        {
+          Leaf leaf = (Leaf)left;
+          Leaf next = (Leaf)right;
+          System.arraycopy(next.keys,0,leaf.keys,leaf.count,next.count);
+          System.arraycopy(next.values,0,leaf.values,leaf.count,next.count);
+          leaf.count += next.count;
+          leaf.next = next.next;
+        }
+      else
+        {
+          Inner inner = (Inner)left;
+          Inner next = (Inner)right;
+          inner.keys[inner.count] = parent.keys[i-1];
+          System.arraycopy(next.keys,0,inner.keys,inner.count+1,next.count);
+          System.arraycopy(next.children,0,inner.children,inner.count+1,next.count+1);
+          inner.count += next.count + 1;
+        }
+
+      int count = --parent.count;
+      System.arraycopy(parent.keys,i,parent.keys,i-1,count-i+1);
+      System.arraycopy(parent.children,i+1,parent.children,i,count-i+1);
+      parent.children[count+1] = null;
+    }
+
+  /**
+   * Puts the mapping defined by the specified entry, which must be an
+   * <tt>IntToIntMap.Entry</tt>, into this map. Returns the old value if
+   * one was there, or the new value.
+   *
+   * @param entry the entry whose mapping is to be put into this map.
+   */
+  public final int put (ToIntMap.Entry entry)
+    {
+      IntToIntMap.Entry mapping = (IntToIntMap.Entry)entry;
+      return put(mapping.key,mapping.value);
+    }
+
+  /**
+   * Removes all entries from this map.
+   */
+  public final void clear ()
+    {
+      _root = _first = new Leaf();
+      _size = 0;
+    }
+
+  /**
+   * Returns the least key of this map, or <tt>NOT_FOUND_VALUE</tt> if
+   * it is empty.
+   */
+  public final int firstKey ()
+    {
+      return _size == 0 ? NOT_FOUND_VALUE : _first.keys[0];
+    }
+
+  /**
+   * Returns the greatest key of this map, or <tt>NOT_FOUND_VALUE</tt> if
+   * it is empty.
+   */
+  public final int lastKey ()
+    {
+      if (_size == 0)
+        return NOT_FOUND_VALUE;
+
+      Node node = _root;
+
+      while (node instanceof Inner)
+        node = ((Inner)node).children[node.count];
+
+      return node.keys[node.count-1];
+    }
+
+  /**
+   * Returns the greatest key of this map less than or equal to the
+   * specified key, or <tt>NOT_FOUND_VALUE</tt> if there is none. As for
+   * <tt>get</tt>, <tt>containsKey(NOT_FOUND_VALUE)</tt> tells whether a
+   * returned <tt>NOT_FOUND_VALUE</tt> is a key.
+   *
+   * @param key the key whose floor is to be returned.
+   */
+  public final int floorKey (int key)
+    {
+      Node node = _root;
+      Node left = null;
+
+      while (node instanceof Inner)
+        {
+          Inner inner = (Inner)node;
+          int i = _child(inner,key);
+          if (i > 0) left = inner.children[i-1];
+          node = inner.children[i];
+        }
+
+      int i = _search(node.keys,node.count,key);
+
+      if (i >= 0)
+        return key;
+
+      i = -(i+1);
+
+      if (i > 0)
+        return node.keys[i-1];
+
+      if (left == null)
+        return NOT_FOUND_VALUE;
+
+      while (left instanceof Inner)
+        left = ((Inner)left).children[left.count];
+
+      return left.keys[left.count-1];
+    }
+
+  /**
+   * Returns the least key of this map greater than or equal to the
+   * specified key, or <tt>NOT_FOUND_VALUE</tt> if there is none. As for
+   * <tt>get</tt>, <tt>containsKey(NOT_FOUND_VALUE)</tt> tells whether a
+   * returned <tt>NOT_FOUND_VALUE</tt> is a key.
+   *
+   * @param key the key whose ceiling is to be returned.
+   */
+  public final int ceilingKey (int key)
+    {
+      Leaf leaf = _leaf(key);
+      int i = _search(leaf.keys,leaf.count,key);
+
+      if (i >= 0)
+        return key;
+
+      i = -(i+1);
+
+      if (i < leaf.count)
+        return leaf.keys[i];
+
+      return leaf.next == null ? NOT_FOUND_VALUE : leaf.next.keys[0];
+    }
+
+  /**
+   * Returns a view of the entries of this map whose keys are greater than
+   * or equal to <tt>lo</tt> and less than <tt>hi</tt>. The view reflects
+   * later changes to this map, but may not be iterated while this map is
+   * modified.
+   *
+   * @param lo the least key of the range.
+   * @param hi the key following the range.
+   */
+  public final SubMap subMap (int lo, int hi)
+    {
+      return new SubMap(lo,hi);
+    }
+
+  /**
+   * Returns (at most) the specified number of keys of this map with the
+   * greatest values, by decreasing value; keys with equal values come in
+   * no particular order.
+   *
+   * @param     n the number of keys to return.
+   * @exception IllegalArgumentException if <tt>n</tt> is negative.
+   */
+  public final int[] topK (int n)
+    {
+      TopK top = new TopK(Math.min(n,_size),false);
+      forEachEntry(top::offer);
+      return top.ints();
+    }
+
+  /**
+   * Applies the specified test to the entries of this map whose keys are
+   * greater than or equal to <tt>lo</tt> and less than <tt>hi</tt>, by
+   * increasing key, until it returns <tt>false</tt>. Returns <tt>true</tt>
+   * iff all these entries were tested and passed.
+   */
+  private final boolean _forEachWhile (int lo, int hi, IntIntPredicate action)
+    {
+      if (lo >= hi)
+        return true;
+
+      Leaf leaf = _leaf(lo);
+      int i = _search(leaf.keys,leaf.count,lo);
+      if (i < 0) i = -(i+1);
+
+      for (; leaf != null; leaf = leaf.next, i = 0)
+        for (; i < leaf.count; i++)
+          {
+            if (leaf.keys[i] >= hi)
+              return true;
+
+            if (!action.test(leaf.keys[i],leaf.values[i]))
+              return false;
+          }
+
+      return true;
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, by increasing key.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (IntIntConsumer action)
+    {
+      for (Leaf leaf = _first; leaf != null; leaf = leaf.next)
+        for (int i=0; i<leaf.count; i++)
+          action.accept(leaf.keys[i],leaf.values[i]);
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, by increasing
+   * key, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all the
+   * entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (IntIntPredicate action)
+    {
+      for (Leaf leaf = _first; leaf != null; leaf = leaf.next)
+        for (int i=0; i<leaf.count; i++)
+          if (!action.test(leaf.keys[i],leaf.values[i]))
+            return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in increasing order.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (IntConsumer action)
+    {
+      for (Leaf leaf = _first; leaf != null; leaf = leaf.next)
+        for (int i=0; i<leaf.count; i++)
+          action.accept(leaf.keys[i]);
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in increasing
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (IntPredicate action)
+    {
+      for (Leaf leaf = _first; leaf != null; leaf = leaf.next)
+        for (int i=0; i<leaf.count; i++)
+          if (!action.test(leaf.keys[i]))
+            return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified test to the values of this map, by increasing
+   * key, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all the
+   * values were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each value.
+   */
+  public final boolean forEachValueWhile (IntPredicate action)
+    {
+      for (Leaf leaf = _first; leaf != null; leaf = leaf.next)
+        for (int i=0; i<leaf.count; i++)
+          if (!action.test(leaf.values[i]))
+            return false;
+
+      return true;
+    }
+
+  /**
+   * Includes all of the entries from the specified map to this one.
+   * These entries replace any entries that this map had for any of the
+   * keys currently in the specified map. When the specified map is a map
+   * of ints, its entries are traversed without allocating any entry.
+   *
+   * @param map map whose entries will be stored in this map.
+   */
+  public final void include (ToIntMap map)
+    {
+      if (map == this)
+        return;
+
+      if (map instanceof IntToIntMap)
+        ((IntToIntMap)map).forEachEntry(this::put);
+      else if (map instanceof IntToIntOpenMap)
+        ((IntToIntOpenMap)map).forEachEntry(this::put);
+      else if (map instanceof IntToIntTreeMap)
+        ((IntToIntTreeMap)map).forEachEntry(this::put);
+      else
+        super.include(map);
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of ints, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof IntToIntMap)
+        return forEachEntryWhile(((IntToIntMap)map)::containsEntry);
+
+      if (map instanceof IntToIntOpenMap)
+        return forEachEntryWhile(((IntToIntOpenMap)map)::containsEntry);
+
+      if (map instanceof IntToIntTreeMap)
+        return forEachEntryWhile(((IntToIntTreeMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also an <tt>IntToIntTreeMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof IntToIntTreeMap))
+        return false;
+
+      return isEqualTo((IntToIntTreeMap)object);
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this map (see
+   * <tt>ToIntMap.stats()</tt>): its capacity is the number of entries its
+   * leaves have room for, and the number of probes of a key is the number
+   * of nodes visited to find it, which is the same for all keys.
+   */
+  public final ContainerStats stats ()
+    {
+      int depth = 1;
+      for (Node node = _root; node instanceof Inner; node = ((Inner)node).children[0])
+        depth++;
+
+      int capacity = 0;
+      for (Leaf leaf = _first; leaf != null; leaf = leaf.next)
+        capacity += LEAF_SIZE;
+
+      int[] probes = new int[depth+1];
+      probes[depth] = _size;
+
+      return new ContainerStats(_size,capacity,capacity-_size,_counter,probes);
+    }
+
+  /**
+   * Returns an iterator through the entries of this map, by increasing key.
+   * The object returned by its <tt>next()</tt> method is a new
+   * <tt>IntToIntMap.Entry</tt>.
+   */
+  public final Iterator iterator ()
+    {
+      return new EntryIterator(Integer.MIN_VALUE,Integer.MAX_VALUE,true);
+    }
+
+  /**
+   * Returns an iterator through the keys of this map, in increasing order.
+   */
+  public final IntIterator keys ()
+    {
+      return new IntValueIterator(Integer.MIN_VALUE,Integer.MAX_VALUE,true,true);
+    }
+
+  /**
+   * Returns an iterator through the values of this map, by increasing key.
+   */
+  public final IntIterator values ()
+    {
+      return new IntValueIterator(Integer.MIN_VALUE,Integer.MAX_VALUE,true,false);
+    }
+
+  /**
+   * The class defining the iterator through the map's entries.
+   */
+  private class EntryIterator implements Iterator
+    {
+      private final Walk _walk;
+
+      EntryIterator (int lo, int hi, boolean closed)
+        {
+          _walk = new Walk(lo,hi,closed);
+        }
+
+      public final boolean hasNext ()
+        {
+          return _walk.hasNext();
+        }
+
+      public final Object next ()
+        {
+          _walk.step();
+          return new IntToIntMap.Entry(_walk.key,_walk.value);
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys or values.
+   */
+  private class IntValueIterator implements IntIterator
+    {
+      private final Walk _walk;
+      private final boolean _isKeyIterator;
+
+      IntValueIterator (int lo, int hi, boolean closed, boolean isKeyIterator)
+        {
+          _walk = new Walk(lo,hi,closed);
+          _isKeyIterator = isKeyIterator;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _walk.hasNext();
+        }
+
+      public final int next ()
+        {
+          _walk.step();
+          return _isKeyIterator ? _walk.key : _walk.value;
+        }
+    }
+
+  /**
+   * The class defining a walk through the entries of this map whose keys
+   * are within a range, in increasing order.
+   */
+  private class Walk
+    {
+      private Leaf _leaf;
+      private int _index;
+      private final int _hi;
+      private final boolean _closed;
+
+      /**
+       * The key and value of the last entry stepped over.
+       */
+      int key, value;
+
+      /**
+       * Constructs a walk through the keys greater than or equal to
+       * <tt>lo</tt> and less than <tt>hi</tt>, or less than or equal to
+       * <tt>hi</tt> if <tt>closed</tt> is <tt>true</tt>.
+       */
+      Walk (int lo, int hi, boolean closed)
+        {
+          _hi = hi;
+          _closed = closed;
+
+          if (lo > hi || lo == hi && !closed)
+            return;
+
+          _leaf = _leaf(lo);
+          int i = _search(_leaf.keys,_leaf.count,lo);
+          _index = i < 0 ? -(i+1) : i;
+          _settle();
+        }
+
+      /**
+       * Moves to the next leaf if the current one is done, and ends the
+       * walk if the range is done.
+       */
+      private final void _settle ()
+        {
+          if (_index == _leaf.count)
+            {
+              _leaf = _leaf.next;
+              _index = 0;
+            }
+
+          if (_leaf != null)
+            {
+              int k = _leaf.keys[_index];
+              if (k > _hi || k == _hi && !_closed)
+                _leaf = null;
+            }
+        }
+
+      final boolean hasNext ()
+        {
+          return _leaf != null;
+        }
+
+      /**
+       * Steps over the next entry, setting <tt>key</tt> and <tt>value</tt>.
+       */
+      final void step ()
+        {
+          if (_leaf == null)
+            throw new NoSuchElementException();
+
+          key = _leaf.keys[_index];
+          value = _leaf.values[_index];
+          _index++;
+          _settle();
+        }
+    }
+
+  /**
+   * The class of the views of the entries of a map whose keys are within
+   * a range, as returned by <tt>subMap(lo,hi)</tt>.
+   */
+  public final class SubMap
+    {
+      private final int _lo, _hi;
+
+      SubMap (int lo, int hi)
+        {
+          _lo = lo;
+          _hi = hi;
+        }
+
+      /**
+       * Returns the number of entries of this view, which are counted.
+       */
+      public final int size ()
+        {
+          int[] n = { 0 };
+          _forEachWhile(_lo,_hi,(key,value) -> { n[0]++; return true; });
+          return n[0];
+        }
+
+      /**
+       * Returns <tt>true</tt> iff this view has no entry.
+       */
+      public final boolean isEmpty ()
+        {
+          return !new Walk(_lo,_hi,false).hasNext();
+        }
+
+      /**
+       * Returns an iterator through the entries of this view, by increasing key.
+       * The object returned by its <tt>next()</tt> method is a new
+       * <tt>IntToIntMap.Entry</tt>.
+       */
+      public final Iterator iterator ()
+        {
+          return new EntryIterator(_lo,_hi,false);
+        }
+
+      /**
+       * Returns an iterator through the keys of this view, in increasing order.
+       */
+      public final IntIterator keys ()
+        {
+          return new IntValueIterator(_lo,_hi,false,true);
+        }
+
+      /**
+       * Returns an iterator through the values of this view, by increasing key.
+       */
+      public final IntIterator values ()
+        {
+          return new IntValueIterator(_lo,_hi,false,false);
+        }
+
+      /**
+       * Applies the specified action to each entry of this view, by
+       * increasing key.
+       *
+       * @param action the action to apply to each key and its value.
+       */
+      public final void forEachEntry (IntIntConsumer action)
+        {
+          _forEachWhile(_lo,_hi,(key,value) -> { action.accept(key,value); return true; });
+        }
+
+      /**
+       * Applies the specified test to the entries of this view, by
+       * increasing key, until it returns <tt>false</tt>. Returns
+       * <tt>true</tt> iff all the entries were tested and passed.
+       *
+       * @param action the test to apply to each key and its value.
+       */
+      public final boolean forEachEntryWhile (IntIntPredicate action)
+        {
+          return _forEachWhile(_lo,_hi,action);
+        }
+
+      /**
+       * Returns a string form for this view.
+       */
+      public final String toString ()
+        {
+          StringBuilder buf = new StringBuilder("{");
+
+          for (Iterator i = iterator(); i.hasNext();)
+            buf.append(i.next() + (i.hasNext() ? ", " : ""));
+
+          return buf.append("}").toString();
+        }
+    }
+}
@@ -0,0 +1,423 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 16:02:18 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This is a class numbering objects densely: the first distinct object
+ * interned gets the id <tt>0</tt>, the next one <tt>1</tt>, <i>etc.</i>,
+ * and an object can be found from its id as well as its id from the object.
+ * It replaces the pairing of <tt>ObjectToIntMap.add(Object)</tt> with an
+ * <tt>ArrayList</tt> of the same objects, hashing each object only once and
+ * keeping both directions in a single structure.
+ * <p>
+ * The objects are kept in an array indexed by id, along with their (mixed)
+ * hash codes. The index from objects to ids is an open-addressing table of
+ * <tt>int</tt>s with linear probing, whose slots hold <tt>id+1</tt> (so that
+ * <tt>0</tt> marks a free slot). Growing this table rehashes ids with their
+ * cached hash codes and never calls <tt>hashCode()</tt> again. Objects are
+ * compared with <tt>Misc.equals</tt>, so that <tt>null</tt> may be interned.
+ * <p>
+ * An interner may be created <i>concurrent</i>, in which case it may be
+ * shared by several threads. Then, <tt>idOf</tt>, <tt>get</tt>, and
+ * <tt>intern</tt> of an object already interned, take no lock: the arrays
+ * are published through a volatile reference, and an id is only made
+ * visible (by a volatile write of the size) once its object, its hash code,
+ * and its slot have been written. Interning a new object takes a lock,
+ * after looking it up again. A non-concurrent interner takes no lock at all.
+ */
+
+public class Interner
+{
+  /**
+   * The value returned by <tt>idOf</tt> for an object that is not interned.
+   */
+  public final static int NOT_FOUND_VALUE = ToIntMap.NOT_FOUND_VALUE;
+
+  /**
+   * The maximum ratio of ids to slots of the index.
+   */
+  private final static float LOAD_FACTOR = 0.5f;
+
+  /**
+   * The arrays of an interner, which are replaced together when it grows.
+   */
+  private final static class State
+    {
+      /**
+       * The interned objects, by id.
+       */
+      final Object[] objects;
+
+      /**
+       * The mixed hash codes of the interned objects, by id.
+       */
+      final int[] hashes;
+
+      /**
+       * The index: each slot holds <tt>0</tt> if it is free, or else
+       * <tt>id+1</tt>; its length is a power of two.
+       */
+      final int[] slots;
+
+      State (int capacity)
+        {
+          objects = new Object[capacity];
+          hashes = new int[capacity];
+          slots = new int[ToIntMap._powerOfTwo((int)Math.min(1<<30,(long)(capacity/LOAD_FACTOR)+1))];
+        }
+    }
+
+  /**
+   * The current arrays of this interner.
+   */
+  private volatile State _state;
+
+  /**
+   * The number of interned objects, which is the next id.
+   */
+  private volatile int _size;
+
+  /**
+   * The lock guarding the interning of new objects, or <tt>null</tt> if
+   * this interner is not concurrent.
+   */
+  private final ReentrantLock _lock;
+
+  /**
+   * Constructs a new empty, non-concurrent interner with a default
+   * capacity of <tt>16</tt> objects.
+   */
+  public Interner ()
+    {
+      this(16,false);
+    }
+
+  /**
+   * Constructs a new empty, non-concurrent interner with the specified
+   * capacity.
+   *
+   * @param   initialCapacity   the number of objects interned before growing
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public Interner (int initialCapacity)
+    {
+      this(initialCapacity,false);
+    }
+
+  /**
+   * Constructs a new empty interner with the specified capacity, that may
+   * be shared by several threads iff <tt>concurrent</tt> is <tt>true</tt>.
+   *
+   * @param   initialCapacity   the number of objects interned before growing
+   * @param   concurrent        whether this interner is shared by several threads
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public Interner (int initialCapacity, boolean concurrent)
+    {
+      if (initialCapacity < 0)
+        throw new IllegalArgumentException("Illegal initial capacity: "+initialCapacity);
+
+      _state = new State(Math.max(initialCapacity,2));
+      _lock = concurrent ? new ReentrantLock() : null;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this interner may be shared by several threads.
+   */
+  public final boolean isConcurrent ()
+    {
+      return _lock != null;
+    }
+
+  /**
+   * Returns the number of objects interned so far, which is also the id
+   * the next new object will get.
+   */
+  public final int size ()
+    {
+      return _size;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff no object has been interned yet.
+   */
+  public final boolean isEmpty ()
+    {
+      return _size == 0;
+    }
+
+  /**
+   * Returns the mixed hash code of the specified object.
+   */
+  private final static int _hash (Object object)
+    {
+      return ToIntMap._mix(Misc.hashCode(object));
+    }
+
+  /**
+   * Returns the id of the specified object in the specified state, looking
+   * only at ids below <tt>size</tt>, or <tt>-1</tt> if there is none.
+   */
+  private final static int _find (State state, int size, Object object, int hash)
+    {
+      int[] slots = state.slots;
+      int mask = slots.length-1;
+
+      for (int i = hash & mask;; i = (i+1) & mask)
+        {
+          int id = slots[i]-1;
+
+          if (id < 0)
+            return -1;
+
+          if (id < size && state.hashes[id] == hash && Misc.equals(state.objects[id],object))
+            return id;
+        }
+    }
+
+  /**
+   * Returns the id of the specified object, or <tt>NOT_FOUND_VALUE</tt>
+   * if it has not been interned. This never takes a lock.
+   *
+   * @param object the object whose id is to be returned.
+   */
+  public final int idOf (Object object)
+    {
+      int size = _size;
+      int id = _find(_state,size,object,_hash(object));
+      return id < 0 ? NOT_FOUND_VALUE : id;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified object has been interned.
+   */
+  public final boolean contains (Object object)
+    {
+      return idOf(object) != NOT_FOUND_VALUE;
+    }
+
+  /**
+   * Returns the object of the specified id. This never takes a lock.
+   *
+   * @param     id an id returned by this interner.
+   * @exception IndexOutOfBoundsException if no object has this id.
+   */
+  public final Object get (int id)
+    {
+      int size = _size;
+
+      if (id < 0 || id >= size)
+        throw new IndexOutOfBoundsException("no object with id "+id+" (size "+size+")");
+
+      return _state.objects[id];
+    }
+
+  /**
+   * Returns the id of the specified object, interning it with the next id
+   * if it has not been interned yet. For a concurrent interner, this only
+   * takes a lock if the object is not found at first.
+   *
+   * @param object the object to be interned.
+   */
+  public final int intern (Object object)
+    {
+      int hash = _hash(object);
+
+      if (_lock == null)
+        return _intern(object,hash);
+
+      int id = _find(_state,_size,object,hash);
+
+      if (id >= 0)
+        return id;
+
+      _lock.lock();
+      try
+        {
+          return _intern(object,hash);
+        }
+      finally
+        {
+          _lock.unlock();
+        }
+    }
+
+  /**
+   * Interns all the objects of the specified array, and returns their ids
+   * in the same order. For a concurrent interner, the lock is taken once
+   * for the whole array.
+   *
+   * @param objects the objects to be interned.
+   */
+  public final int[] internAll (Object[] objects)
+    {
+      int[] ids = new int[objects.length];
+
+      if (_lock != null)
+        _lock.lock();
+      try
+        {
+          _ensureCapacity(_size + objects.length);
+
+          for (int i=0; i<objects.length; i++)
+            ids[i] = _intern(objects[i],_hash(objects[i]));
+        }
+      finally
+        {
+          if (_lock != null)
+            _lock.unlock();
+        }
+
+      return ids;
+    }
+
+  /**
+   * Interns all the objects of the specified collection, and returns their
+   * ids in iteration order. For a concurrent interner, the lock is taken
+   * once for the whole collection.
+   *
+   * @param objects the objects to be interned.
+   */
+  public final int[] internAll (Collection objects)
+    {
+      return internAll(objects.toArray());
+    }
+
+  /**
+   * Returns the id of the specified object, interning it if needed. This
+   * is only called by the thread holding the lock, if any.
+   */
+  private final int _intern (Object object, int hash)
+    {
+      int size = _size;
+      State state = _state;
+      int id = _find(state,size,object,hash);
+
+      if (id >= 0)
+        return id;
+
+      if (size == state.objects.length)
+        state = _grow(2*size);
+
+      state.objects[size] = object;
+      state.hashes[size] = hash;
+      _place(state,size);
+
+      _size = size+1;
+      return size;
+    }
+
+  /**
+   * Makes sure that the specified number of objects may be interned
+   * without growing. This is only called by the thread holding the lock,
+   * if any.
+   */
+  private final void _ensureCapacity (int capacity)
+    {
+      if (capacity > _state.objects.length)
+        _grow(Math.max(capacity,2*_state.objects.length));
+    }
+
+  /**
+   * Copies the current state into a new one of the specified capacity,
+   * publishes it, and returns it.
+   */
+  private final State _grow (int capacity)
+    {
+      State old = _state;
+      State state = new State(capacity);
+      int size = _size;
+
+      System.arraycopy(old.objects,0,state.objects,0,size);
+      System.arraycopy(old.hashes,0,state.hashes,0,size);
+
+      for (int id=0; id<size; id++)
+        _place(state,id);
+
+      return _state = state;
+    }
+
+  /**
+   * Puts the specified id into the first free slot of its probe sequence.
+   */
+  private final static void _place (State state, int id)
+    {
+      int[] slots = state.slots;
+      int mask = slots.length-1;
+      int i = state.hashes[id] & mask;
+
+      while (slots[i] != 0) i = (i+1) & mask;
+
+      slots[i] = id+1;
+    }
+
+  /**
+   * Returns an array of the interned objects, indexed by id.
+   */
+  public final Object[] toArray ()
+    {
+      int size = _size;
+      Object[] objects = new Object[size];
+      System.arraycopy(_state.objects,0,objects,0,size);
+      return objects;
+    }
+
+  /**
+   * Returns an iterator through the interned objects, in the order of their
+   * ids. For a concurrent interner, it goes through the objects interned
+   * before it was created.
+   */
+  public final Iterator iterator ()
+    {
+      return new Iterator()
+        {
+          private final int _end = _size;
+          private final Object[] _objects = _state.objects;
+          private int _next = 0;
+
+          public final boolean hasNext ()
+            {
+              return _next < _end;
+            }
+
+          public final Object next ()
+            {
+              if (_next >= _end)
+                throw new NoSuchElementException();
+
+              return _objects[_next++];
+            }
+
+          public final void remove ()
+            {
+              throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+  /**
+   * Returns a string form for this interner, listing its objects by id.
+   */
+  public final String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (int id=0, size=_size; id<size; id++)
+        buf.append(id == 0 ? "" : ", ").append(id).append('=').append(get(id));
+
+      return buf.append("]").toString();
+    }
+}
@@ -0,0 +1,115 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 08:00:26 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+/**
+ * This class implements a stack of chars using a Lisp-style list representation.
+ * <p>
+ * This class is generated from <tt>templates/LinkedStack.jt</tt> by
+ * <tt>templates/Specialize.java</tt>, and should be changed there.
+ */
+
+public class LinkedCharStack extends LinkedStack
+{
+  public final void push (char n)
+    {
+      Cell cell = new Cell(n);
+      cell.next = _top;
+      _top = cell;
+    }
+
+  public final char pop ()
+    {
+      if (_top == null)
+        throw new EmptyStackException();
+
+      char n = ((Cell)_top).contents;
+      _top = _top.next;
+
+      return n;
+    }
+
+  public final char peek ()
+    {
+      if (_top == null)
+        throw new EmptyStackException();
+
+      return ((Cell)_top).contents;
+    }
+
+  public final char peek (int n)
+    {
+      if (n < 0)
+        throw new StackPeekException("`negative index: "+n);
+
+      LinkedStack.Cell cell = _top;
+      int depth = n;
+
+      for (;;depth--,cell = cell.next)
+        {
+          if (cell == null)
+            throw new EmptyStackException();
+
+          if (depth == 0)
+            return ((Cell)cell).contents;
+        }
+    }
+
+  public final CharIterator iterator ()
+    {
+      return new LinkedCharStackIterator((Cell)_top);
+    }
+
+  public final String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (CharIterator i=iterator(); i.hasNext();)
+        {
+          buf.append(i.next());
+          if (i.hasNext()) buf.append(",");
+        }
+
+      return buf.append("]").toString();
+    }
+
+  public static class Cell extends LinkedStack.Cell
+    {
+      char contents;
+
+      Cell (char n)
+        {
+          contents = n;
+        }
+    }
+
+  private static class LinkedCharStackIterator implements CharIterator
+    {
+      private Cell _current;
+
+      public LinkedCharStackIterator (Cell cell)
+        {
+          _current = cell;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _current != null;
+        }
+
+      public final char next ()
+        {
+          char n = _current.contents;
+          _current = (Cell)_current.next;
+          return n;
+        }
+    }
+}
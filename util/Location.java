@@ -92,6 +92,11 @@ public class Location
           && _column == ((Location)o).getColumn();
     }
 
+  public final int hashCode ()
+    {
+      return 31*(31*_file.hashCode() + _line) + _column;
+    }
+
   public final String toString ()
     {
       return _file+"("+_line+","+_column+")";
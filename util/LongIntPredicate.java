@@ -0,0 +1,23 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 08:00:26 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+/**
+ * This is an interface denoting a function that tests a pair of a long key and an int value,
+ * such as an entry of a map to ints. Traversals stop as soon as it returns <tt>false</tt>.
+ * <p>
+ * This interface is generated from <tt>templates/IntPredicate.jt</tt> by
+ * <tt>templates/Specialize.java</tt>, and should be changed there.
+ */
+public interface LongIntPredicate
+{
+  public boolean test (long key, int value);
+}
@@ -0,0 +1,600 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 08:00:26 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This is a class of hash tables mapping longs to ints.
+ * <p>
+ * This class is generated from <tt>templates/ToIntMap.jt</tt> by
+ * <tt>templates/Specialize.java</tt>, and should be changed there.
+ */
+
+public class LongToIntMap extends ToIntMap
+{
+  /**
+   * The strategy mixing the hash codes of the keys of this map.
+   */
+  private final HashStrategy _strategy;
+
+  /**
+   * Constructs a new empty map with a default capacity of <tt>11</tt>.
+   */
+  public LongToIntMap ()
+    {
+      this(11);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity
+   * and a default load factor equal to <tt>0.75</tt>.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public LongToIntMap (int initialCapacity)
+    {
+      this(initialCapacity,0.75f);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor. If the load factor is greater than <tt>1</tt>, it is
+   * reset to 1 (which means that the map is enlarged only when all
+   * the table's indices are occupied - generally a bad idea).
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @throws   IllegalArgumentException if either argument is negative.
+   */
+  public LongToIntMap (int initialCapacity, float loadFactor)
+    {
+      this(initialCapacity,loadFactor,HashStrategy.DEFAULT);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * a default load factor equal to <tt>0.75</tt>, which mixes the hash
+   * codes of its keys with the specified strategy.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @param   strategy          the hash strategy of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public LongToIntMap (int initialCapacity, HashStrategy strategy)
+    {
+      this(initialCapacity,0.75f,strategy);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor, which mixes the hash codes of its keys with the specified
+   * strategy.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @param    strategy          the hash strategy of the map
+   * @throws   IllegalArgumentException if either number is negative.
+   */
+  public LongToIntMap (int initialCapacity, float loadFactor, HashStrategy strategy)
+    {
+      _table = new Entry[_setThreshold(initialCapacity,loadFactor)];
+      _strategy = strategy;
+    }
+    
+  /**
+   * Constructs a new map with the same entries as the given map.  The
+   * map is created with a capacity of twice the number of entries in
+   * the given map or 11 (whichever is greater), and a default load factor,
+   * which is <tt>0.75</tt>. It has the same hash strategy as the given map.
+   *
+   * @param map the <tt>LongToIntMap</tt> whose entries are to be placed in this map.
+  */
+  public LongToIntMap (LongToIntMap map)
+    {
+      this(Math.max(2*map.size(),11),map.hashStrategy());
+      include(map);
+    }
+
+  /**
+   * Returns the hash strategy of this map.
+   */
+  public final HashStrategy hashStrategy ()
+    {
+      return _strategy;
+    }
+
+  /**
+   * Returns the hash code used to rehash the specified entry.
+   */
+  protected final int _entryHash (ToIntMap.Entry entry)
+    {
+      return _strategy.hash(((Entry)entry).key);
+    }
+
+  /**
+   * Returns the entry at the specified index in the table.
+   */
+  private final Entry _entry (int index)
+    {
+      return (Entry)_table[index];
+    }
+
+  /**
+   * Returns the next entry of the specified entry;
+   */
+  private final Entry _next (Entry entry)
+    {
+      return (Entry)entry.next;
+    }
+
+  /**
+   * Returns the entry for the specified key, or <tt>null</tt> if there is
+   * none. While an incremental rehash is in progress, the bucket of the
+   * old table where the key may still be is looked up as well.
+   */
+  private final Entry _find (long key)
+    {
+      int hash = _strategy.hash(key) & 0x7FFFFFFF;
+
+      for (Entry entry = _entry(hash % _table.length); entry != null; entry = _next(entry))
+        if (entry.key == key)
+          return entry;
+
+      if (_oldTable != null)
+        for (Entry entry = (Entry)_oldTable[hash % _oldTable.length]; entry != null; entry = _next(entry))
+          if (entry.key == key)
+            return entry;
+
+      return null;
+    }
+
+  /**
+   * Unlinks from the specified table and returns the entry for the
+   * specified key, or returns <tt>null</tt> if there is none.
+   */
+  private final Entry _unlink (ToIntMap.Entry[] table, long key)
+    {
+      int index = (_strategy.hash(key) & 0x7FFFFFFF) % table.length;
+
+      Entry predecessor = null;
+
+      for (Entry entry = (Entry)table[index]; entry != null; entry = _next(entry))
+        {
+          if (entry.key == key)
+            {
+              if (predecessor != null)
+                predecessor.next = entry.next;
+              else
+                table[index] = entry.next;
+
+              return entry;
+            }
+          predecessor = entry;
+        }
+
+      return null;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   * @return <tt>true</tt> iff the specified key is one for this map
+   */
+  public final boolean containsKey (long key)
+    {
+      _rehashStep();
+
+      return _find(key) != null;
+    }
+
+  /**
+   * @return <tt>true</tt> if this map contains an entry with the specified key and value.
+   *
+   * @param key the key 
+   * @param value the value 
+   */
+  public final boolean containsEntry (long key, int value)
+    {
+      _rehashStep();
+
+      Entry entry = _find(key);
+
+      return entry != null && entry.value == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      _rehashStep();
+
+      Entry mapping = (Entry)candidate;
+      Entry entry = _find(mapping.key);
+
+      return entry != null && entry.value == mapping.value;
+    }
+
+  /**
+   * Returns <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for
+   * this key.  The value <tt>NOT_FOUND_VALUE</tt> is defined as
+   * <tt>Integer.MIN_VALUE</tt> (which is equal to
+   * <tt>-2147483648</tt>). Therefore, a return value equal to
+   * <tt>NOT_FOUND_VALUE</tt> does not <i>necessarily</i> indicate that
+   * the map contains no entry for the key; it's also possible that the
+   * map explicitly maps the key to <tt>-2147483648</tt>. In this case,
+   * the <tt>containsKey</tt> operation may be used to distinguish these
+   * two cases.
+   *
+   * @return the value to which this map maps the specified key
+   * @param key the key whose associated value is to be returned
+   */
+  public final int get (long key)
+    {
+      _rehashStep();
+
+      Entry entry = _find(key);
+
+      return entry == null ? NOT_FOUND_VALUE : entry.value;
+    }
+
+  /**
+   * Associates the current size of the map to the given long, and returns this value.
+   * @param x the long to add to this map
+   * @return the index of x in this map
+   */
+  public final int add (long x)
+    {
+      put(x,_size);
+      return _size-1;
+    }
+
+  /**
+   * Associates the specified value with the specified key in this map.
+   * If the map previously contained an entry for this key, the old
+   * value is replaced and returned; otherwise the new value is returned.
+   * The map is automatically enlarged if its size exceeds its threshold.
+   *
+   * @param key key with which the specified value is to be associated
+   * @param value value to be associated with the specified key
+   * @return the old value if there was one, or the new one if not
+   */
+  public final int put (long key, int value)
+    {
+      _rehashStep();
+
+      Entry entry = _find(key);
+
+      if (entry != null)
+        {
+          int old = entry.value;
+          entry.value = value;
+          return old;
+        }
+
+      if (_size >= _threshold)
+        _rehash();
+
+      int index = (_strategy.hash(key) & 0x7FFFFFFF) % _table.length;
+
+      _table[index] = new Entry(key,value,_entry(index));
+      _size++;
+
+      return value;
+    }
+
+  /**
+   * Removes the entry for the given key from this map if present.
+   * Returns the previous value associated with the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if there was no entry for the key.  A
+   * returned <tt>NOT_FOUND_VALUE</tt> may also indicate that the map
+   * previously associated <tt>NOT_FOUND_VALUE</tt> with the specified key.
+   *
+   * @param key key whose entry is to be removed from the map.
+   * @return the old value if there was one, or <tt>NOT_FOUND_VALUE</tt> 
+   */
+  public final int remove (long key)
+    {
+      _rehashStep();
+
+      Entry entry = _unlink(_table,key);
+
+      if (entry == null && _oldTable != null)
+        entry = _unlink(_oldTable,key);
+
+      if (entry == null)
+        return NOT_FOUND_VALUE;
+
+      _size--;
+      return entry.value;
+    }
+
+  /**
+   * Puts the mapping defined by the specified entry into this map.
+   * Returns the old value if one was there, or the new value.
+   *
+   * @param entry the entry whose mapping is to be put into this map.
+   */
+  public final int put (ToIntMap.Entry entry)
+    {
+      Entry mapping = (Entry)entry;
+      return put(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is a long.
+   * @return an iterator for this map's long keys
+   */
+  public final LongIterator keys ()
+    {
+      return new KeyIterator(iterator());
+    }
+
+  /**
+   * Returns an iterator through the values of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   * @return an iterator for this map's int values
+   */
+  public final IntIterator values ()
+    {
+      return new ValueIterator(iterator());
+    }
+
+  /**
+   * Returns a spliterator through the keys of this map, which splits the
+   * table of the map in halves. It is sized until it is first split.
+   */
+  public final Spliterator.OfLong keySpliterator ()
+    {
+      return new KeySpliterator(this);
+    }
+
+  /**
+   * Returns a sequential stream of the keys of this map; its
+   * <tt>parallel()</tt> version spreads the buckets of the map evenly
+   * over the fork-join pool. The map must not be modified while the
+   * stream is in use.
+   */
+  public final LongStream keyStream ()
+    {
+      return StreamSupport.longStream(keySpliterator(),false);
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in no
+   * particular order. Unlike going through <tt>iterator()</tt>, this
+   * allocates no iterator and no entry.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (LongIntConsumer action)
+    {
+      forEachEntryWhile((key,value) -> { action.accept(key,value); return true; });
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (LongIntPredicate action)
+    {
+      return _forEachEntryWhile(entry -> action.test(((Entry)entry).key,((Entry)entry).value));
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in no
+   * particular order. Unlike going through <tt>keys()</tt>, this
+   * allocates no iterator.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (LongConsumer action)
+    {
+      forEachKeyWhile(key -> { action.accept(key); return true; });
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (LongPredicate action)
+    {
+      return _forEachEntryWhile(entry -> action.test(((Entry)entry).key));
+    }
+
+  /**
+   * Includes all of the entries from the specified map to this one.
+   * These entries replace any entries that this map had for any of the
+   * keys currently in the specified map. When the specified map is a map
+   * of longs, its entries are traversed without allocating any entry.
+   *
+   * @param map map whose entries will be stored in this map.
+   */
+  public final void include (ToIntMap map)
+    {
+      if (map == this)
+        return;
+
+      if (map instanceof LongToIntMap)
+        ((LongToIntMap)map).forEachEntry(this::put);
+      else
+        super.include(map);
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of longs, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof LongToIntMap)
+        return forEachEntryWhile(((LongToIntMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also a map and the two maps
+   * have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof LongToIntMap))
+        return false;
+
+      return isEqualTo((LongToIntMap)object);
+    }
+
+  /**
+   * The class defining the map entries.
+   */
+  public static class Entry extends ToIntMap.Entry
+    {
+      long key;
+
+      Entry (long key, int value)
+        {
+          this.key = key;
+          this.value = value;
+        }
+
+      Entry (long key, int value, Entry next)
+        {
+          this.key = key;
+          this.value = value;
+          this.next = next;
+        }
+
+      public final long key ()
+        {
+          return key;
+        }
+
+      public final int hash ()
+        {
+          return Long.hashCode(key);
+        }
+
+      public final boolean equals (Object object)
+        {
+          if (!(object instanceof Entry))
+            return false;
+
+          Entry entry = (Entry)object;
+
+          return key == entry.key && value == entry.value;
+        }
+
+      public final int hashCode ()
+        {
+          return Long.hashCode(key) ^ value;
+        }
+
+      public final String toString ()
+        {
+          return key + "=" + value;
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private static class KeyIterator implements LongIterator
+    {
+      private Iterator _entries;
+
+      KeyIterator (Iterator entries)
+        {
+          _entries = entries;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _entries.hasNext();
+        }
+
+      public final long next ()
+        {
+          return ((Entry)_entries.next()).key;
+        }
+  }
+
+  /**
+   * The class defining the spliterator through the map's keys.
+   */
+  private static class KeySpliterator extends TableSpliterator implements Spliterator.OfLong
+    {
+      KeySpliterator (ToIntMap map)
+        {
+          super(map);
+        }
+
+      KeySpliterator (KeySpliterator other, int index)
+        {
+          super(other,index);
+        }
+
+      public final boolean tryAdvance (LongConsumer action)
+        {
+          Entry entry = (Entry)_nextEntry();
+
+          if (entry == null)
+            return false;
+
+          action.accept(entry.key);
+          return true;
+        }
+
+      public final void forEachRemaining (LongConsumer action)
+        {
+          for (Entry entry; (entry = (Entry)_nextEntry()) != null;)
+            action.accept(entry.key);
+        }
+
+      public final Spliterator.OfLong trySplit ()
+        {
+          int index = _split();
+          return index < 0 ? null : new KeySpliterator(this,index);
+        }
+    }
+}
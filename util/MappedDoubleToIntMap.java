@@ -0,0 +1,154 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 13:55:42 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * This is a read-only map from doubles to ints memory-mapped from an image
+ * saved by <tt>DoubleToIntMap.save(Path)</tt> or <tt>DoubleToIntOpenMap.save(Path)</tt>.
+ * Keys are stored as their <tt>Double.doubleToLongBits</tt> bit patterns.
+ * See <a href="MappedToIntMap.html"><tt>MappedToIntMap</tt></a> for the
+ * format of the image.
+ */
+
+public class MappedDoubleToIntMap extends MappedToIntMap
+{
+  /**
+   * Constructs a map over the specified image.
+   *
+   * @throws   IOException if the image is not a valid one of doubles to ints.
+   */
+  public MappedDoubleToIntMap (ByteBuffer image) throws IOException
+    {
+      super(image,DOUBLE_KEYS,12);
+    }
+
+  /**
+   * Maps the image in the specified file into memory and returns the map
+   * it contains.
+   *
+   * @param    path   the path of an image file
+   * @throws   IOException if the file cannot be mapped or is not a valid image.
+   */
+  public final static MappedDoubleToIntMap load (Path path) throws IOException
+    {
+      return new MappedDoubleToIntMap(_map(path));
+    }
+
+  /**
+   * Returns the hash code of the specified bit pattern.
+   */
+  final static int _hash (long bits)
+    {
+      return ToIntMap._mix((int)(bits ^ (bits >>> 32)));
+    }
+
+  /**
+   * Returns the slot of the specified non-zero bit pattern, or <tt>-1</tt>.
+   */
+  private final int _slot (long bits)
+    {
+      for (int i = _hash(bits) & _mask;; i = (i+1) & _mask)
+        {
+          long k = _image.getLong(HEADER_SIZE+12*i);
+
+          if (k == bits)
+            return i;
+
+          if (k == 0)
+            return -1;
+        }
+    }
+
+  final boolean _isFree (int slot)
+    {
+      return _image.getLong(HEADER_SIZE+12*slot) == 0;
+    }
+
+  final int _slotValue (int slot)
+    {
+      return _image.getInt(HEADER_SIZE+12*slot+8);
+    }
+
+  private final double _key (int index)
+    {
+      return index < 0 ? 0.0 : Double.longBitsToDouble(_image.getLong(HEADER_SIZE+12*index));
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map contains an entry for the given key.
+   */
+  public final boolean containsKey (double key)
+    {
+      long bits = Double.doubleToLongBits(key);
+      return bits == 0 ? _hasSpecialKey : _slot(bits) >= 0;
+    }
+
+  /**
+   * Returns the value associated with the given key, or
+   * <tt>NOT_FOUND_VALUE</tt> if it is not in this map.
+   */
+  public final int get (double key)
+    {
+      long bits = Double.doubleToLongBits(key);
+
+      if (bits == 0)
+        return _hasSpecialKey ? _specialValue : NOT_FOUND_VALUE;
+
+      int i = _slot(bits);
+      return i < 0 ? NOT_FOUND_VALUE : _slotValue(i);
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is a double.
+   */
+  public final DoubleIterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Returns a new <tt>DoubleToIntOpenMap</tt> with the entries of this map.
+   */
+  public final DoubleToIntOpenMap toMap ()
+    {
+      DoubleToIntOpenMap map = new DoubleToIntOpenMap(_size);
+      Cursor cursor = new Cursor();
+
+      while (cursor.hasNext())
+        {
+          int i = cursor._step();
+          map.put(_key(i),_value(i));
+        }
+
+      return map;
+    }
+
+  public final String toString ()
+    {
+      return toMap().toString();
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements DoubleIterator
+    {
+      public final double next ()
+        {
+          return _key(_step());
+        }
+    }
+}
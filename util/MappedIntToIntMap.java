@@ -0,0 +1,138 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 13:52:07 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * This is a read-only map from ints to ints memory-mapped from an image
+ * saved by <tt>IntToIntMap.save(Path)</tt> or <tt>IntToIntOpenMap.save(Path)</tt>.
+ * See <a href="MappedToIntMap.html"><tt>MappedToIntMap</tt></a> for the
+ * format of the image.
+ */
+
+public class MappedIntToIntMap extends MappedToIntMap
+{
+  /**
+   * Constructs a map over the specified image.
+   *
+   * @throws   IOException if the image is not a valid one of ints to ints.
+   */
+  public MappedIntToIntMap (ByteBuffer image) throws IOException
+    {
+      super(image,INT_KEYS,8);
+    }
+
+  /**
+   * Maps the image in the specified file into memory and returns the map
+   * it contains.
+   *
+   * @param    path   the path of an image file
+   * @throws   IOException if the file cannot be mapped or is not a valid image.
+   */
+  public final static MappedIntToIntMap load (Path path) throws IOException
+    {
+      return new MappedIntToIntMap(_map(path));
+    }
+
+  /**
+   * Returns the slot of the specified non-zero key, or <tt>-1</tt>.
+   */
+  private final int _slot (int key)
+    {
+      for (int i = ToIntMap._mix(key) & _mask;; i = (i+1) & _mask)
+        {
+          int k = _image.getInt(HEADER_SIZE+8*i);
+
+          if (k == key)
+            return i;
+
+          if (k == 0)
+            return -1;
+        }
+    }
+
+  final boolean _isFree (int slot)
+    {
+      return _image.getInt(HEADER_SIZE+8*slot) == 0;
+    }
+
+  final int _slotValue (int slot)
+    {
+      return _image.getInt(HEADER_SIZE+8*slot+4);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map contains an entry for the given key.
+   */
+  public final boolean containsKey (int key)
+    {
+      return key == 0 ? _hasSpecialKey : _slot(key) >= 0;
+    }
+
+  /**
+   * Returns the value associated with the given key, or
+   * <tt>NOT_FOUND_VALUE</tt> if it is not in this map.
+   */
+  public final int get (int key)
+    {
+      if (key == 0)
+        return _hasSpecialKey ? _specialValue : NOT_FOUND_VALUE;
+
+      int i = _slot(key);
+      return i < 0 ? NOT_FOUND_VALUE : _slotValue(i);
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Returns a new <tt>IntToIntOpenMap</tt> with the entries of this map.
+   */
+  public final IntToIntOpenMap toMap ()
+    {
+      IntToIntOpenMap map = new IntToIntOpenMap(_size);
+      Cursor cursor = new Cursor();
+
+      while (cursor.hasNext())
+        {
+          int i = cursor._step();
+          map.put(i < 0 ? 0 : _image.getInt(HEADER_SIZE+8*i),_value(i));
+        }
+
+      return map;
+    }
+
+  public final String toString ()
+    {
+      return toMap().toString();
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements IntIterator
+    {
+      public final int next ()
+        {
+          int i = _step();
+          return i < 0 ? 0 : _image.getInt(HEADER_SIZE+8*i);
+        }
+    }
+}
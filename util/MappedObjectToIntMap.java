@@ -0,0 +1,202 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 14:01:16 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * This is a read-only map from strings to ints memory-mapped from an image
+ * saved by <tt>ObjectToIntMap.save(Path)</tt> or <tt>ObjectToIntOpenMap.save(Path)</tt>.
+ * Only maps whose keys are strings (or <tt>null</tt>) may be saved; the
+ * strings are stored in UTF-8 and are only decoded when iterating through
+ * the keys, lookups comparing hash codes and then the encoded bytes. See
+ * <a href="MappedToIntMap.html"><tt>MappedToIntMap</tt></a> for the format
+ * of the image.
+ */
+
+public class MappedObjectToIntMap extends MappedToIntMap
+{
+  /**
+   * Where the strings start in the image.
+   */
+  private final int _strings;
+
+  /**
+   * Constructs a map over the specified image.
+   *
+   * @throws   IOException if the image is not a valid one of strings to ints.
+   */
+  public MappedObjectToIntMap (ByteBuffer image) throws IOException
+    {
+      super(image,STRING_KEYS,12);
+      _strings = image.getInt(28);
+
+      if (_strings < HEADER_SIZE+12L*_capacity || _strings > image.capacity())
+        throw new IOException("corrupted map image");
+    }
+
+  /**
+   * Maps the image in the specified file into memory and returns the map
+   * it contains.
+   *
+   * @param    path   the path of an image file
+   * @throws   IOException if the file cannot be mapped or is not a valid image.
+   */
+  public final static MappedObjectToIntMap load (Path path) throws IOException
+    {
+      return new MappedObjectToIntMap(_map(path));
+    }
+
+  /**
+   * Returns the slot of the specified non-null string, or <tt>-1</tt>.
+   */
+  private final int _slot (String key)
+    {
+      int hash = ToIntMap._mix(key.hashCode());
+      byte[] bytes = null;
+
+      for (int i = hash & _mask;; i = (i+1) & _mask)
+        {
+          int offset = _image.getInt(HEADER_SIZE+12*i+4);
+
+          if (offset == 0)
+            return -1;
+
+          if (_image.getInt(HEADER_SIZE+12*i) == hash)
+            {
+              if (bytes == null)
+                bytes = key.getBytes(StandardCharsets.UTF_8);
+
+              if (_matches(_strings+offset-1,bytes))
+                return i;
+            }
+        }
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the string stored at the specified position
+   * is encoded by the specified bytes.
+   */
+  private final boolean _matches (int position, byte[] bytes)
+    {
+      if (_image.getInt(position) != bytes.length)
+        return false;
+
+      position += 4;
+      for (int j=0; j<bytes.length; j++)
+        if (_image.get(position+j) != bytes[j])
+          return false;
+
+      return true;
+    }
+
+  final boolean _isFree (int slot)
+    {
+      return _image.getInt(HEADER_SIZE+12*slot+4) == 0;
+    }
+
+  final int _slotValue (int slot)
+    {
+      return _image.getInt(HEADER_SIZE+12*slot+8);
+    }
+
+  private final String _key (int index)
+    {
+      if (index < 0)
+        return null;
+
+      int position = _strings + _image.getInt(HEADER_SIZE+12*index+4) - 1;
+      byte[] bytes = new byte[_image.getInt(position)];
+
+      for (int j=0; j<bytes.length; j++)
+        bytes[j] = _image.get(position+4+j);
+
+      return new String(bytes,StandardCharsets.UTF_8);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map contains an entry for the given key.
+   */
+  public final boolean containsKey (Object key)
+    {
+      if (key == null)
+        return _hasSpecialKey;
+
+      return key instanceof String && _slot((String)key) >= 0;
+    }
+
+  /**
+   * Returns the value associated with the given key, or
+   * <tt>NOT_FOUND_VALUE</tt> if it is not in this map.
+   */
+  public final int get (Object key)
+    {
+      if (key == null)
+        return _hasSpecialKey ? _specialValue : NOT_FOUND_VALUE;
+
+      if (!(key instanceof String))
+        return NOT_FOUND_VALUE;
+
+      int i = _slot((String)key);
+      return i < 0 ? NOT_FOUND_VALUE : _slotValue(i);
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is a string (or <tt>null</tt>).
+   */
+  public final Iterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Returns a new <tt>ObjectToIntOpenMap</tt> with the entries of this map.
+   */
+  public final ObjectToIntOpenMap toMap ()
+    {
+      ObjectToIntOpenMap map = new ObjectToIntOpenMap(_size);
+      Cursor cursor = new Cursor();
+
+      while (cursor.hasNext())
+        {
+          int i = cursor._step();
+          map.put(_key(i),_value(i));
+        }
+
+      return map;
+    }
+
+  public final String toString ()
+    {
+      return toMap().toString();
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          return _key(_step());
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,509 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 13:48:31 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * This is the mother of the classes of read-only maps to ints that are
+ * memory-mapped from a binary image saved by <tt>ToIntMap.save(Path)</tt>.
+ * It is the mother of:
+ * <ul>
+ * <li> <a href="MappedIntToIntMap.html"><tt>MappedIntToIntMap</tt></a>
+ * <li> <a href="MappedDoubleToIntMap.html"><tt>MappedDoubleToIntMap</tt></a>
+ * <li> <a href="MappedObjectToIntMap.html"><tt>MappedObjectToIntMap</tt></a>
+ * </ul>
+ * Loading an image only maps its file into memory: no entry is read nor
+ * rebuilt, so that a loaded map is usable at once, and the pages of the
+ * file are read lazily by the operating system as lookups touch them.
+ * <p>
+ * An image is an open-addressing table with linear probing, laid out
+ * as follows (all numbers are big-endian):
+ * <pre>
+ *   int     MAGIC           (0x68746D69)
+ *   int     VERSION         (1)
+ *   int     kind            (INT_KEYS, DOUBLE_KEYS or STRING_KEYS)
+ *   int     size            number of entries
+ *   int     capacity        number of slots (a power of two)
+ *   int     hasSpecialKey   1 iff there is an entry for the special key
+ *   int     specialValue    the value of the special key, if any
+ *   int     stringsOffset   where the strings start (STRING_KEYS only)
+ *   slot[capacity]
+ *   string[]                (STRING_KEYS only)
+ * </pre>
+ * The special key is the one whose slot content would denote a free slot:
+ * <tt>0</tt>, <tt>0.0</tt>, or <tt>null</tt>. A slot is:
+ * <ul>
+ * <li> for <tt>INT_KEYS</tt>: <tt>int key, int value</tt> (free if the key is <tt>0</tt>);
+ * <li> for <tt>DOUBLE_KEYS</tt>: <tt>long bits, int value</tt> (free if the bits are <tt>0</tt>);
+ * <li> for <tt>STRING_KEYS</tt>: <tt>int hash, int offset, int value</tt>
+ *      (free if the offset is <tt>0</tt>), where the key is the string at
+ *      <tt>stringsOffset+offset-1</tt>, stored as an <tt>int</tt> length
+ *      followed by that many bytes of UTF-8.
+ * </ul>
+ * A key's first slot is given by the mixed hash (<tt>ToIntMap._mix</tt>)
+ * of the key, of the folded bits of a double, or of a string's
+ * <tt>hashCode()</tt>, which are all defined independently of the JVM.
+ * Strings are compared with <tt>equals</tt>, so that a map of strings
+ * may be saved only if its hash strategy compares them that way.
+ * <p>
+ * The magic number is written last, once the rest of the image has been
+ * flushed to the file, so that an image left incomplete by a failed
+ * write is never taken for a valid one.
+ */
+
+abstract public class MappedToIntMap
+{
+  /**
+   * The value returned when a key has no mapping.
+   */
+  public final static int NOT_FOUND_VALUE = ToIntMap.NOT_FOUND_VALUE;
+
+  /**
+   * The first int of every image.
+   */
+  public final static int MAGIC = 0x68746D69;
+
+  /**
+   * The version of the image format written by this class.
+   */
+  public final static int VERSION = 1;
+
+  /**
+   * The kinds of images.
+   */
+  public final static int INT_KEYS = 1, DOUBLE_KEYS = 2, STRING_KEYS = 3;
+
+  /**
+   * The size in bytes of an image's header.
+   */
+  final static int HEADER_SIZE = 32;
+
+  /**
+   * The load factor of the tables written in images.
+   */
+  final static float LOAD_FACTOR = 0.5f;
+
+  /**
+   * The mapped image.
+   */
+  protected final ByteBuffer _image;
+
+  /**
+   * The number of entries of this map.
+   */
+  protected final int _size;
+
+  /**
+   * The number of slots of this map's table.
+   */
+  protected final int _capacity;
+
+  /**
+   * The mask used to bring a hash code within the table's bounds.
+   */
+  protected final int _mask;
+
+  /**
+   * Whether this map has an entry for its special key.
+   */
+  protected final boolean _hasSpecialKey;
+
+  /**
+   * The value of the special key, if any.
+   */
+  protected final int _specialValue;
+
+  /**
+   * Constructs a map over the specified image, after checking that its
+   * header is that of an image of the specified kind, and that the image
+   * is large enough for the table the header describes.
+   *
+   * @param    image      the mapped image
+   * @param    kind       the expected kind of image
+   * @param    slotSize   the size in bytes of a slot of this kind
+   * @throws   IOException if the image is not a valid one of this kind.
+   */
+  protected MappedToIntMap (ByteBuffer image, int kind, int slotSize) throws IOException
+    {
+      if (image.capacity() < HEADER_SIZE || image.getInt(0) != MAGIC)
+        throw new IOException("not a map image");
+
+      if (image.getInt(4) != VERSION)
+        throw new IOException("unsupported map image version: "+image.getInt(4));
+
+      if (image.getInt(8) != kind)
+        throw new IOException("wrong kind of map image: "+image.getInt(8));
+
+      _image = image;
+      _size = image.getInt(12);
+      _capacity = image.getInt(16);
+      _mask = _capacity-1;
+      _hasSpecialKey = image.getInt(20) != 0;
+      _specialValue = image.getInt(24);
+
+      if (_capacity <= 0 || Integer.bitCount(_capacity) != 1 || _size < 0 || _size > _capacity)
+        throw new IOException("corrupted map image");
+
+      if (image.capacity() < HEADER_SIZE+(long)slotSize*_capacity)
+        throw new IOException("truncated map image: "+image.capacity()+" bytes for "
+                              +_capacity+" slots");
+    }
+
+  /**
+   * Maps the specified image file into memory, read-only.
+   *
+   * @param    path   the path of the image file
+   * @throws   IOException if the file cannot be mapped.
+   */
+  protected final static MappedByteBuffer _map (Path path) throws IOException
+    {
+      FileChannel channel = FileChannel.open(path,StandardOpenOption.READ);
+
+      try
+        {
+          return channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+        }
+      finally
+        {
+          channel.close();
+        }
+    }
+
+  /**
+   * Returns the number of key-value entries in this map.
+   */
+  public final int size ()
+    {
+      return _size;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map is empty.
+   */
+  public final boolean isEmpty ()
+    {
+      return _size == 0;
+    }
+
+  /**
+   * Returns an iterator through the values of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator values ()
+    {
+      return new ValueIterator();
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified slot is free.
+   */
+  abstract boolean _isFree (int slot);
+
+  /**
+   * Returns the value stored in the specified slot.
+   */
+  abstract int _slotValue (int slot);
+
+  /**
+   * Returns the value at the specified cursor index.
+   */
+  final int _value (int index)
+    {
+      return index < 0 ? _specialValue : _slotValue(index);
+    }
+
+  /**
+   * The class defining a cursor through the occupied slots of this map. The
+   * entry for the special key, if any, comes first and is denoted by the
+   * index <tt>-1</tt>.
+   */
+  class Cursor
+    {
+      int _next = _advance(_hasSpecialKey ? -2 : -1);
+
+      final int _advance (int index)
+        {
+          if (index == -2)
+            return -1;
+
+          for (index++; index<_capacity; index++)
+            if (!_isFree(index))
+              return index;
+
+          return _capacity;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _next < _capacity;
+        }
+
+      final int _step ()
+        {
+          if (_next >= _capacity)
+            throw new java.util.NoSuchElementException();
+
+          int index = _next;
+          _next = _advance(index);
+          return index;
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's values.
+   */
+  private class ValueIterator extends Cursor implements IntIterator
+    {
+      public final int next ()
+        {
+          return _value(_step());
+        }
+    }
+
+  // WRITING IMAGES:
+
+  /**
+   * Writes an image of the specified map into the specified file. This
+   * is called by <tt>ToIntMap.save(Path)</tt>.
+   *
+   * @throws   IOException if the file cannot be written.
+   * @throws   UnsupportedOperationException if the map maps objects that
+   *           are not strings, or does not compare them with <tt>equals</tt>.
+   */
+  final static void write (ToIntMap map, Path path) throws IOException
+    {
+      int capacity = ToIntMap._powerOfTwo((int)Math.min(1<<30,(long)(map.size()/LOAD_FACTOR)+1));
+
+      if (map instanceof IntToIntMap)
+        _writeInts(path,capacity,((IntToIntMap)map).keys(),map.values());
+      else if (map instanceof IntToIntOpenMap)
+        _writeInts(path,capacity,((IntToIntOpenMap)map).keys(),map.values());
+      else if (map instanceof FrozenIntToIntMap)
+        _writeInts(path,capacity,((FrozenIntToIntMap)map).keys(),map.values());
+      else if (map instanceof IntToIntTreeMap)
+        _writeInts(path,capacity,((IntToIntTreeMap)map).keys(),map.values());
+      else if (map instanceof DoubleToIntMap)
+        _writeDoubles(path,capacity,((DoubleToIntMap)map).keys(),map.values());
+      else if (map instanceof DoubleToIntOpenMap)
+        _writeDoubles(path,capacity,((DoubleToIntOpenMap)map).keys(),map.values());
+      else if (map instanceof ObjectToIntMap)
+        {
+          _checkStrategy(((ObjectToIntMap)map).hashStrategy());
+          _writeStrings(path,capacity,map.size(),((ObjectToIntMap)map).keys(),map.values());
+        }
+      else if (map instanceof ObjectToIntOpenMap)
+        {
+          _checkStrategy(((ObjectToIntOpenMap)map).hashStrategy());
+          _writeStrings(path,capacity,map.size(),((ObjectToIntOpenMap)map).keys(),map.values());
+        }
+      else if (map instanceof FrozenObjectToIntMap)
+        {
+          _checkStrategy(((FrozenObjectToIntMap)map).hashStrategy());
+          _writeStrings(path,capacity,map.size(),((FrozenObjectToIntMap)map).keys(),map.values());
+        }
+      else
+        throw new UnsupportedOperationException("no image format for "+map.getClass().getName());
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt> unless the specified
+   * strategy compares keys with <tt>equals</tt>, as an image does. This
+   * is the case of the predefined strategies other than <tt>IDENTITY</tt>,
+   * whatever their mixing, since an image rehashes its keys anyway; a
+   * subclass may define another equality.
+   */
+  private final static void _checkStrategy (HashStrategy strategy)
+    {
+      if (strategy != HashStrategy.PLAIN && strategy != HashStrategy.MURMUR
+          && strategy != HashStrategy.XXHASH)
+        throw new UnsupportedOperationException("only maps comparing their keys with equals "+
+                                                "may be saved");
+    }
+
+  /**
+   * Creates the specified file with the specified size, maps it into
+   * memory, and writes the header of an image into it, but for its
+   * magic number (see <tt>_close</tt>).
+   */
+  private final static MappedByteBuffer _create (Path path, long length, int kind,
+                                                 int capacity) throws IOException
+    {
+      if (length > Integer.MAX_VALUE)
+        throw new IOException("map image too large: "+length+" bytes");
+
+      FileChannel channel = FileChannel.open(path,
+                                             StandardOpenOption.CREATE,
+                                             StandardOpenOption.TRUNCATE_EXISTING,
+                                             StandardOpenOption.READ,
+                                             StandardOpenOption.WRITE);
+      try
+        {
+          MappedByteBuffer image = channel.map(FileChannel.MapMode.READ_WRITE,0,length);
+
+          image.putInt(4,VERSION);
+          image.putInt(8,kind);
+          image.putInt(16,capacity);
+
+          return image;
+        }
+      finally
+        {
+          channel.close();
+        }
+    }
+
+  /**
+   * Completes the header of the specified image and flushes it, then
+   * writes its magic number and flushes it again.
+   */
+  private final static void _close (MappedByteBuffer image, int size,
+                                    boolean hasSpecialKey, int specialValue)
+    {
+      image.putInt(12,size);
+      image.putInt(20,hasSpecialKey ? 1 : 0);
+      image.putInt(24,specialValue);
+      image.force();
+      image.putInt(0,MAGIC);
+      image.force();
+    }
+
+  private final static void _writeInts (Path path, int capacity,
+                                        IntIterator keys, IntIterator values) throws IOException
+    {
+      MappedByteBuffer image = _create(path,HEADER_SIZE+8L*capacity,INT_KEYS,capacity);
+      int mask = capacity-1;
+      int size = 0;
+      boolean hasSpecialKey = false;
+      int specialValue = 0;
+
+      while (keys.hasNext() && values.hasNext())
+        {
+          int key = keys.next();
+          int value = values.next();
+          size++;
+
+          if (key == 0)
+            {
+              hasSpecialKey = true;
+              specialValue = value;
+              continue;
+            }
+
+          int i = ToIntMap._mix(key) & mask;
+          while (image.getInt(HEADER_SIZE+8*i) != 0) i = (i+1) & mask;
+
+          image.putInt(HEADER_SIZE+8*i,key);
+          image.putInt(HEADER_SIZE+8*i+4,value);
+        }
+
+      _close(image,size,hasSpecialKey,specialValue);
+    }
+
+  private final static void _writeDoubles (Path path, int capacity,
+                                           DoubleIterator keys, IntIterator values) throws IOException
+    {
+      MappedByteBuffer image = _create(path,HEADER_SIZE+12L*capacity,DOUBLE_KEYS,capacity);
+      int mask = capacity-1;
+      int size = 0;
+      boolean hasSpecialKey = false;
+      int specialValue = 0;
+
+      while (keys.hasNext() && values.hasNext())
+        {
+          long bits = Double.doubleToLongBits(keys.next());
+          int value = values.next();
+          size++;
+
+          if (bits == 0)
+            {
+              hasSpecialKey = true;
+              specialValue = value;
+              continue;
+            }
+
+          int i = MappedDoubleToIntMap._hash(bits) & mask;
+          while (image.getLong(HEADER_SIZE+12*i) != 0) i = (i+1) & mask;
+
+          image.putLong(HEADER_SIZE+12*i,bits);
+          image.putInt(HEADER_SIZE+12*i+8,value);
+        }
+
+      _close(image,size,hasSpecialKey,specialValue);
+    }
+
+  private final static void _writeStrings (Path path, int capacity, int count,
+                                           Iterator keys, IntIterator values) throws IOException
+    {
+      String[] strings = new String[count];
+      byte[][] bytes = new byte[count][];
+      int[] vals = new int[count];
+      long stringsLength = 0;
+      int size = 0;
+      boolean hasSpecialKey = false;
+      int specialValue = 0;
+
+      while (keys.hasNext() && values.hasNext())
+        {
+          Object key = keys.next();
+          int value = values.next();
+
+          if (key == null)
+            {
+              hasSpecialKey = true;
+              specialValue = value;
+              continue;
+            }
+
+          if (!(key instanceof String))
+            throw new UnsupportedOperationException("only maps of strings may be saved, not of "+
+                                                    key.getClass().getName());
+
+          strings[size] = (String)key;
+          bytes[size] = strings[size].getBytes(StandardCharsets.UTF_8);
+          vals[size] = value;
+          stringsLength += 4 + bytes[size].length;
+          size++;
+        }
+
+      long stringsOffset = HEADER_SIZE+12L*capacity;
+      MappedByteBuffer image = _create(path,stringsOffset+stringsLength,STRING_KEYS,capacity);
+      image.putInt(28,(int)stringsOffset);
+
+      int mask = capacity-1;
+      int offset = 0;
+
+      for (int k=0; k<size; k++)
+        {
+          int hash = ToIntMap._mix(strings[k].hashCode());
+          int i = hash & mask;
+          while (image.getInt(HEADER_SIZE+12*i+4) != 0) i = (i+1) & mask;
+
+          image.putInt(HEADER_SIZE+12*i,hash);
+          image.putInt(HEADER_SIZE+12*i+4,offset+1);
+          image.putInt(HEADER_SIZE+12*i+8,vals[k]);
+
+          image.position((int)stringsOffset+offset);
+          image.putInt(bytes[k].length);
+          image.put(bytes[k]);
+          offset += 4 + bytes[k].length;
+        }
+
+      _close(image,size+(hasSpecialKey ? 1 : 0),hasSpecialKey,specialValue);
+    }
+}
@@ -10,14 +10,35 @@ package hlt.language.util;
  * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
  */
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 /**
  * This is a class of hash tables mapping ints to ints.
+ * <p>
+ * A map may be created in <i>identity</i> mode, in which case keys are
+ * compared with <tt>==</tt> and hashed with <tt>System.identityHashCode</tt>
+ * rather than with <tt>Misc.equals</tt> and <tt>hashCode()</tt>. This is
+ * meant for keys that are already canonical (such as interned strings or
+ * symbols), for which a lookup then costs a single comparison per probed
+ * entry and no virtual call.
+ * <p>
+ * More generally, a map may be given a <a href="HashStrategy.html">
+ * <tt>HashStrategy</tt></a> defining how its keys are hashed and compared;
+ * identity mode is that of <tt>HashStrategy.IDENTITY</tt>.
  */
 
 public class ObjectToIntMap extends ToIntMap
 {
+  /**
+   * The strategy hashing and comparing the keys of this map.
+   */
+  private final HashStrategy _strategy;
+
   /**
    * Constructs a new empty map with a default capacity of <tt>11</tt>.
    */
@@ -49,24 +70,134 @@ public class ObjectToIntMap extends ToIntMap
    * @throws   IllegalArgumentException if either argument is negative.
    */
   public ObjectToIntMap (int initialCapacity, float loadFactor)
+    {
+      this(initialCapacity,loadFactor,false);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * a default load factor equal to <tt>0.75</tt>, which compares its keys
+   * by identity iff <tt>identity</tt> is <tt>true</tt>.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @param   identity          whether keys are compared with <tt>==</tt>
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public ObjectToIntMap (int initialCapacity, boolean identity)
+    {
+      this(initialCapacity,0.75f,identity);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor, which compares its keys by identity iff <tt>identity</tt>
+   * is <tt>true</tt>.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @param    identity          whether keys are compared with <tt>==</tt>
+   * @throws   IllegalArgumentException if either number is negative.
+   */
+  public ObjectToIntMap (int initialCapacity, float loadFactor, boolean identity)
+    {
+      this(initialCapacity,loadFactor,identity ? HashStrategy.IDENTITY : HashStrategy.DEFAULT);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * a default load factor equal to <tt>0.75</tt>, which hashes and compares
+   * its keys with the specified strategy.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @param   strategy          the hash strategy of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public ObjectToIntMap (int initialCapacity, HashStrategy strategy)
+    {
+      this(initialCapacity,0.75f,strategy);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor, which hashes and compares its keys with the specified
+   * strategy.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @param    strategy          the hash strategy of the map
+   * @throws   IllegalArgumentException if either number is negative.
+   */
+  public ObjectToIntMap (int initialCapacity, float loadFactor, HashStrategy strategy)
     {
       _table = new Entry[_setThreshold(initialCapacity,loadFactor)];
+      _strategy = strategy;
     }
     
   /**
    * Constructs a new map with the same entries as the given map.  The
    * map is created with a capacity of twice the number of entries in
    * the given map or 11 (whichever is greater), and a default load factor,
-   * which is <tt>0.75</tt>.
+   * which is <tt>0.75</tt>. It has the same hash strategy as the given
+   * map.
    *
    * @param map the <tt>ObjectToIntMap</tt> whose entries are to be placed in this map.
   */
   public ObjectToIntMap (ObjectToIntMap map)
     {
-      this(Math.max(2*map.size(),11));
+      this(Math.max(2*map.size(),11),map.hashStrategy());
       include(map);
     }
 
+  /**
+   * Returns <tt>true</tt> iff this map compares its keys by identity.
+   */
+  public final boolean isIdentity ()
+    {
+      return _strategy == HashStrategy.IDENTITY;
+    }
+
+  /**
+   * Returns the hash strategy of this map.
+   */
+  public final HashStrategy hashStrategy ()
+    {
+      return _strategy;
+    }
+
+  /**
+   * Returns the hash code of the specified key for this map.
+   */
+  private final int _hash (Object key)
+    {
+      return _strategy.hash(key);
+    }
+
+  /**
+   * Returns the hash code used to rehash the specified entry.
+   */
+  protected final int _entryHash (ToIntMap.Entry entry)
+    {
+      return _strategy.hash(((Entry)entry).key);
+    }
+
+  /**
+   * Returns the hash code of the specified entry of this map, following
+   * its strategy.
+   */
+  protected final int _entryHashCode (ToIntMap.Entry entry)
+    {
+      return ((Entry)entry).hashCode(_strategy);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified entry key and key are the same
+   * key for this map.
+   */
+  private final boolean _same (Object entryKey, Object key)
+    {
+      return entryKey == key || _strategy != HashStrategy.IDENTITY && _strategy.equals(entryKey,key);
+    }
+
   /**
    * Returns the entry at the specified index in the table.
    */
@@ -83,6 +214,54 @@ public class ObjectToIntMap extends ToIntMap
       return (Entry)entry.next;
     }
 
+  /**
+   * Returns the entry for the specified key, or <tt>null</tt> if there is
+   * none. While an incremental rehash is in progress, the bucket of the
+   * old table where the key may still be is looked up as well.
+   */
+  private final Entry _find (Object key)
+    {
+      int hash = _hash(key) & 0x7FFFFFFF;
+
+      for (Entry entry = _entry(hash % _table.length); entry != null; entry = _next(entry))
+        if (_same(entry.key,key))
+          return entry;
+
+      if (_oldTable != null)
+        for (Entry entry = (Entry)_oldTable[hash % _oldTable.length]; entry != null; entry = _next(entry))
+          if (_same(entry.key,key))
+            return entry;
+
+      return null;
+    }
+
+  /**
+   * Unlinks from the specified table and returns the entry for the
+   * specified key, or returns <tt>null</tt> if there is none.
+   */
+  private final Entry _unlink (ToIntMap.Entry[] table, Object key)
+    {
+      int index = (_hash(key) & 0x7FFFFFFF) % table.length;
+
+      Entry predecessor = null;
+
+      for (Entry entry = (Entry)table[index]; entry != null; entry = _next(entry))
+        {
+          if (_same(entry.key,key))
+            {
+              if (predecessor != null)
+                predecessor.next = entry.next;
+              else
+                table[index] = entry.next;
+
+              return entry;
+            }
+          predecessor = entry;
+        }
+
+      return null;
+    }
+
   /**
    * Returns <tt>true</tt> if this map contains an entry for the specified key.
    *
@@ -90,13 +269,9 @@ public class ObjectToIntMap extends ToIntMap
    */
   public final boolean containsKey (Object key)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
-
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        if (Misc.equals(entry.key,key))
-          return true;
+      _rehashStep();
 
-      return false;
+      return _find(key) != null;
     }
 
   /**
@@ -108,7 +283,11 @@ public class ObjectToIntMap extends ToIntMap
    */
   public final boolean containsEntry (Object key, int value)
     {
-      return containsEntry(new Entry(key,value));
+      _rehashStep();
+
+      Entry entry = _find(key);
+
+      return entry != null && entry.value == value;
     }
 
   /**
@@ -118,14 +297,12 @@ public class ObjectToIntMap extends ToIntMap
    */
   public final boolean containsEntry (ToIntMap.Entry candidate)
     {
-      Entry mapping = (Entry)candidate;
-      int index = (Misc.hashCode(mapping.key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        if (Misc.equals(entry.key,mapping.key))
-          return (entry.value == mapping.value);
+      Entry mapping = (Entry)candidate;
+      Entry entry = _find(mapping.key);
 
-      return false;
+      return entry != null && entry.value == mapping.value;
     }
 
   /**
@@ -142,13 +319,11 @@ public class ObjectToIntMap extends ToIntMap
    */
   public final int get (Object key)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        if (Misc.equals(entry.key,key))
-          return entry.value;
+      Entry entry = _find(key);
 
-      return NOT_FOUND_VALUE;
+      return entry == null ? NOT_FOUND_VALUE : entry.value;
     }
 
   /**
@@ -171,28 +346,104 @@ public class ObjectToIntMap extends ToIntMap
    */
   public final int put (Object key, int value)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      for (Entry entry = _entry(index) ; entry != null ; entry = _next(entry))
-        if (Misc.equals(entry.key,key))
-          {
-            int old = entry.value;
-            entry.value = value;
-            return old;
-          }
+      Entry entry = _find(key);
 
-      if (_size >= _threshold)
+      if (entry != null)
         {
-          _rehash();
-          index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+          int old = entry.value;
+          entry.value = value;
+          return old;
         }
 
+      if (_size >= _threshold)
+        _rehash();
+
+      int index = (_hash(key) & 0x7FFFFFFF) % _table.length;
+
       _table[index] = new Entry(key,value,_entry(index));
       _size++;
 
       return value;
     }
 
+  /**
+   * Returns the value to which this map maps the specified key, or the
+   * specified default value if the map contains no entry for this key.
+   * Unlike <tt>get</tt>, this tells a missing key from a key mapped to
+   * <tt>NOT_FOUND_VALUE</tt> with a single lookup.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @param defaultValue the value to return if there is no entry for the key.
+   */
+  public final int getOrDefault (Object key, int defaultValue)
+    {
+      _rehashStep();
+
+      Entry entry = _find(key);
+
+      return entry == null ? defaultValue : entry.value;
+    }
+
+  /**
+   * Adds the specified delta to the value of the specified key, which is
+   * taken to be <tt>0</tt> if the map contains no entry for the key, and
+   * returns the new value. This looks up the key only once, and is meant
+   * for maps used as counters.
+   *
+   * @param key the key whose value is to be incremented.
+   * @param delta the amount to add to its value.
+   */
+  public final int addTo (Object key, int delta)
+    {
+      _rehashStep();
+
+      Entry entry = _find(key);
+
+      if (entry != null)
+        return entry.value += delta;
+
+      if (_size >= _threshold)
+        _rehash();
+
+      int index = (_hash(key) & 0x7FFFFFFF) % _table.length;
+
+      _table[index] = new Entry(key,delta,_entry(index));
+      _size++;
+
+      return delta;
+    }
+
+  /**
+   * Adds <tt>1</tt> to the value of the specified key, which is taken to be
+   * <tt>0</tt> if the map contains no entry for the key, and returns the
+   * new value.
+   *
+   * @param key the key whose value is to be incremented.
+   */
+  public final int increment (Object key)
+    {
+      return addTo(key,1);
+    }
+
+  /**
+   * Returns (at most) the specified number of keys of this map with the
+   * greatest values, by decreasing value; keys with equal values come in
+   * no particular order. This keeps a heap of <tt>n</tt> keys through one
+   * pass over the map, and so takes <tt>O(size log n)</tt> time without
+   * sorting the whole map.
+   *
+   * @param     n the number of keys to return.
+   * @exception IllegalArgumentException if <tt>n</tt> is negative.
+   */
+  public final Object[] topK (int n)
+    {
+      TopK top = new TopK(Math.min(n,_size),true);
+      forEachEntry(top::offer);
+      return top.objects();
+    }
+
   /**
    * Removes the entry for the given key from this map if present.
    * Returns the previous value associated with the specified key, or
@@ -204,26 +455,18 @@ public class ObjectToIntMap extends ToIntMap
    */
   public final double remove (Object key)
     {
-      int index = (Misc.hashCode(key) & 0x7FFFFFFF) % _table.length;
+      _rehashStep();
 
-      Entry predecessor = null;
-      
-      for (Entry entry = _entry(index); entry != null; entry = _next(entry))
-        {
-          if (Misc.equals(entry.key,key))
-            {
-              if (predecessor != null)
-                predecessor.next = entry.next;
-              else
-                _table[index] = entry.next;
+      Entry entry = _unlink(_table,key);
 
-              _size--;
-              return entry.value;
-            }
-          predecessor = entry;
-        }
+      if (entry == null && _oldTable != null)
+        entry = _unlink(_oldTable,key);
 
-      return NOT_FOUND_VALUE;
+      if (entry == null)
+        return NOT_FOUND_VALUE;
+
+      _size--;
+      return entry.value;
     }
 
   /**
@@ -256,6 +499,122 @@ public class ObjectToIntMap extends ToIntMap
       return new ValueIterator(iterator());
     }
 
+  /**
+   * Memory-maps the image of a map saved by <tt>save(Path)</tt> into the
+   * specified file, and returns it as a read-only map.
+   *
+   * @param    path   the path of an image file
+   * @throws   IOException if the file cannot be mapped or is not a valid image.
+   */
+  public final static MappedObjectToIntMap load (Path path) throws IOException
+    {
+      return MappedObjectToIntMap.load(path);
+    }
+
+  /**
+   * Returns an immutable copy of this map indexed by a minimal perfect
+   * hash function, which answers lookups with a single probe and takes
+   * much less memory than this map. This is meant for maps that are no
+   * longer modified once built, but are queried a lot.
+   */
+  public final FrozenObjectToIntMap freeze ()
+    {
+      return new FrozenObjectToIntMap(this);
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in no
+   * particular order. Unlike going through <tt>iterator()</tt>, this
+   * allocates no iterator and no entry.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (ObjectIntConsumer action)
+    {
+      forEachEntryWhile((key,value) -> { action.accept(key,value); return true; });
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (ObjectIntPredicate action)
+    {
+      return _forEachEntryWhile(entry -> action.test(((Entry)entry).key,((Entry)entry).value));
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in no
+   * particular order. Unlike going through <tt>keys()</tt>, this
+   * allocates no iterator.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (Consumer action)
+    {
+      forEachKeyWhile(key -> { action.accept(key); return true; });
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (Predicate action)
+    {
+      return _forEachEntryWhile(entry -> action.test(((Entry)entry).key));
+    }
+
+  /**
+   * Includes all of the entries from the specified map to this one.
+   * These entries replace any entries that this map had for any of the
+   * keys currently in the specified map. When the specified map is a map
+   * of objects, its entries are traversed without allocating any entry.
+   *
+   * @param map map whose entries will be stored in this map.
+   */
+  public final void include (ToIntMap map)
+    {
+      if (map == this)
+        return;
+
+      if (map instanceof ObjectToIntMap)
+        ((ObjectToIntMap)map).forEachEntry(this::put);
+      else if (map instanceof ObjectToIntOpenMap)
+        ((ObjectToIntOpenMap)map).forEachEntry(this::put);
+      else
+        super.include(map);
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of objects, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof ObjectToIntMap)
+        return forEachEntryWhile(((ObjectToIntMap)map)::containsEntry);
+
+      if (map instanceof ObjectToIntOpenMap)
+        return forEachEntryWhile(((ObjectToIntOpenMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
   /**
    * Compares the specified object with this map for equality. Returns
    * <tt>true</tt> if the given object is also a map and the two maps
@@ -275,7 +634,12 @@ public class ObjectToIntMap extends ToIntMap
     }
 
   /**
-   * The class defining the map entries.
+   * The class defining the map entries, which are also those returned by
+   * the iterators of the other maps of objects to ints. As free-standing
+   * pairs, entries compare and hash their keys with <tt>Misc.equals</tt>
+   * and <tt>Misc.hashCode</tt>, since an entry does not know the strategy
+   * of its map: a map applies its own strategy when it looks up, rehashes,
+   * or hashes its entries (see <tt>_entryHashCode</tt>).
    */
   public static class Entry extends ToIntMap.Entry
     {
@@ -299,12 +663,12 @@ public class ObjectToIntMap extends ToIntMap
           return key;
         }
 
-      public final int hash ()
+      public int hash ()
         {
           return Misc.hashCode(key);
         }
 
-      public final boolean equals (Object object)
+      public boolean equals (Object object)
         {
           if (!(object instanceof Entry))
             return false;
@@ -314,11 +678,20 @@ public class ObjectToIntMap extends ToIntMap
           return Misc.equals(key,entry.key) && value == entry.value;
         }
 
-      public final int hashCode ()
+      public int hashCode ()
         {
           return Misc.hashCode(key) ^ value;
         }
 
+      /**
+       * Returns the hash code of this entry with its key hashed by the
+       * specified strategy.
+       */
+      final int hashCode (HashStrategy strategy)
+        {
+          return strategy.hashCode(key) ^ value;
+        }
+
       public final String toString ()
         {
           return key + "=" + value;
@@ -0,0 +1,900 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 10:03:17 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * This is a class of hash tables mapping objects to ints that uses open
+ * addressing rather than chains of entries. It offers the same API as
+ * <a href="ObjectToIntMap.html"><tt>ObjectToIntMap</tt></a>, but keeps
+ * its mappings in three parallel arrays whose length is a power of two:
+ * the keys, their hash codes, and their values. Collisions are resolved
+ * by linear probing.
+ * <p>
+ * The hash code of a key is computed (with <tt>hashCode()</tt>, mixed by
+ * the hash strategy of the map) only once, when the key is first put into the map; it is cached thereafter,
+ * so that rehashing never calls <tt>hashCode()</tt> again, and probing
+ * calls <tt>equals</tt> only on keys whose cached hash code matches. No
+ * object is allocated by lookups or by puts of existing keys.
+ * <p>
+ * A <tt>null</tt> slot is free; a mapping for the <tt>null</tt> key is
+ * therefore kept apart in two dedicated fields, so that <tt>null</tt>
+ * keys work as they do for <tt>ObjectToIntMap</tt>.
+ * <p>
+ * As an <tt>ObjectToIntMap</tt>, a map may be created in <i>identity</i>
+ * mode, where keys are compared with <tt>==</tt> only and hashed with
+ * <tt>System.identityHashCode</tt>, or more generally with a <a
+ * href="HashStrategy.html"><tt>HashStrategy</tt></a> hashing and comparing
+ * its non-<tt>null</tt> keys.
+ */
+
+public class ObjectToIntOpenMap extends ToIntMap
+{
+  /**
+   * The keys of this map; a <tt>null</tt> slot is free.
+   */
+  private Object[] _keys;
+
+  /**
+   * The mixed hash codes of the keys of this map.
+   */
+  private int[] _hashes;
+
+  /**
+   * The values of this map; <tt>_values[i]</tt> is the value of <tt>_keys[i]</tt>.
+   */
+  private int[] _values;
+
+  /**
+   * The mask used to bring a hash code within the table's bounds.
+   */
+  private int _mask;
+
+  /**
+   * Whether this map contains an entry for the <tt>null</tt> key.
+   */
+  private boolean _hasNullKey;
+
+  /**
+   * The value associated with the <tt>null</tt> key, if any.
+   */
+  private int _nullValue;
+
+  /**
+   * The strategy hashing and comparing the keys of this map.
+   */
+  private final HashStrategy _strategy;
+
+  /**
+   * Constructs a new empty map with a default capacity of <tt>16</tt>.
+   */
+  public ObjectToIntOpenMap ()
+    {
+      this(16);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity
+   * and a default load factor equal to <tt>0.75</tt>.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public ObjectToIntOpenMap (int initialCapacity)
+    {
+      this(initialCapacity,0.75f);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor. The capacity is rounded up to a power of two. If the
+   * load factor is greater than <tt>1</tt>, it is reset to 1; however,
+   * at least one slot is always kept free.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @throws   IllegalArgumentException if either argument is negative.
+   */
+  public ObjectToIntOpenMap (int initialCapacity, float loadFactor)
+    {
+      this(initialCapacity,loadFactor,false);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * a default load factor equal to <tt>0.75</tt>, which compares its keys
+   * by identity iff <tt>identity</tt> is <tt>true</tt>.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @param   identity          whether keys are compared with <tt>==</tt>
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public ObjectToIntOpenMap (int initialCapacity, boolean identity)
+    {
+      this(initialCapacity,0.75f,identity);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor, which compares its keys by identity iff <tt>identity</tt>
+   * is <tt>true</tt>.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @param    identity          whether keys are compared with <tt>==</tt>
+   * @throws   IllegalArgumentException if either number is negative.
+   */
+  public ObjectToIntOpenMap (int initialCapacity, float loadFactor, boolean identity)
+    {
+      this(initialCapacity,loadFactor,identity ? HashStrategy.IDENTITY : HashStrategy.MURMUR);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * a default load factor equal to <tt>0.75</tt>, which hashes and compares
+   * its non-<tt>null</tt> keys with the specified strategy.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @param   strategy          the hash strategy of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public ObjectToIntOpenMap (int initialCapacity, HashStrategy strategy)
+    {
+      this(initialCapacity,0.75f,strategy);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor, which hashes and compares its non-<tt>null</tt> keys with
+   * the specified strategy.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @param    strategy          the hash strategy of the map
+   * @throws   IllegalArgumentException if either number is negative.
+   */
+  public ObjectToIntOpenMap (int initialCapacity, float loadFactor, HashStrategy strategy)
+    {
+      _strategy = strategy;
+      _allocate(_powerOfTwo(_setThreshold(initialCapacity,loadFactor)));
+    }
+
+  /**
+   * Constructs a new map with the same entries as the given map, with
+   * a capacity large enough to hold them without rehashing and a default
+   * load factor, which is <tt>0.75</tt>. It has the same hash strategy
+   * as the given map.
+   *
+   * @param map the <tt>ObjectToIntOpenMap</tt> whose entries are to be placed in this map.
+   */
+  public ObjectToIntOpenMap (ObjectToIntOpenMap map)
+    {
+      this(Math.max(2*map.size(),16),map.hashStrategy());
+      include(map);
+    }
+
+  /**
+   * Constructs a new map with the same entries as the given chained map,
+   * with a capacity large enough to hold them without rehashing and a
+   * default load factor, which is <tt>0.75</tt>. It has the same hash
+   * strategy as the given map.
+   *
+   * @param map the <tt>ObjectToIntMap</tt> whose entries are to be placed in this map.
+   */
+  public ObjectToIntOpenMap (ObjectToIntMap map)
+    {
+      this(Math.max(2*map.size(),16),map.hashStrategy());
+      include(map);
+    }
+
+  /**
+   * Allocates new arrays of the specified power-of-two capacity.
+   */
+  private final void _allocate (int capacity)
+    {
+      _keys = new Object[capacity];
+      _hashes = new int[capacity];
+      _values = new int[capacity];
+      _mask = capacity-1;
+      _openThreshold(capacity);
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map compares its keys by identity.
+   */
+  public final boolean isIdentity ()
+    {
+      return _strategy == HashStrategy.IDENTITY;
+    }
+
+  /**
+   * Returns the hash strategy of this map.
+   */
+  public final HashStrategy hashStrategy ()
+    {
+      return _strategy;
+    }
+
+  /**
+   * Returns the hash code of the specified entry of this map, following
+   * its strategy.
+   */
+  protected final int _entryHashCode (ToIntMap.Entry entry)
+    {
+      return ((ObjectToIntMap.Entry)entry).hashCode(_strategy);
+    }
+
+  /**
+   * Returns the mixed hash code of the specified non-<tt>null</tt> key.
+   */
+  private final int _hash (Object key)
+    {
+      return _strategy.hash(key);
+    }
+
+  /**
+   * Returns the slot holding the specified non-<tt>null</tt> key, whose
+   * mixed hash code is given, or <tt>-1</tt> if there is none.
+   */
+  private final int _find (Object key, int hash)
+    {
+      for (int i = hash & _mask;; i = (i+1) & _mask)
+        {
+          Object k = _keys[i];
+
+          if (k == null)
+            return -1;
+
+          if (k == key || _hashes[i] == hash && _strategy != HashStrategy.IDENTITY && _strategy.equals(k,key))
+            return i;
+        }
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (Object key)
+    {
+      if (key == null)
+        return _hasNullKey;
+
+      return _find(key,_hash(key)) >= 0;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry with the specified key
+   * and value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (Object key, int value)
+    {
+      if (key == null)
+        return _hasNullKey && _nullValue == value;
+
+      int i = _find(key,_hash(key));
+      return i >= 0 && _values[i] == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be an <tt>ObjectToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      ObjectToIntMap.Entry mapping = (ObjectToIntMap.Entry)candidate;
+      return containsEntry(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this
+   * key. As for <tt>ObjectToIntMap</tt>, <tt>containsKey</tt> may be
+   * used to tell a missing key from one explicitly mapped to
+   * <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (Object key)
+    {
+      if (key == null)
+        return _hasNullKey ? _nullValue : NOT_FOUND_VALUE;
+
+      int i = _find(key,_hash(key));
+      return i < 0 ? NOT_FOUND_VALUE : _values[i];
+    }
+
+  /**
+   * Associates the current size of the map to the given object, and returns this value.
+   */
+  public final int add (Object object)
+    {
+      put(object,_size);
+      return _size-1;
+    }
+
+  /**
+   * Associates the specified value with the specified key in this map.
+   * If the map previously contained an entry for this key, the old
+   * value is replaced and returned; otherwise the new value is returned.
+   * The map is automatically enlarged if its size exceeds its threshold.
+   *
+   * @param key key with which the specified value is to be associated.
+   * @param value value to be associated with the specified key.
+   */
+  public final int put (Object key, int value)
+    {
+      if (key == null)
+        {
+          if (_hasNullKey)
+            {
+              int old = _nullValue;
+              _nullValue = value;
+              return old;
+            }
+
+          _hasNullKey = true;
+          _nullValue = value;
+          _size++;
+          return value;
+        }
+
+      int hash = _hash(key);
+      int i = hash & _mask;
+
+      for (Object k; (k = _keys[i]) != null; i = (i+1) & _mask)
+        if (k == key || _hashes[i] == hash && _strategy != HashStrategy.IDENTITY && _strategy.equals(k,key))
+          {
+            int old = _values[i];
+            _values[i] = value;
+            return old;
+          }
+
+      _checkCapacity(_keys.length);
+
+      _keys[i] = key;
+      _hashes[i] = hash;
+      _values[i] = value;
+
+      if (++_size > _threshold)
+        _resize(2*_keys.length);
+
+      return value;
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or the
+   * specified default value if the map contains no entry for this key.
+   * Unlike <tt>get</tt>, this tells a missing key from a key mapped to
+   * <tt>NOT_FOUND_VALUE</tt> with a single lookup.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @param defaultValue the value to return if there is no entry for the key.
+   */
+  public final int getOrDefault (Object key, int defaultValue)
+    {
+      if (key == null)
+        return _hasNullKey ? _nullValue : defaultValue;
+
+      int i = _find(key,_hash(key));
+      return i < 0 ? defaultValue : _values[i];
+    }
+
+  /**
+   * Adds the specified delta to the value of the specified key, which is
+   * taken to be <tt>0</tt> if the map contains no entry for the key, and
+   * returns the new value. This looks up the key only once, and is meant
+   * for maps used as counters.
+   *
+   * @param key the key whose value is to be incremented.
+   * @param delta the amount to add to its value.
+   */
+  public final int addTo (Object key, int delta)
+    {
+      if (key == null)
+        {
+          if (!_hasNullKey)
+            {
+              _hasNullKey = true;
+              _nullValue = 0;
+              _size++;
+            }
+
+          return _nullValue += delta;
+        }
+
+      int hash = _hash(key);
+      int i = hash & _mask;
+
+      for (Object k; (k = _keys[i]) != null; i = (i+1) & _mask)
+        if (k == key || _hashes[i] == hash && _strategy != HashStrategy.IDENTITY && _strategy.equals(k,key))
+          return _values[i] += delta;
+
+      _checkCapacity(_keys.length);
+
+      _keys[i] = key;
+      _hashes[i] = hash;
+      _values[i] = delta;
+
+      if (++_size > _threshold)
+        _resize(2*_keys.length);
+
+      return delta;
+    }
+
+  /**
+   * Adds <tt>1</tt> to the value of the specified key, which is taken to be
+   * <tt>0</tt> if the map contains no entry for the key, and returns the
+   * new value.
+   *
+   * @param key the key whose value is to be incremented.
+   */
+  public final int increment (Object key)
+    {
+      return addTo(key,1);
+    }
+
+  /**
+   * Returns (at most) the specified number of keys of this map with the
+   * greatest values, by decreasing value; keys with equal values come in
+   * no particular order. This keeps a heap of <tt>n</tt> keys through one
+   * pass over the map, and so takes <tt>O(size log n)</tt> time without
+   * sorting the whole map.
+   *
+   * @param     n the number of keys to return.
+   * @exception IllegalArgumentException if <tt>n</tt> is negative.
+   */
+  public final Object[] topK (int n)
+    {
+      TopK top = new TopK(Math.min(n,_size),true);
+      forEachEntry(top::offer);
+      return top.objects();
+    }
+
+  /**
+   * Removes the entry for the given key from this map if present.
+   * Returns the previous value associated with the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if there was no entry for the key.  A
+   * returned <tt>NOT_FOUND_VALUE</tt> may also indicate that the map
+   * previously associated <tt>NOT_FOUND_VALUE</tt> with the specified key.
+   *
+   * @param key key whose entry is to be removed from the map.
+   */
+  public final int remove (Object key)
+    {
+      if (key == null)
+        {
+          if (!_hasNullKey)
+            return NOT_FOUND_VALUE;
+
+          _hasNullKey = false;
+          _size--;
+          return _nullValue;
+        }
+
+      int i = _find(key,_hash(key));
+
+      if (i < 0)
+        return NOT_FOUND_VALUE;
+
+      int old = _values[i];
+      _shiftBack(i);
+      _size--;
+
+      return old;
+    }
+
+  /**
+   * Frees the specified slot and moves back into it, and so on along the
+   * probe sequence, any entry that could no longer be reached otherwise.
+   */
+  private final void _shiftBack (int free)
+    {
+      for (int i = (free+1) & _mask;; i = (i+1) & _mask)
+        {
+          Object k = _keys[i];
+
+          if (k == null)
+            break;
+
+          int home = _hashes[i] & _mask;
+
+          // the entry at i may move to free iff its home slot is not
+          // cyclically within (free,i]
+          if (free <= i ? (home <= free || home > i) : (home <= free && home > i))
+            {
+              _keys[free] = k;
+              _hashes[free] = _hashes[i];
+              _values[free] = _values[i];
+              free = i;
+            }
+        }
+
+      _keys[free] = null;
+    }
+
+  /**
+   * Rehashes the contents of this map into new arrays of the specified
+   * power-of-two capacity, using the cached hash codes.
+   */
+  private final void _resize (int capacity)
+    {
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      Object[] oldKeys = _keys;
+      int[] oldHashes = _hashes;
+      int[] oldValues = _values;
+
+      _allocate(capacity);
+
+      for (int j=0; j<oldKeys.length; j++)
+        {
+          if (oldKeys[j] == null)
+            continue;
+
+          int hash = oldHashes[j];
+          int i = hash & _mask;
+          while (_keys[i] != null) i = (i+1) & _mask;
+
+          _keys[i] = oldKeys[j];
+          _hashes[i] = hash;
+          _values[i] = oldValues[j];
+        }
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Puts the mapping defined by the specified entry, which must be an
+   * <tt>ObjectToIntMap.Entry</tt>, into this map. Returns the old value
+   * if one was there, or the new value.
+   *
+   * @param entry the entry whose mapping is to be put into this map.
+   */
+  public final int put (ToIntMap.Entry entry)
+    {
+      ObjectToIntMap.Entry mapping = (ObjectToIntMap.Entry)entry;
+      return put(mapping.key,mapping.value);
+    }
+
+  /**
+   * Removes all entries from this map.
+   */
+  public final void clear ()
+    {
+      for (int i=0; i<_keys.length; i++)
+        _keys[i] = null;
+      _hasNullKey = false;
+      _size = 0;
+    }
+
+
+  /**
+   * Returns a snapshot of the occupancy of this map (see
+   * <tt>ToIntMap.stats()</tt>). The number of probes of a key is its
+   * distance from its home slot plus one; the <tt>null</tt> key, which is kept
+   * apart from the slots, counts as one probe.
+   */
+  public final ContainerStats stats ()
+    {
+      int[] probes = new int[8];
+      int empty = 0;
+
+      if (_hasNullKey)
+        probes = ContainerStats.count(probes,1);
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != null)
+          probes = ContainerStats.count(probes,((i - _hashes[i]) & _mask) + 1);
+        else
+          empty++;
+
+      return new ContainerStats(_size,_keys.length,empty,_counter,probes);
+    }
+
+  /**
+   * Returns an iterator through the entries of this map. The object returned
+   * by its <tt>next()</tt> method is a new <tt>ObjectToIntMap.Entry</tt>.
+   */
+  public final Iterator iterator ()
+    {
+      return new EntryIterator();
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is an Object.
+   */
+  public final Iterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Returns an iterator through the values of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator values ()
+    {
+      return new ValueIterator();
+    }
+
+  /**
+   * Memory-maps the image of a map saved by <tt>save(Path)</tt> into the
+   * specified file, and returns it as a read-only map.
+   *
+   * @param    path   the path of an image file
+   * @throws   IOException if the file cannot be mapped or is not a valid image.
+   */
+  public final static MappedObjectToIntMap load (Path path) throws IOException
+    {
+      return MappedObjectToIntMap.load(path);
+    }
+
+  /**
+   * Returns an immutable copy of this map indexed by a minimal perfect
+   * hash function, which answers lookups with a single probe and needs
+   * no free slots. This is meant for maps that are no longer modified
+   * once built, but are queried a lot.
+   */
+  public final FrozenObjectToIntMap freeze ()
+    {
+      return new FrozenObjectToIntMap(this);
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in no
+   * particular order. Unlike going through <tt>iterator()</tt>, this
+   * allocates no iterator and no entry.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (ObjectIntConsumer action)
+    {
+      forEachEntryWhile((key,value) -> { action.accept(key,value); return true; });
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the entries were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (ObjectIntPredicate action)
+    {
+      if (_hasNullKey && !action.test(null,_nullValue))
+        return false;
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != null && !action.test(_keys[i],_values[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in no
+   * particular order. Unlike going through <tt>keys()</tt>, this
+   * allocates no iterator.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (Consumer action)
+    {
+      forEachKeyWhile(key -> { action.accept(key); return true; });
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (Predicate action)
+    {
+      if (_hasNullKey && !action.test(null))
+        return false;
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != null && !action.test(_keys[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Applies the specified test to the values of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the values were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each value.
+   */
+  public final boolean forEachValueWhile (IntPredicate action)
+    {
+      if (_hasNullKey && !action.test(_nullValue))
+        return false;
+
+      for (int i=0; i<_keys.length; i++)
+        if (_keys[i] != null && !action.test(_values[i]))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Includes all of the entries from the specified map to this one.
+   * These entries replace any entries that this map had for any of the
+   * keys currently in the specified map. When the specified map is a map
+   * of objects, its entries are traversed without allocating any entry.
+   *
+   * @param map map whose entries will be stored in this map.
+   */
+  public final void include (ToIntMap map)
+    {
+      if (map == this)
+        return;
+
+      if (map instanceof ObjectToIntMap)
+        ((ObjectToIntMap)map).forEachEntry(this::put);
+      else if (map instanceof ObjectToIntOpenMap)
+        ((ObjectToIntOpenMap)map).forEachEntry(this::put);
+      else
+        super.include(map);
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of objects, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof ObjectToIntMap)
+        return forEachEntryWhile(((ObjectToIntMap)map)::containsEntry);
+
+      if (map instanceof ObjectToIntOpenMap)
+        return forEachEntryWhile(((ObjectToIntOpenMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also an <tt>ObjectToIntOpenMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof ObjectToIntOpenMap))
+        return false;
+
+      return isEqualTo((ObjectToIntOpenMap)object);
+    }
+
+  /**
+   * The class defining a cursor through the occupied slots of this map. The
+   * entry for the <tt>null</tt> key, if any, comes first and is denoted by
+   * the index <tt>-1</tt>.
+   */
+  private class Cursor
+    {
+      int _next = _advance(_hasNullKey ? -2 : -1);
+
+      final int _advance (int index)
+        {
+          if (index == -2)
+            return -1;
+
+          for (index++; index<_keys.length; index++)
+            if (_keys[index] != null)
+              return index;
+
+          return _keys.length;
+        }
+
+      public final boolean hasNext ()
+        {
+          return _next < _keys.length;
+        }
+
+      final int _step ()
+        {
+          if (_next >= _keys.length)
+            throw new NoSuchElementException();
+
+          int index = _next;
+          _next = _advance(index);
+          return index;
+        }
+
+      final Object _key (int index)
+        {
+          return index < 0 ? null : _keys[index];
+        }
+
+      final int _value (int index)
+        {
+          return index < 0 ? _nullValue : _values[index];
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's entries.
+   */
+  private class EntryIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          int i = _step();
+          return new ObjectToIntMap.Entry(_key(i),_value(i));
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          return _key(_step());
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's values.
+   */
+  private class ValueIterator extends Cursor implements IntIterator
+    {
+      public final int next ()
+        {
+          return _value(_step());
+        }
+    }
+}
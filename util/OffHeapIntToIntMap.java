@@ -0,0 +1,589 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 12:37:20 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
+
+/**
+ * This is a class of hash tables mapping ints to ints whose contents live
+ * outside of the Java heap. It offers the same API as <a
+ * href="IntToIntMap.html"><tt>IntToIntMap</tt></a> (<tt>get</tt>,
+ * <tt>put</tt>, <tt>remove</tt>, <tt>containsKey</tt>, <tt>keys</tt>,
+ * <tt>values</tt>, ...), with the same <tt>NOT_FOUND_VALUE</tt>
+ * convention, but it is meant for maps of hundreds of millions of entries:
+ * such a map costs the garbage collector nothing, since it holds no
+ * object per entry and its table is not scanned or copied by the
+ * collector.
+ * <p>
+ * The table is an open-addressing table with linear probing, whose slots
+ * each pack a key and its value into a <tt>long</tt>. It is split into
+ * pages of <tt>2^20</tt> slots (8 MB), each of which is a direct
+ * <tt>ByteBuffer</tt>, so that a table may hold up to <tt>2^30</tt> slots.
+ * The key <tt>0</tt> marks free slots, so that its mapping is kept apart
+ * in two fields.
+ * <p>
+ * The memory of a map must be released explicitly by calling
+ * <tt>close()</tt>, after which the map may no longer be used. Where the
+ * platform allows it, this frees the pages at once; otherwise, they are
+ * freed when the collector reclaims their (small) buffer objects. Note
+ * that direct memory is bounded by the JVM option
+ * <tt>-XX:MaxDirectMemorySize</tt>, which defaults to the maximum heap
+ * size.
+ */
+
+public class OffHeapIntToIntMap implements AutoCloseable
+{
+  /**
+   * The value returned when a key has no mapping.
+   */
+  public final static int NOT_FOUND_VALUE = ToIntMap.NOT_FOUND_VALUE;
+
+  /**
+   * The base-2 logarithm of the number of slots per page.
+   */
+  private final static int PAGE_SHIFT = 20;
+
+  /**
+   * The mask giving a slot's index within its page.
+   */
+  private final static int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+  /**
+   * The largest number of slots of the table.
+   */
+  private final static int MAX_CAPACITY = 1 << 30;
+
+  /**
+   * The pages of the table.
+   */
+  private ByteBuffer[] _pages;
+
+  /**
+   * The number of slots of the table; this is a power of two.
+   */
+  private int _capacity;
+
+  /**
+   * The mask used to bring a hash code within the table's bounds.
+   */
+  private int _mask;
+
+  /**
+   * The number of entries in this map.
+   */
+  private int _size;
+
+  /**
+   * The load factor of this map.
+   */
+  private float _loadFactor;
+
+  /**
+   * The number of entries beyond which the table is enlarged.
+   */
+  private int _threshold;
+
+  /**
+   * Whether this map contains an entry for the key <tt>0</tt>.
+   */
+  private boolean _hasZeroKey;
+
+  /**
+   * The value associated with the key <tt>0</tt>, if any.
+   */
+  private int _zeroValue;
+
+  /**
+   * Constructs a new empty map with a default capacity of <tt>2^20</tt>
+   * slots.
+   */
+  public OffHeapIntToIntMap ()
+    {
+      this(1 << PAGE_SHIFT);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity
+   * and a default load factor equal to <tt>0.75</tt>.
+   *
+   * @param   initialCapacity   the initial capacity of the map
+   * @throws  IllegalArgumentException if the initial capacity is negative.
+   */
+  public OffHeapIntToIntMap (int initialCapacity)
+    {
+      this(initialCapacity,0.75f);
+    }
+
+  /**
+   * Constructs a new empty map with the specified initial capacity and
+   * load factor. The capacity is rounded up to a power of two. If the
+   * load factor is greater than <tt>1</tt>, it is reset to 1; however,
+   * at least one slot is always kept free.
+   *
+   * @param    initialCapacity   the initial capacity of the map
+   * @param    loadFactor        the load factor of the map
+   * @throws   IllegalArgumentException if either argument is negative.
+   */
+  public OffHeapIntToIntMap (int initialCapacity, float loadFactor)
+    {
+      if (initialCapacity < 0)
+        throw new IllegalArgumentException("illegal initial capacity: "+
+                                           initialCapacity);
+
+      if (loadFactor <= 0 || Float.isNaN(loadFactor))
+        throw new IllegalArgumentException("illegal load factor: "+
+                                           loadFactor);
+
+      _loadFactor = Math.min(1,loadFactor);
+      _allocate(ToIntMap._powerOfTwo(Math.max(1,initialCapacity)));
+    }
+
+  /**
+   * Allocates new zeroed pages for a table of the specified power-of-two
+   * capacity.
+   */
+  private final void _allocate (int capacity)
+    {
+      int pageSlots = Math.min(capacity,1 << PAGE_SHIFT);
+      _pages = new ByteBuffer[capacity / pageSlots];
+
+      for (int i=0; i<_pages.length; i++)
+        _pages[i] = ByteBuffer.allocateDirect(pageSlots << 3).order(ByteOrder.nativeOrder());
+
+      _capacity = capacity;
+      _mask = capacity-1;
+      _threshold = Math.min(capacity-1,(int)(capacity * _loadFactor));
+    }
+
+  /**
+   * Returns the content of the specified slot.
+   */
+  private final long _slot (int i)
+    {
+      return _pages[i >>> PAGE_SHIFT].getLong((i & PAGE_MASK) << 3);
+    }
+
+  /**
+   * Sets the content of the specified slot.
+   */
+  private final void _setSlot (int i, long slot)
+    {
+      _pages[i >>> PAGE_SHIFT].putLong((i & PAGE_MASK) << 3,slot);
+    }
+
+  /**
+   * Packs the specified key and value into a slot's content.
+   */
+  private final static long _pack (int key, int value)
+    {
+      return ((long)key << 32) | (value & 0xFFFFFFFFL);
+    }
+
+  /**
+   * Returns the key part of the specified slot's content.
+   */
+  private final static int _key (long slot)
+    {
+      return (int)(slot >>> 32);
+    }
+
+  /**
+   * Returns the slot where the search for the specified key starts.
+   */
+  private final int _home (int key)
+    {
+      return ToIntMap._mix(key) & _mask;
+    }
+
+  /**
+   * Returns the slot holding the specified non-zero key, or <tt>-1</tt>
+   * if there is none.
+   */
+  private final int _find (int key)
+    {
+      _checkOpen();
+
+      for (int i = _home(key);; i = (i+1) & _mask)
+        {
+          long slot = _slot(i);
+
+          if (slot == 0)
+            return -1;
+
+          if (_key(slot) == key)
+            return i;
+        }
+    }
+
+  /**
+   * Throws an <tt>IllegalStateException</tt> if this map has been closed.
+   */
+  private final void _checkOpen ()
+    {
+      if (_pages == null)
+        throw new IllegalStateException("this map has been closed");
+    }
+
+  /**
+   * Returns the number of key-value entries in this map.
+   */
+  public final int size ()
+    {
+      return _size;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this map is empty.
+   */
+  public final boolean isEmpty ()
+    {
+      return _size == 0;
+    }
+
+  /**
+   * Returns the number of bytes of native memory used by this map.
+   */
+  public final long memorySize ()
+    {
+      return _pages == null ? 0 : (long)_capacity << 3;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (int key)
+    {
+      if (key == 0)
+        return _hasZeroKey;
+
+      return _find(key) >= 0;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map maps one or more keys to the
+   * specified value.
+   *
+   * @param value the value whose presence in this map is to be tested.
+   */
+  public final boolean containsValue (int value)
+    {
+      for (IntIterator i=values(); i.hasNext();)
+        if (i.next() == value)
+          return true;
+
+      return false;
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this key.
+   * As for <tt>IntToIntMap</tt>, <tt>containsKey</tt> may be used to tell
+   * a missing key from one explicitly mapped to <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (int key)
+    {
+      if (key == 0)
+        return _hasZeroKey ? _zeroValue : NOT_FOUND_VALUE;
+
+      int i = _find(key);
+      return i < 0 ? NOT_FOUND_VALUE : (int)_slot(i);
+    }
+
+  /**
+   * Associates the current size of the map to the given int, and returns this value.
+   */
+  public final int add (int n)
+    {
+      put(n,_size);
+      return _size-1;
+    }
+
+  /**
+   * Associates the specified value with the specified key in this map.
+   * If the map previously contained an entry for this key, the old
+   * value is replaced and returned; otherwise the new value is returned.
+   * The map is automatically enlarged if its size exceeds its threshold.
+   *
+   * @param key key with which the specified value is to be associated.
+   * @param value value to be associated with the specified key.
+   */
+  public final int put (int key, int value)
+    {
+      _checkOpen();
+
+      if (key == 0)
+        {
+          int old = _hasZeroKey ? _zeroValue : value;
+          if (!_hasZeroKey) _size++;
+          _hasZeroKey = true;
+          _zeroValue = value;
+          return old;
+        }
+
+      int i = _home(key);
+
+      for (long slot; (slot = _slot(i)) != 0; i = (i+1) & _mask)
+        if (_key(slot) == key)
+          {
+            _setSlot(i,_pack(key,value));
+            return (int)slot;
+          }
+
+      if (_size >= _threshold && _capacity == MAX_CAPACITY)
+        throw new IllegalStateException("map is full: "+_size+" entries in "+_capacity+" slots");
+
+      _setSlot(i,_pack(key,value));
+
+      if (++_size > _threshold)
+        _resize(2*_capacity);
+
+      return value;
+    }
+
+  /**
+   * Removes the entry for the given key from this map if present.
+   * Returns the previous value associated with the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if there was no entry for the key.
+   *
+   * @param key key whose entry is to be removed from the map.
+   */
+  public final int remove (int key)
+    {
+      if (key == 0)
+        {
+          if (!_hasZeroKey)
+            return NOT_FOUND_VALUE;
+
+          _hasZeroKey = false;
+          _size--;
+          return _zeroValue;
+        }
+
+      int free = _find(key);
+
+      if (free < 0)
+        return NOT_FOUND_VALUE;
+
+      int old = (int)_slot(free);
+
+      // shift back the entries of the probe sequence that would no longer
+      // be reachable: the one at i may move to free iff its home slot is
+      // not cyclically within (free,i]
+      for (int i = (free+1) & _mask;; i = (i+1) & _mask)
+        {
+          long slot = _slot(i);
+
+          if (slot == 0)
+            break;
+
+          int home = _home(_key(slot));
+
+          if (free <= i ? (home <= free || home > i) : (home <= free && home > i))
+            {
+              _setSlot(free,slot);
+              free = i;
+            }
+        }
+
+      _setSlot(free,0);
+      _size--;
+
+      return old;
+    }
+
+  /**
+   * Rehashes the contents of this map into new pages of the specified
+   * power-of-two capacity, and releases the old ones.
+   */
+  private final void _resize (int capacity)
+    {
+      ByteBuffer[] oldPages = _pages;
+      int oldCapacity = _capacity;
+
+      _allocate(ToIntMap._powerOfTwo(capacity));
+
+      for (int j=0; j<oldCapacity; j++)
+        {
+          long slot = oldPages[j >>> PAGE_SHIFT].getLong((j & PAGE_MASK) << 3);
+
+          if (slot == 0)
+            continue;
+
+          int i = _home(_key(slot));
+          while (_slot(i) != 0) i = (i+1) & _mask;
+          _setSlot(i,slot);
+        }
+
+      _free(oldPages);
+    }
+
+  /**
+   * Removes all entries from this map, keeping its current capacity.
+   */
+  public final void clear ()
+    {
+      _checkOpen();
+
+      for (int i=0; i<_pages.length; i++)
+        for (int j=_pages[i].capacity(); (j -= 8) >= 0;)
+          _pages[i].putLong(j,0);
+
+      _hasZeroKey = false;
+      _size = 0;
+    }
+
+  /**
+   * Releases the native memory of this map. The map may no longer be used
+   * after this, except for calling <tt>close()</tt> again, which has no effect.
+   */
+  public final void close ()
+    {
+      if (_pages == null)
+        return;
+
+      _free(_pages);
+      _pages = null;
+      _size = 0;
+      _hasZeroKey = false;
+    }
+
+  /**
+   * Returns an iterator through the keys of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator keys ()
+    {
+      return new IntValueIterator(true);
+    }
+
+  /**
+   * Returns an iterator through the values of this map. The value returned
+   * by its <tt>next()</tt> method is an int.
+   */
+  public final IntIterator values ()
+    {
+      return new IntValueIterator(false);
+    }
+
+  /**
+   * Returns a string form for this map.
+   */
+  public final String toString ()
+    {
+      StringBuilder buf = new StringBuilder("{");
+
+      for (IntIterator i=keys(); i.hasNext();)
+        {
+          int key = i.next();
+          buf.append(key+"="+get(key)+(i.hasNext() ? ", " : ""));
+        }
+
+      return buf.append("}").toString();
+    }
+
+  /**
+   * The <tt>invokeCleaner(ByteBuffer)</tt> method of
+   * <tt>sun.misc.Unsafe</tt> and the instance it applies to, if the
+   * platform provides them; otherwise, both are <tt>null</tt>.
+   */
+  private static Method _invokeCleaner;
+  private static Object _unsafe;
+
+  static
+    {
+      try
+        {
+          Class unsafeClass = Class.forName("sun.misc.Unsafe");
+          Field field = unsafeClass.getDeclaredField("theUnsafe");
+          field.setAccessible(true);
+          _invokeCleaner = unsafeClass.getMethod("invokeCleaner",ByteBuffer.class);
+          _unsafe = field.get(null);
+        }
+      catch (Exception e)
+        {
+          _invokeCleaner = null;
+          _unsafe = null;
+        }
+    }
+
+  /**
+   * Frees the native memory of the specified pages at once if possible.
+   */
+  private final static void _free (ByteBuffer[] pages)
+    {
+      if (_invokeCleaner == null)
+        return;
+
+      try
+        {
+          for (int i=0; i<pages.length; i++)
+            _invokeCleaner.invoke(_unsafe,pages[i]);
+        }
+      catch (Exception e)
+        {
+          // leave it to the collector
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys or values. The
+   * mapping for the key <tt>0</tt>, if any, comes first.
+   */
+  private class IntValueIterator implements IntIterator
+    {
+      private boolean _isKeyIterator;
+      private boolean _atZero = _hasZeroKey;
+      private int _next = -1;
+
+      IntValueIterator (boolean isKeyIterator)
+        {
+          _isKeyIterator = isKeyIterator;
+          _advance();
+        }
+
+      private final void _advance ()
+        {
+          _checkOpen();
+          while (++_next < _capacity && _slot(_next) == 0);
+        }
+
+      public final boolean hasNext ()
+        {
+          return _atZero || _next < _capacity;
+        }
+
+      public final int next ()
+        {
+          _checkOpen();
+
+          if (_atZero)
+            {
+              _atZero = false;
+              return _isKeyIterator ? 0 : _zeroValue;
+            }
+
+          if (_next >= _capacity)
+            throw new NoSuchElementException();
+
+          long slot = _slot(_next);
+          _advance();
+          return _isKeyIterator ? _key(slot) : (int)slot;
+        }
+    }
+}
@@ -0,0 +1,787 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 19:06:14 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * This is a class of immutable maps from ints to ints, which are updated
+ * by creating new maps that share most of their structure with the old
+ * one: <tt>with(key,value)</tt> and <tt>without(key)</tt> leave this map
+ * unchanged and return a new map in <tt>O(log n)</tt> time and space.
+ * Such a map is therefore safe to read from any number of threads with
+ * no locking. It offers the read API of <tt>IntToIntMap</tt>, and is what
+ * <tt>VersionedIntToIntMap.snapshot()</tt> returns.
+ * <p>
+ * It is a hash array mapped trie (HAMT) in the compact layout known as
+ * CHAMP. Each node covers 5 bits of the (mixed) hash code of its keys,
+ * and has two 32-bit bitmaps telling which of its 32 branches hold an
+ * entry and which hold a sub-node. The entries of a node are kept in two
+ * parallel <tt>int</tt> arrays of keys and values, in branch order, and
+ * its sub-nodes in an array of nodes, so that a branch is found by
+ * counting the bits set below it. A lookup visits at most 7 nodes. Since
+ * the mixing function (<tt>ToIntMap._mix</tt>) is a bijection on ints,
+ * two distinct keys never have the same hash code, and there are no
+ * collision nodes. Removals keep the trie in canonical form: a sub-node
+ * left with a single entry is replaced by that entry in its parent.
+ */
+
+public class PersistentIntToIntMap extends ToIntMap
+{
+  /**
+   * The empty map.
+   */
+  public final static PersistentIntToIntMap EMPTY = new PersistentIntToIntMap(Node.EMPTY,0);
+
+  /**
+   * The root of the trie of this map.
+   */
+  final Node _root;
+
+  /**
+   * Constructs a map with the specified root and size.
+   */
+  PersistentIntToIntMap (Node root, int size)
+    {
+      _root = root;
+      _size = size;
+    }
+
+  /**
+   * Returns a map with the same entries as the given map of ints.
+   *
+   * @param map the map whose entries are to be placed in the new map.
+   */
+  public final static PersistentIntToIntMap of (ToIntMap map)
+    {
+      VersionedIntToIntMap versioned = new VersionedIntToIntMap();
+      versioned.include(map);
+      return versioned.snapshot();
+    }
+
+  /**
+   * The class of the nodes of a trie, which are never modified once they
+   * are reachable from a map.
+   */
+  final static class Node
+    {
+      final static Node EMPTY = new Node(0,0,new int[0],new int[0],new Node[0]);
+
+      /**
+       * The branches holding an entry.
+       */
+      final int dataMap;
+
+      /**
+       * The branches holding a sub-node.
+       */
+      final int nodeMap;
+
+      /**
+       * The keys of the entries, in branch order.
+       */
+      final int[] keys;
+
+      /**
+       * The values of the entries, parallel to <tt>keys</tt>.
+       */
+      final int[] values;
+
+      /**
+       * The sub-nodes, in branch order.
+       */
+      final Node[] nodes;
+
+      Node (int dataMap, int nodeMap, int[] keys, int[] values, Node[] nodes)
+        {
+          this.dataMap = dataMap;
+          this.nodeMap = nodeMap;
+          this.keys = keys;
+          this.values = values;
+          this.nodes = nodes;
+        }
+    }
+
+  /**
+   * The class of the records of the effect of an update, which is only
+   * used by the thread performing the update.
+   */
+  final static class Change
+    {
+      /**
+       * Whether the update added or removed an entry.
+       */
+      boolean resized;
+
+      /**
+       * The value the key had before the update, if it had one.
+       */
+      int old;
+    }
+
+  /**
+   * Returns the mixed hash code of the specified key.
+   */
+  final static int _hash (int key)
+    {
+      return _mix(key);
+    }
+
+  /**
+   * Returns the branch of the specified hash code at the specified shift.
+   */
+  private final static int _bit (int hash, int shift)
+    {
+      return 1 << ((hash >>> shift) & 31);
+    }
+
+  /**
+   * Returns the index of the specified branch among the branches of the
+   * specified bitmap.
+   */
+  private final static int _index (int map, int bit)
+    {
+      return Integer.bitCount(map & (bit-1));
+    }
+
+  /**
+   * Returns the value of the specified key in the trie of the specified
+   * root, or the specified default value if it is not there.
+   */
+  final static int _get (Node node, int key, int defaultValue)
+    {
+      int hash = _hash(key);
+
+      for (int shift = 0;; shift += 5)
+        {
+          int bit = _bit(hash,shift);
+
+          if ((node.dataMap & bit) != 0)
+            {
+              int i = _index(node.dataMap,bit);
+              return node.keys[i] == key ? node.values[i] : defaultValue;
+            }
+
+          if ((node.nodeMap & bit) == 0)
+            return defaultValue;
+
+          node = node.nodes[_index(node.nodeMap,bit)];
+        }
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified key is in the trie of the
+   * specified root.
+   */
+  final static boolean _contains (Node node, int key)
+    {
+      int hash = _hash(key);
+
+      for (int shift = 0;; shift += 5)
+        {
+          int bit = _bit(hash,shift);
+
+          if ((node.dataMap & bit) != 0)
+            return node.keys[_index(node.dataMap,bit)] == key;
+
+          if ((node.nodeMap & bit) == 0)
+            return false;
+
+          node = node.nodes[_index(node.nodeMap,bit)];
+        }
+    }
+
+  /**
+   * Returns the node obtained by putting the specified entry into the
+   * specified node at the specified shift, which is the same node if the
+   * key already has this value, and records the change.
+   */
+  final static Node _put (Node node, int key, int hash, int shift, int value, Change change)
+    {
+      int bit = _bit(hash,shift);
+
+      if ((node.dataMap & bit) != 0)
+        {
+          int i = _index(node.dataMap,bit);
+          int k = node.keys[i];
+
+          if (k == key)
+            {
+              change.old = node.values[i];
+
+              if (change.old == value)
+                return node;
+
+              int[] values = node.values.clone();
+              values[i] = value;
+              return new Node(node.dataMap,node.nodeMap,node.keys,values,node.nodes);
+            }
+
+          change.resized = true;
+          Node sub = _pair(k,node.values[i],_hash(k),key,value,hash,shift+5);
+          return _dataToNode(node,bit,i,sub);
+        }
+
+      if ((node.nodeMap & bit) != 0)
+        {
+          int j = _index(node.nodeMap,bit);
+          Node sub = node.nodes[j];
+          Node newSub = _put(sub,key,hash,shift+5,value,change);
+
+          if (newSub == sub)
+            return node;
+
+          Node[] nodes = node.nodes.clone();
+          nodes[j] = newSub;
+          return new Node(node.dataMap,node.nodeMap,node.keys,node.values,nodes);
+        }
+
+      change.resized = true;
+
+      int i = _index(node.dataMap,bit);
+      int n = node.keys.length;
+      int[] keys = new int[n+1];
+      int[] values = new int[n+1];
+
+      System.arraycopy(node.keys,0,keys,0,i);
+      System.arraycopy(node.values,0,values,0,i);
+      keys[i] = key;
+      values[i] = value;
+      System.arraycopy(node.keys,i,keys,i+1,n-i);
+      System.arraycopy(node.values,i,values,i+1,n-i);
+
+      return new Node(node.dataMap|bit,node.nodeMap,keys,values,node.nodes);
+    }
+
+  /**
+   * Returns a node holding the two specified entries, whose keys are
+   * distinct and whose hash codes agree below the specified shift.
+   */
+  private final static Node _pair (int key1, int value1, int hash1,
+                                   int key2, int value2, int hash2, int shift)
+    {
+      int bit1 = _bit(hash1,shift);
+      int bit2 = _bit(hash2,shift);
+
+      if (bit1 == bit2)
+        return new Node(0,bit1,Node.EMPTY.keys,Node.EMPTY.values,
+                        new Node[] { _pair(key1,value1,hash1,key2,value2,hash2,shift+5) });
+
+      return Integer.compareUnsigned(bit1,bit2) < 0 ? new Node(bit1|bit2,0,new int[] { key1, key2 },new int[] { value1, value2 },Node.EMPTY.nodes)
+                                                    : new Node(bit1|bit2,0,new int[] { key2, key1 },new int[] { value2, value1 },Node.EMPTY.nodes);
+    }
+
+  /**
+   * Returns a copy of the specified node where the entry at the specified
+   * branch and index is replaced by the specified sub-node.
+   */
+  private final static Node _dataToNode (Node node, int bit, int i, Node sub)
+    {
+      int n = node.keys.length;
+      int[] keys = new int[n-1];
+      int[] values = new int[n-1];
+
+      System.arraycopy(node.keys,0,keys,0,i);
+      System.arraycopy(node.values,0,values,0,i);
+      System.arraycopy(node.keys,i+1,keys,i,n-1-i);
+      System.arraycopy(node.values,i+1,values,i,n-1-i);
+
+      int j = _index(node.nodeMap,bit);
+      int m = node.nodes.length;
+      Node[] nodes = new Node[m+1];
+
+      System.arraycopy(node.nodes,0,nodes,0,j);
+      nodes[j] = sub;
+      System.arraycopy(node.nodes,j,nodes,j+1,m-j);
+
+      return new Node(node.dataMap^bit,node.nodeMap|bit,keys,values,nodes);
+    }
+
+  /**
+   * Returns a copy of the specified node where the sub-node at the
+   * specified branch and index is replaced by its single entry.
+   */
+  private final static Node _nodeToData (Node node, int bit, int j, Node sub)
+    {
+      int m = node.nodes.length;
+      Node[] nodes = new Node[m-1];
+
+      System.arraycopy(node.nodes,0,nodes,0,j);
+      System.arraycopy(node.nodes,j+1,nodes,j,m-1-j);
+
+      int i = _index(node.dataMap,bit);
+      int n = node.keys.length;
+      int[] keys = new int[n+1];
+      int[] values = new int[n+1];
+
+      System.arraycopy(node.keys,0,keys,0,i);
+      System.arraycopy(node.values,0,values,0,i);
+      keys[i] = sub.keys[0];
+      values[i] = sub.values[0];
+      System.arraycopy(node.keys,i,keys,i+1,n-i);
+      System.arraycopy(node.values,i,values,i+1,n-i);
+
+      return new Node(node.dataMap|bit,node.nodeMap^bit,keys,values,nodes);
+    }
+
+  /**
+   * Returns the node obtained by removing the specified key from the
+   * specified node at the specified shift, which is the same node if the
+   * key is not there, and records the change.
+   */
+  final static Node _remove (Node node, int key, int hash, int shift, Change change)
+    {
+      int bit = _bit(hash,shift);
+
+      if ((node.dataMap & bit) != 0)
+        {
+          int i = _index(node.dataMap,bit);
+
+          if (node.keys[i] != key)
+            return node;
+
+          change.resized = true;
+          change.old = node.values[i];
+
+          int n = node.keys.length;
+          int[] keys = new int[n-1];
+          int[] values = new int[n-1];
+
+          System.arraycopy(node.keys,0,keys,0,i);
+          System.arraycopy(node.values,0,values,0,i);
+          System.arraycopy(node.keys,i+1,keys,i,n-1-i);
+          System.arraycopy(node.values,i+1,values,i,n-1-i);
+
+          return new Node(node.dataMap^bit,node.nodeMap,keys,values,node.nodes);
+        }
+
+      if ((node.nodeMap & bit) != 0)
+        {
+          int j = _index(node.nodeMap,bit);
+          Node sub = node.nodes[j];
+          Node newSub = _remove(sub,key,hash,shift+5,change);
+
+          if (newSub == sub)
+            return node;
+
+          if (newSub.nodeMap == 0 && newSub.keys.length == 1)
+            return _nodeToData(node,bit,j,newSub);
+
+          Node[] nodes = node.nodes.clone();
+          nodes[j] = newSub;
+          return new Node(node.dataMap,node.nodeMap,node.keys,node.values,nodes);
+        }
+
+      return node;
+    }
+
+  /**
+   * Applies the specified test to the entries of the trie of the specified
+   * root until it returns <tt>false</tt>, and returns <tt>true</tt> iff
+   * all of them passed.
+   */
+  final static boolean _forEachWhile (Node node, IntIntPredicate action)
+    {
+      for (int i=0; i<node.keys.length; i++)
+        if (!action.test(node.keys[i],node.values[i]))
+          return false;
+
+      for (int j=0; j<node.nodes.length; j++)
+        if (!_forEachWhile(node.nodes[j],action))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Returns a map with the same entries as this one, except that the
+   * specified key has the specified value. This map is not modified.
+   *
+   * @param key the key of the new entry.
+   * @param value the value of the new entry.
+   */
+  public final PersistentIntToIntMap with (int key, int value)
+    {
+      Change change = new Change();
+      Node root = _put(_root,key,_hash(key),0,value,change);
+      return root == _root ? this : new PersistentIntToIntMap(root,_size+(change.resized ? 1 : 0));
+    }
+
+  /**
+   * Returns a map with the same entries as this one, except for the
+   * specified key. This map is not modified.
+   *
+   * @param key the key to be left out.
+   */
+  public final PersistentIntToIntMap without (int key)
+    {
+      Change change = new Change();
+      Node root = _remove(_root,key,_hash(key),0,change);
+      return root == _root ? this : new PersistentIntToIntMap(root,_size-1);
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (int key)
+    {
+      return _contains(_root,key);
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry with the specified key and value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (int key, int value)
+    {
+      return _contains(_root,key) && _get(_root,key,0) == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be an <tt>IntToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      IntToIntMap.Entry mapping = (IntToIntMap.Entry)candidate;
+      return containsEntry(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this
+   * key. As for <tt>IntToIntMap</tt>, <tt>containsKey</tt> may be used
+   * to tell a missing key from one mapped to <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (int key)
+    {
+      return _get(_root,key,NOT_FOUND_VALUE);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or the
+   * specified default value if the map contains no entry for this key.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @param defaultValue the value to return if there is no entry for the key.
+   */
+  public final int getOrDefault (int key, int defaultValue)
+    {
+      return _get(_root,key,defaultValue);
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt>, since a persistent
+   * map may not be modified; use <tt>with</tt> instead.
+   */
+  public final int put (ToIntMap.Entry entry)
+    {
+      throw new UnsupportedOperationException("persistent map");
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt>, since a persistent
+   * map may not be modified; use <tt>EMPTY</tt> instead.
+   */
+  public final void clear ()
+    {
+      throw new UnsupportedOperationException("persistent map");
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in no
+   * particular order.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (IntIntConsumer action)
+    {
+      _forEachWhile(_root,(key,value) -> { action.accept(key,value); return true; });
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in no
+   * particular order, until it returns <tt>false</tt>. Returns
+   * <tt>true</tt> iff all the entries were tested and passed, which is
+   * the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (IntIntPredicate action)
+    {
+      return _forEachWhile(_root,action);
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in no particular order.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (IntConsumer action)
+    {
+      _forEachWhile(_root,(key,value) -> { action.accept(key); return true; });
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (IntPredicate action)
+    {
+      return _forEachWhile(_root,(key,value) -> action.test(key));
+    }
+
+  /**
+   * Applies the specified test to the values of this map, in no
+   * particular order, until it returns <tt>false</tt>. Returns
+   * <tt>true</tt> iff all the values were tested and passed, which is the
+   * case of an empty map.
+   *
+   * @param action the test to apply to each value.
+   */
+  public final boolean forEachValueWhile (IntPredicate action)
+    {
+      return _forEachWhile(_root,(key,value) -> action.test(value));
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of ints, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof IntToIntMap)
+        return forEachEntryWhile(((IntToIntMap)map)::containsEntry);
+
+      if (map instanceof IntToIntOpenMap)
+        return forEachEntryWhile(((IntToIntOpenMap)map)::containsEntry);
+
+      if (map instanceof PersistentIntToIntMap)
+        return forEachEntryWhile(((PersistentIntToIntMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also a <tt>PersistentIntToIntMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof PersistentIntToIntMap))
+        return false;
+
+      return isEqualTo((PersistentIntToIntMap)object);
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this map (see
+   * <tt>ToIntMap.stats()</tt>): a trie has no unused slot, and the number
+   * of probes of a key is the number of nodes visited to find it.
+   */
+  public final ContainerStats stats ()
+    {
+      int[][] probes = { new int[8] };
+      _depths(_root,1,probes);
+      return new ContainerStats(_size,_size,0,null,probes[0]);
+    }
+
+  /**
+   * Counts the keys of the specified node, which is at the specified depth.
+   */
+  private final static void _depths (Node node, int depth, int[][] probes)
+    {
+      for (int i=0; i<node.keys.length; i++)
+        probes[0] = ContainerStats.count(probes[0],depth);
+
+      for (int j=0; j<node.nodes.length; j++)
+        _depths(node.nodes[j],depth+1,probes);
+    }
+
+  /**
+   * Returns an iterator through the entries of this map. The object returned
+   * by its <tt>next()</tt> method is a new <tt>IntToIntMap.Entry</tt>.
+   */
+  public final Iterator iterator ()
+    {
+      return new EntryIterator();
+    }
+
+  /**
+   * Returns an iterator through the keys of this map.
+   */
+  public final IntIterator keys ()
+    {
+      return new IntValueIterator(true);
+    }
+
+  /**
+   * Returns an iterator through the values of this map.
+   */
+  public final IntIterator values ()
+    {
+      return new IntValueIterator(false);
+    }
+
+  /**
+   * The class defining a cursor through the entries of this map, in
+   * depth-first order.
+   */
+  private class Cursor
+    {
+      /**
+       * The nodes on the path to the current node, and the index of the
+       * next sub-node to visit in each of them.
+       */
+      private final Node[] _stack = new Node[8];
+      private final int[] _next = new int[8];
+      private int _depth;
+
+      /**
+       * The current node and the index of its next entry, or <tt>null</tt>
+       * when all the entries were visited.
+       */
+      Node _node;
+      int _index;
+
+      Cursor ()
+        {
+          _push(_root);
+          _settle();
+        }
+
+      private final void _push (Node node)
+        {
+          _stack[_depth] = node;
+          _next[_depth++] = 0;
+          _node = node;
+          _index = 0;
+        }
+
+      /**
+       * Moves to the next node with entries left, if the current one has none.
+       */
+      private final void _settle ()
+        {
+          while (_node != null && _index == _node.keys.length)
+            {
+              _node = null;
+
+              while (_depth > 0)
+                {
+                  Node top = _stack[_depth-1];
+
+                  if (_next[_depth-1] < top.nodes.length)
+                    {
+                      _push(top.nodes[_next[_depth-1]++]);
+                      break;
+                    }
+
+                  _stack[--_depth] = null;
+                }
+            }
+        }
+
+      public final boolean hasNext ()
+        {
+          return _node != null;
+        }
+
+      /**
+       * Returns the index of the next entry in <tt>_node</tt>, which must
+       * be read before the next step.
+       */
+      final int _step ()
+        {
+          if (_node == null)
+            throw new NoSuchElementException();
+
+          return _index++;
+        }
+
+      /**
+       * Moves past the entry returned by the last step.
+       */
+      final void _done ()
+        {
+          _settle();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's entries.
+   */
+  private class EntryIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          int i = _step();
+          Object entry = new IntToIntMap.Entry(_node.keys[i],_node.values[i]);
+          _done();
+          return entry;
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys or values.
+   */
+  private class IntValueIterator extends Cursor implements IntIterator
+    {
+      private boolean _isKeyIterator;
+
+      IntValueIterator (boolean isKeyIterator)
+        {
+          _isKeyIterator = isKeyIterator;
+        }
+
+      public final int next ()
+        {
+          int i = _step();
+          int next = _isKeyIterator ? _node.keys[i] : _node.values[i];
+          _done();
+          return next;
+        }
+    }
+}
@@ -0,0 +1,915 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 20:12:53 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * This is a class of immutable maps from objects to ints, which are
+ * updated by creating new maps that share most of their structure with
+ * the old one: <tt>with(key,value)</tt> and <tt>without(key)</tt> leave
+ * this map unchanged and return a new map in <tt>O(log n)</tt> time and
+ * space. Such a map is therefore safe to read from any number of threads
+ * with no locking. It offers the read API of <tt>ObjectToIntMap</tt>, and
+ * is what <tt>VersionedObjectToIntMap.snapshot()</tt> returns.
+ * <p>
+ * It is a hash array mapped trie laid out as a
+ * <a href="PersistentIntToIntMap.html"><tt>PersistentIntToIntMap</tt></a>,
+ * except that its keys are hashed and compared by its
+ * <a href="HashStrategy.html"><tt>HashStrategy</tt></a>. Since distinct
+ * keys may then have the same hash code, the keys whose 32 hash bits all
+ * agree are kept in a collision node below the 7 levels of the trie, which
+ * has no bitmaps, and is searched linearly. A <tt>null</tt> key is allowed.
+ */
+
+public class PersistentObjectToIntMap extends ToIntMap
+{
+  /**
+   * The empty map with the default hash strategy.
+   */
+  public final static PersistentObjectToIntMap EMPTY = new PersistentObjectToIntMap(Node.EMPTY,0,HashStrategy.DEFAULT);
+
+  /**
+   * The root of the trie of this map.
+   */
+  final Node _root;
+
+  /**
+   * The hash strategy of this map.
+   */
+  final HashStrategy _strategy;
+
+  /**
+   * Constructs a map with the specified root, size, and hash strategy.
+   */
+  PersistentObjectToIntMap (Node root, int size, HashStrategy strategy)
+    {
+      _root = root;
+      _size = size;
+      _strategy = strategy;
+    }
+
+  /**
+   * Returns the empty map with the specified hash strategy.
+   *
+   * @param strategy the hash strategy of the map.
+   */
+  public final static PersistentObjectToIntMap empty (HashStrategy strategy)
+    {
+      return strategy == HashStrategy.DEFAULT ? EMPTY : new PersistentObjectToIntMap(Node.EMPTY,0,strategy);
+    }
+
+  /**
+   * Returns a map with the same entries as the given map of objects, and
+   * its hash strategy if it has one.
+   *
+   * @param map the map whose entries are to be placed in the new map.
+   */
+  public final static PersistentObjectToIntMap of (ToIntMap map)
+    {
+      VersionedObjectToIntMap versioned = new VersionedObjectToIntMap(map);
+      return versioned.snapshot();
+    }
+
+  /**
+   * Returns the hash strategy of this map.
+   */
+  public final HashStrategy hashStrategy ()
+    {
+      return _strategy;
+    }
+
+  /**
+   * Returns the hash code of the specified entry of this map, following
+   * its strategy.
+   */
+  protected final int _entryHashCode (ToIntMap.Entry entry)
+    {
+      return ((ObjectToIntMap.Entry)entry).hashCode(_strategy);
+    }
+
+  /**
+   * The class of the nodes of a trie, which are never modified once they
+   * are reachable from a map. A collision node has empty bitmaps.
+   */
+  final static class Node
+    {
+      final static Node EMPTY = new Node(0,0,new Object[0],new int[0],new Node[0]);
+
+      /**
+       * The branches holding an entry.
+       */
+      final int dataMap;
+
+      /**
+       * The branches holding a sub-node.
+       */
+      final int nodeMap;
+
+      /**
+       * The keys of the entries, in branch order.
+       */
+      final Object[] keys;
+
+      /**
+       * The values of the entries, parallel to <tt>keys</tt>.
+       */
+      final int[] values;
+
+      /**
+       * The sub-nodes, in branch order.
+       */
+      final Node[] nodes;
+
+      Node (int dataMap, int nodeMap, Object[] keys, int[] values, Node[] nodes)
+        {
+          this.dataMap = dataMap;
+          this.nodeMap = nodeMap;
+          this.keys = keys;
+          this.values = values;
+          this.nodes = nodes;
+        }
+    }
+
+  /**
+   * The class of the records of the effect of an update, which is only
+   * used by the thread performing the update.
+   */
+  final static class Change
+    {
+      /**
+       * Whether the update added or removed an entry.
+       */
+      boolean resized;
+
+      /**
+       * The value the key had before the update, if it had one.
+       */
+      int old;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified keys are the same for the
+   * specified strategy.
+   */
+  private final static boolean _same (Object k, Object key, HashStrategy strategy)
+    {
+      return k == key || strategy != HashStrategy.IDENTITY && strategy.equals(k,key);
+    }
+
+  /**
+   * Returns the branch of the specified hash code at the specified shift.
+   */
+  private final static int _bit (int hash, int shift)
+    {
+      return 1 << ((hash >>> shift) & 31);
+    }
+
+  /**
+   * Returns the index of the specified branch among the branches of the
+   * specified bitmap.
+   */
+  private final static int _index (int map, int bit)
+    {
+      return Integer.bitCount(map & (bit-1));
+    }
+
+  /**
+   * Returns the index of the specified key in the specified collision
+   * node, or <tt>-1</tt> if it is not there.
+   */
+  private final static int _collision (Node node, Object key, HashStrategy strategy)
+    {
+      for (int i=0; i<node.keys.length; i++)
+        if (_same(node.keys[i],key,strategy))
+          return i;
+
+      return -1;
+    }
+
+  /**
+   * Returns the index of the entry of the specified key in the leaf of
+   * the trie of the specified root where it belongs, which is left in
+   * <tt>found[0]</tt>, or <tt>-1</tt> if the key is not there.
+   */
+  final static int _find (Node node, Object key, HashStrategy strategy, Node[] found)
+    {
+      int hash = strategy.hash(key);
+
+      for (int shift = 0; shift < 32; shift += 5)
+        {
+          int bit = _bit(hash,shift);
+
+          if ((node.dataMap & bit) != 0)
+            {
+              int i = _index(node.dataMap,bit);
+              found[0] = node;
+              return _same(node.keys[i],key,strategy) ? i : -1;
+            }
+
+          if ((node.nodeMap & bit) == 0)
+            return -1;
+
+          node = node.nodes[_index(node.nodeMap,bit)];
+        }
+
+      found[0] = node;
+      return _collision(node,key,strategy);
+    }
+
+  /**
+   * Returns the value of the specified key in the trie of the specified
+   * root, or the specified default value if it is not there.
+   */
+  final static int _get (Node node, Object key, HashStrategy strategy, int defaultValue)
+    {
+      int hash = strategy.hash(key);
+
+      for (int shift = 0; shift < 32; shift += 5)
+        {
+          int bit = _bit(hash,shift);
+
+          if ((node.dataMap & bit) != 0)
+            {
+              int i = _index(node.dataMap,bit);
+              return _same(node.keys[i],key,strategy) ? node.values[i] : defaultValue;
+            }
+
+          if ((node.nodeMap & bit) == 0)
+            return defaultValue;
+
+          node = node.nodes[_index(node.nodeMap,bit)];
+        }
+
+      int i = _collision(node,key,strategy);
+      return i < 0 ? defaultValue : node.values[i];
+    }
+
+  /**
+   * Returns <tt>true</tt> iff the specified key is in the trie of the
+   * specified root.
+   */
+  final static boolean _contains (Node node, Object key, HashStrategy strategy)
+    {
+      return _find(node,key,strategy,new Node[1]) >= 0;
+    }
+
+  /**
+   * Returns the node obtained by putting the specified entry into the
+   * specified node at the specified shift, which is the same node if the
+   * key already has this value, and records the change.
+   */
+  final static Node _put (Node node, Object key, int hash, int shift, int value,
+                          HashStrategy strategy, Change change)
+    {
+      if (shift >= 32)
+        {
+          int i = _collision(node,key,strategy);
+
+          if (i >= 0)
+            return _replace(node,i,value,change);
+
+          change.resized = true;
+          return new Node(0,0,_insert(node.keys,node.keys.length,key),
+                          _insert(node.values,node.values.length,value),node.nodes);
+        }
+
+      int bit = _bit(hash,shift);
+
+      if ((node.dataMap & bit) != 0)
+        {
+          int i = _index(node.dataMap,bit);
+          Object k = node.keys[i];
+
+          if (_same(k,key,strategy))
+            return _replace(node,i,value,change);
+
+          change.resized = true;
+          Node sub = _pair(k,node.values[i],strategy.hash(k),key,value,hash,shift+5);
+          return _dataToNode(node,bit,i,sub);
+        }
+
+      if ((node.nodeMap & bit) != 0)
+        {
+          int j = _index(node.nodeMap,bit);
+          Node sub = node.nodes[j];
+          Node newSub = _put(sub,key,hash,shift+5,value,strategy,change);
+
+          if (newSub == sub)
+            return node;
+
+          Node[] nodes = node.nodes.clone();
+          nodes[j] = newSub;
+          return new Node(node.dataMap,node.nodeMap,node.keys,node.values,nodes);
+        }
+
+      change.resized = true;
+
+      int i = _index(node.dataMap,bit);
+      return new Node(node.dataMap|bit,node.nodeMap,_insert(node.keys,i,key),
+                      _insert(node.values,i,value),node.nodes);
+    }
+
+  /**
+   * Returns a copy of the specified node where the entry at the specified
+   * index has the specified value, or the same node if it already has it,
+   * and records the change.
+   */
+  private final static Node _replace (Node node, int i, int value, Change change)
+    {
+      change.old = node.values[i];
+
+      if (change.old == value)
+        return node;
+
+      int[] values = node.values.clone();
+      values[i] = value;
+      return new Node(node.dataMap,node.nodeMap,node.keys,values,node.nodes);
+    }
+
+  /**
+   * Returns a copy of the specified array with the specified element
+   * inserted at the specified index.
+   */
+  private final static Object[] _insert (Object[] array, int i, Object element)
+    {
+      Object[] copy = new Object[array.length+1];
+      System.arraycopy(array,0,copy,0,i);
+      copy[i] = element;
+      System.arraycopy(array,i,copy,i+1,array.length-i);
+      return copy;
+    }
+
+  /**
+   * Returns a copy of the specified array with the specified element
+   * inserted at the specified index.
+   */
+  private final static int[] _insert (int[] array, int i, int element)
+    {
+      int[] copy = new int[array.length+1];
+      System.arraycopy(array,0,copy,0,i);
+      copy[i] = element;
+      System.arraycopy(array,i,copy,i+1,array.length-i);
+      return copy;
+    }
+
+  /**
+   * Returns a copy of the specified array without the element at the
+   * specified index.
+   */
+  private final static Object[] _delete (Object[] array, int i)
+    {
+      Object[] copy = new Object[array.length-1];
+      System.arraycopy(array,0,copy,0,i);
+      System.arraycopy(array,i+1,copy,i,array.length-1-i);
+      return copy;
+    }
+
+  /**
+   * Returns a copy of the specified array without the element at the
+   * specified index.
+   */
+  private final static int[] _delete (int[] array, int i)
+    {
+      int[] copy = new int[array.length-1];
+      System.arraycopy(array,0,copy,0,i);
+      System.arraycopy(array,i+1,copy,i,array.length-1-i);
+      return copy;
+    }
+
+  /**
+   * Returns a node holding the two specified entries, whose keys are
+   * distinct and whose hash codes agree below the specified shift.
+   */
+  private final static Node _pair (Object key1, int value1, int hash1,
+                                   Object key2, int value2, int hash2, int shift)
+    {
+      if (shift >= 32)
+        return new Node(0,0,new Object[] { key1, key2 },new int[] { value1, value2 },Node.EMPTY.nodes);
+
+      int bit1 = _bit(hash1,shift);
+      int bit2 = _bit(hash2,shift);
+
+      if (bit1 == bit2)
+        return new Node(0,bit1,Node.EMPTY.keys,Node.EMPTY.values,
+                        new Node[] { _pair(key1,value1,hash1,key2,value2,hash2,shift+5) });
+
+      return Integer.compareUnsigned(bit1,bit2) < 0 ? new Node(bit1|bit2,0,new Object[] { key1, key2 },new int[] { value1, value2 },Node.EMPTY.nodes)
+                                                    : new Node(bit1|bit2,0,new Object[] { key2, key1 },new int[] { value2, value1 },Node.EMPTY.nodes);
+    }
+
+  /**
+   * Returns a copy of the specified node where the entry at the specified
+   * branch and index is replaced by the specified sub-node.
+   */
+  private final static Node _dataToNode (Node node, int bit, int i, Node sub)
+    {
+      int j = _index(node.nodeMap,bit);
+      int m = node.nodes.length;
+      Node[] nodes = new Node[m+1];
+
+      System.arraycopy(node.nodes,0,nodes,0,j);
+      nodes[j] = sub;
+      System.arraycopy(node.nodes,j,nodes,j+1,m-j);
+
+      return new Node(node.dataMap^bit,node.nodeMap|bit,_delete(node.keys,i),_delete(node.values,i),nodes);
+    }
+
+  /**
+   * Returns a copy of the specified node where the sub-node at the
+   * specified branch and index is replaced by its single entry.
+   */
+  private final static Node _nodeToData (Node node, int bit, int j, Node sub)
+    {
+      int m = node.nodes.length;
+      Node[] nodes = new Node[m-1];
+
+      System.arraycopy(node.nodes,0,nodes,0,j);
+      System.arraycopy(node.nodes,j+1,nodes,j,m-1-j);
+
+      int i = _index(node.dataMap,bit);
+      return new Node(node.dataMap|bit,node.nodeMap^bit,_insert(node.keys,i,sub.keys[0]),
+                      _insert(node.values,i,sub.values[0]),nodes);
+    }
+
+  /**
+   * Returns the node obtained by removing the specified key from the
+   * specified node at the specified shift, which is the same node if the
+   * key is not there, and records the change.
+   */
+  final static Node _remove (Node node, Object key, int hash, int shift,
+                             HashStrategy strategy, Change change)
+    {
+      if (shift >= 32)
+        {
+          int i = _collision(node,key,strategy);
+
+          if (i < 0)
+            return node;
+
+          change.resized = true;
+          change.old = node.values[i];
+          return new Node(0,0,_delete(node.keys,i),_delete(node.values,i),node.nodes);
+        }
+
+      int bit = _bit(hash,shift);
+
+      if ((node.dataMap & bit) != 0)
+        {
+          int i = _index(node.dataMap,bit);
+
+          if (!_same(node.keys[i],key,strategy))
+            return node;
+
+          change.resized = true;
+          change.old = node.values[i];
+          return new Node(node.dataMap^bit,node.nodeMap,_delete(node.keys,i),_delete(node.values,i),node.nodes);
+        }
+
+      if ((node.nodeMap & bit) != 0)
+        {
+          int j = _index(node.nodeMap,bit);
+          Node sub = node.nodes[j];
+          Node newSub = _remove(sub,key,hash,shift+5,strategy,change);
+
+          if (newSub == sub)
+            return node;
+
+          if (newSub.nodeMap == 0 && newSub.keys.length == 1)
+            return _nodeToData(node,bit,j,newSub);
+
+          Node[] nodes = node.nodes.clone();
+          nodes[j] = newSub;
+          return new Node(node.dataMap,node.nodeMap,node.keys,node.values,nodes);
+        }
+
+      return node;
+    }
+
+  /**
+   * Applies the specified test to the entries of the trie of the specified
+   * root until it returns <tt>false</tt>, and returns <tt>true</tt> iff
+   * all of them passed.
+   */
+  final static boolean _forEachWhile (Node node, ObjectIntPredicate action)
+    {
+      for (int i=0; i<node.keys.length; i++)
+        if (!action.test(node.keys[i],node.values[i]))
+          return false;
+
+      for (int j=0; j<node.nodes.length; j++)
+        if (!_forEachWhile(node.nodes[j],action))
+          return false;
+
+      return true;
+    }
+
+  /**
+   * Returns a map with the same entries as this one, except that the
+   * specified key has the specified value. This map is not modified.
+   *
+   * @param key the key of the new entry.
+   * @param value the value of the new entry.
+   */
+  public final PersistentObjectToIntMap with (Object key, int value)
+    {
+      Change change = new Change();
+      Node root = _put(_root,key,_strategy.hash(key),0,value,_strategy,change);
+      return root == _root ? this
+                           : new PersistentObjectToIntMap(root,_size+(change.resized ? 1 : 0),_strategy);
+    }
+
+  /**
+   * Returns a map with the same entries as this one, except for the
+   * specified key. This map is not modified.
+   *
+   * @param key the key to be left out.
+   */
+  public final PersistentObjectToIntMap without (Object key)
+    {
+      Change change = new Change();
+      Node root = _remove(_root,key,_strategy.hash(key),0,_strategy,change);
+      return root == _root ? this : new PersistentObjectToIntMap(root,_size-1,_strategy);
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (Object key)
+    {
+      return _contains(_root,key,_strategy);
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry with the specified key
+   * and value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (Object key, int value)
+    {
+      Node[] found = new Node[1];
+      int i = _find(_root,key,_strategy,found);
+      return i >= 0 && found[0].values[i] == value;
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be an <tt>ObjectToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      ObjectToIntMap.Entry mapping = (ObjectToIntMap.Entry)candidate;
+      return containsEntry(mapping.key,mapping.value);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this
+   * key. As for <tt>ObjectToIntMap</tt>, <tt>containsKey</tt> may be used
+   * to tell a missing key from one mapped to <tt>NOT_FOUND_VALUE</tt>.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (Object key)
+    {
+      return _get(_root,key,_strategy,NOT_FOUND_VALUE);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or the
+   * specified default value if the map contains no entry for this key.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @param defaultValue the value to return if there is no entry for the key.
+   */
+  public final int getOrDefault (Object key, int defaultValue)
+    {
+      return _get(_root,key,_strategy,defaultValue);
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt>, since a persistent
+   * map may not be modified; use <tt>with</tt> instead.
+   */
+  public final int put (ToIntMap.Entry entry)
+    {
+      throw new UnsupportedOperationException("persistent map");
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt>, since a persistent
+   * map may not be modified; use <tt>empty</tt> instead.
+   */
+  public final void clear ()
+    {
+      throw new UnsupportedOperationException("persistent map");
+    }
+
+  /**
+   * Applies the specified action to each entry of this map, in no
+   * particular order.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (ObjectIntConsumer action)
+    {
+      _forEachWhile(_root,(key,value) -> { action.accept(key,value); return true; });
+    }
+
+  /**
+   * Applies the specified test to the entries of this map, in no
+   * particular order, until it returns <tt>false</tt>. Returns
+   * <tt>true</tt> iff all the entries were tested and passed, which is
+   * the case of an empty map.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (ObjectIntPredicate action)
+    {
+      return _forEachWhile(_root,action);
+    }
+
+  /**
+   * Applies the specified action to each key of this map, in no particular order.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (Consumer action)
+    {
+      _forEachWhile(_root,(key,value) -> { action.accept(key); return true; });
+    }
+
+  /**
+   * Applies the specified test to the keys of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the keys were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (Predicate action)
+    {
+      return _forEachWhile(_root,(key,value) -> action.test(key));
+    }
+
+  /**
+   * Applies the specified test to the values of this map, in no
+   * particular order, until it returns <tt>false</tt>. Returns
+   * <tt>true</tt> iff all the values were tested and passed, which is the
+   * case of an empty map.
+   *
+   * @param action the test to apply to each value.
+   */
+  public final boolean forEachValueWhile (IntPredicate action)
+    {
+      return _forEachWhile(_root,(key,value) -> action.test(value));
+    }
+
+  /**
+   * Compares the specified map object with this map for equality. When
+   * the specified map is a map of objects, the entries of this map are
+   * looked up in it without allocating any entry.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      if (map == this)
+        return true;
+
+      if (map.size() != _size)
+        return false;
+
+      if (map instanceof ObjectToIntMap)
+        return forEachEntryWhile(((ObjectToIntMap)map)::containsEntry);
+
+      if (map instanceof ObjectToIntOpenMap)
+        return forEachEntryWhile(((ObjectToIntOpenMap)map)::containsEntry);
+
+      if (map instanceof PersistentObjectToIntMap)
+        return forEachEntryWhile(((PersistentObjectToIntMap)map)::containsEntry);
+
+      return super.isEqualTo(map);
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also a <tt>PersistentObjectToIntMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof PersistentObjectToIntMap))
+        return false;
+
+      return isEqualTo((PersistentObjectToIntMap)object);
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this map (see
+   * <tt>ToIntMap.stats()</tt>): a trie has no unused slot, and the number
+   * of probes of a key is the number of nodes visited to find it.
+   */
+  public final ContainerStats stats ()
+    {
+      int[][] probes = { new int[9] };
+      _depths(_root,1,probes);
+      return new ContainerStats(_size,_size,0,null,probes[0]);
+    }
+
+  /**
+   * Counts the keys of the specified node, which is at the specified depth.
+   */
+  private final static void _depths (Node node, int depth, int[][] probes)
+    {
+      for (int i=0; i<node.keys.length; i++)
+        probes[0] = ContainerStats.count(probes[0],depth);
+
+      for (int j=0; j<node.nodes.length; j++)
+        _depths(node.nodes[j],depth+1,probes);
+    }
+
+  /**
+   * Returns an iterator through the entries of this map. The object returned
+   * by its <tt>next()</tt> method is a new <tt>ObjectToIntMap.Entry</tt>.
+   */
+  public final Iterator iterator ()
+    {
+      return new EntryIterator();
+    }
+
+  /**
+   * Returns an iterator through the keys of this map.
+   */
+  public final Iterator keys ()
+    {
+      return new KeyIterator();
+    }
+
+  /**
+   * Returns an iterator through the values of this map.
+   */
+  public final IntIterator values ()
+    {
+      return new ValueIterator();
+    }
+
+  /**
+   * The class defining a cursor through the entries of this map, in
+   * depth-first order.
+   */
+  private class Cursor
+    {
+      /**
+       * The nodes on the path to the current node, and the index of the
+       * next sub-node to visit in each of them.
+       */
+      private final Node[] _stack = new Node[8];
+      private final int[] _next = new int[8];
+      private int _depth;
+
+      /**
+       * The current node and the index of its next entry, or <tt>null</tt>
+       * when all the entries were visited.
+       */
+      Node _node;
+      int _index;
+
+      Cursor ()
+        {
+          _push(_root);
+          _settle();
+        }
+
+      private final void _push (Node node)
+        {
+          _stack[_depth] = node;
+          _next[_depth++] = 0;
+          _node = node;
+          _index = 0;
+        }
+
+      /**
+       * Moves to the next node with entries left, if the current one has none.
+       */
+      private final void _settle ()
+        {
+          while (_node != null && _index == _node.keys.length)
+            {
+              _node = null;
+
+              while (_depth > 0)
+                {
+                  Node top = _stack[_depth-1];
+
+                  if (_next[_depth-1] < top.nodes.length)
+                    {
+                      _push(top.nodes[_next[_depth-1]++]);
+                      break;
+                    }
+
+                  _stack[--_depth] = null;
+                }
+            }
+        }
+
+      public final boolean hasNext ()
+        {
+          return _node != null;
+        }
+
+      /**
+       * Returns the index of the next entry in <tt>_node</tt>, which must
+       * be read before the next step.
+       */
+      final int _step ()
+        {
+          if (_node == null)
+            throw new NoSuchElementException();
+
+          return _index++;
+        }
+
+      /**
+       * Moves past the entry returned by the last step.
+       */
+      final void _done ()
+        {
+          _settle();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's entries.
+   */
+  private class EntryIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          int i = _step();
+          Object entry = new ObjectToIntMap.Entry(_node.keys[i],_node.values[i]);
+          _done();
+          return entry;
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's keys.
+   */
+  private class KeyIterator extends Cursor implements Iterator
+    {
+      public final Object next ()
+        {
+          int i = _step();
+          Object key = _node.keys[i];
+          _done();
+          return key;
+        }
+
+      public final void remove ()
+        {
+          throw new UnsupportedOperationException();
+        }
+    }
+
+  /**
+   * The class defining the iterator through the map's values.
+   */
+  private class ValueIterator extends Cursor implements IntIterator
+    {
+      public final int next ()
+        {
+          int i = _step();
+          int value = _node.values[i];
+          _done();
+          return value;
+        }
+    }
+}
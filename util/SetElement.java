@@ -72,6 +72,11 @@ public class SetElement
     return false;
   }
 
+  public int hashCode ()
+  {
+    return index;
+  }
+
   public String toString ()
   {
     return object+"["+index+"]";
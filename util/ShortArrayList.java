@@ -0,0 +1,1419 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * This class implements a vector of primitive <tt>short</tt> elements
+ * to alleviate the need to use an ArrayList of <tt>Short</tt> wrappers.
+ * It implements all public members items of the <tt>java.util.ArrayList</tt>
+ * API that make sense when dealing with primitive <tt>short</tt> elements
+ * rather than <tt>Object</tt>s, with the same API as <tt>IntArrayList</tt>.
+ * <p>
+ * Like <tt>java.util.ArrayList</tt>, its underlying representation can grow
+ * dynamically. As well, it is <i>not</i> synchronized.
+ * <p>
+ * This class is generated from <tt>templates/ArrayList.jt</tt> by
+ * <tt>templates/Specialize.java</tt>, and should be changed there.
+ *
+ * @version     Last modified on Sun Oct 18 08:00:26 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+public class ShortArrayList
+{
+  // FIELDS:
+
+  /**
+   * The array buffer into which the components of the
+   * <tt>ShortArrayList</tt> are stored. The capacity of the
+   * <tt>ShortArrayList</tt> is the length of this array buffer, and is at
+   * least large enough to contain all the <tt>ShortArrayList</tt>'s
+   * elements.
+   */
+  protected short[] elementData;
+
+  /**
+   * The number of valid components in this <tt>ShortArrayList</tt>
+   * object. Components <tt>elementData[0]</tt> through
+   * <tt>elementData[elementCount-1]</tt> are the actual items.
+   */
+  protected int elementCount;
+
+  /**
+   * The amount by which the capacity of the <tt>ShortArrayList</tt> is
+   * automatically incremented when its size becomes greater than its
+   * capacity. If the capacity increment is less than or equal to zero,
+   * the capacity of the <tt>ShortArrayList</tt> is multiplied by
+   * <tt>incrementFactor</tt> each time it needs to grow. The default
+   * value of <tt>incrementFactor</tt> is <tt>2.0</tt> (so growing
+   * doubles the capacity). It may be reset with
+   * <tt>setIncrementFactor(float)</tt> to any decimal value between
+   * <tt>1.1</tt> and <tt>5.0</tt>.
+   */
+  protected int capacityIncrement;
+
+  /**
+   * The counter of the growths of the internal array of this ShortArrayList, or
+   * <tt>null</tt> if its statistics are disabled (the default).
+   */
+  private ContainerStats.Counter _counter;
+
+  /**
+   * Whether this <tt>ShortArrayList</tt> is kept sorted in increasing order (see
+   * <tt>setSorted(boolean)</tt>).
+   */
+  private boolean _sorted;
+
+  // CONSTRUCTORS:
+
+  /**
+   * Constructs an empty <tt>ShortArrayList</tt> with the specified
+   * initial capacity <tt>initialCapacity</tt> and capacity increment
+   * <tt>capacityIncrement</tt>.
+   *
+   * @param     initialCapacity the initial capacity of the ShortArrayList.
+   * @param     capacityIncrement amount by which the capacity is increased on overflow.
+   * @exception NegativeArraySizeException if the specified initial capacity is negative.
+   */
+  public ShortArrayList (int initialCapacity, int capacityIncrement)
+    {
+      this(initialCapacity);
+      this.capacityIncrement = capacityIncrement;
+    }
+
+  /**
+   * Constructs an empty <tt>ShortArrayList</tt> with the specified
+   * initial capacity <tt>initialCapacity</tt> and with its capacity
+   * increment equal to <tt>0</tt>.
+   *
+   * @param     initialCapacity the initial capacity of the ShortArrayList.
+   * @exception NegativeArraySizeException if the specified initial capacity is negative.
+   */
+  public ShortArrayList (int initialCapacity)
+    {
+      elementData = new short[initialCapacity];
+    }
+
+  /**
+   * Constructs an empty <tt>ShortArrayList</tt> so that its internal data
+   * array has size <tt>10</tt> and its standard capacity increment is
+   * <tt>0</tt>.
+   */
+  public ShortArrayList ()
+    {
+      this(10);
+    }
+
+  /**
+   * Constructs an <tt>ShortArrayList</tt> containing the values contained
+   * in the specified array, in the same order.
+   *
+   * @param     a an array of shorts.
+   */
+  public ShortArrayList (short[] a)
+    {
+      elementData = new short[a.length];
+
+      for (int i=0; i<a.length; i++)
+        elementData[elementCount++] = a[i];
+    }
+
+  /**
+   * Constructs a <tt>ShortArrayList</tt> containing the
+   * <tt>shortValue()</tt> values of the <tt>java.lang.Number</tt> objects
+   * in the specified collection, in the order they are returned by the
+   * collection's iterator. If any object in the collection is not an
+   * instance of <tt>java.lang.Number</tt>, a
+   * <tt>ClassCastException</tt> exception is thrown.
+   *
+   * @param     c the collection whose elements are to be placed into this ShortArrayList.
+   * @exception ClassCastException if the collection contains a non-number.
+   */
+  public ShortArrayList (Collection c)
+    {
+      elementData = new short[c.size()];
+      for (Iterator i=c.iterator(); i.hasNext();)
+        elementData[elementCount++] = ((Number)i.next()).shortValue();
+    }
+
+  // METHODS:
+
+  /**
+   * Copies the components of this <tt>ShortArrayList</tt> into the
+   * specified array <tt>a</tt>. The item at index <tt>k</tt> in this
+   * <tt>ShortArrayList</tt> is copied into component <tt>k</tt> of
+   * <tt>a</tt>. The array <tt>a</tt> must be big enough to hold all the
+   * elements of this <tt>ShortArrayList</tt>, else an
+   * <tt>IndexOutOfBoundsException</tt> is thrown.
+   *
+   * @param a the array into which the components get copied.
+   * @exception IndexOutOfBoundsException if the array <tt>a</tt> is too small.
+   */
+  public final void copyInto (short[] a)
+    {
+      for (int i=elementCount; i-->0;)
+        a[i] = elementData[i];
+    }
+
+  /**
+   * Trims the capacity of this <tt>ShortArrayList</tt> to its current
+   * size. If the capacity of this <tt>ShortArrayList</tt> is larger than
+   * its current size, this replaces its internal data array with a
+   * smaller one of size equal to its number of elements. An application
+   * can use this operation to minimize the storage of a
+   * <tt>ShortArrayList</tt>.
+   */
+  public final void trimToSize ()
+    {
+      if (elementCount == elementData.length) return;
+
+      short[] newArray = newArray = new short[elementCount];
+
+      for (int i=0; i<elementCount; i++)
+        newArray[i] = elementData[i];
+
+      elementData = newArray;
+    }
+
+  /**
+   * Increases the capacity of this <tt>ShortArrayList</tt>, if necessary,
+   * to ensure that it can hold at least the number of components
+   * specified by the minimum capacity argument.  <p> If the current
+   * capacity of this <tt>ShortArrayList</tt> is less than
+   * <tt>minCapacity</tt>, then its capacity is increased by replacing
+   * its internal data array with a larger one. The size of the new data
+   * array will be the old size plus <tt>capacityIncrement</tt>, unless
+   * the value of <tt>capacityIncrement</tt> is less than or equal to
+   * <tt>0</tt>, in which case the new capacity will be the old capacity
+   * multiplied by <tt>incrementFactor</tt>; and if this new size is
+   * still smaller than <tt>minCapacity</tt>, then the new capacity will
+   * be <tt>minCapacity</tt>.
+   *
+   * @param minCapacity the desired minimum capacity.
+   */
+  public final void ensureCapacity (int minCapacity)
+    {
+      if (elementData.length >= minCapacity)
+	return;
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      int newCapacity = Math.max(minCapacity,_increasedCapacity());
+      short[] newArray = new short[newCapacity];
+      
+      for (int i=0; i<elementCount; i++)
+	newArray[i] = elementData[i];
+      
+      elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Sets the size of this ShortArrayList. If the new size is greater than the
+   * current size, new zeroes are added to the end of the ShortArrayList.
+   *
+   * @param     newSize the new size of this ShortArrayList.
+   */
+  public final void setSize (int newSize)
+    {
+      if (newSize > elementCount)
+        _unsorted("setSize");
+
+      ensureCapacity(elementCount = newSize);
+    }
+
+  /**
+   * Returns the current capacity of this ShortArrayList.
+   *
+   * @return    the current capacity the length of its internal data array.
+   */
+  public final int capacity ()
+    {
+      return elementData.length;
+    }
+
+  /**
+   * Enables or disables the counting of the growths of the internal array
+   * of this ShortArrayList, and of the time they take, as reported by
+   * <tt>stats()</tt>. Enabling them again keeps the counts so far;
+   * disabling them drops the counts.
+   *
+   * @param     enabled whether growths are to be counted
+   */
+  public final void setStatsEnabled (boolean enabled)
+    {
+      if (!enabled)
+        _counter = null;
+      else if (_counter == null)
+        _counter = new ContainerStats.Counter();
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this ShortArrayList: its size, its
+   * capacity and how much of it is unused, and, if statistics are enabled,
+   * how many times its internal array grew and how long that took.
+   */
+  public final ContainerStats stats ()
+    {
+      return new ContainerStats(elementCount,elementData.length,elementData.length-elementCount,_counter,null);
+    }
+
+  /**
+   * Returns the number of components in this <tt>ShortArrayList</tt>.
+   *
+   * @return the number of components in this <tt>ShortArrayList</tt>.
+   */
+  public final int size ()
+    {
+      return elementCount;
+    }
+
+  /**
+   * Tests if this <tt>ShortArrayList</tt> has no components.
+   *
+   * @return    <tt>true</tt> if this <tt>ShortArrayList</tt>'s size is zero; <tt>false</tt> otherwise.
+   */
+  public final boolean isEmpty ()
+    {
+      return elementCount == 0;
+    }
+
+  /**
+   * Tests if the specified <tt>element</tt> is a component in this
+   * <tt>ShortArrayList</tt>.
+   *
+   * @param  element a short.
+   * @return true if the specified <tt>short</tt> is in this <tt>ShortArrayList</tt>; <tt>false</tt> otherwise.
+   */
+  public final boolean contains (short element)
+    {
+      if (_sorted)
+        return binarySearch(element) >= 0;
+
+      for (int i=0; i<elementCount; i++)
+        if (elementData[i] == element) return true;
+
+      return false;
+    }
+
+  /**
+   * Searches for the first occurrence of the given short; returns -1 if it
+   * is not found.
+   *
+   * @param     element a short.
+   * @return    the index of the first occurrence of the argument or -1.
+   */
+  public final int indexOf (short element)
+    {
+      if (_sorted)
+        return _sortedIndexOf(element,0);
+
+      for (int i=0; i<elementCount; i++)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Searches for the first occurence of the given short, beginning
+   * the search at index; returns -1 if it is not found.
+   *
+   * @param     element a short.
+   * @param     index the non-negative index to start searching from.
+   * @exception IndexOutOfBoundsException if index is negative.
+   */
+  public final int indexOf (short element, int index)
+    {
+      if (_sorted)
+        return _sortedIndexOf(element,index);
+
+      for (int i=index; i<elementCount; i++)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Returns the index of the last occurrence of the specified short in
+   * this ShortArrayList; returns -1 if it is not found.
+   *
+   * @param     element the desired component.
+   * @return    the index of the last occurrence of the specified short, or -1.
+   */
+  public final int lastIndexOf (short element)
+    {
+      if (_sorted)
+        return _sortedLastIndexOf(element,elementCount);
+
+      for (int i=elementCount; i-->0;)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Searches backwards for the specified short, starting from the
+   * specified index, and returns its index, or -1 if not found.
+   *
+   * @param     element a short.
+   * @param     index the non-negative index to start searching from.
+   * @exception IndexOutOfBoundsException if index is invalid.
+   */
+  public final int lastIndexOf (short element, int index)
+    {
+      if (_sorted)
+        return _sortedLastIndexOf(element,index);
+
+      for (int i=index; i-->0;)
+        if (elementData[i] == element) return i;
+
+      return -1;
+    }
+
+  /**
+   * Returns the component at the specified index. This method is
+   * identical in functionality to the get method.
+   *
+   * @param     index an index into this ShortArrayList.
+   * @exception ArrayIndexOutOfBoundsException if the index is invalid.
+   */
+  public final short elementAt (int index)
+    {
+      return get(index);
+    }
+
+  /**
+   * Returns the first component (the item at index 0) of this ShortArrayList.
+   *
+   * @return    the first component of this ShortArrayList.
+   * @exception ArrayIndexOutOfBoundsException if this ShortArrayList is empty.
+   */
+  public final short firstElement ()
+    {
+      return elementData[0];
+    }
+
+  /**
+   * Returns the last component of the ShortArrayList.
+   *
+   * @return    the last component of the ShortArrayList, i.e., the component at size() - 1.
+   * @exception ArrayIndexOutOfBoundsException if this ShortArrayList is empty.
+   */
+  public final short lastElement ()
+    {
+      return elementData[elementCount-1];
+    }
+
+  /**
+   * Sets the component at the specified index of this ShortArrayList to be the
+   * specified short. The previous component at that position is lost.
+   * <p>
+   * The index must be a value greater than or equal to 0 and less than
+   * the current size of the ShortArrayList.
+   * <p>
+   * This method is identical in functionality to the set method except
+   * that the latter returns the old value that was stored at the specified
+   * position and it has its argument in a different order.
+   *
+   * @param     element what the component is to be set to.
+   * @param     index the specified index.
+   * @exception ArrayIndexOutOfBoundsException if the index was invalid.
+   */
+  public final void setElementAt (short element, int index)
+    {
+      set(index,element);
+    }
+
+  /**
+   * Deletes the component at the specified index. Each component in
+   * this ShortArrayList with an index greater or equal to the specified index
+   * is shifted downward to have an index one smaller than the value it
+   * had previously. The size of this ShortArrayList is decreased by 1.
+   * <p>
+   * The index must be a value greater than or equal to 0 and less than
+   * the current size of the ShortArrayList.
+   * <p>
+   * This method is identical in functionality to the removeIndex method
+   * except that the removeIndex method returns the old value that was
+   * stored at the specified position.
+   * <p>
+   * <b>N.B.</b>As for <tt>IntArrayList</tt>, there is no <tt>remove</tt>
+   * method; its functionality is provided by <tt>removeIndex(int)</tt>
+   * and <tt>removeElement(short)</tt>.
+   *
+   * @param     index the index of the element to remove.
+   * @exception ArrayIndexOutOfBoundsException if the index was invalid.
+   */
+  public final void removeElementAt (int index)
+    {
+      removeIndex(index);
+    }
+
+  /**
+   * Inserts the specified short as a component in this ShortArrayList at the
+   * specified index. Each component in this ShortArrayList with an index
+   * greater or equal to the specified index is shifted upward to have
+   * an index one greater than the value it had previously.
+   * <p>
+   * The index must be a value greater than or equal to 0 and less than
+   * or equal to the current size of the ShortArrayList. (If the index is equal
+   * to the current size of the ShortArrayList, the new element is appended to
+   * the ShortArrayList.)
+   * <p>
+   * This method is identical in functionality to the add(int, short)
+   * method except that the latter method reverses the order of the
+   * arguments, to match array usage  more closely.
+   *
+   * @param     element the element to insert.
+   * @param     index where to insert the new component.
+   * @exception ArrayIndexOutOfBoundsException if the index was invalid.
+   */
+  public final void insertElementAt (short element, int index)
+    {
+      add(index,element);
+    }
+
+  /**
+   * Adds the specified component to the end of this ShortArrayList, increasing
+   * its size by one. The capacity of this ShortArrayList is increased if its
+   * size becomes greater than its capacity.
+   * <p>
+   * This method is identical in functionality to the add(short) method
+   * except that the latter returns a boolean.
+   *
+   * @param     element the component to be added.
+   */
+  public final void addElement (short element)
+    {
+      add(element);
+    }
+
+  /**
+   * Removes all components from this ShortArrayList.
+   * This method is identical in functionality to the clear method.
+   *
+   */
+  public final void removeAllElements ()
+    {
+      elementCount = 0;
+    }
+
+  /**
+   * Returns a clone of this ShortArrayList. The copy will contain a reference
+   * to a clone of the internal data array, not a reference to the
+   * original internal data array of this ShortArrayList object.
+   *
+   * @return    a clone of this ShortArrayList.
+   */
+  public final Object clone ()
+    {
+      short[] newArray = new short[elementData.length];
+
+      for (int i=0; i<elementData.length; i++)
+        newArray[i] = elementData[i];
+
+      ShortArrayList clone = new ShortArrayList(newArray,elementCount,capacityIncrement,incrementFactor);
+      clone._sorted = _sorted;
+      return clone;
+    }
+
+  /**
+   * Returns an array containing all of the elements in this ShortArrayList in
+   * the correct order.
+   */
+  public final short[] toArray ()
+    {
+      short[] a = new short[elementCount];
+
+      for (int i=0; i<elementCount; i++)
+        a[i] = elementData[i];
+
+      return a;
+    }
+
+
+  /**
+   * Returns the sum of the elements of this ShortArrayList, as a long.
+   */
+  public final long sum ()
+    {
+      long sum = 0;
+
+      for (int i=0; i<elementCount; i++)
+        sum += elementData[i];
+
+      return sum;
+    }
+
+  /**
+   * Returns the least element of this ShortArrayList.
+   *
+   * @exception NoSuchElementException if this ShortArrayList is empty.
+   */
+  public final short min ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty ShortArrayList");
+
+      short min = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        if (elementData[i] < min)
+          min = elementData[i];
+
+      return min;
+    }
+
+  /**
+   * Returns the greatest element of this ShortArrayList.
+   *
+   * @exception NoSuchElementException if this ShortArrayList is empty.
+   */
+  public final short max ()
+    {
+      if (elementCount == 0)
+        throw new NoSuchElementException("empty ShortArrayList");
+
+      short max = elementData[0];
+
+      for (int i=1; i<elementCount; i++)
+        if (elementData[i] > max)
+          max = elementData[i];
+
+      return max;
+    }
+
+  /**
+   * Returns the number of elements of this ShortArrayList that pass the
+   * specified test.
+   *
+   * @param test the test to apply to each element.
+   */
+  public final int count (IntPredicate test)
+    {
+      int count = 0;
+
+      for (int i=0; i<elementCount; i++)
+        if (test.test(elementData[i]))
+          count++;
+
+      return count;
+    }
+
+  /**
+   * Adds to each element of this ShortArrayList the element at the same
+   * index in the specified ShortArrayList, with the usual short arithmetic.
+   *
+   * @param     v an ShortArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void addElementwise (ShortArrayList v)
+    {
+      _unsorted("addElementwise");
+
+      short[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] += other[i];
+    }
+
+  /**
+   * Multiplies each element of this ShortArrayList by the element at the
+   * same index in the specified ShortArrayList, with the usual short arithmetic.
+   *
+   * @param     v an ShortArrayList of the same size as this one.
+   * @exception IllegalArgumentException if the sizes differ.
+   */
+  public final void multiplyElementwise (ShortArrayList v)
+    {
+      _unsorted("multiplyElementwise");
+
+      short[] other = _sameSize(v);
+
+      for (int i=0; i<elementCount; i++)
+        elementData[i] *= other[i];
+    }
+
+  /**
+   * Returns the internal array of the specified ShortArrayList, which must
+   * have the size of this one.
+   */
+  private final short[] _sameSize (ShortArrayList v)
+    {
+      if (v.elementCount != elementCount)
+        throw new IllegalArgumentException("size mismatch: "+v.elementCount+" instead of "+elementCount);
+
+      return v.elementData;
+    }
+
+  /**
+   * Sorts this ShortArrayList in increasing order.
+   */
+  public final void sort ()
+    {
+      Arrays.sort(elementData,0,elementCount);
+    }
+
+  /**
+   * Sorts this ShortArrayList in increasing order like <tt>sort()</tt>, splitting
+   * the work over the fork-join pool when the list is large enough for
+   * this to pay off (as decided by <tt>Arrays.parallelSort</tt>).
+   */
+  public final void parallelSort ()
+    {
+      Arrays.parallelSort(elementData,0,elementCount);
+    }
+
+  /**
+   * Searches this ShortArrayList, which must be sorted, for the specified element
+   * with <tt>Arrays.binarySearch</tt>. Returns the index of the element if
+   * it is there, and <tt>-(insertion point)-1</tt> otherwise. If the
+   * element is there several times, any of its indices may be returned.
+   *
+   * @param     element the element to search for.
+   */
+  public final int binarySearch (short element)
+    {
+      return Arrays.binarySearch(elementData,0,elementCount,element);
+    }
+
+  /**
+   * Sets whether this ShortArrayList is kept sorted in increasing order; turning
+   * this on sorts it. While it is on, <tt>contains</tt>, <tt>indexOf</tt>,
+   * and <tt>lastIndexOf</tt> search in <tt>O(log n)</tt>, <tt>add</tt>
+   * inserts its element after those equal to it, and <tt>addAll</tt>
+   * appends its elements then sorts the list. Removals keep the order,
+   * but updates at given positions (<tt>set</tt>, <tt>add(int,short)</tt>,
+   * <tt>addAll(int,...)</tt>, ...) throw an <tt>UnsupportedOperationException</tt>.
+   *
+   * @param     sorted whether to keep this ShortArrayList sorted.
+   */
+  public final void setSorted (boolean sorted)
+    {
+      if (sorted && !_sorted)
+        sort();
+
+      _sorted = sorted;
+    }
+
+  /**
+   * Returns <tt>true</tt> iff this ShortArrayList is kept sorted.
+   */
+  public final boolean isSorted ()
+    {
+      return _sorted;
+    }
+
+  /**
+   * Throws an <tt>UnsupportedOperationException</tt> if this ShortArrayList is
+   * kept sorted, since the specified operation could break its order.
+   */
+  private final void _unsorted (String operation)
+    {
+      if (_sorted)
+        throw new UnsupportedOperationException(operation+" on a sorted ShortArrayList");
+    }
+
+  /**
+   * Returns the index of the first element of this sorted ShortArrayList that is
+   * not less than the specified one, or greater than it if <tt>after</tt>
+   * is <tt>true</tt>.
+   */
+  private final int _bound (short element, boolean after)
+    {
+      int lo = 0;
+      int hi = elementCount;
+
+      while (lo < hi)
+        {
+          int mid = (lo + hi) >>> 1;
+
+          if (elementData[mid] < element || after && elementData[mid] == element)
+            lo = mid+1;
+          else
+            hi = mid;
+        }
+
+      return lo;
+    }
+
+  /**
+   * Returns the index of the first occurrence of the specified element
+   * at or after the specified index in this sorted ShortArrayList, or -1.
+   */
+  private final int _sortedIndexOf (short element, int index)
+    {
+      int i = Math.max(index,_bound(element,false));
+      return i < elementCount && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Returns the index of the last occurrence of the specified element
+   * before the specified index in this sorted ShortArrayList, or -1.
+   */
+  private final int _sortedLastIndexOf (short element, int index)
+    {
+      int i = Math.min(index,_bound(element,true)) - 1;
+      return i >= 0 && elementData[i] == element ? i : -1;
+    }
+
+  /**
+   * Inserts the specified element at the specified index, and returns
+   * <tt>true</tt>.
+   */
+  private final boolean _insert (int index, short element)
+    {
+      if (elementCount == elementData.length) _grow();
+      System.arraycopy(elementData,index,elementData,index+1,elementCount-index);
+      elementData[index] = element;
+      elementCount++;
+      return true;
+    }
+
+  /**
+   * Returns the element at the specified position in this ShortArrayList.
+   *
+   * @exception ArrayIndexOutOfBoundsException if the index is invalid.
+   */
+  public final short get (int index)
+    {
+      return elementData[index];
+    }
+
+  /**
+   * Replaces the element at the specified position in this ShortArrayList with
+   * the specified element.
+   *
+   * @param     index index of element to replace.
+   * @param     element element to be stored at the specified position.
+   * @return    the element previously at the specified position.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final short set (int index, short element)
+    {
+      _unsorted("set");
+
+      short old = elementData[index];
+      elementData[index] = element;
+      return old;
+    }
+
+  /**
+   * Replaces the element at the last position in this ShortArrayList with
+   * the specified element.
+   *
+   * @param     element element to be stored at the last position.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final void setLast (short element)
+    {
+      _unsorted("setLast");
+
+      elementData[elementCount-1] = element;
+    }
+
+  /**
+   * Appends the specified element to the end of this ShortArrayList.
+   *
+   * @param     element element to be appended to this ShortArrayList.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean add (short element)
+    {
+      if (_sorted)
+        return _insert(_bound(element,true),element);
+
+      if (elementCount == elementData.length) _grow();
+      elementData[elementCount++] = element;
+      return true;
+    }
+
+  /**
+   * Removes the first occurrence of the specified element. If this ShortArrayList 
+   * does not contain the element, it is left unchanged. 
+   * <p>
+   * <b>N.B.</b>As for <tt>IntArrayList</tt>, there is no <tt>remove</tt>
+   * method; its functionality is provided by <tt>removeIndex(int)</tt>
+   * and <tt>removeElement(short)</tt>.
+   *
+   * @param     element element to be removed from this ShortArrayList, if present.
+   * @return    true if this ShortArrayList contained the specified element.
+   */
+  public final boolean removeElement (short element)
+    {
+      int i = indexOf(element);
+
+      if (i < 0) return false;
+
+      for (;i<elementCount-1;i++)
+        elementData[i] = elementData[i+1];
+
+      elementCount--;
+
+      return true;
+    }
+
+  /**
+   * Inserts the specified <tt>element</tt> at the specified
+   * <tt>index</tt> position in this <tt>ShortArrayList</tt>. Shifts the
+   * element currently at that position (if any) and any subsequent
+   * elements to the right (adds one to their indices).
+   *
+   * @param     index index at which the specified element is to be inserted.
+   * @param     element element to be inserted.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final void add (int index, short element)
+    {
+      _unsorted("add");
+
+      // System.out.println("*** Need to insert element "+element+" at index "+index+" into "+this);
+      // System.out.println("*** Ensuring capacity of "+(elementCount+1));
+      ensureCapacity(elementCount+1);
+      elementCount++;
+      // System.out.println("*** Current capacity is "+elementData.length);
+
+      for (int i=elementCount-1; i>index; i--)
+	// {
+	//   System.out.println("*** Shifting element at position "+(i-1)+" ("+elementData[i-1]+") to position "+i);
+	  elementData[i] = elementData[i-1];
+        // }
+
+      elementData[index] = element;
+      // System.out.println("*** New set of indices is now "+this);
+    }
+
+  /**
+   * Removes the element at the specified position and shifts any subsequent
+   * elements to the left (subtracts one from their indices). Returns the
+   * element that was removed.
+   *
+   * @param     index the index of the element to removed.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final short removeIndex (int index)
+    {
+      short old = elementData[index];
+      
+      for (int i=index; i<elementCount-1; i++)
+        elementData[i] = elementData[i+1];
+
+      elementCount--;
+
+      return old;
+    }
+
+  /**
+   * Removes all of the elements from this ShortArrayList.
+   */
+  public final void clear ()
+    {
+      elementCount = 0;
+    }
+
+  /**
+   * Returns true if this ShortArrayList contains all of the elements in the
+   * specified array.
+   *
+   * @param     a array containing the elements to be tested for membership.
+   * @return    true if all of the elements of the specified array belong in this.
+   */
+  public final boolean containsAll (short[] a)
+    {
+      for (int i=0; i<a.length; i++)
+        if (!contains(a[i])) return false;
+
+      return true;
+    }
+
+  /**
+   * Returns true if this ShortArrayList contains all of the elements in the
+   * specified ShortArrayList.
+   *
+   * @param     v ShortArrayList of elements to be tested for membership.
+   * @return    true if all of the elements of the specified collection belong in this.
+   */
+  public final boolean containsAll (ShortArrayList v)
+    {
+      for (int i=v.size(); i-->0;)
+        if (!contains(v.get(i))) return false;
+
+      return true;
+    }
+
+  /**
+   * Appends all of the elements in the specified array to the end
+   * of this ShortArrayList, in the order of the array.
+   *
+   * @param     a array containing the elements to be inserted.
+   * @exception ClassCastException if the collection contains a non-number.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean addAll (short[] a)
+    {
+      ensureCapacity(elementCount+a.length);
+
+      if (_sorted)
+        {
+          System.arraycopy(a,0,elementData,elementCount,a.length);
+          elementCount += a.length;
+          sort();
+          return true;
+        }
+
+      for (int i=0; i<a.length; i++) add(a[i]);
+      return true;
+    }
+
+  /**
+   * Appends all of the elements in the specified ShortArrayList to the end
+   * of this ShortArrayList.
+   *
+   * @param     v the ShortArrayList of elements to be added.
+   * @return    true (following the <tt>java.util.ArrayList</tt> API).
+   */
+  public final boolean addAll (ShortArrayList v)
+    {
+      int size = v.size();
+      ensureCapacity(elementCount+size);
+
+      if (_sorted)
+        {
+          System.arraycopy(v.elementData,0,elementData,elementCount,size);
+          elementCount += size;
+          sort();
+          return true;
+        }
+
+      for (int i=0; i<size; i++) add(v.get(i));
+      return true;
+    }
+
+  /**
+   * Removes from this ShortArrayList all of its elements that are contained
+   * in the specified array. Note that all occurrences of such elemeents
+   * are removed - not just the first.
+   *
+   * @param     a array of elements to be removed.
+   * @return    true if this ShortArrayList changed as a result of the call.
+   */
+  public final boolean removeAll (short[] a)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int j=0; j<elementCount; j++)
+        for (int i=0; i<a.length; i++)
+          if (a[i] == elementData[j])
+            {
+              indices.add(j);
+              break;
+            }
+
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Removes from this ShortArrayList all of its elements that are contained
+   * in the specified ShortArrayList. Note that all occurrences of such elemeents
+   * are removed - not just the first.
+   *
+   * @param     v the ShortArrayList of elements to be removed.
+   * @return    true if this ShortArrayList changed as a result of the call.
+   */
+  public final boolean removeAll (ShortArrayList v)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int j=0; j<elementCount; j++)
+        if (v.contains(elementData[j]))
+          indices.add(j);
+
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Removes from this ShortArrayList the first occurrence of the elements
+   * that are contained in the specified array
+   *
+   * @param     a array of elements to be removed.
+   * @return    true if this ShortArrayList changed as a result of the call.
+   */
+  public final boolean removeAllFirst (short[] a)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int i=0; i<a.length; i++)
+        for (int j=0; j<elementCount; j++)
+          if (a[i] == elementData[j] && !indices.contains(j))
+            {
+              indices.add(j);
+              break;
+            }
+
+      indices.sort();
+      removeAllIndices(indices);
+      return !indices.isEmpty();          
+    }
+
+  /**
+   * Removes from this ShortArrayList the first occurrence of the elements
+   * that are contained in the specified ShortArrayList.
+   *
+   * @param     v the ShortArrayList of elements to be removed.
+   * @return    true if this ShortArrayList changed as a result of the call.
+   */
+  public final boolean removeAllFirst (ShortArrayList v)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      int size = v.size();
+
+      for (int i=0; i<size; i++)
+        for (int j=0; j<elementCount; j++)
+          if (v.get(i) == elementData[j] && !indices.contains(j))
+            {
+              indices.add(j);
+              break;
+            }
+
+      indices.sort();
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Retains only the elements in this ShortArrayList whose elements are
+   * contained in the specified ShortArrayList. In other words, removes from
+   * this ShortArrayList all of its elements that are not contained in the
+   * specified ShortArrayList.
+   *
+   * @param     v ShortArrayList of elements to be retained.
+   * @return    true if this ShortArrayList changed as a result of the call.
+   */
+  public final boolean retainAll (ShortArrayList v)
+    {
+      IntArrayList indices = new IntArrayList();
+
+      for (int i=0; i<elementCount; i++)
+        if (!v.contains(elementData[i]))
+          indices.add(i);
+
+      removeAllIndices(indices);
+      return !indices.isEmpty();
+    }
+
+  /**
+   * Inserts all the elements in the specified array at the specified
+   * index in this ShortArrayList. Shifts the element currently at that
+   * position (if any) and any subsequent elements to the right (adds
+   * the length of the array to their indices).
+   *
+   * @param     index index at which the specified element is to be inserted.
+   * @param     a array of elements to be inserted.
+   * @exception ArrayIndexOutOfBoundsException if index is out of range.
+   */
+  public final void addAll (int index, short[] a)
+    {
+      _unsorted("addAll");
+
+      if (elementCount+a.length < elementData.length)
+        {
+          for (int i=elementCount; i-->index;)
+            elementData[i+a.length] = elementData[i];
+
+          for (int i=0; i<a.length; i++)
+            elementData[index+i] = a[i];
+          
+          elementCount += a.length;
+          return;
+        }
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      short[] newArray = new short[_increasedCapacity(elementCount+a.length)];
+
+      for (int i=0; i<index; i++)
+        newArray[i] = elementData[i];
+
+      for (int i=0; i<a.length; i++)
+        newArray[index+i] = a[i];
+
+      for (int i=index+a.length; i<elementCount+a.length; i++)
+        newArray[i] = elementData[i-a.length];
+
+      elementData = newArray;
+      elementCount += a.length;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Inserts all of the elements in the specified ShortArrayList into this
+   * ShortArrayList at the specified position. Shifts the element currently
+   * at that position (if any) and any subsequent elements to the right
+   * (increases their indices). The new elements will appear in this
+   * ShortArrayList in their order in the specified ShortArrayList.
+   *
+   * @param     index index where to insert the first element
+   * @param     v ShortArrayList to be inserted into this ShortArrayList.
+   * @exception ArrayIndexOutOfBoundsException if index is invalid.
+   */
+  public final void addAll (int index, ShortArrayList v)
+    {
+      _unsorted("addAll");
+
+      int size = v.size();
+      
+      if (elementCount+size < elementData.length)
+        {
+          for (int i=elementCount; i-->index;)
+            elementData[i+size] = elementData[i];
+
+          for (int i=0; i<size; i++)
+            elementData[index+i] = v.get(i);
+          
+          elementCount += size;
+          return;
+        }
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      short[] newArray = new short[_increasedCapacity(elementCount+size)];
+
+      for (int i=0; i<index; i++)
+        newArray[i] = elementData[i];
+
+      for (int i=0; i<size; i++)
+        newArray[index+i] = v.get(i);
+
+      for (int i=index+size; i<elementCount+size; i++)
+        newArray[i] = elementData[i-size];
+
+      elementData = newArray;
+      elementCount += size;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Compares the specified object with this ShortArrayList for equality.
+   * Returns true if and only if the specified object is also an
+   * ShortArrayList, both have the same size, and all corresponding pairs of
+   * elements are equal. In other words, two ShortArrayLists are defined to
+   * be equal if they contain the same elements in the same order.
+   *
+   * @param     o the object to be compared for equality with this ShortArrayList.
+   * @return    true if the specified object is equal to this ShortArrayList
+   */
+  public final boolean equals (Object o)
+    {
+      if (o == this)
+	return true;
+      
+      if (!(o instanceof ShortArrayList))
+	return false;
+
+      ShortArrayList other = (ShortArrayList)o;
+
+      if (other.size() != elementCount)
+	return false;
+
+      return Arrays.equals(elementData,0,elementCount,other.elementData,0,elementCount);
+    }
+
+  /**
+   * Returns the hash code value for this ShortArrayList.
+   */
+  public int hashCode ()
+    {
+      int code = elementCount;
+      int shift = 1;
+
+      for (int i=0; i<elementCount; i += Math.max(1,elementCount/4))
+        {
+          if (shift > 0)
+            code <<= 1;
+          else
+            code >>= 1;
+
+          code ^= elementData[i];
+          shift = -shift;
+        }
+
+      return code;
+    }
+
+  /**
+   * Returns a string representation of this ShortArrayList
+   *
+   * @return    a string representation of this collection.
+   */
+  public String toString ()
+    {
+      StringBuilder buf = new StringBuilder("[");
+
+      for (int i=0; i<elementCount; i++)
+        buf.append(elementData[i]+(i==elementCount-1?"":","));
+
+      return (buf.append("]")).toString();
+    }
+
+  /**
+   * Removes from this ShortArrayList all of the elements whose index is
+   * between fromIndex, inclusive and toIndex, exclusive. Shifts any
+   * succeeding elements to the left (reduces their index). This call
+   * shortens the ArrayList by (toIndex - fromIndex) elements. (If
+   * toIndex &le; fromIndex, this operation has no effect.)
+   * <p>
+   * <b>N.B.</b> Note that this method is public, whereas - strangely
+   * enough, it is protected in the <tt>java.util.ArrayList</tt> API!
+   *
+   * @param     fromIndex index of first element to be removed.
+   * @param     toIndex index after last element to be removed.
+   */
+  public void removeRange (int fromIndex, int toIndex)
+    {
+      if (toIndex <= fromIndex) return;
+
+      toIndex = Math.min(toIndex, elementCount);
+
+      int gap = toIndex - fromIndex;
+
+      for (int i=fromIndex; i<toIndex; i++)
+        elementData[i] = elementData[i+gap];
+
+      elementCount -= gap;
+    }
+
+  // NEW API:
+
+  protected float incrementFactor = 2.0f;
+
+  /**
+   * <p>
+   * @param     incrementFactor a float that is between 1.1 and 5.0
+   * @exception IllegalArgumentException if not between 1.1 and 5.0
+   */
+  public final void setIncrementFactor (float incrementFactor)
+    {
+      if (incrementFactor < 1.1 || incrementFactor > 5.0)
+        throw new IllegalArgumentException("Increment factor "+incrementFactor
+                                           +" must be in [1.1,5.0] range");
+      this.incrementFactor = incrementFactor;
+    }
+
+  /**
+   * Clears all elements of this ShortArrayList at index equal to or
+   * greater than the specified index. If this index value is out range,
+   * this clears all the ShortArrayList.
+   *
+   * @param	index the index above which clearing takes effect
+   */
+    public final void clear (int index)
+    {
+      elementCount = (index < 0 || index >= elementCount) ? 0 : index;
+    }
+
+  // PRIVATES:
+
+  /**
+   * A constructor used privately for cloning only...
+   */
+  private ShortArrayList (short[] elementData, int elementCount,
+                     int capacityIncrement, float incrementFactor)
+    {
+      this.elementData = elementData;
+      this.elementCount = elementCount;
+      this.capacityIncrement = capacityIncrement;
+      this.incrementFactor = incrementFactor;
+    }
+
+  /**
+   * Grows the size of the internal array.
+   */
+  private final void _grow ()
+    {
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      short[] newArray = new short[_increasedCapacity()];
+
+      for (int i=0; i<elementCount; i++)
+        newArray[i] = elementData[i];
+
+      elementData = newArray;
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Computes a greater capacity for this ShortArrayList.
+   *
+   * @return    the increased capacity
+   */
+  private final int _increasedCapacity ()
+    {
+      if (capacityIncrement <= 0)
+        {
+          int capacity = elementData.length == 0 ? 1 : elementData.length;
+          return (int)Math.floor(capacity*incrementFactor+1);
+        }
+
+      return elementData.length+capacityIncrement;
+    }
+
+  /**
+   * Computes a greater capacity for this ShortArrayList that is at least
+   * the specified capacity.
+   *
+   * @param     minCapacity the minimum necessary capacity.
+   * @return    the increased capacity
+   */
+  private final int _increasedCapacity (int minCapacity)
+    {
+      if (capacityIncrement <= 0)
+        {
+          int capacity = elementData.length == 0 ? 1 : elementData.length;
+          return Math.max(minCapacity,
+                          (int)Math.floor(capacity*incrementFactor));
+        }
+
+      return Math.max(minCapacity,elementData.length+capacityIncrement);
+    }
+
+  /**
+   * Removes from this ShortArrayList all of its elements that are located at
+   * the indices in the specified IntArrayList. This assumes that the indices
+   * appear sorted in increasing order.
+   *
+   * @param     indices indices of elements to be removed.
+   */
+  private final void removeAllIndices (IntArrayList indices)
+    {
+      int size = indices.size();
+
+      for (int i=1; i<=size; i++)
+        {
+          int lo = indices.get(i-1);
+          int hi = (i < size) ? indices.get(i) : elementCount;
+          for (int j=lo+1; j<hi; j++) elementData[j-i] = elementData[j];
+        }
+
+      elementCount -= size;
+    }
+}
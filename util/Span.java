@@ -144,6 +144,13 @@ public class Span implements Locatable
           &&   _end.equals(((Span)o).getEnd());
     }
 
+  public final int hashCode ()
+    {
+      if (_start == null || _end == null) return 0;
+
+      return 31*_start.hashCode() + _end.hashCode();
+    }
+
   public final String locationString ()
     {
       return toString();
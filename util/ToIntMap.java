@@ -10,7 +10,13 @@ package hlt.language.util;
  * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
  */
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 /**
  * This is the mother of the classes of hash tables mapping to ints.
@@ -24,7 +30,9 @@ abstract public class ToIntMap
   public final static int NOT_FOUND_VALUE = Integer.MIN_VALUE;
 
   /**
-   * The table storing the entries of this map.
+   * The table storing the entries of this map. This is left <tt>null</tt>
+   * by the open-addressing maps, which keep their keys and values in flat
+   * arrays instead of chains of entries.
    */
   protected Entry[] _table;
 
@@ -44,6 +52,32 @@ abstract public class ToIntMap
    */
   protected int _threshold;
 
+  /**
+   * While an incremental rehash is in progress, this is the table being
+   * emptied into <tt>_table</tt>; otherwise, it is <tt>null</tt>. Buckets
+   * of this table whose index is less than <tt>_migrated</tt> have already
+   * been moved, and are empty.
+   */
+  protected Entry[] _oldTable;
+
+  /**
+   * The index of the next bucket of <tt>_oldTable</tt> to be moved.
+   */
+  protected int _migrated;
+
+  /**
+   * The number of buckets of <tt>_oldTable</tt> moved by each update or
+   * lookup of this map while an incremental rehash is in progress. When it is
+   * <tt>0</tt> (the default), rehashing is done all at once.
+   */
+  protected int _bucketsPerStep;
+
+  /**
+   * The counter of the rehashes of this map, or <tt>null</tt> if its
+   * statistics are disabled (the default).
+   */
+  protected ContainerStats.Counter _counter;
+
   /**
    * Sets the threshold factor with the specified initial capacity and
    * load factor. If the load factor is greater than <tt>1</tt>, it is
@@ -96,12 +130,53 @@ abstract public class ToIntMap
    */
   public final boolean containsValue (int value)
     {
+      return !forEachValueWhile(v -> v != value);
+    }
+
+  /**
+   * Applies the specified action to each value of this map, in no
+   * particular order. Unlike going through <tt>values()</tt>, this
+   * allocates no iterator.
+   *
+   * @param action the action to apply to each value.
+   */
+  public final void forEachValue (IntConsumer action)
+    {
+      forEachValueWhile(v -> { action.accept(v); return true; });
+    }
+
+  /**
+   * Applies the specified test to the values of this map, in no particular
+   * order, until it returns <tt>false</tt>. Returns <tt>true</tt> iff all
+   * the values were tested and passed, which is the case of an empty map.
+   *
+   * @param action the test to apply to each value.
+   */
+  public boolean forEachValueWhile (IntPredicate action)
+    {
+      return _forEachEntryWhile(entry -> action.test(((Entry)entry).value));
+    }
+
+  /**
+   * Applies the specified test to the entries of this map's table,
+   * until it returns <tt>false</tt>, and returns <tt>true</tt> iff all
+   * the entries were tested and passed. This is the traversal shared by
+   * the maps that keep chains of entries in <tt>_table</tt>; an
+   * incremental rehash in progress is completed first, so that lookups
+   * made by the test move no entry.
+   *
+   * @param action the test to apply to each <tt>Entry</tt>.
+   */
+  protected final boolean _forEachEntryWhile (Predicate action)
+    {
+      _completeRehash();
+
       for (int i=0; i<_table.length; i++)
         for (Entry entry = _table[i]; entry != null; entry = entry.next)
-          if (value == entry.value)
-            return true;
+          if (!action.test(entry))
+            return false;
 
-      return false;
+      return true;
     }
 
   /**
@@ -115,25 +190,275 @@ abstract public class ToIntMap
    * Rehashes the contents of this map into a new map with a larger capacity.
    * This method is called automatically when the number of keys in this map
    * exceeds the threshold indicated by the capacity times the load factor.
+   * <p>
+   * If incremental rehashing is enabled, the entries are not moved at once:
+   * the current table is kept aside as <tt>_oldTable</tt> and emptied
+   * progressively by <tt>_rehashStep()</tt>. (A rehash that is still in
+   * progress when this is called is completed first.)
    */
   protected final void _rehash ()
     {
+      _completeRehash();
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
       int oldCapacity = _table.length;
       Entry[] oldTable = _table;
 
       _table = new Entry[2*oldCapacity + 1];
       _threshold = (int)(_table.length * _loadFactor);
 
-      for (int i=0; i<oldCapacity; i++)
-        for (Entry oldEntry = oldTable[i]; oldEntry != null;)
+      if (_bucketsPerStep > 0)
+        {
+          _oldTable = oldTable;
+          _migrated = 0;
+        }
+      else
+        for (int i=0; i<oldCapacity; i++)
+          _moveBucket(oldTable,i);
+
+      if (_counter != null)
+        _counter.record(start);
+    }
+
+  /**
+   * Returns the hash code used to rehash the specified entry, which must be
+   * that used to put it in its bucket. By default, this is its <tt>hash()</tt>;
+   * a map with a hash strategy mixes it accordingly.
+   */
+  protected int _entryHash (Entry entry)
+    {
+      return entry.hash();
+    }
+
+  /**
+   * Moves all the entries of the specified bucket of the specified old
+   * table into <tt>_table</tt>.
+   */
+  private final void _moveBucket (Entry[] oldTable, int i)
+    {
+      for (Entry oldEntry = oldTable[i]; oldEntry != null;)
+        {
+          Entry entry = oldEntry;
+          oldEntry = oldEntry.next;
+
+          int index = (_entryHash(entry) & 0x7FFFFFFF) % _table.length;
+          entry.next = _table[index];
+          _table[index] = entry;
+        }
+
+      oldTable[i] = null;
+    }
+
+  /**
+   * If an incremental rehash is in progress, moves the next
+   * <tt>_bucketsPerStep</tt> buckets of the old table into the new one.
+   * This is called by each update and each lookup, so that a rehash
+   * completes even if the map is only read. Traversals complete a rehash
+   * in progress before they start, so that looking up keys while
+   * traversing this map moves no entry.
+   */
+  protected final void _rehashStep ()
+    {
+      if (_oldTable == null)
+        return;
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      int end = Math.min(_oldTable.length,_migrated+_bucketsPerStep);
+
+      while (_migrated < end)
+        _moveBucket(_oldTable,_migrated++);
+
+      if (_migrated == _oldTable.length)
+        _oldTable = null;
+
+      if (_counter != null)
+        _counter.time(start);
+    }
+
+  /**
+   * Moves at once all the entries left in the old table, if an incremental
+   * rehash is in progress. This is called before traversing the table.
+   */
+  private final void _completeRehash ()
+    {
+      if (_oldTable == null)
+        return;
+
+      long start = _counter == null ? 0 : System.nanoTime();
+
+      while (_migrated < _oldTable.length)
+        _moveBucket(_oldTable,_migrated++);
+
+      _oldTable = null;
+
+      if (_counter != null)
+        _counter.time(start);
+    }
+
+  /**
+   * Enables or disables incremental rehashing for this map. When it is
+   * enabled, growing the table does not move all the entries at once;
+   * instead, the old table is kept alongside the new one and each
+   * subsequent update or lookup (such as <tt>put</tt>, <tt>remove</tt>,
+   * <tt>get</tt>, or <tt>containsKey</tt>) moves the specified number of
+   * its buckets, and consults both tables. This bounds the time any single
+   * update can take, at the cost of keeping both tables for a while; a
+   * traversal of the map (by an iterator, a spliterator, or a
+   * <tt>forEach</tt> method) moves the buckets left at once. Since a table doubles when rehashed, a step of at least
+   * <tt>2</tt> buckets guarantees that a rehash completes before the next
+   * one is due. A step of <tt>0</tt> (the default) disables incremental
+   * rehashing and completes any rehash in progress.
+   * <p>
+   * This only applies to the maps that keep chains of entries in
+   * <tt>_table</tt>; open-addressing maps ignore it.
+   *
+   * @param    bucketsPerStep   the number of buckets moved by each update
+   * @throws   IllegalArgumentException if the step is negative.
+   */
+  public final void setIncrementalRehash (int bucketsPerStep)
+    {
+      if (bucketsPerStep < 0)
+        throw new IllegalArgumentException("illegal rehash step: "+bucketsPerStep);
+
+      if ((_bucketsPerStep = bucketsPerStep) == 0)
+        _completeRehash();
+    }
+
+  /**
+   * Returns <tt>true</tt> iff an incremental rehash of this map is in progress.
+   */
+  public final boolean isRehashing ()
+    {
+      return _oldTable != null;
+    }
+
+  /**
+   * Enables or disables the counting of the rehashes of this map, and of
+   * the time they take, as reported by <tt>stats()</tt>. Enabling them
+   * again keeps the counts so far; disabling them drops the counts.
+   *
+   * @param    enabled   whether rehashes are to be counted
+   */
+  public final void setStatsEnabled (boolean enabled)
+    {
+      if (!enabled)
+        _counter = null;
+      else if (_counter == null)
+        _counter = new ContainerStats.Counter();
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of this map: its size, its number
+   * of buckets (or slots) and how many are empty, the histogram of the
+   * number of probes needed to find each key, and, if statistics are
+   * enabled, how many rehashes occurred and how long they took. The
+   * histogram is computed by going through the table, so this takes time
+   * proportional to the capacity of this map. For a chained map, the
+   * number of probes of a key is its position in its bucket's chain plus
+   * one; during an incremental rehash, the buckets of both tables are
+   * counted.
+   */
+  public ContainerStats stats ()
+    {
+      int[] probes = new int[8];
+      int empty = 0, capacity = _table.length;
+
+      for (int i=0; i<_table.length; i++)
+        {
+          if (_table[i] == null)
+            empty++;
+
+          int n = 0;
+          for (Entry entry = _table[i]; entry != null; entry = entry.next)
+            probes = ContainerStats.count(probes,++n);
+        }
+
+      if (_oldTable != null)
+        for (int i=_migrated; i<_oldTable.length; i++)
           {
-            Entry entry = oldEntry;
-            oldEntry = oldEntry.next;
+            capacity++;
+
+            if (_oldTable[i] == null)
+              empty++;
 
-            int index = (entry.hash() & 0x7FFFFFFF) % _table.length;
-            entry.next = _table[index];
-            _table[index] = entry;
+            int n = 0;
+            for (Entry entry = _oldTable[i]; entry != null; entry = entry.next)
+              probes = ContainerStats.count(probes,++n);
           }
+
+      return new ContainerStats(_size,capacity,empty,_counter,probes);
+    }
+
+  /**
+   * Scrambles the bits of the specified hash code so that keys that
+   * differ only in their high bits, or that are consecutive (such as
+   * dense ids), spread evenly over a power-of-two sized table. This is
+   * the finalizer step of the MurmurHash3 function, and is used by the
+   * open-addressing maps which select slots by masking rather than by
+   * taking a remainder modulo a prime.
+   *
+   * @param    hash   the hash code to mix
+   */
+  protected final static int _mix (int hash)
+    {
+      hash ^= hash >>> 16;
+      hash *= 0x85ebca6b;
+      hash ^= hash >>> 13;
+      hash *= 0xc2b2ae35;
+      hash ^= hash >>> 16;
+      return hash;
+    }
+
+  /**
+   * The largest capacity of an open-addressing table (<tt>2^30</tt>).
+   */
+  protected final static int MAX_CAPACITY = 1<<30;
+
+  /**
+   * Returns the smallest power of two that is greater than or equal to
+   * the specified capacity, and no less than <tt>2</tt>.
+   *
+   * @param    capacity   the requested capacity
+   * @throws   IllegalArgumentException if the capacity is not positive (as
+   *           when doubling a capacity overflows) or exceeds <tt>MAX_CAPACITY</tt>.
+   */
+  protected final static int _powerOfTwo (int capacity)
+    {
+      if (capacity <= 0 || capacity > MAX_CAPACITY)
+        throw new IllegalArgumentException("illegal capacity: "+capacity);
+
+      int power = 2;
+      while (power < capacity) power <<= 1;
+      return power;
+    }
+
+  /**
+   * Computes the threshold of an open-addressing table of the specified
+   * power-of-two capacity. This is like <tt>_setThreshold</tt> except that
+   * at least one slot is always kept free so that probing terminates.
+   *
+   * @param    capacity   the number of slots of the table
+   */
+  protected final int _openThreshold (int capacity)
+    {
+      return _threshold = Math.min(capacity-1,(int)(capacity * _loadFactor));
+    }
+
+  /**
+   * Checks that a new key may be added to an open-addressing table of the
+   * specified capacity: if adding it would make the table grow beyond
+   * <tt>MAX_CAPACITY</tt>, this throws an exception before the table is
+   * changed.
+   *
+   * @param    capacity   the number of slots of the table
+   * @throws   IllegalStateException if the table cannot grow any more.
+   */
+  protected final void _checkCapacity (int capacity)
+    {
+      if (_size >= _threshold && capacity >= MAX_CAPACITY)
+        throw new IllegalStateException("map is full: "+_size+" entries in "+capacity+" slots");
     }
 
   /**
@@ -151,7 +476,7 @@ abstract public class ToIntMap
    *
    * @param map <tt>IntToIntMap</tt> whose entries will be stored in this map.
    */
-  public final void include (ToIntMap map)
+  public void include (ToIntMap map)
     {
       for (Iterator i = map.iterator(); i.hasNext();)
         put((Entry)i.next());
@@ -160,10 +485,11 @@ abstract public class ToIntMap
   /**
    * Removes all entries from this map.
    */
-  public final void clear ()
+  public void clear ()
     {
       for (int i=0; i<_table.length; i++)
         _table[i] = null;
+      _oldTable = null;
       _size = 0;
     }
 
@@ -171,8 +497,9 @@ abstract public class ToIntMap
    * Returns an iterator through the entries of this map. The object returned
    * by its <tt>next()</tt> method is a <tt>ToIntMap.Entry</tt>.
    */
-  public final Iterator iterator ()
+  public Iterator iterator ()
     {
+      _completeRehash();
       return new MapIterator(_table);
     }
 
@@ -182,6 +509,24 @@ abstract public class ToIntMap
    */
   abstract public IntIterator values ();
 
+  /**
+   * Writes a compact binary image of this map into the specified file,
+   * which is created or overwritten. The image can be reloaded instantly
+   * as a read-only map by the <tt>load(Path)</tt> method of this map's
+   * class, which memory-maps it. See <a href="MappedToIntMap.html">
+   * <tt>MappedToIntMap</tt></a> for the format of the image. Only maps of
+   * strings may be saved among maps of objects.
+   *
+   * @param    path   the path of the image file
+   * @throws   IOException if the file cannot be written.
+   * @throws   UnsupportedOperationException if this map has a key that
+   *           cannot be saved.
+   */
+  public final void save (Path path) throws IOException
+    {
+      MappedToIntMap.write(this,path);
+    }
+
   /**
    * Compares the specified object with this map for equality.  Returns
    * <tt>true</tt> if the given object is also a map and the two maps
@@ -205,7 +550,7 @@ abstract public class ToIntMap
    *
    * @param map map to be compared for equality with this map.
    */
-  public final boolean isEqualTo (ToIntMap map)
+  public boolean isEqualTo (ToIntMap map)
     {
       if (map == this)
         return true;
@@ -222,16 +567,28 @@ abstract public class ToIntMap
 
   /**
    * Returns the hash code value for this map. The hash code of a map is
-   * defined to be the exclusive or of the hash codes of each entry.
+   * defined to be the exclusive or of the hash codes of each entry, as
+   * given by <tt>_entryHashCode</tt>.
    */
   public final int hashCode ()
     {
       int code = 0;
       for (Iterator i = iterator(); i.hasNext();)
-        code ^= i.next().hashCode();
+        code ^= _entryHashCode((Entry)i.next());
       return code;
     }
 
+  /**
+   * Returns the hash code of the specified entry of this map, which must
+   * agree with the way this map tells its keys apart. By default, this
+   * is the entry's <tt>hashCode()</tt>; a map of objects with a hash
+   * strategy hashes the key with it.
+   */
+  protected int _entryHashCode (Entry entry)
+    {
+      return entry.hashCode();
+    }
+
   /**
    * Returns a string form for this map.
    */
@@ -331,4 +688,93 @@ abstract public class ToIntMap
           return ((Entry)_entries.next()).value;
         }
   }
+
+  /**
+   * Class defining the part of a spliterator through the map's entries
+   * that walks a range of buckets, which is split in halves of equal
+   * numbers of buckets, and thus of about equal numbers of entries. Only
+   * a spliterator that was never split knows its exact size. An
+   * incremental rehash in progress is completed when it is created.
+   */
+  protected static abstract class TableSpliterator
+    {
+      private final Entry[] _table;
+      private int _index;
+      private int _fence;
+      private Entry _next;
+      private long _estimate;
+      private boolean _exact;
+
+      /**
+       * Constructs a spliterator through all the entries of the specified map.
+       */
+      protected TableSpliterator (ToIntMap map)
+        {
+          map._completeRehash();
+          _table = map._table;
+          _fence = _table.length;
+          _estimate = map._size;
+          _exact = true;
+        }
+
+      /**
+       * Constructs a spliterator through the buckets that the specified
+       * spliterator has just given up, from the specified index on.
+       */
+      protected TableSpliterator (TableSpliterator other, int index)
+        {
+          _table = other._table;
+          _index = index;
+          _fence = other._index;
+          _estimate = other._estimate;
+        }
+
+      /**
+       * Returns the next entry of this spliterator, or <tt>null</tt> if there is none.
+       */
+      protected final Entry _nextEntry ()
+        {
+          while (_next == null)
+            {
+              if (_index >= _fence)
+                return null;
+
+              _next = _table[_index++];
+            }
+
+          Entry entry = _next;
+          _next = entry.next;
+          return entry;
+        }
+
+      /**
+       * Gives up the first half of the buckets left to this spliterator,
+       * and returns the index of the first of them, or <tt>-1</tt> if
+       * there are too few left, or if a bucket is being walked. The given
+       * up buckets are to be taken by a new spliterator.
+       */
+      protected final int _split ()
+        {
+          int index = _index;
+          int middle = (index + _fence) >>> 1;
+
+          if (index >= middle || _next != null)
+            return -1;
+
+          _index = middle;
+          _estimate >>>= 1;
+          _exact = false;
+          return index;
+        }
+
+      public final long estimateSize ()
+        {
+          return _estimate;
+        }
+
+      public final int characteristics ()
+        {
+          return Spliterator.DISTINCT | (_exact ? Spliterator.SIZED : 0);
+        }
+    }
 }
@@ -0,0 +1,199 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 17:48:09 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+/**
+ * This is a class of bounded min-heaps keeping the <tt>n</tt> keys with
+ * the greatest values among those offered, used by the <tt>topK</tt>
+ * methods of the maps to ints. Offering a key costs <tt>O(1)</tt> when its
+ * value is not greater than the least value kept, and <tt>O(log n)</tt>
+ * otherwise, so that the whole map is never sorted. The keys are either
+ * all ints or all objects.
+ */
+
+final class TopK
+{
+  /**
+   * The values of the heap, whose least value is <tt>_values[0]</tt>.
+   */
+  private final int[] _values;
+
+  /**
+   * The int keys of the heap, parallel to <tt>_values</tt>, or <tt>null</tt>.
+   */
+  private final int[] _ints;
+
+  /**
+   * The object keys of the heap, parallel to <tt>_values</tt>, or <tt>null</tt>.
+   */
+  private final Object[] _objects;
+
+  /**
+   * The number of keys in the heap.
+   */
+  private int _size;
+
+  /**
+   * Constructs an empty heap keeping at most the specified number of int
+   * keys, or of object keys if <tt>objects</tt> is <tt>true</tt>.
+   *
+   * @exception IllegalArgumentException if the number is negative.
+   */
+  TopK (int n, boolean objects)
+    {
+      if (n < 0)
+        throw new IllegalArgumentException("Illegal number of keys: "+n);
+
+      _values = new int[n];
+      _ints = objects ? null : new int[n];
+      _objects = objects ? new Object[n] : null;
+    }
+
+  /**
+   * Returns the slot where the key of the specified value is to be put, or
+   * <tt>-1</tt> if it is not to be kept; the key must then be put there
+   * before <tt>_siftDown</tt> restores the heap.
+   */
+  private final int _slot (int value)
+    {
+      if (_size < _values.length)
+        {
+          int i = _size++;
+
+          while (i > 0)
+            {
+              int parent = (i-1) >>> 1;
+              if (_values[parent] <= value)
+                break;
+              _move(parent,i);
+              i = parent;
+            }
+
+          _values[i] = value;
+          return i;
+        }
+
+      if (_size == 0 || value <= _values[0])
+        return -1;
+
+      _values[0] = value;
+      return 0;
+    }
+
+  /**
+   * Moves the entry at slot <tt>from</tt> to slot <tt>to</tt>.
+   */
+  private final void _move (int from, int to)
+    {
+      _values[to] = _values[from];
+      if (_ints != null)
+        _ints[to] = _ints[from];
+      else
+        _objects[to] = _objects[from];
+    }
+
+  /**
+   * Swaps the entries at the specified slots.
+   */
+  private final void _swap (int i, int j)
+    {
+      int value = _values[i]; _values[i] = _values[j]; _values[j] = value;
+
+      if (_ints != null)
+        {
+          int key = _ints[i]; _ints[i] = _ints[j]; _ints[j] = key;
+        }
+      else
+        {
+          Object key = _objects[i]; _objects[i] = _objects[j]; _objects[j] = key;
+        }
+    }
+
+  /**
+   * Moves the entry at the specified slot down to its place in a heap of
+   * the specified size.
+   */
+  private final void _siftDown (int i, int size)
+    {
+      for (int child; (child = 2*i+1) < size; i = child)
+        {
+          if (child+1 < size && _values[child+1] < _values[child])
+            child++;
+
+          if (_values[i] <= _values[child])
+            return;
+
+          _swap(i,child);
+        }
+    }
+
+  /**
+   * Offers the specified int key with the specified value.
+   */
+  final void offer (int key, int value)
+    {
+      int i = _slot(value);
+
+      if (i < 0)
+        return;
+
+      _ints[i] = key;
+      if (i == 0) _siftDown(0,_size);
+    }
+
+  /**
+   * Offers the specified object key with the specified value.
+   */
+  final void offer (Object key, int value)
+    {
+      int i = _slot(value);
+
+      if (i < 0)
+        return;
+
+      _objects[i] = key;
+      if (i == 0) _siftDown(0,_size);
+    }
+
+  /**
+   * Sorts the kept entries by decreasing value, which empties the heap.
+   */
+  private final void _sort ()
+    {
+      for (int end = _size; end-- > 1;)
+        {
+          _swap(0,end);
+          _siftDown(0,end);
+        }
+    }
+
+  /**
+   * Returns the kept int keys by decreasing value.
+   */
+  final int[] ints ()
+    {
+      _sort();
+      int[] keys = new int[_size];
+      System.arraycopy(_ints,0,keys,0,_size);
+      return keys;
+    }
+
+  /**
+   * Returns the kept object keys by decreasing value.
+   */
+  final Object[] objects ()
+    {
+      _sort();
+      Object[] keys = new Object[_size];
+      System.arraycopy(_objects,0,keys,0,_size);
+      return keys;
+    }
+}
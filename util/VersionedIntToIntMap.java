@@ -0,0 +1,403 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+package hlt.language.util;
+
+/**
+ * @version     Last modified on Sun Oct 18 19:41:37 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.util.Iterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * This is a class of maps from ints to ints with the API of
+ * <tt>IntToIntMap</tt>, which one thread may update while any number of
+ * other threads read consistent versions of it without locking. Its
+ * <tt>snapshot()</tt> method returns the current version as an
+ * immutable <a href="PersistentIntToIntMap.html"><tt>PersistentIntToIntMap</tt></a>
+ * in <tt>O(1)</tt>, with no copying: each update builds the next version
+ * by copying the <tt>O(log n)</tt> nodes on the path to its key, shares
+ * the rest with the previous version, and publishes it through a
+ * <tt>volatile</tt> field. A snapshot, once taken, never changes, and
+ * never shows part of an update.
+ * <p>
+ * The read operations of this map (<tt>get</tt>, <tt>containsKey</tt>,
+ * ...) may also be called from any thread, each seeing the version
+ * current when it is called; but several calls may see distinct
+ * versions, so that a reader needing a consistent view across calls (or
+ * an exact <tt>size()</tt>) should take a snapshot. The update operations
+ * are not synchronized, and must all be made by one thread at a time.
+ * <p>
+ * An update costs a few small allocations more than in an
+ * <tt>IntToIntMap</tt>, which remains the map of choice when there are no
+ * concurrent readers.
+ */
+
+public class VersionedIntToIntMap extends ToIntMap
+{
+  /**
+   * The current version of this map.
+   */
+  private volatile PersistentIntToIntMap _current;
+
+  /**
+   * The record of the last update, which is only used by the writer.
+   */
+  private final PersistentIntToIntMap.Change _change = new PersistentIntToIntMap.Change();
+
+  /**
+   * Constructs an empty map.
+   */
+  public VersionedIntToIntMap ()
+    {
+      _current = PersistentIntToIntMap.EMPTY;
+    }
+
+  /**
+   * Constructs a map whose first version is the specified persistent map.
+   *
+   * @param map the first version of this map.
+   */
+  public VersionedIntToIntMap (PersistentIntToIntMap map)
+    {
+      _current = map;
+      _size = map.size();
+    }
+
+  /**
+   * Constructs a map with the same entries as the given map of ints.
+   *
+   * @param map the map whose entries are to be placed in this map.
+   */
+  public VersionedIntToIntMap (ToIntMap map)
+    {
+      this();
+      include(map);
+    }
+
+  /**
+   * Returns the current version of this map, which is immutable and may
+   * be read by any thread without locking, in <tt>O(1)</tt>.
+   */
+  public final PersistentIntToIntMap snapshot ()
+    {
+      return _current;
+    }
+
+  /**
+   * Makes the trie of the specified root, of the specified size, the
+   * current version of this map.
+   */
+  private final void _publish (PersistentIntToIntMap.Node root, int size)
+    {
+      _size = size;
+      _current = new PersistentIntToIntMap(root,size);
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry for the specified key.
+   *
+   * @param key the key whose presence in this map is to be tested.
+   */
+  public final boolean containsKey (int key)
+    {
+      return _current.containsKey(key);
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains an entry with the specified key and value.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public final boolean containsEntry (int key, int value)
+    {
+      return _current.containsEntry(key,value);
+    }
+
+  /**
+   * Returns <tt>true</tt> if this map contains the specified entry, which
+   * must be an <tt>IntToIntMap.Entry</tt>.
+   *
+   * @param candidate the entry whose presence in this map is to be tested.
+   */
+  public final boolean containsEntry (ToIntMap.Entry candidate)
+    {
+      return _current.containsEntry(candidate);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if the map contains no entry for this key.
+   *
+   * @param key the key whose associated value is to be returned.
+   */
+  public final int get (int key)
+    {
+      return _current.get(key);
+    }
+
+  /**
+   * Returns the value to which this map maps the specified key, or the
+   * specified default value if the map contains no entry for this key.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @param defaultValue the value to return if there is no entry for the key.
+   */
+  public final int getOrDefault (int key, int defaultValue)
+    {
+      return _current.getOrDefault(key,defaultValue);
+    }
+
+  /**
+   * Associates the current size of the map to the given int, and returns this value.
+   */
+  public final int add (int n)
+    {
+      put(n,_size);
+      return _size-1;
+    }
+
+  /**
+   * Associates the specified value with the specified key in this map.
+   * If the map previously contained an entry for this key, the old
+   * value is replaced and returned; otherwise the new value is returned.
+   *
+   * @param key key with which the specified value is to be associated.
+   * @param value value to be associated with the specified key.
+   */
+  public final int put (int key, int value)
+    {
+      PersistentIntToIntMap current = _current;
+
+      _change.resized = false;
+      PersistentIntToIntMap.Node root =
+        PersistentIntToIntMap._put(current._root,key,PersistentIntToIntMap._hash(key),0,value,_change);
+
+      if (root != current._root)
+        _publish(root,_size+(_change.resized ? 1 : 0));
+
+      return _change.resized ? value : _change.old;
+    }
+
+  /**
+   * Adds the specified delta to the value of the specified key, which is
+   * taken to be <tt>0</tt> if the map contains no entry for the key, and
+   * returns the new value.
+   *
+   * @param key the key whose value is to be incremented.
+   * @param delta the amount to add to the value.
+   */
+  public final int addTo (int key, int delta)
+    {
+      int value = _current.getOrDefault(key,0) + delta;
+      put(key,value);
+      return value;
+    }
+
+  /**
+   * Adds <tt>1</tt> to the value of the specified key, which is taken to be
+   * <tt>0</tt> if the map contains no entry for the key, and returns the
+   * new value.
+   *
+   * @param key the key whose value is to be incremented.
+   */
+  public final int increment (int key)
+    {
+      return addTo(key,1);
+    }
+
+  /**
+   * Removes the entry for the given key from this map if present.
+   * Returns the previous value associated with the specified key, or
+   * <tt>NOT_FOUND_VALUE</tt> if there was no entry for the key.
+   *
+   * @param key key whose entry is to be removed from the map.
+   */
+  public final int remove (int key)
+    {
+      PersistentIntToIntMap current = _current;
+
+      _change.resized = false;
+      PersistentIntToIntMap.Node root =
+        PersistentIntToIntMap._remove(current._root,key,PersistentIntToIntMap._hash(key),0,_change);
+
+      if (root == current._root)
+        return NOT_FOUND_VALUE;
+
+      _publish(root,_size-1);
+      return _change.old;
+    }
+
+  /**
+   * Puts the mapping defined by the specified entry into this map.
+   * Returns the old value if one was there, or the new value.
+   *
+   * @param entry the entry whose mapping is to be put into this map.
+   */
+  public final int put (ToIntMap.Entry entry)
+    {
+      return put(((IntToIntMap.Entry)entry).key,entry.value);
+    }
+
+  /**
+   * Includes all of the entries from the specified map to this one. Each
+   * entry is published as it is put, so that a snapshot taken meanwhile
+   * may hold only some of them.
+   *
+   * @param map the map whose entries will be stored in this map.
+   */
+  public final void include (ToIntMap map)
+    {
+      if (map == this)
+        return;
+
+      if (map instanceof IntToIntMap)
+        ((IntToIntMap)map).forEachEntry(this::put);
+      else if (map instanceof IntToIntOpenMap)
+        ((IntToIntOpenMap)map).forEachEntry(this::put);
+      else if (map instanceof PersistentIntToIntMap)
+        ((PersistentIntToIntMap)map).forEachEntry(this::put);
+      else if (map instanceof VersionedIntToIntMap)
+        ((VersionedIntToIntMap)map).forEachEntry(this::put);
+      else
+        super.include(map);
+    }
+
+  /**
+   * Removes all entries from this map, in <tt>O(1)</tt>.
+   */
+  public final void clear ()
+    {
+      _size = 0;
+      _current = PersistentIntToIntMap.EMPTY;
+    }
+
+  /**
+   * Applies the specified action to each entry of the current version of
+   * this map, in no particular order.
+   *
+   * @param action the action to apply to each key and its value.
+   */
+  public final void forEachEntry (IntIntConsumer action)
+    {
+      _current.forEachEntry(action);
+    }
+
+  /**
+   * Applies the specified test to the entries of the current version of
+   * this map, in no particular order, until it returns <tt>false</tt>.
+   * Returns <tt>true</tt> iff all the entries were tested and passed.
+   *
+   * @param action the test to apply to each key and its value.
+   */
+  public final boolean forEachEntryWhile (IntIntPredicate action)
+    {
+      return _current.forEachEntryWhile(action);
+    }
+
+  /**
+   * Applies the specified action to each key of the current version of
+   * this map, in no particular order.
+   *
+   * @param action the action to apply to each key.
+   */
+  public final void forEachKey (IntConsumer action)
+    {
+      _current.forEachKey(action);
+    }
+
+  /**
+   * Applies the specified test to the keys of the current version of this
+   * map, in no particular order, until it returns <tt>false</tt>. Returns
+   * <tt>true</tt> iff all the keys were tested and passed.
+   *
+   * @param action the test to apply to each key.
+   */
+  public final boolean forEachKeyWhile (IntPredicate action)
+    {
+      return _current.forEachKeyWhile(action);
+    }
+
+  /**
+   * Applies the specified test to the values of the current version of
+   * this map, in no particular order, until it returns <tt>false</tt>.
+   * Returns <tt>true</tt> iff all the values were tested and passed.
+   *
+   * @param action the test to apply to each value.
+   */
+  public final boolean forEachValueWhile (IntPredicate action)
+    {
+      return _current.forEachValueWhile(action);
+    }
+
+  /**
+   * Compares the specified map object with the current version of this
+   * map for equality.
+   *
+   * @param map map to be compared for equality with this map.
+   */
+  public final boolean isEqualTo (ToIntMap map)
+    {
+      return map == this || _current.isEqualTo(map instanceof VersionedIntToIntMap
+                                               ? ((VersionedIntToIntMap)map).snapshot() : map);
+    }
+
+  /**
+   * Compares the specified object with this map for equality. Returns
+   * <tt>true</tt> if the given object is also a <tt>VersionedIntToIntMap</tt>
+   * and the two maps have equal entries.
+   *
+   * @param object object to be compared for equality with this map.
+   */
+  public final boolean equals (Object object)
+    {
+      if (object == this)
+        return true;
+
+      if (!(object instanceof VersionedIntToIntMap))
+        return false;
+
+      return isEqualTo((VersionedIntToIntMap)object);
+    }
+
+  /**
+   * Returns a snapshot of the occupancy of the current version of this
+   * map (see <tt>PersistentIntToIntMap.stats()</tt>).
+   */
+  public final ContainerStats stats ()
+    {
+      return _current.stats();
+    }
+
+  /**
+   * Returns an iterator through the entries of the current version of this
+   * map, which is not affected by later updates. The object returned by its
+   * <tt>next()</tt> method is a new <tt>IntToIntMap.Entry</tt>.
+   */
+  public final Iterator iterator ()
+    {
+      return _current.iterator();
+    }
+
+  /**
+   * Returns an iterator through the keys of the current version of this map.
+   */
+  public final IntIterator keys ()
+    {
+      return _current.keys();
+    }
+
+  /**
+   * Returns an iterator through the values of the current version of this map.
+   */
+  public final IntIterator values ()
+    {
+      return _current.values();
+    }
+}
@@ -0,0 +1,122 @@
+import hlt.language.util.ChunkedIntStack;
+import hlt.language.util.ChunkedStack;
+import hlt.language.util.LinkedIntStack;
+import java.util.Random;
+
+/**
+ * Compares the memory and the time taken by <tt>ChunkedIntStack</tt>s
+ * and <tt>LinkedIntStack</tt>s, on a deep stack and on a backtracking
+ * search. An optional argument gives the number of elements (default
+ * 10000000).
+ */
+public class ChunkedStackBench
+{
+  public static void main (String[] args)
+    {
+      int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+
+      for (int round=0; round<3; round++)
+        {
+          System.out.println("Round "+round+":");
+          time(count);
+        }
+    }
+
+  static long usedMemory ()
+    {
+      Runtime runtime = Runtime.getRuntime();
+      for (int i=0; i<3; i++) System.gc();
+      return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+  static void time (int count)
+    {
+      long before = usedMemory();
+      long start = System.nanoTime();
+      LinkedIntStack linked = new LinkedIntStack();
+      for (int i=0; i<count; i++) linked.push(i);
+      long linkedPush = System.nanoTime() - start;
+      long linkedMemory = usedMemory() - before;
+
+      before = usedMemory();
+      start = System.nanoTime();
+      ChunkedIntStack chunked = new ChunkedIntStack();
+      for (int i=0; i<count; i++) chunked.push(i);
+      long chunkedPush = System.nanoTime() - start;
+      long chunkedMemory = usedMemory() - before;
+
+      long sum = 0;
+      start = System.nanoTime();
+      while (!linked.isEmpty()) sum += linked.pop();
+      long linkedPop = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      while (!chunked.isEmpty()) sum -= chunked.pop();
+      long chunkedPop = System.nanoTime() - start;
+
+      if (sum != 0)
+        throw new RuntimeException("pop mismatch");
+
+      start = System.nanoTime();
+      sum = search(new LinkedIntStack(),null,count);
+      long linkedSearch = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      sum -= search(null,new ChunkedIntStack(),count);
+      long chunkedSearch = System.nanoTime() - start;
+
+      if (sum != 0)
+        throw new RuntimeException("search mismatch");
+
+      System.out.println("  "+count+" ints: linked = "+linkedMemory/1000000+" MB (push "
+                         +linkedPush/1000000+" ms, pop "+linkedPop/1000000+" ms), chunked = "
+                         +chunkedMemory/1000000+" MB (push "+chunkedPush/1000000+" ms, pop "
+                         +chunkedPop/1000000+" ms); backtracking: linked = "
+                         +linkedSearch/1000000+" ms, chunked = "+chunkedSearch/1000000+" ms");
+    }
+
+  /**
+   * Runs the specified number of steps of a depth-first search on either
+   * stack, which pushes a few elements per choice point, saves the state
+   * of the stack there, and backtracks to a random choice point when the
+   * stack gets too deep.
+   */
+  static long search (LinkedIntStack linked, ChunkedIntStack chunked, int steps)
+    {
+      Random rnd = new Random(1);
+      LinkedIntStack.Cell[] cells = new LinkedIntStack.Cell[1000];
+      ChunkedStack.Mark[] marks = new ChunkedStack.Mark[1000];
+      int points = 0;
+      long sum = 0;
+
+      for (int step=0; step<steps; step++)
+        {
+          int action = rnd.nextInt(16);
+
+          if (action == 0 && points < cells.length)
+            {
+              if (linked != null) cells[points++] = (LinkedIntStack.Cell)linked.top();
+              else marks[points++] = chunked.mark();
+            }
+          else if (action == 1 && points > 0)
+            {
+              int point = rnd.nextInt(points);
+              if (linked != null) linked.set(cells[point]);
+              else chunked.reset(marks[point]);
+              points = point + 1;
+            }
+          else if (action < 6)
+            {
+              if (linked != null) { if (!linked.isEmpty()) sum += linked.pop(); }
+              else if (!chunked.isEmpty()) sum += chunked.pop();
+            }
+          else
+            {
+              if (linked != null) linked.push(step);
+              else chunked.push(step);
+            }
+        }
+
+      return sum;
+    }
+}
@@ -0,0 +1,93 @@
+import hlt.language.util.CompressedIntSequence;
+import hlt.language.util.IntArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the size of a <tt>CompressedIntSequence</tt>, and the speed of
+ * its scans and intersections, with those of an <tt>IntArrayList</tt>.
+ * An optional argument gives the number of elements (default 10000000).
+ */
+public class CompressedIntSequenceBench
+{
+  public static void main (String[] args)
+    {
+      int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+      Random rnd = new Random(17);
+
+      for (int round=0; round<3; round++)
+        {
+          System.out.println("Round "+round+":");
+          time(rnd,count,8);
+          time(rnd,count,64);
+        }
+    }
+
+  /**
+   * Returns a sorted list of the specified size, whose consecutive
+   * elements differ by less than the specified gap, starting at a random
+   * int (so that large gaps wrap around the range of ints).
+   */
+  static IntArrayList sorted (Random rnd, int size, int gap)
+    {
+      int[] a = new int[size];
+      long element = rnd.nextInt();
+
+      for (int i=0; i<size; i++)
+        {
+          a[i] = (int)element;
+          element += rnd.nextInt(gap);
+        }
+
+      Arrays.sort(a);
+      return new IntArrayList(a);
+    }
+
+  static void time (Random rnd, int count, int gap)
+    {
+      IntArrayList list = sorted(rnd,count,gap);
+      IntArrayList sparse = new IntArrayList(count/100);
+      for (int i=0; i<count; i+=1+rnd.nextInt(200))
+        sparse.add(list.get(i) + rnd.nextInt(2));
+      sparse.sort();
+
+      long start = System.nanoTime();
+      CompressedIntSequence sequence = new CompressedIntSequence(list);
+      CompressedIntSequence other = new CompressedIntSequence(sparse);
+      long build = System.nanoTime() - start;
+
+      long sum = 0;
+      start = System.nanoTime();
+      for (int i=0; i<count; i++) sum += list.get(i);
+      long listScan = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (CompressedIntSequence.Cursor cursor = sequence.cursor(); cursor.hasNext();) sum -= cursor.next();
+      long sequenceScan = System.nanoTime() - start;
+
+      if (sum != 0)
+        throw new RuntimeException("scan mismatch");
+
+      start = System.nanoTime();
+      IntArrayList common = new IntArrayList();
+      for (int i=0, j=0; i<sparse.size() && j<count;)
+        {
+          int x = sparse.get(i), y = list.get(j);
+          if (x < y) i++; else if (y < x) j++; else { common.add(x); i++; j++; }
+        }
+      long listMerge = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      CompressedIntSequence intersection = sequence.intersect(other);
+      long intersect = System.nanoTime() - start;
+
+      if (intersection.size() > common.size())
+        throw new RuntimeException("intersection mismatch");
+
+      System.out.println("  "+count+" ints, gaps < "+gap+": "+(4L*count)+" bytes as a list, "
+                         +sequence.sizeInBytes()+" compressed (built in "+(build/1000000)+" ms); scan: list = "
+                         +(listScan/1000000)+" ms, compressed = "+(sequenceScan/1000000)
+                         +" ms; intersecting "+sparse.size()+" ints: list merge = "+(listMerge/1000000)
+                         +" ms, compressed = "+(intersect/1000000)+" ms ("+intersection.size()+" common)");
+    }
+}
@@ -0,0 +1,193 @@
+import hlt.language.util.HashStrategy;
+import hlt.language.util.Misc;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares the quality and speed of the hash functions used by the
+ * <tt>ToIntMap</tt> family: <tt>Misc.hash(String)</tt>, and
+ * <tt>String.hashCode()</tt> or int keys mixed by each predefined
+ * <tt>HashStrategy</tt>. For each set of keys, it reports the number of
+ * distinct hash codes, and the quality of the distribution of the keys in a
+ * chained table (of odd capacity <tt>2n+1</tt>, indexed with <tt>%</tt>)
+ * and in an open table (of power-of-two capacity, indexed with a mask),
+ * measured as in the Dragon Book: the sum over the buckets of
+ * <tt>b(b+1)/2</tt>, where <tt>b</tt> is the number of keys of a bucket,
+ * divided by its expected value for a uniform hash function, so that
+ * <tt>1.00</tt> is as good as random, and larger is worse. It then
+ * reports the avalanche bias of each mixer (how far from 1/2 is the
+ * probability that flipping an input bit flips an output bit; <tt>0</tt>
+ * is best), and the time per hash. An optional argument gives the number
+ * of keys (default 100000).
+ */
+public class HashQualityBench
+{
+  final static HashStrategy[] STRATEGIES =
+    { HashStrategy.PLAIN, HashStrategy.MURMUR, HashStrategy.XXHASH };
+
+  public static void main (String[] args)
+    {
+      int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+      Random rnd = new Random(42);
+
+      int[] dense = new int[count];
+      int[] strided = new int[count];
+      int[] random = new int[count];
+
+      String[] identifiers = new String[count];
+      String[] prefixed = new String[count];
+      String[] words = new String[count];
+
+      for (int i=0; i<count; i++)
+        {
+          dense[i] = i;
+          strided[i] = i << 10;
+          random[i] = rnd.nextInt();
+          identifiers[i] = "x" + i;
+          prefixed[i] = "hlt.language.design.instructions.Instruction$" + i;
+          words[i] = word(rnd);
+        }
+
+      System.out.println("Distribution of "+count+" keys (1.00 = uniform):");
+      System.out.println(String.format("  %-28s %-18s %9s %9s %9s","keys","hash","distinct","chained","open"));
+
+      ints("dense ints",dense);
+      ints("ints with stride 1024",strided);
+      ints("random ints",random);
+
+      strings("identifiers x0, x1, ...",identifiers);
+      strings("long common prefix",prefixed);
+      strings("random words",words);
+
+      System.out.println("Avalanche bias of the mixers (0 = ideal):");
+      for (HashStrategy strategy : STRATEGIES)
+        System.out.println(String.format("  %-8s %.4f",strategy,avalanche(strategy,rnd)));
+
+      System.out.println("Time per hash of "+count+" strings (String caches its hashCode()):");
+      for (int round=0; round<3; round++)
+        time(prefixed);
+    }
+
+  static String word (Random rnd)
+    {
+      char[] chars = new char[3 + rnd.nextInt(10)];
+      for (int i=0; i<chars.length; i++)
+        chars[i] = (char)('a' + rnd.nextInt(26));
+      return new String(chars);
+    }
+
+  static void ints (String label, int[] keys)
+    {
+      for (HashStrategy strategy : STRATEGIES)
+        {
+          int[] hashes = new int[keys.length];
+          for (int i=0; i<keys.length; i++)
+            hashes[i] = strategy.hash(keys[i]);
+          report(label,strategy.toString(),hashes);
+        }
+    }
+
+  static void strings (String label, String[] keys)
+    {
+      int[] hashes = new int[keys.length];
+
+      for (int i=0; i<keys.length; i++)
+        hashes[i] = Misc.hash(keys[i]);
+      report(label,"Misc.hash",hashes);
+
+      for (HashStrategy strategy : STRATEGIES)
+        {
+          for (int i=0; i<keys.length; i++)
+            hashes[i] = strategy.hash(keys[i]);
+          report(label,"hashCode+"+strategy,hashes);
+        }
+    }
+
+  static void report (String label, String hash, int[] hashes)
+    {
+      int n = hashes.length;
+      int chained = 2*n + 1;
+      int open = Integer.highestOneBit(Math.max(1,2*n-1)) << 1;
+
+      int[] chainedBuckets = new int[chained];
+      int[] openBuckets = new int[open];
+
+      for (int i=0; i<n; i++)
+        {
+          chainedBuckets[(hashes[i] & 0x7FFFFFFF) % chained]++;
+          openBuckets[hashes[i] & (open-1)]++;
+        }
+
+      int[] sorted = hashes.clone();
+      Arrays.sort(sorted);
+      int distinct = n == 0 ? 0 : 1;
+      for (int i=1; i<n; i++)
+        if (sorted[i] != sorted[i-1])
+          distinct++;
+
+      System.out.println(String.format("  %-28s %-18s %9d %9.2f %9.2f",label,hash,distinct,
+                                       quality(chainedBuckets,n),quality(openBuckets,n)));
+    }
+
+  static double quality (int[] buckets, int n)
+    {
+      double sum = 0;
+      for (int b : buckets)
+        sum += b*(b+1.0)/2;
+
+      int m = buckets.length;
+      return sum / ((n/(2.0*m)) * (n + 2.0*m - 1));
+    }
+
+  static double avalanche (HashStrategy strategy, Random rnd)
+    {
+      int samples = 10000;
+      int[][] flips = new int[32][32];
+
+      for (int s=0; s<samples; s++)
+        {
+          int x = rnd.nextInt();
+          int h = strategy.mix(x);
+
+          for (int i=0; i<32; i++)
+            {
+              int d = h ^ strategy.mix(x ^ (1 << i));
+              for (int j=0; j<32; j++)
+                flips[i][j] += (d >>> j) & 1;
+            }
+        }
+
+      double bias = 0;
+      for (int i=0; i<32; i++)
+        for (int j=0; j<32; j++)
+          bias += Math.abs((double)flips[i][j]/samples - 0.5);
+
+      return bias / (32*32);
+    }
+
+  static void time (String[] keys)
+    {
+      int sink = 0;
+      long start = System.nanoTime();
+      for (int i=0; i<keys.length; i++)
+        sink += Misc.hash(keys[i]);
+      long weinberger = System.nanoTime() - start;
+
+      StringBuilder buf = new StringBuilder("  Misc.hash = "+ns(weinberger,keys.length));
+
+      for (HashStrategy strategy : STRATEGIES)
+        {
+          start = System.nanoTime();
+          for (int i=0; i<keys.length; i++)
+            sink += strategy.hash(keys[i]);
+          buf.append(", hashCode+"+strategy+" = "+ns(System.nanoTime()-start,keys.length));
+        }
+
+      System.out.println(buf+(sink == 42 ? " " : ""));
+    }
+
+  static String ns (long nanos, int count)
+    {
+      return String.format("%.1f ns",(double)nanos/count);
+    }
+}
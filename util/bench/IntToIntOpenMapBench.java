@@ -0,0 +1,55 @@
+import hlt.language.util.IntToIntMap;
+import hlt.language.util.IntToIntOpenMap;
+import java.util.Random;
+
+/**
+ * Times <tt>IntToIntOpenMap</tt> against <tt>IntToIntMap</tt> on
+ * sequential and random keys. An optional argument gives the number of
+ * keys (default 1000000).
+ */
+public class IntToIntOpenMapBench
+{
+  public static void main (String[] args)
+    {
+      int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+      int[] sequential = new int[count];
+      int[] random = new int[count];
+      Random rnd = new Random(42);
+
+      for (int i=0; i<count; i++)
+        {
+          sequential[i] = i;
+          random[i] = rnd.nextInt();
+        }
+
+      for (int round=0; round<3; round++)
+        {
+          System.out.println("Round "+round+":");
+          time("sequential",sequential);
+          time("random",random);
+        }
+    }
+
+  static void time (String label, int[] keys)
+    {
+      long start = System.nanoTime();
+      IntToIntMap chained = new IntToIntMap();
+      for (int i=0; i<keys.length; i++) chained.put(keys[i],i);
+      long sum = 0;
+      for (int i=0; i<keys.length; i++) sum += chained.get(keys[i]);
+      long chainedTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      IntToIntOpenMap open = new IntToIntOpenMap();
+      for (int i=0; i<keys.length; i++) open.put(keys[i],i);
+      for (int i=0; i<keys.length; i++) sum -= open.get(keys[i]);
+      long openTime = System.nanoTime() - start;
+
+      if (sum != 0)
+        throw new RuntimeException("lookup mismatch");
+
+      System.out.println("  "+label+" keys ("+keys.length+" puts + gets): chained = "
+                         +(chainedTime/1000000)+" ms, open = "+(openTime/1000000)+" ms");
+    }
+}
@@ -0,0 +1,55 @@
+import hlt.language.util.IntToIntTreeMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Times <tt>IntToIntTreeMap</tt> against <tt>java.util.TreeMap</tt> on
+ * sequential and random keys. An optional argument gives the number of
+ * keys (default 1000000).
+ */
+public class IntToIntTreeMapBench
+{
+  public static void main (String[] args)
+    {
+      int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+      int[] sequential = new int[count];
+      int[] random = new int[count];
+      Random rnd = new Random(42);
+
+      for (int i=0; i<count; i++)
+        {
+          sequential[i] = i;
+          random[i] = rnd.nextInt();
+        }
+
+      for (int round=0; round<3; round++)
+        {
+          System.out.println("Round "+round+":");
+          time("sequential",sequential);
+          time("random",random);
+        }
+    }
+
+  static void time (String label, int[] keys)
+    {
+      long start = System.nanoTime();
+      TreeMap<Integer,Integer> reference = new TreeMap<Integer,Integer>();
+      for (int i=0; i<keys.length; i++) reference.put(keys[i],i);
+      long sum = 0;
+      for (int i=0; i<keys.length; i++) sum += reference.get(keys[i]);
+      long referenceTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      IntToIntTreeMap tree = new IntToIntTreeMap();
+      for (int i=0; i<keys.length; i++) tree.put(keys[i],i);
+      for (int i=0; i<keys.length; i++) sum -= tree.get(keys[i]);
+      long treeTime = System.nanoTime() - start;
+
+      if (sum != 0)
+        throw new RuntimeException("lookup mismatch");
+
+      System.out.println("  "+label+" keys ("+keys.length+" puts + gets): TreeMap = "
+                         +(referenceTime/1000000)+" ms, tree = "+(treeTime/1000000)+" ms");
+    }
+}
@@ -0,0 +1,67 @@
+import hlt.language.util.IntToIntMap;
+import hlt.language.util.PersistentIntToIntMap;
+import hlt.language.util.VersionedIntToIntMap;
+import java.util.Random;
+
+/**
+ * Compares the cost of a snapshot of a <tt>VersionedIntToIntMap</tt>
+ * with that of copying an <tt>IntToIntMap</tt>, along with their puts
+ * and gets. An optional argument gives the number of keys (default
+ * 1000000).
+ */
+public class VersionedMapBench
+{
+  public static void main (String[] args)
+    {
+      int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+      for (int round=0; round<3; round++)
+        {
+          System.out.println("Round "+round+":");
+          time(count);
+        }
+    }
+
+  static void time (int count)
+    {
+      Random rnd = new Random(42);
+      int[] keys = new int[count];
+      for (int i=0; i<count; i++)
+        keys[i] = rnd.nextInt();
+
+      long start = System.nanoTime();
+      IntToIntMap plain = new IntToIntMap();
+      for (int i=0; i<count; i++) plain.put(keys[i],i);
+      long plainPut = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      IntToIntMap copy = new IntToIntMap(plain);
+      long copyTime = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      VersionedIntToIntMap versioned = new VersionedIntToIntMap();
+      for (int i=0; i<count; i++) versioned.put(keys[i],i);
+      long versionedPut = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      PersistentIntToIntMap snapshot = versioned.snapshot();
+      long snapshotTime = System.nanoTime() - start;
+
+      long sum = 0;
+      start = System.nanoTime();
+      for (int i=0; i<count; i++) sum += copy.get(keys[i]);
+      long plainGet = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i=0; i<count; i++) sum -= snapshot.get(keys[i]);
+      long snapshotGet = System.nanoTime() - start;
+
+      if (sum != 0)
+        throw new RuntimeException("lookup mismatch");
+
+      System.out.println("  "+count+" puts: IntToIntMap = "+(plainPut/1000000)+" ms, versioned = "
+                         +(versionedPut/1000000)+" ms; copy = "+(copyTime/1000000)+" ms, snapshot = "
+                         +(snapshotTime/1000)+" us; gets: IntToIntMap = "+(plainGet/1000000)
+                         +" ms, snapshot = "+(snapshotGet/1000000)+" ms");
+    }
+}
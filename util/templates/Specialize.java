@@ -0,0 +1,226 @@
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+// PLEASE DO NOT EDIT WITHOUT THE EXPLICIT CONSENT OF THE AUTHOR! \\
+//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\//\\
+
+/**
+ * @version     Last modified on Sun Oct 18 15:48:27 2026 by hak
+ * @author      <a href="mailto:hak@acm.org">Hassan A&iuml;t-Kaci</a>
+ * @copyright   &copy; <a href="http://www.hassan-ait-kaci.net/">Hassan A&iuml;t-Kaci</a>
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This generates the primitive specializations of the classes of
+ * <tt>hlt.language.util</tt> from the templates (<tt>*.jt</tt> files)
+ * of this directory. It is run from the <tt>util</tt> directory as:
+ * <pre>
+ *   java templates/Specialize.java templates .
+ * </pre>
+ * A template is Java source where <tt>${name}</tt> stands for a property
+ * of the primitive type being generated (see <tt>TYPES</tt> below), and
+ * where the lines between <tt>//#if feature</tt> (or <tt>//#if !feature</tt>),
+ * <tt>//#else</tt>, and <tt>//#endif</tt> are kept or dropped depending on
+ * whether the type has that feature. Such directives may be nested.
+ * <p>
+ * The <tt>int</tt> and <tt>double</tt> classes, from which the templates
+ * were derived, are written by hand and are not generated.
+ */
+public class Specialize
+{
+  /**
+   * The properties of each generated type, as name/value pairs:
+   * <ul>
+   * <li><tt>type</tt>, <tt>Type</tt>, <tt>Boxed</tt>, <tt>a_type</tt>: its
+   *     name, capitalized name, wrapper class, and name with an article;
+   * <li><tt>Wide</tt>: the capitalized type of the <tt>java.util.function</tt>
+   *     interfaces taking it (<i>e.g.</i>, <tt>IntPredicate</tt> for a <tt>char</tt>);
+   * <li><tt>Sum</tt>: the type of the sum of its values;
+   * <li><tt>ValueClass</tt>, <tt>valueClass</tt>, <tt>valueMethod</tt>: the class
+   *     whose instances are converted into it in a collection, and how;
+   * <li><tt>features</tt>: the features tested by <tt>//#if</tt> directives
+   *     (<tt>stream</tt> if <tt>java.util.stream</tt> has a stream of it,
+   *     <tt>floating</tt> if it is a floating-point type);
+   * <li><tt>templates</tt>: the templates to generate for it.
+   * </ul>
+   */
+  static final String[][] TYPES =
+    {
+      { "type", "long", "Type", "Long", "Boxed", "Long", "a_type", "a long",
+        "Wide", "Long", "Sum", "long",
+        "ValueClass", "Number", "valueClass", "number", "valueMethod", "longValue",
+        "features", "stream",
+        "templates", "Iterator ArrayList Stack LinkedStack IntConsumer IntPredicate ToIntMap" },
+      { "type", "char", "Type", "Char", "Boxed", "Character", "a_type", "a char",
+        "Wide", "Int", "Sum", "long",
+        "ValueClass", "Character", "valueClass", "character", "valueMethod", "charValue",
+        "features", "",
+        "templates", "Iterator ArrayList Stack LinkedStack" },
+      { "type", "byte", "Type", "Byte", "Boxed", "Byte", "a_type", "a byte",
+        "Wide", "Int", "Sum", "long",
+        "ValueClass", "Number", "valueClass", "number", "valueMethod", "byteValue",
+        "features", "",
+        "templates", "Iterator ArrayList Stack LinkedStack" },
+      { "type", "short", "Type", "Short", "Boxed", "Short", "a_type", "a short",
+        "Wide", "Int", "Sum", "long",
+        "ValueClass", "Number", "valueClass", "number", "valueMethod", "shortValue",
+        "features", "",
+        "templates", "Iterator ArrayList Stack LinkedStack" },
+      { "type", "float", "Type", "Float", "Boxed", "Float", "a_type", "a float",
+        "Wide", "Double", "Sum", "double",
+        "ValueClass", "Number", "valueClass", "number", "valueMethod", "floatValue",
+        "features", "floating",
+        "templates", "Iterator ArrayList Stack LinkedStack" },
+    };
+
+  /**
+   * The names of the classes generated from each template, where
+   * <tt>$</tt> stands for the capitalized name of the type.
+   */
+  static final String[][] OUTPUTS =
+    {
+      { "Iterator", "$Iterator" },
+      { "ArrayList", "$ArrayList" },
+      { "Stack", "$Stack" },
+      { "LinkedStack", "Linked$Stack" },
+      { "IntConsumer", "$IntConsumer" },
+      { "IntPredicate", "$IntPredicate" },
+      { "ToIntMap", "$ToIntMap" },
+    };
+
+  static final Pattern PROPERTY = Pattern.compile("\\$\\{([A-Za-z_]+)\\}");
+
+  /**
+   * Generates into the directory given as second argument (default
+   * <tt>.</tt>) the classes specified by <tt>TYPES</tt> from the
+   * templates in the directory given as first argument (default
+   * <tt>templates</tt>).
+   */
+  public static void main (String[] args) throws IOException
+    {
+      Path templates = Paths.get(args.length > 0 ? args[0] : "templates");
+      Path target = Paths.get(args.length > 1 ? args[1] : ".");
+      String date = new SimpleDateFormat("EEE MMM d HH:mm:ss yyyy",Locale.US).format(new Date());
+
+      Map<String,String> outputs = new HashMap<String,String>();
+      for (String[] output : OUTPUTS)
+        outputs.put(output[0],output[1]);
+
+      for (String[] entries : TYPES)
+        {
+          Map<String,String> properties = new HashMap<String,String>();
+          for (int i=0; i<entries.length; i+=2)
+            properties.put(entries[i],entries[i+1]);
+          properties.put("date",date);
+
+          Set<String> features = new HashSet<String>();
+          for (String feature : properties.get("features").split(" "))
+            if (!feature.isEmpty())
+              features.add(feature);
+
+          for (String template : properties.get("templates").split(" "))
+            {
+              String name = outputs.get(template).replace("$",properties.get("Type"));
+              Path source = templates.resolve(template+".jt");
+              String text = specialize(source,Files.readAllLines(source,StandardCharsets.UTF_8),
+                                       properties,features);
+              Files.write(target.resolve(name+".java"),text.getBytes(StandardCharsets.UTF_8));
+              System.out.println("Generated "+name+".java from "+source);
+            }
+        }
+    }
+
+  /**
+   * Returns the specified template lines, read from the specified file,
+   * with its directives applied for the specified features and its
+   * properties replaced by their values.
+   *
+   * @throws IllegalArgumentException if a directive is misplaced or a
+   *         property is unknown.
+   */
+  static String specialize (Path source, List<String> lines,
+                            Map<String,String> properties, Set<String> features)
+    {
+      StringBuilder text = new StringBuilder();
+      // for each open //#if, whether its current branch is kept:
+      List<Boolean> kept = new ArrayList<Boolean>();
+      // for each open //#if, whether the enclosing branch is kept:
+      List<Boolean> enclosing = new ArrayList<Boolean>();
+      boolean keeping = true;
+      int number = 0;
+
+      for (String line : lines)
+        {
+          number++;
+          String directive = line.trim();
+
+          if (directive.startsWith("//#if "))
+            {
+              String feature = directive.substring(6).trim();
+              boolean negated = feature.startsWith("!");
+              boolean holds = features.contains(negated ? feature.substring(1) : feature) != negated;
+              enclosing.add(keeping);
+              kept.add(holds);
+              keeping = keeping && holds;
+              continue;
+            }
+
+          if (directive.equals("//#else") || directive.equals("//#endif"))
+            {
+              if (kept.isEmpty())
+                throw new IllegalArgumentException(source+":"+number+": "+directive+" without //#if");
+
+              int last = kept.size()-1;
+
+              if (directive.equals("//#else"))
+                {
+                  kept.set(last,!kept.get(last));
+                  keeping = enclosing.get(last) && kept.get(last);
+                }
+              else
+                {
+                  keeping = enclosing.remove(last);
+                  kept.remove(last);
+                }
+              continue;
+            }
+
+          if (!keeping)
+            continue;
+
+          Matcher matcher = PROPERTY.matcher(line);
+          StringBuffer buffer = new StringBuffer();
+
+          while (matcher.find())
+            {
+              String value = properties.get(matcher.group(1));
+              if (value == null)
+                throw new IllegalArgumentException(source+":"+number+": unknown property "+matcher.group());
+              matcher.appendReplacement(buffer,Matcher.quoteReplacement(value));
+            }
+
+          matcher.appendTail(buffer);
+          text.append(buffer).append('\n');
+        }
+
+      if (!kept.isEmpty())
+        throw new IllegalArgumentException(source+": missing //#endif");
+
+      return text.toString();
+    }
+}
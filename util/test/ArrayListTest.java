@@ -1,5 +1,8 @@
 import hlt.language.util.ArrayList;
+import hlt.language.util.Location;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 public class ArrayListTest
 {
@@ -20,8 +23,115 @@ public class ArrayListTest
       for (Iterator i = s.iterator(); i.hasNext();)
         System.out.println(i.next());
 
+      bulk(8);
+      bulk(HASH_CROSSING);
+      distinct(8);
+      distinct(HASH_CROSSING);
+
       for (int i=s.size(); i-->0;)
         if (i != s.indexOf(s.get(i)))
           throw new RuntimeException("duplicate entry at index: "+ i + " --> " +s.get(i));
     }
+
+  /**
+   * An argument length above <tt>ArrayList.HASH_THRESHOLD</tt>, so that
+   * the bulk operations look its elements up in a hash table.
+   */
+  static final int HASH_CROSSING = ArrayList.HASH_THRESHOLD + 4;
+
+  /**
+   * Checks the bulk operations of an ArrayList of strings with duplicates
+   * against those of <tt>java.util.ArrayList</tt>, for an argument of the
+   * specified length which also has duplicates, and for the list itself as
+   * argument.
+   */
+  static void bulk (int length)
+    {
+      String[] elements = new String[3*length];
+      for (int i=0; i<elements.length; i++)
+        elements[i] = "e"+(i*7 % length);
+
+      String[] argument = new String[length];
+      for (int i=0; i<length; i++)
+        argument[i] = "e"+(i % (length/2) + length/4);
+
+      List reference = Arrays.asList(argument);
+
+      ArrayList v = new ArrayList(elements);
+      java.util.ArrayList w = new java.util.ArrayList(Arrays.asList(elements));
+      v.removeAll(argument);
+      w.removeAll(reference);
+      same("removeAll",length,v,w);
+
+      v = new ArrayList(elements);
+      w = new java.util.ArrayList(Arrays.asList(elements));
+      v.removeAllFirst(new ArrayList(argument));
+      for (int i=0; i<length; i++) w.remove(argument[i]);
+      same("removeAllFirst",length,v,w);
+
+      v = new ArrayList(elements);
+      w = new java.util.ArrayList(Arrays.asList(elements));
+      v.retainAll(new ArrayList(argument));
+      w.retainAll(reference);
+      same("retainAll",length,v,w);
+
+      v = new ArrayList(elements);
+      if (!v.containsAll(argument) || !v.containsAll(new ArrayList(elements)))
+        throw new RuntimeException("containsAll("+length+") failed");
+      argument[length-1] = "missing";
+      if (v.containsAll(argument))
+        throw new RuntimeException("containsAll("+length+") found a missing element");
+
+      if (v.retainAll(v) || v.size() != elements.length)
+        throw new RuntimeException("retainAll(this) changed the list");
+      if (!v.removeAllFirst(v) || !v.isEmpty())
+        throw new RuntimeException("removeAllFirst(this) left "+v);
+      v = new ArrayList(elements);
+      if (!v.removeAll(v) || !v.isEmpty())
+        throw new RuntimeException("removeAll(this) left "+v);
+
+      System.out.println("bulk operations with "+length+" elements agree with java.util.ArrayList");
+    }
+
+  /**
+   * Checks the bulk operations of an ArrayList of locations against an
+   * argument of the specified length made of distinct but equal copies of
+   * its elements, so that they are found only by <tt>equals</tt>.
+   */
+  static void distinct (int length)
+    {
+      Location[] elements = new Location[length];
+      Location[] copies = new Location[length];
+      for (int i=0; i<length; i++)
+        {
+          elements[i] = new Location("file",i/2,i%2);
+          copies[i] = new Location("file",i/2,i%2);
+        }
+
+      ArrayList v = new ArrayList(elements);
+      if (!v.containsAll(copies) || !v.containsAll(new ArrayList(copies)))
+        throw new RuntimeException("containsAll("+length+") missed equal locations");
+
+      if (v.retainAll(new ArrayList(copies)) || v.size() != length)
+        throw new RuntimeException("retainAll("+length+") dropped equal locations");
+
+      if (!v.removeAllFirst(copies) || !v.isEmpty())
+        throw new RuntimeException("removeAllFirst("+length+") left "+v);
+
+      v = new ArrayList(elements);
+      if (!v.removeAll(new ArrayList(copies)) || !v.isEmpty())
+        throw new RuntimeException("removeAll("+length+") left "+v);
+
+      System.out.println("bulk operations with "+length+" equal locations agree with equals");
+    }
+
+  static void same (String operation, int length, ArrayList v, java.util.ArrayList w)
+    {
+      boolean same = v.size() == w.size();
+      for (int i=0; same && i<v.size(); i++)
+        same = v.get(i).equals(w.get(i));
+
+      if (!same)
+        throw new RuntimeException(operation+"("+length+") gave "+v+" instead of "+w);
+    }
 }
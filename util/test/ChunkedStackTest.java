@@ -0,0 +1,65 @@
+import hlt.language.util.ChunkedDoubleStack;
+import hlt.language.util.ChunkedIntStack;
+import hlt.language.util.ChunkedObjectStack;
+import hlt.language.util.ChunkedStack;
+
+public class ChunkedStackTest
+{
+  public static void main (String[] args)
+  {
+    ChunkedIntStack s = new ChunkedIntStack();
+
+    // enough elements to fill chunks of several sizes:
+    for (int i=0; i<200; i++)
+      s.push(i);
+
+    ChunkedStack.Mark mark = s.mark();
+
+    for (int i=0; i<50; i++)
+      s.pop();
+    s.push(-1);
+    s.push(-2);
+
+    System.out.println("after popping 50 and pushing 2: size = "+s.size()+", peek() = "+s.peek()
+                       +", peek(2) = "+s.peek(2));
+
+    // another stack restored to the mark sees none of the changes of the first:
+    ChunkedIntStack t = new ChunkedIntStack();
+    t.reset(mark);
+    t.push(200);
+
+    System.out.println("other stack reset to the mark: size = "+t.size()+", peek(1) = "+t.peek(1));
+
+    for (int i=200; i>=0; i--)
+      if (t.pop() != i)
+        throw new RuntimeException("the mark does not see element "+i);
+
+    if (s.pop() != -2 || s.pop() != -1 || s.pop() != 149 || s.size() != 149)
+      throw new RuntimeException("the first stack changed");
+
+    s.reset(mark);
+    if (s.size() != 200 || s.peek(199) != 0 || s.peek() != 199)
+      throw new RuntimeException("reset to the mark lost elements: "+s.size());
+
+    ChunkedDoubleStack d = new ChunkedDoubleStack();
+    d.push(0.5);
+    ChunkedStack.Mark dmark = d.mark();
+    d.pop();
+    d.push(1.5);
+    d.reset(dmark);
+
+    ChunkedObjectStack o = new ChunkedObjectStack();
+    o.push("a");
+    o.push("b");
+    ChunkedStack.Mark omark = o.mark();
+    o.pop();
+    o.push("c");
+
+    System.out.println("doubles: "+d+", objects: "+o);
+    o.reset(omark);
+    System.out.println("objects reset to the mark: "+o);
+
+    if (d.pop() != 0.5 || !"b".equals(o.pop()))
+      throw new RuntimeException("marks of doubles or objects lost their top");
+  }
+}
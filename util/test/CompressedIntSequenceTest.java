@@ -0,0 +1,48 @@
+import hlt.language.util.CompressedIntSequence;
+
+public class CompressedIntSequenceTest
+{
+  public static void main (String[] args)
+  {
+    // duplicates, and gaps spanning the whole range of ints:
+    CompressedIntSequence s = new CompressedIntSequence(new int[]
+      { Integer.MIN_VALUE, -5, -5, 0, 3, 1000, Integer.MAX_VALUE });
+
+    System.out.println("s = "+s+" ("+s.size()+" elements, "+s.sizeInBytes()+" bytes)");
+    System.out.println("s.get(2) = "+s.get(2)+", s.contains(3) = "+s.contains(3)
+                       +", s.contains(4) = "+s.contains(4));
+
+    if (s.get(0) != Integer.MIN_VALUE || s.last() != Integer.MAX_VALUE || !s.contains(-5))
+      throw new RuntimeException("wrong elements in "+s);
+
+    // the multiples of 3 below 900, over three blocks of 128:
+    int[] a = new int[300];
+    for (int i=0; i<a.length; i++)
+      a[i] = 3*i;
+    CompressedIntSequence t = new CompressedIntSequence(a);
+
+    for (int i=0; i<a.length; i++)
+      if (t.get(i) != a[i] || !t.contains(a[i]) || t.contains(a[i]+1))
+        throw new RuntimeException("wrong element at index "+i);
+
+    CompressedIntSequence.Cursor cursor = t.cursor();
+    cursor.advanceTo(380);
+    int next = cursor.next();
+    cursor.advanceTo(770);
+    System.out.println("advanceTo(380) -> "+next+", advanceTo(770) -> "+cursor.next()
+                       +", advanceTo(900) -> "+cursor.advanceTo(900));
+
+    if (next != 381)
+      throw new RuntimeException("cursor skipped to "+next);
+
+    CompressedIntSequence u = new CompressedIntSequence(new int[] { -5, 2, 3, 6, 999, 1000 });
+    System.out.println("s.intersect(u) = "+s.intersect(u));
+    System.out.println("s.union(u) = "+s.union(u));
+    System.out.println("t.intersect(u) = "+t.intersect(u));
+
+    if (!s.intersect(u).equals(new CompressedIntSequence(new int[] { -5, 3, 1000 }))
+        || t.intersect(u).size() != 2 || s.union(u).size() != 9
+        || !new CompressedIntSequence(new int[0]).intersect(t).isEmpty())
+      throw new RuntimeException("wrong intersection or union");
+  }
+}
@@ -0,0 +1,103 @@
+import hlt.language.util.ConcurrentIntToIntMap;
+
+/**
+ * Runs several threads on one map: each puts, reads back, and removes
+ * its own keys while reading those of the others, and all of them count
+ * into the shared keys <tt>0</tt> and <tt>-1</tt>. A key read from another
+ * thread must be either missing or mapped to its value.
+ */
+public class ConcurrentIntToIntMapTest
+{
+  static final int THREADS = 4;
+  static final int KEYS = 20000;
+  static final int COUNTS = 10000;
+
+  public static void main (String[] args) throws InterruptedException
+    {
+      final ConcurrentIntToIntMap map = new ConcurrentIntToIntMap(16,THREADS);
+      final RuntimeException[] failure = new RuntimeException[1];
+      Thread[] threads = new Thread[THREADS];
+
+      for (int t=0; t<THREADS; t++)
+        {
+          final int thread = t;
+          threads[t] = new Thread()
+            {
+              public void run ()
+                {
+                  try
+                    {
+                      work(map,thread);
+                    }
+                  catch (RuntimeException e)
+                    {
+                      failure[0] = e;
+                    }
+                }
+            };
+          threads[t].start();
+        }
+
+      for (int t=0; t<THREADS; t++)
+        threads[t].join();
+
+      if (failure[0] != null)
+        throw failure[0];
+
+      System.out.println("map[0] = "+map.get(0)+", map[-1] = "+map.get(-1)+", size = "+map.size());
+
+      if (map.get(0) != THREADS*COUNTS || map.get(-1) != THREADS*COUNTS)
+        throw new RuntimeException("lost increments");
+
+      for (int key=1; key<KEYS; key++)
+        if (map.get(key) != (key % 2 == 0 ? 2*key : ConcurrentIntToIntMap.NOT_FOUND_VALUE))
+          throw new RuntimeException("wrong mapping for key "+key+": "+map.get(key));
+
+      if (map.size() != 2 + (KEYS-1)/2)
+        throw new RuntimeException("wrong size: "+map.size());
+    }
+
+  /**
+   * Puts the keys from <tt>1</tt> to <tt>KEYS-1</tt> that belong to the
+   * specified thread, then removes the odd ones, checking every key of
+   * the other threads on the way, and counts into the shared keys.
+   */
+  static void work (ConcurrentIntToIntMap map, int thread)
+    {
+      for (int key=1; key<KEYS; key++)
+        {
+          if (key % THREADS == thread)
+            {
+              map.put(key,2*key);
+              if (map.get(key) != 2*key)
+                throw new RuntimeException("lost put of key "+key);
+            }
+          else
+            check(map,key);
+
+          if (key <= COUNTS)
+            {
+              map.addTo(0,1);
+              map.addTo(-1,1);
+            }
+        }
+
+      for (int key=1; key<KEYS; key++)
+        if (key % THREADS == thread && key % 2 == 1)
+          {
+            if (map.remove(key) != 2*key)
+              throw new RuntimeException("wrong removal of key "+key);
+            if (map.containsKey(key))
+              throw new RuntimeException("key "+key+" still there");
+          }
+        else
+          check(map,key);
+    }
+
+  static void check (ConcurrentIntToIntMap map, int key)
+    {
+      int value = map.get(key);
+      if (value != ConcurrentIntToIntMap.NOT_FOUND_VALUE && value != 2*key)
+        throw new RuntimeException("wrong value for key "+key+": "+value);
+    }
+}
@@ -0,0 +1,78 @@
+import hlt.language.util.DoubleArrayList;
+
+public class DoubleArrayListTest
+{
+  public static void main (String[] args)
+    {
+      DoubleArrayList v = new DoubleArrayList();
+
+      v.add(2.0);
+      v.add(0.0);
+      v.add(-0.0);
+      v.add(Double.NaN);
+      v.add(1.0);
+      v.add(1.0);
+      v.add(0.0);
+      v.add(2.0);
+
+      double[] keys = { 0.0, -0.0, Double.NaN, 1.0, 2.0, 3.0 };
+
+      System.out.println(v);
+      String unsorted = search(v,keys);
+      System.out.print(unsorted);
+
+      v.setSorted(true);
+
+      System.out.println(v);
+      String sorted = search(v,keys);
+      System.out.print(sorted);
+
+      if (!unsorted.equals(sorted))
+        throw new RuntimeException("searches differ in sorted mode");
+
+      DoubleArrayList zeros = new DoubleArrayList(new double[] { 0.0 });
+      DoubleArrayList negativeZeros = new DoubleArrayList(new double[] { -0.0 });
+      DoubleArrayList nans = new DoubleArrayList(new double[] { Double.NaN });
+
+      if (!zeros.equals(negativeZeros) || nans.equals(new DoubleArrayList(new double[] { Double.NaN })))
+        throw new RuntimeException("equals does not compare elements with ==");
+    }
+
+  /**
+   * Returns, for each of the specified keys, whether the specified list
+   * contains it, and how many of its elements are <tt>==</tt> to it as
+   * counted with <tt>indexOf</tt> and with <tt>lastIndexOf</tt>, checking
+   * that both counts are those of a scan with <tt>get</tt>. Since
+   * <tt>lastIndexOf(x,index)</tt> searches from <tt>index</tt> included,
+   * the backward count goes on from the index below the last one found.
+   */
+  static String search (DoubleArrayList v, double[] keys)
+    {
+      StringBuilder buf = new StringBuilder();
+
+      for (int k=0; k<keys.length; k++)
+        {
+          int forward = 0;
+          for (int i=v.indexOf(keys[k]); i >= 0; i=v.indexOf(keys[k],i+1))
+            forward++;
+
+          int backward = 0;
+          for (int i=v.lastIndexOf(keys[k]); i >= 0; i=i>0 ? v.lastIndexOf(keys[k],i-1) : -1)
+            backward++;
+
+          int count = 0;
+          for (int i=0; i<v.size(); i++)
+            if (v.get(i) == keys[k])
+              count++;
+
+          if (forward != count || backward != count)
+            throw new RuntimeException("found "+forward+"/"+backward+" occurrences of "
+                                       +keys[k]+" instead of "+count+" in "+v);
+
+          buf.append("  "+keys[k]+": contains = "+v.contains(keys[k])
+                     +", occurrences = "+forward+"/"+backward+"\n");
+        }
+
+      return buf.toString();
+    }
+}
@@ -0,0 +1,87 @@
+import hlt.language.util.FrozenObjectToIntMap;
+import hlt.language.util.HashStrategy;
+import hlt.language.util.IntToIntMap;
+import hlt.language.util.ObjectToIntMap;
+import hlt.language.util.ObjectToIntOpenMap;
+
+public class HashStrategyTest
+{
+  public static void main (String[] args)
+  {
+    HashStrategy caseless = new HashStrategy.Murmur()
+      {
+        public int hashCode (Object key)
+          {
+            return key == null ? 0 : ((String)key).toLowerCase().hashCode();
+          }
+
+        public boolean equals (Object key1, Object key2)
+          {
+            return key1 == null ? key2 == null
+                                : key2 != null && ((String)key1).equalsIgnoreCase((String)key2);
+          }
+      };
+
+    ObjectToIntMap chained = new ObjectToIntMap(4,caseless);
+    ObjectToIntOpenMap open = new ObjectToIntOpenMap(4,caseless);
+
+    for (int i=0; i<100; i++)
+      {
+        chained.put("Key"+i,i);
+        open.put("KEY"+i,i);
+      }
+
+    FrozenObjectToIntMap frozenChained = chained.freeze();
+    FrozenObjectToIntMap frozenOpen = open.freeze();
+
+    System.out.println("chained[kEy7] = "+chained.get("kEy7")+", open[key7] = "+open.get("key7")
+                       +", frozen chained[KEY7] = "+frozenChained.get("KEY7")
+                       +", frozen open[Key7] = "+frozenOpen.get("Key7"));
+
+    for (int i=0; i<100; i++)
+      if (chained.get("kEy"+i) != i || open.get("key"+i) != i
+          || frozenChained.get("KEY"+i) != i || frozenOpen.get("Key"+i) != i)
+        throw new RuntimeException("custom equality not honored for key "+i);
+
+    if (chained.size() != 100 || open.size() != 100
+        || new ObjectToIntMap(chained).hashStrategy() != caseless)
+      throw new RuntimeException("custom equality not kept");
+
+    // maps equal under the strategy have the same hash code:
+    ObjectToIntMap upper = new ObjectToIntMap(4,caseless);
+    ObjectToIntOpenMap lower = new ObjectToIntOpenMap(4,caseless);
+    upper.put("ABC",1);
+    lower.put("abc",1);
+
+    System.out.println(upper+" equals "+lower+": "+upper.isEqualTo(lower)
+                       +", same hash code: "+(upper.hashCode() == lower.hashCode()));
+
+    if (!upper.isEqualTo(lower) || upper.hashCode() != lower.hashCode()
+        || upper.freeze().hashCode() != lower.hashCode())
+      throw new RuntimeException("hash code does not follow the strategy");
+
+    // equal strings are different keys for an identity map:
+    ObjectToIntMap identity = new ObjectToIntMap(4,HashStrategy.IDENTITY);
+    String key = "key";
+    identity.put(key,1);
+    identity.put(new String(key),2);
+
+    System.out.println("identity map: size = "+identity.size()+", [key] = "+identity.get(key)
+                       +", [copy of key] = "+identity.get(new String(key)));
+
+    if (identity.size() != 2 || identity.get(key) != 1 || identity.containsKey(new String(key)))
+      throw new RuntimeException("identity not honored");
+
+    // keys with a common stride, which all share their low bits:
+    for (HashStrategy strategy : new HashStrategy[]
+           { HashStrategy.PLAIN, HashStrategy.MURMUR, HashStrategy.XXHASH })
+      {
+        IntToIntMap strided = new IntToIntMap(4,strategy);
+        for (int i=0; i<1000; i++) strided.put(i << 10,i);
+        for (int i=0; i<1000; i++)
+          if (strided.get(i << 10) != i)
+            throw new RuntimeException(strategy+": lookup mismatch for key "+(i << 10));
+        System.out.println(strategy+": [5 << 10] = "+strided.get(5 << 10)+", size = "+strided.size());
+      }
+  }
+}
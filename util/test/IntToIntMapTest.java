@@ -16,6 +16,41 @@ public class IntToIntMapTest
     System.out.println("table[3] = "+table.get(3));
     System.out.println("table[4] = "+table.get(4));
     System.out.println("table[5] = "+table.get(5));
+
+    incremental();
+  }
+
+  /**
+   * Checks that an incremental rehash is completed by lookups alone, and
+   * that lookups made while traversing a map being rehashed are safe.
+   */
+  static void incremental ()
+  {
+    IntToIntMap table = new IntToIntMap(11);
+    table.setIncrementalRehash(2);
+
+    int size = 0;
+    for (; !table.isRehashing(); size++)
+      table.put(size,size);
+
+    int lookups = 0;
+    while (table.isRehashing())
+      if (table.get(lookups++ % size) == IntToIntMap.NOT_FOUND_VALUE)
+        throw new RuntimeException("lost a key during the rehash");
+
+    System.out.println("rehash of "+size+" keys completed by "+lookups+" lookups");
+
+    for (; !table.isRehashing(); size++)
+      table.put(size,size);
+
+    final int[] count = new int[1];
+    final IntToIntMap map = table;
+    table.forEachKey(key -> { if (map.containsKey(key)) count[0]++; });
+
+    if (count[0] != size || table.size() != size)
+      throw new RuntimeException("traversed "+count[0]+" keys out of "+size);
+
+    System.out.println("traversal with lookups found all "+size+" keys");
   }
 }
     
@@ -0,0 +1,51 @@
+import hlt.language.util.IntToIntMap;
+import hlt.language.util.IntToIntOpenMap;
+
+public class IntToIntOpenMapTest
+{
+  public static void main (String[] args)
+  {
+    IntToIntOpenMap table = new IntToIntOpenMap();
+
+    table.put(4,2);
+    table.put(3,6);
+    table.put(2,8);
+    table.put(1,0);
+    table.put(0,5);
+
+    System.out.println("table[0] = "+table.get(0));
+    System.out.println("table[1] = "+table.get(1));
+    System.out.println("table[2] = "+table.get(2));
+    System.out.println("table[3] = "+table.get(3));
+    System.out.println("table[4] = "+table.get(4));
+    System.out.println("table[5] = "+table.get(5));
+
+    // keys sharing their low bits, so that they probe past one another,
+    // and removals in the middle of the probe sequences:
+    IntToIntMap chained = new IntToIntMap();
+    for (int i=0; i<1000; i++)
+      {
+        table.put(i << 16,i);
+        chained.put(i << 16,i);
+      }
+
+    for (int i=0; i<1000; i+=3)
+      {
+        if (table.remove(i << 16) != i)
+          throw new RuntimeException("wrong removal of key "+(i << 16));
+        chained.remove(i << 16);
+      }
+
+    for (int i=0; i<1000; i++)
+      if (table.get(i << 16) != (i % 3 == 0 ? IntToIntOpenMap.NOT_FOUND_VALUE : i))
+        throw new RuntimeException("wrong value for key "+(i << 16)+": "+table.get(i << 16));
+
+    System.out.println("table.size() = "+table.size()+", table[3 << 16] = "+table.get(3 << 16)
+                       +", table[4 << 16] = "+table.get(4 << 16));
+
+    for (int i=1; i<5; i++) chained.put(i,table.get(i));
+
+    if (!new IntToIntOpenMap(chained).equals(table))
+      throw new RuntimeException("table differs from "+chained);
+  }
+}
@@ -0,0 +1,46 @@
+import hlt.language.util.IntToIntTreeMap;
+import hlt.language.util.IntIterator;
+
+public class IntToIntTreeMapTest
+{
+  public static void main (String[] args)
+  {
+    IntToIntTreeMap tree = new IntToIntTreeMap();
+
+    // enough keys, in scrambled order, to split nodes on several levels:
+    for (int i=0; i<1000; i++)
+      {
+        int key = (i*7919) % 1000 * 2;
+        tree.put(key,-key);
+      }
+
+    System.out.println("firstKey = "+tree.firstKey()+", lastKey = "+tree.lastKey()
+                       +", size = "+tree.size());
+    System.out.println("floorKey(101) = "+tree.floorKey(101)+", ceilingKey(101) = "
+                       +tree.ceilingKey(101)+", tree[102] = "+tree.get(102));
+
+    // removing most keys merges nodes back:
+    for (int key=0; key<2000; key+=2)
+      if (key % 10 != 0 && tree.remove(key) != -key)
+        throw new RuntimeException("wrong removal of key "+key);
+
+    System.out.println("floorKey(101) = "+tree.floorKey(101)+", ceilingKey(101) = "
+                       +tree.ceilingKey(101)+", tree[102] = "+tree.get(102));
+
+    int expected = 0;
+    for (IntIterator i=tree.keys(); i.hasNext(); expected+=10)
+      if (i.next() != expected)
+        throw new RuntimeException("keys out of order at "+expected);
+
+    if (expected != 2000 || tree.size() != 200)
+      throw new RuntimeException("wrong size: "+tree.size());
+
+    System.out.print("subMap(95,150) =");
+    for (IntIterator i=tree.subMap(95,150).keys(); i.hasNext();)
+      System.out.print(" "+i.next());
+    System.out.println();
+
+    if (tree.subMap(95,150).size() != 5 || tree.subMap(150,95).size() != 0)
+      throw new RuntimeException("wrong subMap size");
+  }
+}
@@ -0,0 +1,111 @@
+import hlt.language.util.HashStrategy;
+import hlt.language.util.IntIterator;
+import hlt.language.util.PersistentIntToIntMap;
+import hlt.language.util.PersistentObjectToIntMap;
+import hlt.language.util.VersionedIntToIntMap;
+import hlt.language.util.VersionedObjectToIntMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class VersionedMapTest
+{
+  public static void main (String[] args) throws InterruptedException
+  {
+    VersionedIntToIntMap map = new VersionedIntToIntMap();
+
+    for (int i=1; i<=1000; i++)
+      map.put(i,i);
+
+    PersistentIntToIntMap before = map.snapshot();
+
+    for (int i=1; i<=1000; i++)
+      if (i % 3 == 0)
+        map.remove(i);
+      else if (i % 2 == 0)
+        map.put(i,-i);
+
+    PersistentIntToIntMap after = map.snapshot();
+    map.put(2,0);
+
+    System.out.println("before: size = "+before.size()+", [2] = "+before.get(2)+", [3] = "+before.get(3));
+    System.out.println("after:  size = "+after.size()+", [2] = "+after.get(2)+", [3] = "+after.get(3));
+    System.out.println("map:    size = "+map.size()+", [2] = "+map.get(2)+", [3] = "+map.get(3));
+
+    for (int i=1; i<=1000; i++)
+      if (before.get(i) != i
+          || after.get(i) != (i % 3 == 0 ? PersistentIntToIntMap.NOT_FOUND_VALUE : i % 2 == 0 ? -i : i))
+        throw new RuntimeException("a snapshot changed at key "+i);
+
+    // a strategy making all the keys of a length collide:
+    VersionedObjectToIntMap strings = new VersionedObjectToIntMap(new HashStrategy.Murmur()
+      {
+        public int hashCode (Object key)
+          {
+            return ((String)key).length();
+          }
+      });
+
+    strings.put("ab",1);
+    strings.put("cd",2);
+    strings.put("ef",3);
+    PersistentObjectToIntMap snapshot = strings.snapshot();
+    strings.remove(new String("cd"));
+    strings.put("ef",4);
+
+    System.out.println("snapshot = "+snapshot+", strings = "+strings);
+
+    if (snapshot.get("cd") != 2 || snapshot.get("ef") != 3 || strings.containsKey("cd")
+        || strings.get("ef") != 4 || strings.get("ab") != 1)
+      throw new RuntimeException("colliding keys mixed up");
+
+    checkReaders(1000,200000,2);
+  }
+
+  /**
+   * Checks that readers taking snapshots while a writer maps <tt>i % keys</tt>
+   * to <tt>i</tt>, for increasing <tt>i</tt>, always see whole versions: in
+   * such a version, every key <tt>k</tt> has a value congruent to <tt>k</tt>
+   * within <tt>keys</tt> of the greatest.
+   */
+  static void checkReaders (int keys, int updates, int readerCount) throws InterruptedException
+  {
+    VersionedIntToIntMap map = new VersionedIntToIntMap();
+    for (int i=0; i<keys; i++)
+      map.put(i,i);
+
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicBoolean failed = new AtomicBoolean();
+    Thread[] readers = new Thread[readerCount];
+
+    for (int r=0; r<readerCount; r++)
+      {
+        readers[r] = new Thread(() ->
+          {
+            while (!done.get())
+              {
+                PersistentIntToIntMap snapshot = map.snapshot();
+                int max = Integer.MIN_VALUE;
+                for (IntIterator values = snapshot.values(); values.hasNext();)
+                  max = Math.max(max,values.next());
+                int least = max - keys;
+
+                if (snapshot.size() != keys
+                    || !snapshot.forEachEntryWhile((key,value) -> value % keys == key && value > least))
+                  failed.set(true);
+              }
+          });
+        readers[r].start();
+      }
+
+    for (int i=keys; i<updates; i++)
+      map.put(i % keys,i);
+
+    done.set(true);
+    for (int r=0; r<readerCount; r++)
+      readers[r].join();
+
+    if (failed.get())
+      throw new RuntimeException("a reader saw a partial update");
+
+    System.out.println(readerCount+" readers saw whole versions during "+updates+" updates");
+  }
+}